@@ -0,0 +1,23 @@
+package com.bvcott.airlines.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.repository.AirlineRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+public class AirlineLookupCache extends ReferenceLookupCache<Airline> {
+    public AirlineLookupCache(AirlineRepository airlineRepo,
+            @Value("${airlines.reference-cache.maximum-size:10000}") long maximumSize,
+            @Value("${airlines.reference-cache.expire-after-write:10m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        super("airline", maximumSize, expireAfterWrite, meterRegistry,
+                airlineRepo::findById, airlineRepo::findByCode, airlineRepo::findByName,
+                Airline::getId, Airline::getCode, Airline::getName);
+    }
+}
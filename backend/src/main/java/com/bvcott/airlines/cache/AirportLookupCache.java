@@ -0,0 +1,23 @@
+package com.bvcott.airlines.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.repository.AirportRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+public class AirportLookupCache extends ReferenceLookupCache<Airport> {
+    public AirportLookupCache(AirportRepository airportRepo,
+            @Value("${airlines.reference-cache.maximum-size:10000}") long maximumSize,
+            @Value("${airlines.reference-cache.expire-after-write:10m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        super("airport", maximumSize, expireAfterWrite, meterRegistry,
+                airportRepo::findById, airportRepo::findByCode, airportRepo::findByName,
+                Airport::getId, Airport::getCode, Airport::getName);
+    }
+}
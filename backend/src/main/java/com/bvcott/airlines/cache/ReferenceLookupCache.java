@@ -0,0 +1,94 @@
+package com.bvcott.airlines.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded near-cache for reference data looked up by id, code and name.
+ * Misses are cached too, so repeated uniqueness checks for new codes don't go
+ * back to the database; callers must {@link #invalidate} every key an entity
+ * had before and after a write.
+ */
+public abstract class ReferenceLookupCache<T> {
+    private final Function<UUID, Optional<T>> idLoader;
+    private final LoadingCache<UUID, Optional<T>> byId;
+    private final LoadingCache<String, Optional<T>> byCode;
+    private final LoadingCache<String, Optional<T>> byName;
+    private final Function<T, UUID> idOf;
+    private final Function<T, String> codeOf;
+    private final Function<T, String> nameOf;
+
+    protected ReferenceLookupCache(String entity, long maximumSize, Duration expireAfterWrite, MeterRegistry meterRegistry,
+            Function<UUID, Optional<T>> idLoader, Function<String, Optional<T>> codeLoader, Function<String, Optional<T>> nameLoader,
+            Function<T, UUID> idOf, Function<T, String> codeOf, Function<T, String> nameOf) {
+        this.idLoader = idLoader;
+        this.byId = build(maximumSize, expireAfterWrite, idLoader::apply);
+        this.byCode = build(maximumSize, expireAfterWrite, codeLoader::apply);
+        this.byName = build(maximumSize, expireAfterWrite, nameLoader::apply);
+        this.idOf = idOf;
+        this.codeOf = codeOf;
+        this.nameOf = nameOf;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "reference." + entity + ".id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byCode, "reference." + entity + ".code");
+        CaffeineCacheMetrics.monitor(meterRegistry, byName, "reference." + entity + ".name");
+    }
+
+    private static <K, V> LoadingCache<K, V> build(long maximumSize, Duration expireAfterWrite,
+            CacheLoader<K, V> loader) {
+        return Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build(loader);
+    }
+
+    public Optional<T> findById(UUID id) {
+        // Transient entities have no id yet; nothing worth caching for those.
+        return id == null ? idLoader.apply(null) : byId.get(id);
+    }
+
+    public Optional<T> findByCode(String code) {
+        return code == null ? Optional.empty() : byCode.get(code);
+    }
+
+    public Optional<T> findByName(String name) {
+        return name == null ? Optional.empty() : byName.get(name);
+    }
+
+    public void invalidate(T entity) {
+        if(entity == null) {
+            return;
+        }
+        if(idOf.apply(entity) != null) {
+            byId.invalidate(idOf.apply(entity));
+        }
+        if(codeOf.apply(entity) != null) {
+            byCode.invalidate(codeOf.apply(entity));
+        }
+        if(nameOf.apply(entity) != null) {
+            byName.invalidate(nameOf.apply(entity));
+        }
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byCode.invalidateAll();
+        byName.invalidateAll();
+    }
+
+    public Map<String, CacheStats> stats() {
+        return Map.of("id", byId.stats(), "code", byCode.stats(), "name", byName.stats());
+    }
+}
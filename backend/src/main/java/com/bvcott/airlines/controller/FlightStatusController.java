@@ -0,0 +1,156 @@
+package com.bvcott.airlines.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.bvcott.airlines.event.FlightStatusChange;
+import com.bvcott.airlines.exception.FlightNotFoundException;
+import com.bvcott.airlines.model.FlightStatus;
+import com.bvcott.airlines.service.FlightStatusService;
+import com.bvcott.airlines.service.FlightStatusStream;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Flight status over HTTP, including server-sent event streams of status
+ * changes for one flight or for all of them. Each stream is a subscriber of
+ * the {@link FlightStatusStream}, so a slow client only misses intermediate
+ * statuses and never holds up other clients. Writes to clients happen on a
+ * pool of their own, never on the stream's delivery threads, since a write
+ * blocks for as long as the client takes to read it.
+ */
+@RestController
+@RequestMapping("/api/flights")
+public class FlightStatusController {
+    private static final Logger log = LoggerFactory.getLogger(FlightStatusController.class);
+    static final String EVENT_NAME = "flight-status";
+
+    private final FlightStatusService statusService;
+    private final FlightStatusStream statusStream;
+    private final Duration streamTimeout;
+    private final ExecutorService sendPool;
+
+    FlightStatusController(FlightStatusService statusService, FlightStatusStream statusStream,
+            @Value("${airlines.flight-status.stream-timeout:30m}") Duration streamTimeout) {
+        this.statusService = statusService;
+        this.statusStream = statusStream;
+        this.streamTimeout = streamTimeout;
+
+        // Grows with the clients being written to at once; each stream is drained by one task at a time.
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sendPool = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "flight-status-send-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sendPool.shutdownNow();
+    }
+
+    @GetMapping("/{flightId}/status")
+    public FlightStatus status(@PathVariable UUID flightId) {
+        return statusService.currentStatus(flightId);
+    }
+
+    @PutMapping("/{flightId}/status")
+    public FlightStatusChange updateStatus(@PathVariable UUID flightId, @RequestBody FlightStatus status) {
+        return statusService.updateStatus(flightId, status);
+    }
+
+    @GetMapping(path = "/{flightId}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFlight(@PathVariable UUID flightId) {
+        FlightStatusClient client = new FlightStatusClient(new SseEmitter(streamTimeout.toMillis()), flightId);
+        FlightStatusStream.Subscription subscription = subscribe(client);
+        // Read after subscribing, so no change can fall between the first event and the stream; a change
+        // delivered before this snapshot is newer than it, and the client then drops the snapshot.
+        FlightStatusChange current;
+        try {
+            current = statusService.currentStatusChange(flightId);
+        } catch(FlightNotFoundException e) {
+            subscription.cancel();
+            throw e;
+        }
+        client.send(current);
+        return client.emitter;
+    }
+
+    @GetMapping(path = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAll() {
+        FlightStatusClient client = new FlightStatusClient(new SseEmitter(streamTimeout.toMillis()), null);
+        subscribe(client);
+        return client.emitter;
+    }
+
+    @ExceptionHandler(FlightNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public String flightNotFound(FlightNotFoundException e) {
+        return e.getMessage();
+    }
+
+    private FlightStatusStream.Subscription subscribe(FlightStatusClient client) {
+        FlightStatusStream.Subscription subscription = statusStream.subscribe(client.flightId, client::send, sendPool);
+        client.emitter.onCompletion(subscription::cancel);
+        client.emitter.onTimeout(subscription::cancel);
+        client.emitter.onError(e -> subscription.cancel());
+        return subscription;
+    }
+
+    /**
+     * One client's stream, of one flight or of all flights when
+     * {@code flightId} is null. Sends are serialised; on a single-flight
+     * stream a change older than the last one sent is dropped, so the
+     * snapshot sent on connect can't replace a newer status.
+     */
+    private static final class FlightStatusClient {
+        private final SseEmitter emitter;
+        private final UUID flightId;
+        private Instant lastChangedAt;
+
+        FlightStatusClient(SseEmitter emitter, UUID flightId) {
+            this.emitter = emitter;
+            this.flightId = flightId;
+        }
+
+        /** Failures are rethrown unchecked, which makes the stream cancel the subscription of a client that has gone. */
+        synchronized void send(FlightStatusChange change) {
+            if(flightId != null) {
+                if(lastChangedAt != null && change.changedAt().isBefore(lastChangedAt)) {
+                    log.debug("Dropping flight status {} older than the one already sent.", change);
+                    return;
+                }
+                lastChangedAt = change.changedAt();
+            }
+
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(change, MediaType.APPLICATION_JSON));
+            } catch(IOException | IllegalStateException e) {
+                log.debug("Flight status client went away: {}", e.getMessage());
+                emitter.completeWithError(e);
+                throw new IllegalStateException("Flight status client went away", e);
+            }
+        }
+    }
+}
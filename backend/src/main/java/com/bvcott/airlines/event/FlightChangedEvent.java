@@ -0,0 +1,21 @@
+package com.bvcott.airlines.event;
+
+import java.util.UUID;
+
+import com.bvcott.airlines.model.Flight;
+
+/**
+ * Published by the flight service after a flight has been persisted or
+ * removed, so in-memory views of the schedule can update themselves.
+ */
+public record FlightChangedEvent(Flight flight, ChangeType type) {
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public UUID flightId() {
+        return flight.getId();
+    }
+}
@@ -0,0 +1,10 @@
+package com.bvcott.airlines.event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.bvcott.airlines.model.FlightStatus;
+
+/** A flight's new status, as delivered to flight status subscribers. */
+public record FlightStatusChange(UUID flightId, FlightStatus status, Instant changedAt) {
+}
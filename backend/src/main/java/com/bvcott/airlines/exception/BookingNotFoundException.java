@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class BookingNotFoundException extends RuntimeException {
+    public BookingNotFoundException(String message) {
+        super(message);
+    }
+}
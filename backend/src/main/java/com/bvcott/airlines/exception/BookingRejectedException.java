@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class BookingRejectedException extends RuntimeException {
+    public BookingRejectedException(String message) {
+        super(message);
+    }
+}
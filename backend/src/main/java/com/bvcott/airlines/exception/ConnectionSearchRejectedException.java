@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class ConnectionSearchRejectedException extends RuntimeException {
+    public ConnectionSearchRejectedException(String message) {
+        super(message);
+    }
+}
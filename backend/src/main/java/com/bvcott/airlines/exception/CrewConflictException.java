@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class CrewConflictException extends RuntimeException {
+    public CrewConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class FlightNotFoundException extends RuntimeException {
+    public FlightNotFoundException(String message) {
+        super(message);
+    }
+}
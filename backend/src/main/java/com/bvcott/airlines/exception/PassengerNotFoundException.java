@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class PassengerNotFoundException extends RuntimeException {
+    public PassengerNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class PaymentGatewayException extends RuntimeException {
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+}
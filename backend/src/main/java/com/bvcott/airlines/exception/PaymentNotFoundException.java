@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class PaymentNotFoundException extends RuntimeException {
+    public PaymentNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class SeatHoldNotFoundException extends RuntimeException {
+    public SeatHoldNotFoundException(String message) {
+        super(message);
+    }
+}
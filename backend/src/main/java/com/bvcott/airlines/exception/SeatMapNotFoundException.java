@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class SeatMapNotFoundException extends RuntimeException {
+    public SeatMapNotFoundException(String message) {
+        super(message);
+    }
+}
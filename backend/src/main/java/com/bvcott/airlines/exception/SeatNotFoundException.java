@@ -0,0 +1,7 @@
+package com.bvcott.airlines.exception;
+
+public class SeatNotFoundException extends RuntimeException {
+    public SeatNotFoundException(String message) {
+        super(message);
+    }
+}
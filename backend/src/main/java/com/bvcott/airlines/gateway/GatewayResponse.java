@@ -0,0 +1,5 @@
+package com.bvcott.airlines.gateway;
+
+/** The gateway's decision on a charge and its reference for it. */
+public record GatewayResponse(boolean approved, String reference) {
+}
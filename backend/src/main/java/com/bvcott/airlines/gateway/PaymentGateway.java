@@ -0,0 +1,22 @@
+package com.bvcott.airlines.gateway;
+
+import java.util.UUID;
+
+/**
+ * An external payment provider. A charge may be sent again for the same
+ * payment after a lost response, so implementations pass {@code paymentId} to
+ * the provider as its idempotency key and a repeat returns the first answer
+ * rather than charging twice.
+ * <p>
+ * Exactly one implementation must be registered as a bean; the application
+ * does not start without one. The simulated gateway fills in for local runs
+ * and is switched off by the {@code prod} profile.
+ */
+public interface PaymentGateway {
+    /**
+     * Charges {@code amount} for the payment. Throws
+     * {@link com.bvcott.airlines.exception.PaymentGatewayException} when the
+     * outcome is unknown and the charge should be tried again.
+     */
+    GatewayResponse charge(UUID paymentId, double amount);
+}
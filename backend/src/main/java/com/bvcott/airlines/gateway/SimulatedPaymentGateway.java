@@ -0,0 +1,91 @@
+package com.bvcott.airlines.gateway;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.bvcott.airlines.exception.PaymentGatewayException;
+
+/**
+ * In-process stand-in for a payment provider. Every call takes
+ * {@code latency}; a {@code declineRate} share of charges is declined and a
+ * {@code failureRate} share of calls loses its response after the charge was
+ * made, which is the case that makes idempotent retries matter. Charges are
+ * remembered per payment, so a retry gets the original answer.
+ * <p>
+ * Only registered when {@code airlines.payment-gateway.simulated=true}, the
+ * default for local runs. The {@code prod} profile turns it off, so a
+ * deployment without a real gateway fails at startup instead of marking
+ * payments completed without charging them.
+ */
+@Component
+@ConditionalOnProperty(name = "airlines.payment-gateway.simulated", havingValue = "true")
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private static final Logger log = LoggerFactory.getLogger(SimulatedPaymentGateway.class);
+
+    private final long latencyNanos;
+    private final double failureRate;
+    private final double declineRate;
+    private final ConcurrentMap<UUID, GatewayResponse> charges = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public SimulatedPaymentGateway(@Value("${airlines.payment-gateway.latency:50ms}") Duration latency,
+            @Value("${airlines.payment-gateway.failure-rate:0.0}") double failureRate,
+            @Value("${airlines.payment-gateway.decline-rate:0.0}") double declineRate) {
+        this.latencyNanos = latency.toNanos();
+        this.failureRate = failureRate;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public GatewayResponse charge(UUID paymentId, double amount) {
+        log.debug("charge method called with payment ID: {} and amount: {}", paymentId, amount);
+        calls.increment();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(latencyNanos);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            GatewayResponse response = charges.computeIfAbsent(paymentId,
+                    id -> new GatewayResponse(random.nextDouble() >= declineRate, "SIM-" + id));
+
+            if(random.nextDouble() < failureRate) {
+                log.warn("Simulated gateway dropping the response for payment {}.", paymentId);
+                throw new PaymentGatewayException("Gateway response lost for payment " + paymentId);
+            }
+            return response;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while charging payment " + paymentId);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /** Distinct payments charged, however many times each was sent. */
+    public int chargeCount() {
+        return charges.size();
+    }
+
+    public long callCount() {
+        return calls.sum();
+    }
+
+    public int maxConcurrentCalls() {
+        return maxInFlight.get();
+    }
+}
@@ -0,0 +1,17 @@
+package com.bvcott.airlines.generator;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Rows written per table, in insert order, and the wall-clock time taken.
+ */
+public record GenerationReport(Map<String, Long> rows, Duration elapsed) {
+    public long totalRows() {
+        return rows.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public double rowsPerSecond() {
+        return elapsed.isZero() ? 0 : totalRows() / (elapsed.toNanos() / 1e9);
+    }
+}
@@ -0,0 +1,24 @@
+package com.bvcott.airlines.generator;
+
+import java.time.LocalDate;
+
+/**
+ * Size and shape of a synthetic data set. Flights are spread over
+ * {@code days} days starting at {@code firstDay}; {@code loadFactor} is the
+ * mean share of seats sold per flight.
+ */
+public record GeneratorSpec(int airlines, int airports, int flights, int passengers, int days, LocalDate firstDay,
+        double loadFactor, long seed, int threads) {
+
+    public GeneratorSpec {
+        if(airlines < 1 || airports < 2 || flights < 0 || passengers < 1 || days < 1 || threads < 1) {
+            throw new IllegalArgumentException("Generator needs at least one airline, two airports, one passenger, one day and one thread.");
+        }
+        if(loadFactor < 0 || loadFactor > 1) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1");
+        }
+        if(firstDay == null) {
+            throw new IllegalArgumentException("First day is required");
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package com.bvcott.airlines.generator;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.random.RandomGenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.bvcott.airlines.model.Passenger;
+import com.bvcott.airlines.model.id.UuidV7;
+import com.bvcott.airlines.service.TicketNumberAllocator;
+
+/**
+ * Seeded synthetic schedule and booking data, written straight through JDBC
+ * batches. Passengers and flights are generated in fixed-size chunks on a
+ * worker pool; every chunk draws from its own random stream derived from the
+ * seed, so the same spec produces the same data set whatever the thread
+ * count. Only the time-ordered ids and the ticket numbers differ between runs.
+ * <p>
+ * Crew are drawn from a pool per airline and chunk: each flight takes the
+ * members who have been free longest, honouring the same report, release
+ * and rest times as the crew roster, and only hires when nobody is free. A
+ * crew member therefore flies several flights, never two that conflict.
+ * <p>
+ * Meant for an empty database: airline and airport codes are assigned from
+ * {@code AA}/{@code AAA} upwards and will clash with existing rows.
+ */
+@Component
+public class SyntheticDataGenerator {
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    static final int FLIGHTS_PER_CHUNK = 200;
+    static final int PASSENGERS_PER_CHUNK = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final long STREAM_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private static final double HUB_SHARE = 0.4;
+    private static final double CANCELLED_SHARE = 0.03;
+    private static final double PENDING_SHARE = 0.02;
+    private static final double BUSINESS_FARE_MULTIPLIER = 3.5;
+    private static final int MAX_BLOCK_MINUTES = 17 * 60;
+
+    private static final String SEAT_LETTERS = "ABCDEFGHJK";
+    private static final String[] FIRST_NAMES = { "Ana", "Ben", "Carla", "David", "Elena", "Farid", "Grace", "Hiro", "Ines",
+            "James", "Kofi", "Lucia", "Mateo", "Nadia", "Oliver", "Priya", "Quentin", "Rosa", "Samir", "Tara", "Umar", "Vera",
+            "Wei", "Yara" };
+    private static final String[] LAST_NAMES = { "Afonso", "Brown", "Costa", "Dubois", "Evans", "Fischer", "Garcia", "Hansen",
+            "Ito", "Jensen", "Kowalski", "Lopez", "Moreau", "Nakamura", "Novak", "Okafor", "Patel", "Rossi", "Silva", "Tanaka",
+            "Weber", "Zhang" };
+    private static final String[] COUNTRIES = { "United Kingdom", "Spain", "France", "Germany", "Italy", "Portugal",
+            "Netherlands", "Ireland", "United States", "Canada", "Brazil", "Japan", "India", "Australia", "South Africa", "Turkey" };
+    private static final String[] AIRLINE_WORDS = { "Atlantic", "Northern", "Coastal", "Continental", "Pacific", "Alpine",
+            "Sun", "Capital" };
+
+    /** Tables in foreign key order; each chunk is written in this order. */
+    private enum Table {
+        AIRLINE("insert into airline (id, name, code) values (?, ?, ?)"),
+        AIRPORT("insert into airport (id, code, name, location) values (?, ?, ?, ?)"),
+        PASSENGER("insert into passenger (id, name, passport_number, passport_hash) values (?, ?, ?, ?)"),
+        FLIGHT("insert into flight (id, flight_number, departure_time, arrival_time, origin_id, destination_id, airline_id, version) "
+                + "values (?, ?, ?, ?, ?, ?, ?, 0)"),
+        CREW_MEMBER("insert into crew_member (id, name, role) values (?, ?, ?)"),
+        CREW_ASSIGNMENT("insert into crew_assignment (crew_member_id, flight_id) values (?, ?)"),
+        BOOKING("insert into booking (id, flight_id, status, version) values (?, ?, ?, 0)"),
+        BOOKING_PASSENGERS("insert into booking_passengers (bookings_id, passengers_id) values (?, ?)"),
+        SEAT("insert into seat (id, flight_id, seat_number, seat_class, is_available, seat_id, version) values (?, ?, ?, ?, ?, ?, 0)"),
+        TICKET("insert into ticket (id, ticket_number, booking_id, passenger_id, price_minor_units, price_currency) values (?, ?, ?, ?, ?, ?)"),
+        PAYMENT("insert into payment (id, booking_id, amount, status) values (?, ?, ?, ?)");
+
+        private final String insert;
+
+        Table(String insert) {
+            this.insert = insert;
+        }
+    }
+
+    /** Regional, narrow-body and wide-body cabins, picked with these weights. */
+    private record Cabin(int rows, int abreast, int businessRows, int pilots, double weight) {
+        int seats() {
+            return rows * abreast;
+        }
+    }
+
+    /** A generated flight waiting for its crew; {@code index} keeps the order stable between equal departures. */
+    private record Leg(int index, UUID flightId, int airline, LocalDateTime departure, LocalDateTime arrival, Cabin cabin) {}
+
+    /** A pooled crew member and when they may next report for duty. */
+    private record Available(UUID crewMemberId, LocalDateTime from, int hired) {}
+
+    private static final List<Cabin> CABINS = List.of(
+            new Cabin(19, 4, 0, 2, 0.25),
+            new Cabin(30, 6, 4, 2, 0.60),
+            new Cabin(36, 9, 6, 3, 0.15));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TicketNumberAllocator ticketNumbers;
+    private final CrewRules crewRules;
+    private final Currency fareCurrency;
+
+    SyntheticDataGenerator(JdbcTemplate jdbcTemplate, TicketNumberAllocator ticketNumbers,
+            @Value("${airlines.fares.currency:EUR}") String fareCurrency,
+            @Value("${airlines.crew.report-before-departure:1h}") Duration reportBeforeDeparture,
+            @Value("${airlines.crew.release-after-arrival:30m}") Duration releaseAfterArrival,
+            @Value("${airlines.crew.minimum-rest:10h}") Duration minimumRest) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ticketNumbers = ticketNumbers;
+        this.crewRules = new CrewRules(reportBeforeDeparture, releaseAfterArrival, minimumRest);
+        this.fareCurrency = Currency.getInstance(fareCurrency);
+    }
+
+    private record CrewRules(Duration reportBeforeDeparture, Duration releaseAfterArrival, Duration minimumRest) {}
+
+    public GenerationReport generate(GeneratorSpec spec) {
+        log.debug("generate method called with spec: {}", spec);
+        long started = System.nanoTime();
+        Map<Table, LongAdder> counts = new EnumMap<>(Table.class);
+        for(Table table : Table.values()) {
+            counts.put(table, new LongAdder());
+        }
+
+        Generation generation = new Generation(spec, ticketNumbers, crewRules, fareCurrency);
+        write(generation.referenceData(), counts);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(spec.threads(), runnable -> {
+            Thread thread = new Thread(runnable, "data-generator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Every flight chunk books existing passengers, so they all go in first.
+            runChunks(workers, "passenger", chunks(spec.passengers(), PASSENGERS_PER_CHUNK), generation::passengers, counts);
+            runChunks(workers, "flight", chunks(spec.flights(), FLIGHTS_PER_CHUNK), generation::flights, counts);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Map<String, Long> rows = new LinkedHashMap<>();
+        counts.forEach((table, count) -> rows.put(table.name().toLowerCase(Locale.ROOT), count.sum()));
+        GenerationReport report = new GenerationReport(rows, Duration.ofNanos(System.nanoTime() - started));
+        log.info("Generated {} rows in {} ms ({} rows/s): {}", report.totalRows(), report.elapsed().toMillis(),
+                Math.round(report.rowsPerSecond()), rows);
+        return report;
+    }
+
+    private static int chunks(int items, int perChunk) {
+        return (items + perChunk - 1) / perChunk;
+    }
+
+    private void runChunks(ExecutorService workers, String kind, int chunks, IntFunction<Rows> generator,
+            Map<Table, LongAdder> counts) {
+        AtomicInteger completed = new AtomicInteger();
+        int progressStep = Math.max(1, chunks / 10);
+
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for(int chunk = 0; chunk < chunks; chunk++) {
+            int index = chunk;
+            futures.add(workers.submit(() -> {
+                write(generator.apply(index), counts);
+                int done = completed.incrementAndGet();
+                if(done % progressStep == 0) {
+                    log.info("Generated {}/{} {} chunks.", done, chunks, kind);
+                }
+            }));
+        }
+        futures.forEach(SyntheticDataGenerator::await);
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Data generation was interrupted", e);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Data generation failed", e.getCause());
+        }
+    }
+
+    /**
+     * Writes one chunk batch by batch in foreign key order. Each batch commits
+     * on its own: holding a whole chunk in one transaction made commits a
+     * quarter of the load time, and a failed run is simply regenerated.
+     */
+    private void write(Rows rows, Map<Table, LongAdder> counts) {
+        for(Table table : Table.values()) {
+            List<Object[]> tableRows = rows.of(table);
+            for(int from = 0; from < tableRows.size(); from += BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(table.insert, tableRows.subList(from, Math.min(from + BATCH_SIZE, tableRows.size())));
+            }
+            counts.get(table).add(tableRows.size());
+        }
+    }
+
+    private static SplittableRandom stream(long seed, long stream) {
+        return new SplittableRandom(seed + stream * STREAM_STRIDE);
+    }
+
+    /**
+     * Bijective letter codes: {@code AA..ZZ}, then {@code AAA..ZZZ} and so on
+     * for {@code minWidth} 2.
+     */
+    static String code(int index, int minWidth) {
+        int width = minWidth;
+        long block = (long) Math.pow(26, width);
+        while(index >= block) {
+            index -= (int) block;
+            width++;
+            block *= 26;
+        }
+
+        char[] letters = new char[width];
+        for(int i = width - 1; i >= 0; i--) {
+            letters[i] = (char) ('A' + index % 26);
+            index /= 26;
+        }
+        return new String(letters);
+    }
+
+    private static String name(RandomGenerator random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    /** Morning and evening banks plus a flat spread through the day. */
+    private static int departureMinute(RandomGenerator random) {
+        double bank = random.nextDouble();
+        double minute = bank < 0.4 ? 7 * 60 + 75 * random.nextGaussian()
+                : bank < 0.75 ? 18 * 60 + 90 * random.nextGaussian()
+                : 5 * 60 + random.nextInt(18 * 60 + 30);
+        return (int) Math.max(0, Math.min(24 * 60 - 1, minute));
+    }
+
+    /** Log-normal block time with a median a little over two hours. */
+    private static int blockMinutes(RandomGenerator random) {
+        return 45 + (int) Math.min(MAX_BLOCK_MINUTES, Math.exp(Math.log(90) + 0.6 * random.nextGaussian()));
+    }
+
+    private static Cabin cabin(RandomGenerator random) {
+        double pick = random.nextDouble();
+        for(Cabin cabin : CABINS) {
+            pick -= cabin.weight();
+            if(pick < 0) {
+                return cabin;
+            }
+        }
+        return CABINS.get(CABINS.size() - 1);
+    }
+
+    private static int partySize(RandomGenerator random) {
+        double pick = random.nextDouble();
+        return pick < 0.55 ? 1 : pick < 0.85 ? 2 : pick < 0.95 ? 3 : 4;
+    }
+
+    private static double fare(Cabin cabin, int seatRow, int blockMinutes, RandomGenerator random) {
+        double fare = (30 + 0.8 * blockMinutes) * Math.exp(0.25 * random.nextGaussian());
+        return seatRow < cabin.businessRows() ? fare * BUSINESS_FARE_MULTIPLIER : fare;
+    }
+
+    private static final class Rows {
+        private final Map<Table, List<Object[]>> rows = new EnumMap<>(Table.class);
+
+        void add(Table table, Object... values) {
+            rows.computeIfAbsent(table, key -> new ArrayList<>()).add(values);
+        }
+
+        List<Object[]> of(Table table) {
+            return rows.getOrDefault(table, List.of());
+        }
+    }
+
+    /** Reference ids and popularity distributions shared read-only by every chunk of one run. */
+    private static final class Generation {
+        private final GeneratorSpec spec;
+        private final TicketNumberAllocator ticketNumbers;
+        private final CrewRules crewRules;
+        // Fares are written in minor units of the currency FareEngine quotes in.
+        private final Currency fareCurrency;
+        private final double minorUnitsPerUnit;
+        private final UUID[] airlineIds;
+        private final String[] airlineCodes;
+        private final int[] hubs;
+        private final UUID[] airportIds;
+        private final UUID[] passengerIds;
+        private final ZipfDistribution airlineRanks;
+        private final ZipfDistribution airportRanks;
+        private final ZipfDistribution passengerRanks;
+
+        private Generation(GeneratorSpec spec, TicketNumberAllocator ticketNumbers, CrewRules crewRules, Currency fareCurrency) {
+            this.spec = spec;
+            this.ticketNumbers = ticketNumbers;
+            this.crewRules = crewRules;
+            this.fareCurrency = fareCurrency;
+            this.minorUnitsPerUnit = Math.pow(10, Math.max(0, fareCurrency.getDefaultFractionDigits()));
+            this.airlineIds = new UUID[spec.airlines()];
+            this.airlineCodes = new String[spec.airlines()];
+            this.hubs = new int[spec.airlines()];
+            this.airportIds = new UUID[spec.airports()];
+            this.passengerIds = new UUID[spec.passengers()];
+            this.airlineRanks = new ZipfDistribution(spec.airlines(), 0.8);
+            this.airportRanks = new ZipfDistribution(spec.airports(), 1.0);
+            this.passengerRanks = new ZipfDistribution(spec.passengers(), 0.5);
+
+            for(int i = 0; i < passengerIds.length; i++) {
+                passengerIds[i] = UuidV7.next();
+            }
+        }
+
+        private Rows referenceData() {
+            SplittableRandom random = stream(spec.seed(), 0);
+            Rows rows = new Rows();
+
+            for(int i = 0; i < airportIds.length; i++) {
+                String code = code(i, 3);
+                airportIds[i] = UuidV7.next();
+                rows.add(Table.AIRPORT, airportIds[i], code, code + (i < airportIds.length / 10 ? " International" : " Regional"),
+                        COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            }
+            for(int i = 0; i < airlineIds.length; i++) {
+                airlineCodes[i] = code(i, 2);
+                airlineIds[i] = UuidV7.next();
+                hubs[i] = airportRanks.sample(random);
+                rows.add(Table.AIRLINE, airlineIds[i], AIRLINE_WORDS[random.nextInt(AIRLINE_WORDS.length)] + " Air " + airlineCodes[i],
+                        airlineCodes[i]);
+            }
+            return rows;
+        }
+
+        private Rows passengers(int chunk) {
+            SplittableRandom random = stream(spec.seed(), 2L * chunk + 1);
+            Rows rows = new Rows();
+
+            int to = Math.min(passengerIds.length, (chunk + 1) * PASSENGERS_PER_CHUNK);
+            for(int i = chunk * PASSENGERS_PER_CHUNK; i < to; i++) {
+                // The running index keeps passport numbers unique across chunks.
+                String passport = String.format("%c%c%07d", 'A' + random.nextInt(26), 'A' + random.nextInt(26), i);
+                rows.add(Table.PASSENGER, passengerIds[i], name(random), passport, Passenger.passportHash(passport));
+            }
+            return rows;
+        }
+
+        private Rows flights(int chunk) {
+            SplittableRandom random = stream(spec.seed(), 2L * chunk + 2);
+            Rows rows = new Rows();
+
+            int to = Math.min(spec.flights(), (chunk + 1) * FLIGHTS_PER_CHUNK);
+            List<Leg> legs = new ArrayList<>(to - chunk * FLIGHTS_PER_CHUNK);
+            for(int i = chunk * FLIGHTS_PER_CHUNK; i < to; i++) {
+                legs.add(flight(random, rows, legs.size()));
+            }
+            crew(random, rows, legs);
+            return rows;
+        }
+
+        private Leg flight(SplittableRandom random, Rows rows, int index) {
+            int airline = airlineRanks.sample(random);
+            int origin = random.nextDouble() < HUB_SHARE ? hubs[airline] : airportRanks.sample(random);
+            int destination;
+            do {
+                destination = airportRanks.sample(random);
+            } while(destination == origin);
+
+            LocalDateTime departure = spec.firstDay().plusDays(random.nextInt(spec.days())).atStartOfDay()
+                    .plusMinutes(departureMinute(random));
+            int blockMinutes = blockMinutes(random);
+
+            UUID flightId = UuidV7.next();
+            rows.add(Table.FLIGHT, flightId, airlineCodes[airline] + (1 + random.nextInt(9999)), departure,
+                    departure.plusMinutes(blockMinutes), airportIds[origin], airportIds[destination], airlineIds[airline]);
+
+            Cabin cabin = cabin(random);
+            UUID[] bookedBy = book(random, rows, flightId, cabin, blockMinutes);
+            for(int seat = 0; seat < bookedBy.length; seat++) {
+                int seatRow = seat / cabin.abreast();
+                rows.add(Table.SEAT, UuidV7.next(), flightId, (seatRow + 1) + String.valueOf(SEAT_LETTERS.charAt(seat % cabin.abreast())),
+                        seatRow < cabin.businessRows() ? "Business" : "Economy", bookedBy[seat] == null, bookedBy[seat]);
+            }
+            return new Leg(index, flightId, airline, departure, departure.plusMinutes(blockMinutes), cabin);
+        }
+
+        /** Crews the chunk's flights in departure order from per-airline pools. */
+        private void crew(SplittableRandom random, Rows rows, List<Leg> legs) {
+            Map<String, PriorityQueue<Available>> pools = new LinkedHashMap<>();
+            int[] hired = new int[1];
+            legs.sort(Comparator.comparing(Leg::departure).thenComparingInt(Leg::index));
+
+            for(Leg leg : legs) {
+                LocalDateTime reports = leg.departure().minus(crewRules.reportBeforeDeparture());
+                LocalDateTime free = leg.arrival().plus(crewRules.releaseAfterArrival()).plus(crewRules.minimumRest());
+                PriorityQueue<Available> pilots = pools.computeIfAbsent(leg.airline() + "/Pilot", key -> pool());
+                PriorityQueue<Available> attendants = pools.computeIfAbsent(leg.airline() + "/Flight Attendant", key -> pool());
+
+                crewLeg(random, rows, pilots, "Pilot", leg.cabin().pilots(), leg.flightId(), reports, free, hired);
+                crewLeg(random, rows, attendants, "Flight Attendant", Math.max(1, leg.cabin().seats() / 50), leg.flightId(), reports, free, hired);
+            }
+        }
+
+        private static PriorityQueue<Available> pool() {
+            return new PriorityQueue<>(Comparator.comparing(Available::from).thenComparingInt(Available::hired));
+        }
+
+        private void crewLeg(SplittableRandom random, Rows rows, PriorityQueue<Available> pool, String role, int needed, UUID flightId,
+                LocalDateTime reports, LocalDateTime free, int[] hired) {
+            List<Available> assigned = new ArrayList<>(needed);
+            while(assigned.size() < needed && !pool.isEmpty() && !pool.peek().from().isAfter(reports)) {
+                assigned.add(pool.poll());
+            }
+            while(assigned.size() < needed) {
+                UUID crewMemberId = UuidV7.next();
+                rows.add(Table.CREW_MEMBER, crewMemberId, name(random), role);
+                assigned.add(new Available(crewMemberId, reports, hired[0]++));
+            }
+            for(Available member : assigned) {
+                rows.add(Table.CREW_ASSIGNMENT, member.crewMemberId(), flightId);
+                pool.add(new Available(member.crewMemberId(), free, member.hired()));
+            }
+        }
+
+        /**
+         * Sells seats up to a per-flight load factor, party by party, filling
+         * rows in random order so parties sit together. Returns the booking
+         * holding each seat, or null where the seat is still free.
+         */
+        private UUID[] book(SplittableRandom random, Rows rows, UUID flightId, Cabin cabin, int blockMinutes) {
+            UUID[] bookedBy = new UUID[cabin.seats()];
+            int[] rowOrder = new int[cabin.rows()];
+            for(int i = 0; i < rowOrder.length; i++) {
+                int j = random.nextInt(i + 1);
+                rowOrder[i] = rowOrder[j];
+                rowOrder[j] = i;
+            }
+
+            double load = Math.max(0, Math.min(1, spec.loadFactor() + 0.12 * random.nextGaussian()));
+            int toSell = (int) Math.round(load * bookedBy.length);
+
+            for(int position = 0; position < toSell; ) {
+                int party = Math.min(partySize(random), toSell - position);
+                double outcome = random.nextDouble();
+                boolean cancelled = outcome < CANCELLED_SHARE;
+                boolean pending = !cancelled && outcome < CANCELLED_SHARE + PENDING_SHARE;
+
+                UUID bookingId = UuidV7.next();
+                rows.add(Table.BOOKING, bookingId, flightId, cancelled ? "CANCELLED" : pending ? "PENDING" : "CONFIRMED");
+
+                long[] fares = new long[party];
+                for(int i = 0; i < party; i++, position++) {
+                    int seatRow = rowOrder[position / cabin.abreast()];
+                    if(!cancelled) {
+                        bookedBy[seatRow * cabin.abreast() + position % cabin.abreast()] = bookingId;
+                    }
+                    fares[i] = Math.round(fare(cabin, seatRow, blockMinutes, random) * minorUnitsPerUnit);
+                }
+                UUID[] travellers = addTravellers(random, rows, bookingId, party);
+
+                // One numbered ticket per traveller, as TicketService issues them, priced at that traveller's seat.
+                String[] numbers = ticketNumbers.allocate(travellers.length);
+                long price = 0;
+                for(int i = 0; i < travellers.length; i++) {
+                    rows.add(Table.TICKET, UuidV7.next(), numbers[i], bookingId, travellers[i], fares[i], fareCurrency.getCurrencyCode());
+                    price += fares[i];
+                }
+                rows.add(Table.PAYMENT, UuidV7.next(), bookingId, price / minorUnitsPerUnit, cancelled ? "REFUNDED" : pending ? "FAILED" : "COMPLETED");
+            }
+            return bookedBy;
+        }
+
+        private UUID[] addTravellers(SplittableRandom random, Rows rows, UUID bookingId, int party) {
+            int travellers = Math.min(party, passengerIds.length);
+            int[] picked = new int[travellers];
+            UUID[] travellerIds = new UUID[travellers];
+            for(int count = 0; count < travellers; ) {
+                int passenger = passengerRanks.sample(random);
+                boolean duplicate = false;
+                for(int i = 0; i < count && !duplicate; i++) {
+                    duplicate = picked[i] == passenger;
+                }
+                if(!duplicate) {
+                    travellerIds[count] = passengerIds[passenger];
+                    picked[count++] = passenger;
+                    rows.add(Table.BOOKING_PASSENGERS, bookingId, passengerIds[passenger]);
+                }
+            }
+            return travellerIds;
+        }
+    }
+}
@@ -1,22 +1,28 @@
 package com.bvcott.airlines.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+
+import org.hibernate.Hibernate;
+
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotEmpty;
 
 @Entity
+@Table(uniqueConstraints = {
+		@UniqueConstraint(name = "uk_airline_code", columnNames = "code"),
+		@UniqueConstraint(name = "uk_airline_name", columnNames = "name") })
 public class Airline {
-	@Id @GeneratedValue(strategy = GenerationType.AUTO) 
+	@Id @TimeOrderedUuid
 	private UUID id;
 	
 	@NotEmpty
@@ -26,7 +32,7 @@ public class Airline {
 	private String code;
 	
 	@OneToMany(mappedBy = "airline", cascade = {CascadeType.MERGE, CascadeType.PERSIST}) 
-	private List<Flight> flights = new ArrayList<>();
+	private Set<Flight> flights = new HashSet<>();
 	
 	Airline() {}
 
@@ -37,14 +43,14 @@ public class Airline {
 	}
 	
 	public void addFlight(Flight flight) {
-		if(!flights.contains(flight)) {
+		flight.setAirline(this);
+		if(Hibernate.isInitialized(flights)) {
 			flights.add(flight);
-			flight.setAirline(this);
-		}	
+		}
 	}
 	
 	public void removeFlight(Flight flight) {
-		if(flights.contains(flight)) {
+		if(Hibernate.isInitialized(flights)) {
 			flights.remove(flight);
 		}
 	}
@@ -61,7 +67,7 @@ public class Airline {
 		this.name = name;
 	}
 	
-	public List<Flight> getFlights() {
+	public Set<Flight> getFlights() {
 		return flights;
 	}
 
@@ -75,12 +81,7 @@ public class Airline {
 
 	@Override
 	public String toString() {
-		String flightNumbers = flights
-				.stream()
-				.map(Flight::getFlightNumber)
-				.collect(Collectors.joining(", "));	
-		
-		return "Airline [id=" + id + ", name=" + name + ", code=" + code + ", flights=" + flightNumbers + "]";
+		return "Airline [id=" + id + ", name=" + name + ", code=" + code + "]";
 	}
 
 	@Override
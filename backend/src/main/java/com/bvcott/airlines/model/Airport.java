@@ -1,21 +1,27 @@
 package com.bvcott.airlines.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+
+import org.hibernate.Hibernate;
+
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotEmpty;
 
 @Entity
+@Table(uniqueConstraints = {
+		@UniqueConstraint(name = "uk_airport_code", columnNames = "code"),
+		@UniqueConstraint(name = "uk_airport_name", columnNames = "name") })
 public class Airport {
-	@Id @GeneratedValue(strategy = GenerationType.AUTO)
+	@Id @TimeOrderedUuid
 	private UUID id;
 	
 	@NotEmpty
@@ -28,10 +34,10 @@ public class Airport {
 	private String location;
 	
 	@OneToMany(mappedBy = "origin", cascade = {CascadeType.MERGE, CascadeType.PERSIST})
-	private List<Flight> departures = new ArrayList<>();
+	private Set<Flight> departures = new HashSet<>();
 	
 	@OneToMany(mappedBy = "destination", cascade = {CascadeType.MERGE, CascadeType.PERSIST})
-	private List<Flight> arrivals = new ArrayList<>();
+	private Set<Flight> arrivals = new HashSet<>();
 
 	Airport() {}
 	
@@ -42,26 +48,30 @@ public class Airport {
 		this.location = location;
 	}
 	
+	// The flight owns the association; an airport's flights are only kept in step once loaded,
+	// so adding a flight to a hub never reads its whole schedule.
 	public void addDeparture(Flight flight) {
-		if(!departures.contains(flight)) {
+		flight.setOrigin(this);
+		if(Hibernate.isInitialized(departures)) {
 			departures.add(flight);
 		}
 	}
 	
 	public void removeDeparture(Flight flight) {
-		if(departures.contains(flight)) {
+		if(Hibernate.isInitialized(departures)) {
 			departures.remove(flight);
 		}
 	}
 	
 	public void addArrival(Flight flight) {
-		if(!arrivals.contains(flight)) {
+		flight.setDestination(this);
+		if(Hibernate.isInitialized(arrivals)) {
 			arrivals.add(flight);
 		}
 	}
 	
 	public void removeArrival(Flight flight) {
-		if(arrivals.contains(flight)) {
+		if(Hibernate.isInitialized(arrivals)) {
 			arrivals.remove(flight);
 		}
 	}
@@ -98,36 +108,25 @@ public class Airport {
 		this.location = location;
 	}
 
-	public List<Flight> getDepartures() {
+	public Set<Flight> getDepartures() {
 		return departures;
 	}
 
-	public void setDepartures(List<Flight> departures) {
+	public void setDepartures(Set<Flight> departures) {
 		this.departures = departures;
 	}
 
-	public List<Flight> getArrivals() {
+	public Set<Flight> getArrivals() {
 		return arrivals;
 	}
 
-	public void setArrivals(List<Flight> arrivals) {
+	public void setArrivals(Set<Flight> arrivals) {
 		this.arrivals = arrivals;
 	}
 
 	@Override
 	public String toString() {
-		String arrivalsString = this.arrivals
-				.stream()
-				.map(Flight::getFlightNumber)
-				.collect(Collectors.joining(", "));
-		
-		String departuresString = this.departures
-				.stream()
-				.map(Flight::getFlightNumber)
-				.collect(Collectors.joining(", "));
-		
-		return "Airport [id=" + id + ", code=" + code + ", name=" + name + ", location=" + location + ", departures="
-				+ departuresString + ", arrivals=" + arrivalsString + "]";
+		return "Airport [id=" + id + ", code=" + code + ", name=" + name + ", location=" + location + "]";
 	}
 	
 	
@@ -1,33 +1,48 @@
 package com.bvcott.airlines.model;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Version;
 
 @Entity
 public class Booking {
-	@Id @GeneratedValue(strategy = GenerationType.AUTO)
+	@Id @TimeOrderedUuid
 	private UUID id;
 	
-	@ManyToOne @JoinColumn(name = "flight_id")
+	@Version
+	private long version;
+	
+	@ManyToOne(fetch = FetchType.LAZY) @JoinColumn(name = "flight_id")
 	private Flight flight;
 	
 	@ManyToMany
-	private List<Passenger> passengers = new ArrayList<>();
+	private Set<Passenger> passengers = new HashSet<>();
 	
 	@OneToMany @JoinColumn(name = "seat_id")
 	private List<Seat> seat = new ArrayList<>();
 	
+	// Seats on flights flown with a seat map have no rows of their own, so the booking keeps their numbers.
+	@ElementCollection
+	@CollectionTable(name = "booking_seat_number", joinColumns = @JoinColumn(name = "booking_id"))
+	@Column(name = "seat_number", length = 8)
+	private List<String> seatNumbers = new ArrayList<>();
+	
 	private String status;
 	
 	Booking() {}
@@ -38,16 +53,14 @@ public class Booking {
 		this.status = status;
 	}
 	
+	// Adding to the owning set loads it, so this is for bookings being built; a stored booking
+	// gets passengers through BookingService.addPassenger, which writes the join row only.
 	public void addPassenger(Passenger passenger) {
-		if(!passengers.contains(passenger)) {
-			passengers.add(passenger);
-		}
+		passengers.add(passenger);
 	}
 	
 	public void removePassenger(Passenger passenger) {
-		if(passengers.contains(passenger)) {
-			passengers.remove(passenger);
-		}
+		passengers.remove(passenger);
 	}
 
 	public UUID getId() {
@@ -58,6 +71,10 @@ public class Booking {
 		this.id = id;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
 	public Flight getFlight() {
 		return flight;
 	}
@@ -66,11 +83,11 @@ public class Booking {
 		this.flight = flight;
 	}
 
-	public List<Passenger> getPassengers() {
+	public Set<Passenger> getPassengers() {
 		return passengers;
 	}
 
-	public void setPassengers(List<Passenger> passengers) {
+	public void setPassengers(Set<Passenger> passengers) {
 		this.passengers = passengers;
 	}
 
@@ -82,6 +99,10 @@ public class Booking {
 		this.seat = seat;
 	}
 
+	public List<String> getSeatNumbers() {
+		return seatNumbers;
+	}
+
 	public String getStatus() {
 		return status;
 	}
@@ -92,13 +113,7 @@ public class Booking {
 
 	@Override
 	public String toString() {
-		String passengersString = passengers
-				.stream()
-				.map(Passenger::getName)
-				.collect(Collectors.joining(", "));
-		
-		return "Booking [id=" + id + ", flight=" + flight.getFlightNumber() + ", passengers=" + passengersString + ", seat=" + seat
-				+ ", status=" + status + "]";
+		return "Booking [id=" + id + ", flight=" + (flight == null ? null : flight.getId()) + ", status=" + status + "]";
 	}
 	
 }
@@ -1,18 +1,22 @@
 package com.bvcott.airlines.model;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.ManyToOne;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
 import jakarta.validation.constraints.NotEmpty;
 
 @Entity
 public class CrewMember {
-	@Id @GeneratedValue(strategy = GenerationType.AUTO)
+	@Id @TimeOrderedUuid
 	private UUID id;
 	
 	@NotEmpty
@@ -21,8 +25,12 @@ public class CrewMember {
 	@NotEmpty
 	private String role;
 	
-	@ManyToOne @JoinColumn(name = "flight_id")
-	private Flight flight;
+	@ManyToMany
+	@JoinTable(name = "crew_assignment",
+			joinColumns = @JoinColumn(name = "crew_member_id"),
+			inverseJoinColumns = @JoinColumn(name = "flight_id"),
+			indexes = @Index(name = "idx_crew_assignment_flight", columnList = "flight_id"))
+	private Set<Flight> flights = new HashSet<>();
 
 	CrewMember() {}
 	
@@ -56,17 +64,13 @@ public class CrewMember {
 		this.role = role;
 	}
 
-	public Flight getFlight() {
-		return flight;
-	}
-
-	public void setFlight(Flight flight) {
-		this.flight = flight;
+	public Set<Flight> getFlights() {
+		return flights;
 	}
 
 	@Override
 	public String toString() {
-		return "CrewMember [id=" + id + ", name=" + name + ", role=" + role + ", flight=" + flight + "]";
+		return "CrewMember [id=" + id + ", name=" + name + ", role=" + role + "]";
 	}
 	
 	
@@ -1,28 +1,60 @@
 package com.bvcott.airlines.model;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
+
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
+@Table(indexes = {
+		@Index(name = "idx_flight_route_departure", columnList = "origin_id, destination_id, departure_time"),
+		@Index(name = "idx_flight_origin_departure", columnList = "origin_id, departure_time"),
+		@Index(name = "idx_flight_destination_arrival", columnList = "destination_id, arrival_time"),
+		@Index(name = "idx_flight_departure", columnList = "departure_time"),
+		@Index(name = "idx_flight_arrival", columnList = "arrival_time") })
+@NamedEntityGraph(name = Flight.SCHEDULE_GRAPH, attributeNodes = {
+		@NamedAttributeNode("origin"), @NamedAttributeNode("destination"), @NamedAttributeNode("airline") })
+@NamedEntityGraph(name = Flight.SEATS_GRAPH, attributeNodes = {
+		@NamedAttributeNode("origin"), @NamedAttributeNode("destination"), @NamedAttributeNode("airline"), @NamedAttributeNode("seats") })
+@NamedEntityGraph(name = Flight.CREW_GRAPH, attributeNodes = {
+		@NamedAttributeNode("origin"), @NamedAttributeNode("destination"), @NamedAttributeNode("airline"), @NamedAttributeNode("crew") })
 public class Flight {
-	@Id @GeneratedValue(strategy = GenerationType.AUTO) 
+	/** Route and airline, which is what every schedule view needs. */
+	public static final String SCHEDULE_GRAPH = "Flight.schedule";
+	public static final String SEATS_GRAPH = "Flight.seats";
+	public static final String CREW_GRAPH = "Flight.crew";
+
+	@Id @TimeOrderedUuid
 	private UUID id;
 	
+	@Version
+	private long version;
+	
 	@NotEmpty
 	private String flightNumber;
 
@@ -32,20 +64,32 @@ public class Flight {
 	@NotNull
 	private LocalDateTime arrivalTime;
 	
-	@ManyToOne @JoinColumn(name = "origin_id") @NotNull 
+	// Rows written straight through JDBC (generator, benchmarks) start out scheduled too.
+	@Enumerated(EnumType.STRING) @Column(nullable = false, length = 16) @ColumnDefault("'SCHEDULED'")
+	private FlightStatus status = FlightStatus.SCHEDULED;
+	
+	// When the status took effect, so a status snapshot can be ordered against the changes streamed after it.
+	@Column(nullable = false) @ColumnDefault("CURRENT_TIMESTAMP")
+	private Instant statusChangedAt = Instant.now();
+	
+	// Picks the seat map the flight's seats are generated from; null for flights whose seats are added by hand.
+	@Column(length = 8)
+	private String aircraftType;
+	
+	@ManyToOne(fetch = FetchType.LAZY) @JoinColumn(name = "origin_id") @NotNull 
 	private Airport origin;
 	
-	@ManyToOne @JoinColumn(name = "destination_id") @NotNull 
+	@ManyToOne(fetch = FetchType.LAZY) @JoinColumn(name = "destination_id") @NotNull 
 	private Airport destination;
 	
-	@ManyToOne @JoinColumn(name = "airline_id") @NotNull
+	@ManyToOne(fetch = FetchType.LAZY) @JoinColumn(name = "airline_id") @NotNull
 	private Airline airline;
 	
 	@OneToMany(mappedBy = "flight", cascade = {CascadeType.MERGE, CascadeType.PERSIST}) 
-	private List<Seat> seats = new ArrayList<>();
+	private Set<Seat> seats = new HashSet<>();
 	
-	@ManyToMany(mappedBy = "flight", cascade = {CascadeType.MERGE, CascadeType.PERSIST}) 
-	private List<CrewMember> crew = new ArrayList<>();
+	@ManyToMany(mappedBy = "flights", cascade = {CascadeType.MERGE, CascadeType.PERSIST}) 
+	private Set<CrewMember> crew = new HashSet<>();
 	
 	Flight() {}
 
@@ -60,32 +104,35 @@ public class Flight {
 		this.airline = airline;
 	}
 	
+	// Seats and crew are owned from their side; the flight's collections are only kept in step once loaded.
 	public void addSeat(Seat seat) {
-		if(!seats.contains(seat)) {
-			seat.setIsAvailable(false);
+		seat.setFlight(this);
+		if(Hibernate.isInitialized(seats)) {
 			seats.add(seat);
-			seat.setFlight(this);
 		}
 	}
 	
 	public void removeSeat(Seat seat) {
-		if(seats.contains(seat)) {
-			seat.setIsAvailable(true);
-			seats.remove(seat);
+		if(seat.getFlight() == this) {
 			seat.setFlight(null);
 		}
+		if(Hibernate.isInitialized(seats)) {
+			seats.remove(seat);
+		}
 	}
 	
+	// The crew member's flight set owns the association and is loaded by this, so it is for
+	// crew built with the flight; rostering stored crew goes through CrewMemberService.assignToFlight.
 	public void addCrewMember(CrewMember crewMember) {
-		if(!crew.contains(crewMember)) {
-			crewMember.setFlight(this);
+		crewMember.getFlights().add(this);
+		if(Hibernate.isInitialized(crew)) {
 			crew.add(crewMember);
 		}
 	}
 	
 	public void removeCrewMember(CrewMember crewMember) {
-		if(crew.contains(crewMember)) {
-			crewMember.setFlight(null);
+		crewMember.getFlights().remove(this);
+		if(Hibernate.isInitialized(crew)) {
 			crew.remove(crewMember);
 		}
 	}
@@ -98,6 +145,10 @@ public class Flight {
 		this.id = id;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
 	public String getFlightNumber() {
 		return flightNumber;
 	}
@@ -122,6 +173,27 @@ public class Flight {
 		this.arrivalTime = arrivalTime;
 	}
 
+	public FlightStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(FlightStatus status) {
+		this.status = status;
+		this.statusChangedAt = Instant.now();
+	}
+
+	public Instant getStatusChangedAt() {
+		return statusChangedAt;
+	}
+
+	public String getAircraftType() {
+		return aircraftType;
+	}
+
+	public void setAircraftType(String aircraftType) {
+		this.aircraftType = aircraftType;
+	}
+
 	public Airport getOrigin() {
 		return origin;
 	}
@@ -146,37 +218,29 @@ public class Flight {
 		this.airline = airline;
 	}
 
-	public List<Seat> getSeats() {
+	public Set<Seat> getSeats() {
 		return seats;
 	}
 
-	public void setSeats(List<Seat> seats) {
+	public void setSeats(Set<Seat> seats) {
 		this.seats = seats;
 	}
 
-	public List<CrewMember> getCrew() {
+	public Set<CrewMember> getCrew() {
 		return crew;
 	}
 
-	public void setCrew(List<CrewMember> crew) {
+	public void setCrew(Set<CrewMember> crew) {
 		this.crew = crew;
 	}
 
+	// Associations are printed by id only; reading anything else from a lazy proxy would hit the database.
 	@Override
 	public String toString() {
-		String seatsString = seats
-				.stream()
-				.map(Seat::getSeatNumber)
-				.collect(Collectors.joining(", "));
-		
-		String crewString = crew
-				.stream()
-				.map(CrewMember::getName)
-				.collect(Collectors.joining(", "));
-		
 		return "Flight [id=" + id + ", flightNumber=" + flightNumber + ", departureTime=" + departureTime
-				+ ", arrivalTime=" + arrivalTime + ", origin=" + origin.getName() + ", destination=" + destination.getName() + ", airline="
-				+ airline.getName() + ", seats=" + seatsString + ", crew=" + crewString + "]";
+				+ ", arrivalTime=" + arrivalTime + ", status=" + status + ", aircraftType=" + aircraftType + ", origin=" + (origin == null ? null : origin.getId())
+				+ ", destination=" + (destination == null ? null : destination.getId())
+				+ ", airline=" + (airline == null ? null : airline.getId()) + "]";
 	}
 
 	
@@ -0,0 +1,80 @@
+package com.bvcott.airlines.model;
+
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * Seat inventory of a flight flown with a seat map, in one row: the aircraft
+ * type names the layout and {@code sold} packs a bit per seat of it, in
+ * layout order, set once the seat is sold. Seat {@code n} is bit
+ * {@code n % 8} of byte {@code n / 8}.
+ */
+@Entity
+@Table(name = "flight_seat_map")
+public class FlightSeatMap {
+	@Id
+	private UUID flightId;
+	
+	@MapsId @OneToOne(fetch = FetchType.LAZY) @JoinColumn(name = "flight_id")
+	private Flight flight;
+	
+	@Version
+	private long version;
+	
+	@Column(nullable = false, length = 8)
+	private String aircraftType;
+	
+	@Column(nullable = false, length = 512)
+	private byte[] sold;
+	
+	FlightSeatMap() {}
+
+	public FlightSeatMap(Flight flight, String aircraftType, int seats) {
+		super();
+		this.flight = flight;
+		this.aircraftType = aircraftType;
+		this.sold = new byte[bytesFor(seats)];
+	}
+
+	public static int bytesFor(int seats) {
+		return (seats + 7) >>> 3;
+	}
+
+	public UUID getFlightId() {
+		return flightId;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public String getAircraftType() {
+		return aircraftType;
+	}
+
+	public boolean isSold(int seat) {
+		return (sold[seat >>> 3] & (1 << (seat & 7))) != 0;
+	}
+
+	public void setSold(int seat, boolean isSold) {
+		if(isSold) {
+			sold[seat >>> 3] |= (byte) (1 << (seat & 7));
+		} else {
+			sold[seat >>> 3] &= (byte) ~(1 << (seat & 7));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FlightSeatMap [flightId=" + flightId + ", aircraftType=" + aircraftType + ", bytes=" + sold.length + "]";
+	}
+}
@@ -0,0 +1,11 @@
+package com.bvcott.airlines.model;
+
+public enum FlightStatus {
+	SCHEDULED,
+	ON_TIME,
+	DELAYED,
+	BOARDING,
+	DEPARTED,
+	ARRIVED,
+	CANCELLED
+}
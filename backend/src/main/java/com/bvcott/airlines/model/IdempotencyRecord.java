@@ -0,0 +1,53 @@
+package com.bvcott.airlines.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * The result of a client submission, keyed by the idempotency key it was sent
+ * with (prefixed by what was submitted, e.g. {@code booking:} or
+ * {@code payment:}). Written in the same transaction as the result itself.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "createdAt"))
+public class IdempotencyRecord {
+	@Id
+	@Column(length = 255)
+	private String idempotencyKey;
+	
+	@Column(nullable = false)
+	private UUID resultId;
+	
+	@Column(nullable = false)
+	private Instant createdAt;
+	
+	IdempotencyRecord() {}
+
+	public IdempotencyRecord(String idempotencyKey, UUID resultId, Instant createdAt) {
+		super();
+		this.idempotencyKey = idempotencyKey;
+		this.resultId = resultId;
+		this.createdAt = createdAt;
+	}
+
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+	public UUID getResultId() {
+		return resultId;
+	}
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	@Override
+	public String toString() {
+		return "IdempotencyRecord [idempotencyKey=" + idempotencyKey + ", resultId=" + resultId + ", createdAt=" + createdAt + "]";
+	}
+}
@@ -0,0 +1,80 @@
+package com.bvcott.airlines.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Work to hand to an external system, written in the same transaction as the
+ * change that caused it and deleted once it has been handled.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_event_next_attempt_at", columnList = "nextAttemptAt"))
+public class OutboxEvent {
+	public static final String PAYMENT_REQUESTED = "PAYMENT_REQUESTED";
+	
+	@Id @TimeOrderedUuid
+	private UUID id;
+	
+	@Column(nullable = false)
+	private String eventType;
+	
+	@Column(nullable = false)
+	private UUID aggregateId;
+	
+	private int attempts;
+	
+	@Column(nullable = false)
+	private Instant nextAttemptAt;
+	
+	@Column(nullable = false)
+	private Instant createdAt;
+	
+	OutboxEvent() {}
+
+	public OutboxEvent(String eventType, UUID aggregateId, Instant createdAt) {
+		super();
+		this.eventType = eventType;
+		this.aggregateId = aggregateId;
+		this.createdAt = createdAt;
+		this.nextAttemptAt = createdAt;
+	}
+
+	/** Counts a failed attempt and pushes the next one back to {@code nextAttemptAt}. */
+	public void recordFailedAttempt(Instant nextAttemptAt) {
+		this.attempts++;
+		this.nextAttemptAt = nextAttemptAt;
+	}
+
+	public UUID getId() {
+		return id;
+	}
+	public String getEventType() {
+		return eventType;
+	}
+	public UUID getAggregateId() {
+		return aggregateId;
+	}
+	public int getAttempts() {
+		return attempts;
+	}
+	public Instant getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	@Override
+	public String toString() {
+		return "OutboxEvent [id=" + id + ", eventType=" + eventType + ", aggregateId=" + aggregateId + ", attempts=" + attempts
+				+ ", nextAttemptAt=" + nextAttemptAt + "]";
+	}
+}
@@ -1,46 +1,87 @@
 package com.bvcott.airlines.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+
+import org.hibernate.Hibernate;
+
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = @Index(name = "idx_passenger_passport_hash", columnList = "passport_hash"))
 public class Passenger {
-	@Id @GeneratedValue(strategy = GenerationType.AUTO)
+	private static final Pattern PASSPORT_SEPARATORS = Pattern.compile("[^A-Z0-9]");
+
+	@Id @TimeOrderedUuid
 	private UUID id;
 	private String name;
 	private String passportNumber;
 	
+	// A fixed-width key for the normalized passport number, kept in step by the setter; null without one.
+	@Column(name = "passport_hash")
+	private Long passportHash;
+	
 	@ManyToMany(mappedBy = "passengers", cascade = {CascadeType.MERGE, CascadeType.PERSIST})
-	private List<Booking> bookings = new ArrayList<>();
+	private Set<Booking> bookings = new HashSet<>();
 	
 	Passenger() {}
 
 	public Passenger(String name, String passportNumber) {
 		super();
 		this.name = name;
-		this.passportNumber = passportNumber;
+		setPassportNumber(passportNumber);
+	}
+	
+	/** Upper case without blanks or punctuation, so "ab 123-456" and "AB123456" are one passport; null if nothing is left. */
+	public static String normalizePassport(String passportNumber) {
+		if(passportNumber == null) {
+			return null;
+		}
+		String normalized = PASSPORT_SEPARATORS.matcher(passportNumber.toUpperCase(Locale.ROOT)).replaceAll("");
+		return normalized.isEmpty() ? null : normalized;
 	}
 	
+	/** The first 64 bits of the SHA-256 of the normalized passport number, or null if there is none. */
+	public static Long passportHash(String passportNumber) {
+		String normalized = normalizePassport(passportNumber);
+		if(normalized == null) {
+			return null;
+		}
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.US_ASCII));
+			return ByteBuffer.wrap(digest).getLong();
+		} catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+	
+	// The booking owns the association; a frequent flyer's bookings are only kept in step once loaded.
 	public void addBooking(Booking booking) {
-		if(!bookings.contains(booking)) {
+		booking.addPassenger(this);
+		if(Hibernate.isInitialized(bookings)) {
 			bookings.add(booking);
-			booking.addPassenger(this);
 		}
 	}
 	
 	public void removeBooking(Booking booking) {
-		if(bookings.contains(booking)) {
+		booking.removePassenger(this);
+		if(Hibernate.isInitialized(bookings)) {
 			bookings.remove(booking);
-			booking.removePassenger(this);
 		}
 	}
 
@@ -66,26 +107,24 @@ public class Passenger {
 
 	public void setPassportNumber(String passportNumber) {
 		this.passportNumber = passportNumber;
+		this.passportHash = passportHash(passportNumber);
+	}
+
+	public Long getPassportHash() {
+		return passportHash;
 	}
 
-	public List<Booking> getBookings() {
+	public Set<Booking> getBookings() {
 		return bookings;
 	}
 
-	public void setBookings(List<Booking> bookings) {
+	public void setBookings(Set<Booking> bookings) {
 		this.bookings = bookings;
 	}
 
 	@Override
 	public String toString() {
-		String bookingsString = bookings
-				.stream()
-				.map(Booking::getId)
-				.map(UUID::toString)
-				.collect(Collectors.joining(", "));
-		
-				return "Passenger [id=" + id + ", name=" + name + ", passportNumber=" + passportNumber + ", bookings="
-				+ bookingsString + "]";
+		return "Passenger [id=" + id + ", name=" + name + ", passportNumber=" + passportNumber + "]";
 	}
 
 	
@@ -2,19 +2,20 @@ package com.bvcott.airlines.model;
 
 import java.util.UUID;
 
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 
 @Entity
 public class Payment {
-	@Id @GeneratedValue(strategy = GenerationType.AUTO)
+	@Id @TimeOrderedUuid
 	private UUID id;
 	
-	@OneToOne @JoinColumn(name = "booking_id")
+	@OneToOne(fetch = FetchType.LAZY) @JoinColumn(name = "booking_id")
 	private Booking booking;
 	
 	private Double amount;
@@ -22,6 +23,13 @@ public class Payment {
 	
 	Payment() {}
 	
+	public Payment(Booking booking, Double amount, String status) {
+		super();
+		this.booking = booking;
+		this.amount = amount;
+		this.status = status;
+	}
+	
 	public UUID getId() {
 		return id;
 	}
@@ -49,7 +57,7 @@ public class Payment {
 
 	@Override
 	public String toString() {
-		return "Payment [id=" + id + ", booking=" + booking + ", amount=" + amount + ", status=" + status + "]";
+		return "Payment [id=" + id + ", booking=" + (booking == null ? null : booking.getId()) + ", amount=" + amount + ", status=" + status + "]";
 	}
 	
 	
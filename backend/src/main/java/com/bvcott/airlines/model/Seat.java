@@ -2,23 +2,28 @@ package com.bvcott.airlines.model;
 
 import java.util.UUID;
 
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
 
 @Entity
 public class Seat {
-	@Id @GeneratedValue(strategy = GenerationType.AUTO)
+	@Id @TimeOrderedUuid
 	private UUID id;
 	
+	@Version
+	private long version;
+	
 	private String seatNumber;
 	private String seatClass;
 	private Boolean isAvailable;
 	
-	@ManyToOne @JoinColumn(name = "flight_id")
+	@ManyToOne(fetch = FetchType.LAZY) @JoinColumn(name = "flight_id")
 	private Flight flight;
 	
 	Seat() {}
@@ -39,6 +44,10 @@ public class Seat {
 		this.id = id;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
 	public String getSeatNumber() {
 		return seatNumber;
 	}
@@ -74,7 +83,7 @@ public class Seat {
 	@Override
 	public String toString() {
 		return "Seat [id=" + id + ", seatNumber=" + seatNumber + ", seatClass=" + seatClass + ", isAvailable="
-				+ isAvailable + ", flight=" + flight + "]";
+				+ isAvailable + ", flight=" + (flight == null ? null : flight.getId()) + "]";
 	}
 	
 	
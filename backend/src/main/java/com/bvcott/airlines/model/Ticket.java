@@ -1,30 +1,58 @@
 package com.bvcott.airlines.model;
 
+import java.util.Currency;
 import java.util.UUID;
 
+import com.bvcott.airlines.model.id.TimeOrderedUuid;
+import com.bvcott.airlines.pricing.Money;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
+@Table(uniqueConstraints = {
+		@UniqueConstraint(name = "uk_ticket_number", columnNames = "ticket_number"),
+		@UniqueConstraint(name = "uk_ticket_booking_passenger", columnNames = { "booking_id", "passenger_id" }) })
 public class Ticket {
-	@Id @GeneratedValue(strategy = GenerationType.AUTO)
+	@Id @TimeOrderedUuid
 	private UUID id;
 	
-	@OneToOne @JoinColumn(name = "booking_id")
+	@Column(name = "ticket_number", length = 14)
+	private String ticketNumber;
+	
+	@ManyToOne(fetch = FetchType.LAZY) @JoinColumn(name = "booking_id")
 	private Booking booking;
 	
-	private Double price;
+	@ManyToOne(fetch = FetchType.LAZY) @JoinColumn(name = "passenger_id")
+	private Passenger passenger;
+	
+	// Exact minor units of the fare quoted at issue, with its currency.
+	@Column(name = "price_minor_units")
+	private Long priceMinorUnits;
+	
+	@Column(name = "price_currency", length = 3)
+	private String priceCurrency;
 	
 	Ticket() {}
 
-	public Ticket(Booking booking, Double price) {
+	public Ticket(Booking booking, Money price) {
+		super();
+		this.booking = booking;
+		setPrice(price);
+	}
+
+	public Ticket(String ticketNumber, Booking booking, Passenger passenger, Money price) {
 		super();
+		this.ticketNumber = ticketNumber;
 		this.booking = booking;
-		this.price = price;
+		this.passenger = passenger;
+		setPrice(price);
 	}
 
 	public UUID getId() {
@@ -35,6 +63,10 @@ public class Ticket {
 		this.id = id;
 	}
 
+	public String getTicketNumber() {
+		return ticketNumber;
+	}
+
 	public Booking getBooking() {
 		return booking;
 	}
@@ -43,17 +75,22 @@ public class Ticket {
 		this.booking = booking;
 	}
 
-	public Double getPrice() {
-		return price;
+	public Passenger getPassenger() {
+		return passenger;
+	}
+
+	public Money getPrice() {
+		return priceMinorUnits == null ? null : new Money(priceMinorUnits, Currency.getInstance(priceCurrency));
 	}
 
-	public void setPrice(Double price) {
-		this.price = price;
+	public void setPrice(Money price) {
+		this.priceMinorUnits = price == null ? null : price.minorUnits();
+		this.priceCurrency = price == null ? null : price.currency().getCurrencyCode();
 	}
 
 	@Override
 	public String toString() {
-		return "Ticket [id=" + id + ", booking=" + booking + ", price=" + price + "]";
+		return "Ticket [id=" + id + ", ticketNumber=" + ticketNumber + ", booking=" + (booking == null ? null : booking.getId()) + ", price=" + getPrice() + "]";
 	}
 	
 	
@@ -0,0 +1,52 @@
+package com.bvcott.airlines.model.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * RFC 9562 version 7 UUIDs: 48 bits of Unix milliseconds, then a 12-bit
+ * counter in {@code rand_a}, then 62 random bits. Timestamp and counter are
+ * packed into one {@link AtomicLong} and advanced by CAS, so concurrent callers
+ * never block and every id is strictly greater than the one before it, even
+ * within a millisecond or if the wall clock steps backwards. A counter that
+ * overflows borrows the next millisecond.
+ */
+public final class UuidV7 {
+    private static final UuidV7 SYSTEM = new UuidV7(System::currentTimeMillis);
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    UuidV7(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static UUID next() {
+        return SYSTEM.generate();
+    }
+
+    UUID generate() {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long fresh = clock.getAsLong() << COUNTER_BITS;
+            next = fresh > current ? fresh : current + 1;
+        } while(!state.compareAndSet(current, next));
+
+        long mostSignificant = (next >>> COUNTER_BITS) << 16 | VERSION | (next & ((1L << COUNTER_BITS) - 1));
+        long leastSignificant = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    public static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bvcott.airlines.pricing;
+
+/**
+ * A fare level that applies while a cabin's load factor is below
+ * {@code loadBelowBasisPoints}; the price is the base fare times
+ * {@code multiplierBasisPoints}/10000.
+ */
+public record FareBucket(String code, int loadBelowBasisPoints, int multiplierBasisPoints) {
+}
@@ -0,0 +1,7 @@
+package com.bvcott.airlines.pricing;
+
+import java.time.LocalDate;
+
+/** The cheapest fare departing on {@code day}, or a null {@code lowest} when nothing is on sale that day. */
+public record FareCalendarDay(LocalDate day, FareQuote lowest) {
+}
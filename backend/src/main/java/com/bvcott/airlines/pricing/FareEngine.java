@@ -0,0 +1,227 @@
+package com.bvcott.airlines.pricing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.event.FlightChangedEvent.ChangeType;
+import com.bvcott.airlines.exception.FlightNotFoundException;
+import com.bvcott.airlines.exception.SeatNotFoundException;
+import com.bvcott.airlines.service.FlightSearchEntry;
+import com.bvcott.airlines.service.FlightSearchIndex;
+import com.bvcott.airlines.service.SeatAvailabilityListener;
+import com.bvcott.airlines.service.SeatInventoryService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Current fares per flight and seat class. A class's fare is its base fare
+ * scaled by the {@link FareBucket} its load factor falls in.
+ * <p>
+ * Fares are worked out when a flight is first quoted and kept in a table;
+ * from then on the engine listens to the seat inventory and reprices only the
+ * cabin whose seats changed. Each entry is published through a volatile
+ * field, so quotes are plain reads that never wait on a repricing.
+ */
+@Service
+public class FareEngine implements SeatAvailabilityListener {
+    private static final Logger log = LoggerFactory.getLogger(FareEngine.class);
+    static final int MAX_CALENDAR_DAYS = 366;
+
+    static final List<FareBucket> BUCKETS = List.of(
+            new FareBucket("Y1", 3_000, 10_000),
+            new FareBucket("Y2", 6_000, 12_500),
+            new FareBucket("Y3", 8_000, 16_000),
+            new FareBucket("Y4", 9_500, 22_000),
+            new FareBucket("Y5", 10_001, 30_000));
+
+    /** The fare of one cabin. Repricing is serialised per cabin; reads go straight to {@code quote}. */
+    private final class FareCell {
+        private final UUID flightId;
+        private final String seatClass;
+        private final Money baseFare;
+        private final int capacity;
+        private volatile FareQuote quote;
+
+        FareCell(UUID flightId, String seatClass, Money baseFare, int capacity) {
+            this.flightId = flightId;
+            this.seatClass = seatClass;
+            this.baseFare = baseFare;
+            this.capacity = capacity;
+            refresh();
+        }
+
+        synchronized void refresh() {
+            int seatsLeft = inventoryService.availableSeats(flightId, seatClass);
+            FareQuote current = quote;
+            if(current != null && current.seatsLeft() == seatsLeft) {
+                return;
+            }
+
+            FareBucket bucket = bucketFor(capacity - seatsLeft, capacity);
+            if(current == null || !current.bucket().equals(bucket.code())) {
+                Money price = baseFare.timesBasisPoints(bucket.multiplierBasisPoints());
+                quote = new FareQuote(flightId, seatClass, bucket.code(), price, seatsLeft);
+                repriceCounter.increment();
+            } else {
+                quote = new FareQuote(flightId, seatClass, current.bucket(), current.price(), seatsLeft);
+            }
+        }
+    }
+
+    private final SeatInventoryService inventoryService;
+    private final FlightSearchIndex searchIndex;
+    private final Currency currency;
+    private final Map<String, Money> baseFares = new HashMap<>();
+    private final Money defaultBaseFare;
+    private final Map<UUID, Map<String, FareCell>> fares = new ConcurrentHashMap<>();
+
+    private final Counter repriceCounter;
+
+    FareEngine(SeatInventoryService inventoryService, FlightSearchIndex searchIndex, MeterRegistry meterRegistry,
+            @Value("${airlines.fares.currency:EUR}") String currencyCode,
+            @Value("${airlines.fares.base-fares:Economy:120.00,Business:480.00}") List<String> baseFares,
+            @Value("${airlines.fares.default-base-fare:150.00}") String defaultBaseFare) {
+        this.inventoryService = inventoryService;
+        this.searchIndex = searchIndex;
+        this.currency = Currency.getInstance(currencyCode);
+        for(String entry : baseFares) {
+            int separator = entry.lastIndexOf(':');
+            if(separator < 1) {
+                throw new IllegalArgumentException("Base fares are configured as seatClass:amount, was: " + entry);
+            }
+            this.baseFares.put(entry.substring(0, separator).trim(), Money.of(entry.substring(separator + 1).trim(), currency));
+        }
+        this.defaultBaseFare = Money.of(defaultBaseFare, currency);
+
+        this.repriceCounter = meterRegistry.counter("fares.reprices");
+        meterRegistry.gaugeMapSize("fares.flights", Tags.empty(), fares);
+    }
+
+    @PostConstruct
+    void listen() {
+        inventoryService.addListener(this);
+    }
+
+    public FareQuote quote(UUID flightId, String seatClass) {
+        log.debug("quote method called with flight ID: {} and seat class: {}", flightId, seatClass);
+        FareCell cell = cells(flightId).get(seatClass);
+
+        if(cell == null) {
+            log.warn("No {} seats on flight {}", seatClass, flightId);
+            throw new SeatNotFoundException("No " + seatClass + " seats on flight with ID: " + flightId);
+        }
+
+        return cell.quote;
+    }
+
+    public List<FareQuote> quotes(UUID flightId) {
+        log.debug("quotes method called with flight ID: {}", flightId);
+        Map<String, FareCell> cells = cells(flightId);
+        if(cells.isEmpty()) {
+            log.warn("No seats on flight {}", flightId);
+            throw new FlightNotFoundException("No seats found for flight with ID: " + flightId);
+        }
+        return cells.values().stream().map(cell -> cell.quote).toList();
+    }
+
+    /**
+     * The cheapest fare in {@code seatClass} with seats left for each day from
+     * {@code firstDay}, using the flight search index for the day's flights.
+     */
+    public List<FareCalendarDay> calendar(String originCode, String destinationCode, LocalDate firstDay, int days, String seatClass) {
+        log.debug("calendar method called for {}-{} from {} for {} days in {}", originCode, destinationCode, firstDay, days, seatClass);
+        if(days < 1 || days > MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("Calendar length must be between 1 and " + MAX_CALENDAR_DAYS + " days, was: " + days);
+        }
+
+        List<FareCalendarDay> calendar = new ArrayList<>(days);
+        for(int offset = 0; offset < days; offset++) {
+            LocalDate day = firstDay.plusDays(offset);
+            FareQuote lowest = null;
+
+            for(FlightSearchEntry flight : searchIndex.search(originCode, destinationCode, day)) {
+                FareCell cell = cells(flight.flightId()).get(seatClass);
+                FareQuote quote = cell == null ? null : cell.quote;
+                if(quote != null && quote.seatsLeft() > 0 && (lowest == null || quote.price().compareTo(lowest.price()) < 0)) {
+                    lowest = quote;
+                }
+            }
+            calendar.add(new FareCalendarDay(day, lowest));
+        }
+        return calendar;
+    }
+
+    @Override
+    public void seatsChanged(UUID flightId, String seatClass) {
+        Map<String, FareCell> cells = fares.get(flightId);
+        FareCell cell = cells == null ? null : cells.get(seatClass);
+        if(cell != null) {
+            cell.refresh();
+        }
+    }
+
+    @Override
+    public void flightReset(UUID flightId) {
+        fares.remove(flightId);
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        // Seats may have been added or the flight removed; fares are rebuilt on the next quote.
+        if(event.type() != ChangeType.CREATED) {
+            fares.remove(event.flightId());
+        }
+    }
+
+    static FareBucket bucketFor(int sold, int capacity) {
+        long loadBasisPoints = capacity == 0 ? 10_000 : sold * 10_000L / capacity;
+        for(FareBucket bucket : BUCKETS) {
+            if(loadBasisPoints < bucket.loadBelowBasisPoints()) {
+                return bucket;
+            }
+        }
+        return BUCKETS.get(BUCKETS.size() - 1);
+    }
+
+    private Map<String, FareCell> cells(UUID flightId) {
+        Map<String, FareCell> cells = fares.get(flightId);
+        if(cells != null) {
+            return cells;
+        }
+
+        Map<String, FareCell> created = new HashMap<>();
+        try {
+            for(String seatClass : inventoryService.seatClasses(flightId)) {
+                created.put(seatClass, new FareCell(flightId, seatClass, baseFares.getOrDefault(seatClass, defaultBaseFare),
+                        inventoryService.capacity(flightId, seatClass)));
+            }
+        } catch(FlightNotFoundException e) {
+            // No seats: remembered as no fares so the calendar doesn't go back to the database for it.
+            log.debug("Flight {} has no seats to price.", flightId);
+        }
+
+        Map<String, FareCell> existing = fares.putIfAbsent(flightId, Map.copyOf(created));
+        if(existing != null) {
+            return existing;
+        }
+        // A sale between building the cells and publishing them had nobody to tell.
+        created.values().forEach(FareCell::refresh);
+        return fares.getOrDefault(flightId, created);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bvcott.airlines.pricing;
+
+import java.util.UUID;
+
+/** The current fare for one seat class on one flight. */
+public record FareQuote(UUID flightId, String seatClass, String bucket, Money price, int seatsLeft) {
+}
@@ -0,0 +1,63 @@
+package com.bvcott.airlines.pricing;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount held as a whole number of the currency's minor units (cents for
+ * EUR), so sums and comparisons are exact.
+ */
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+    private static final long BASIS_POINTS = 10_000;
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    /** Parses a decimal amount such as {@code "120.50"}; more decimals than the currency has are rejected. */
+    public static Money of(String amount, Currency currency) {
+        return of(new BigDecimal(amount), currency);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        try {
+            return new Money(amount.movePointRight(currency.getDefaultFractionDigits()).longValueExact(), currency);
+        } catch(ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount + " has more precision than " + currency + " allows");
+        }
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /** This amount scaled by {@code basisPoints}/10000, rounded half up to a minor unit. */
+    public Money timesBasisPoints(long basisPoints) {
+        long scaled = Math.multiplyExact(minorUnits, basisPoints);
+        long rounded = Math.floorDiv(scaled + BASIS_POINTS / 2, BASIS_POINTS);
+        return new Money(rounded, currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    private void requireSameCurrency(Money other) {
+        if(!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Can't combine " + currency + " with " + other.currency);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + " " + toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.bvcott.airlines.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection for an airline's flight roster; Spring Data backs it
+ * with the aliased columns of the roster query.
+ */
+public interface AirlineRosterEntry {
+    String getFlightNumber();
+    String getOriginCode();
+    String getDestinationCode();
+    LocalDateTime getDepartureTime();
+    LocalDateTime getArrivalTime();
+}
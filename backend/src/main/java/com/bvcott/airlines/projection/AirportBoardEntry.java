@@ -0,0 +1,13 @@
+package com.bvcott.airlines.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.bvcott.airlines.model.FlightStatus;
+
+/**
+ * One row of an airport's departures or arrivals board. {@code otherAirportCode}
+ * is the destination on a departures board and the origin on an arrivals board.
+ */
+public record AirportBoardEntry(UUID flightId, String flightNumber, String airlineCode, String otherAirportCode,
+        LocalDateTime scheduledTime, FlightStatus status) {}
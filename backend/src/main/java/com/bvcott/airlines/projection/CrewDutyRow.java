@@ -0,0 +1,11 @@
+package com.bvcott.airlines.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A crew member with one flight they are rostered on. Crew members without
+ * flights come with a null flight and times, so the roster knows them too.
+ */
+public record CrewDutyRow(UUID crewMemberId, String role, UUID flightId, LocalDateTime departureTime,
+        LocalDateTime arrivalTime) {}
@@ -0,0 +1,13 @@
+package com.bvcott.airlines.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.bvcott.airlines.model.FlightStatus;
+
+/**
+ * Read-only view of a flight with its route and airline resolved to codes,
+ * loaded by a single joined query instead of the entity graph.
+ */
+public record FlightSummary(UUID id, String flightNumber, String airlineCode, String originCode,
+        String destinationCode, LocalDateTime departureTime, LocalDateTime arrivalTime, FlightStatus status) {}
@@ -0,0 +1,9 @@
+package com.bvcott.airlines.projection;
+
+import java.util.UUID;
+
+/**
+ * One autocomplete match for an airport or airline; {@code location} is null
+ * for airlines. Higher scores rank first.
+ */
+public record ReferenceSuggestion(UUID id, String code, String name, String location, double score) {}
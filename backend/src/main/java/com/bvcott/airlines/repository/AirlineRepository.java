@@ -1,15 +1,40 @@
 package com.bvcott.airlines.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bvcott.airlines.model.Airline;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface AirlineRepository extends JpaRepository<Airline, UUID> {
 	Optional<Airline> findByName(String name);
 	Optional<Airline> findByCode(String code);
+
+	@Query("select a.name from Airline a where a.name in :names")
+	List<String> findExistingNames(@Param("names") Collection<String> names);
+
+	@Query("select a.code from Airline a where a.code in :codes")
+	List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+	List<Airline> findByOrderByIdAsc(Limit limit);
+	List<Airline> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("select a from Airline a")
+	Stream<Airline> streamAll();
 }
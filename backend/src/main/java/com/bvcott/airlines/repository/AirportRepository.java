@@ -1,13 +1,38 @@
 package com.bvcott.airlines.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.bvcott.airlines.model.Airport;
 
+import jakarta.persistence.QueryHint;
+
 public interface AirportRepository extends JpaRepository<Airport, UUID>{
     Optional<Airport> findByCode(String code);
     Optional<Airport> findByName(String name);
+
+    @Query("select a.name from Airport a where a.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Query("select a.code from Airport a where a.code in :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    List<Airport> findByOrderByIdAsc(Limit limit);
+    List<Airport> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("select a from Airport a")
+    Stream<Airport> streamAll();
 }
@@ -1,11 +1,30 @@
 package com.bvcott.airlines.repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.bvcott.airlines.model.Booking;
 
+import jakarta.persistence.LockModeType;
+
 public interface BookingRepository extends JpaRepository<Booking, UUID> {
 
+    /** Loads the booking with a row lock held until the transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") UUID id);
+
+    // Written straight to the join table so adding a traveller doesn't load the booking's passengers.
+    @Modifying
+    @Query(value = "insert into booking_passengers (bookings_id, passengers_id) values (:bookingId, :passengerId)", nativeQuery = true)
+    int addPassenger(@Param("bookingId") UUID bookingId, @Param("passengerId") UUID passengerId);
+
+    @Query(value = "select count(*) from booking_passengers where bookings_id = :bookingId and passengers_id = :passengerId", nativeQuery = true)
+    long countPassenger(@Param("bookingId") UUID bookingId, @Param("passengerId") UUID passengerId);
 }
@@ -1,11 +1,45 @@
 package com.bvcott.airlines.repository;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.bvcott.airlines.model.CrewMember;
+import com.bvcott.airlines.projection.CrewDutyRow;
+
+import jakarta.persistence.QueryHint;
 
 public interface CrewMemberRepository extends JpaRepository<CrewMember, UUID> {
+    List<CrewMember> findByOrderByIdAsc(Limit limit);
+    List<CrewMember> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("select c from CrewMember c")
+    Stream<CrewMember> streamAll();
+
+    @Query("select new com.bvcott.airlines.projection.CrewDutyRow(c.id, c.role, f.id, f.departureTime, f.arrivalTime) "
+            + "from CrewMember c left join c.flights f")
+    List<CrewDutyRow> findAllDuties();
+
+    // Written straight to the join table so rostering a crew member doesn't load all their flights.
+    @Modifying
+    @Query(value = "insert into crew_assignment (crew_member_id, flight_id) values (:crewMemberId, :flightId)", nativeQuery = true)
+    int addAssignment(@Param("crewMemberId") UUID crewMemberId, @Param("flightId") UUID flightId);
+
+    @Query(value = "select count(*) from crew_assignment where crew_member_id = :crewMemberId and flight_id = :flightId", nativeQuery = true)
+    long countAssignment(@Param("crewMemberId") UUID crewMemberId, @Param("flightId") UUID flightId);
 
+    @Modifying
+    @Query(value = "delete from crew_assignment where crew_member_id = :crewMemberId and flight_id = :flightId", nativeQuery = true)
+    int removeAssignment(@Param("crewMemberId") UUID crewMemberId, @Param("flightId") UUID flightId);
 }
@@ -1,11 +1,109 @@
 package com.bvcott.airlines.repository;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.bvcott.airlines.event.FlightStatusChange;
 import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.FlightStatus;
+import com.bvcott.airlines.projection.AirlineRosterEntry;
+import com.bvcott.airlines.projection.AirportBoardEntry;
+import com.bvcott.airlines.projection.FlightSummary;
 
 public interface FlightRepository extends JpaRepository<Flight, UUID>{
+    // Callers of findById read the route and airline, so load them in the same statement.
+    @Override
+    @EntityGraph(Flight.SCHEDULE_GRAPH)
+    Optional<Flight> findById(UUID id);
 
+    @EntityGraph(Flight.SCHEDULE_GRAPH)
+    @Query("select f from Flight f")
+    List<Flight> findAllWithSchedule();
+
+    @EntityGraph(Flight.SEATS_GRAPH)
+    Optional<Flight> findWithSeatsById(UUID id);
+
+    @EntityGraph(Flight.CREW_GRAPH)
+    Optional<Flight> findWithCrewById(UUID id);
+
+    @Query("""
+            select new com.bvcott.airlines.projection.FlightSummary(
+                f.id, f.flightNumber, a.code, o.code, d.code, f.departureTime, f.arrivalTime, f.status)
+            from Flight f join f.airline a join f.origin o join f.destination d
+            where f.id = :id
+            """)
+    Optional<FlightSummary> findSummaryById(@Param("id") UUID id);
+
+    @Query("""
+            select new com.bvcott.airlines.projection.AirportBoardEntry(f.id, f.flightNumber, a.code, d.code, f.departureTime, f.status)
+            from Flight f join f.airline a join f.origin o join f.destination d
+            where o.code = :airportCode and f.departureTime >= :from and f.departureTime < :to
+            order by f.departureTime
+            """)
+    List<AirportBoardEntry> findDepartureBoard(@Param("airportCode") String airportCode,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("""
+            select new com.bvcott.airlines.projection.AirportBoardEntry(f.id, f.flightNumber, a.code, o.code, f.arrivalTime, f.status)
+            from Flight f join f.airline a join f.origin o join f.destination d
+            where d.code = :airportCode and f.arrivalTime >= :from and f.arrivalTime < :to
+            order by f.arrivalTime
+            """)
+    List<AirportBoardEntry> findArrivalBoard(@Param("airportCode") String airportCode,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("""
+            select new com.bvcott.airlines.projection.FlightSummary(
+                f.id, f.flightNumber, a.code, o.code, d.code, f.departureTime, f.arrivalTime, f.status)
+            from Flight f join f.airline a join f.origin o join f.destination d
+            where f.departureTime >= :from and f.departureTime < :to
+            """)
+    List<FlightSummary> findSummariesDepartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("""
+            select new com.bvcott.airlines.projection.FlightSummary(
+                f.id, f.flightNumber, a.code, o.code, d.code, f.departureTime, f.arrivalTime, f.status)
+            from Flight f join f.airline a join f.origin o join f.destination d
+            where f.arrivalTime >= :from and f.arrivalTime < :to
+            """)
+    List<FlightSummary> findSummariesArrivingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("""
+            select f.flightNumber as flightNumber, o.code as originCode, d.code as destinationCode,
+                f.departureTime as departureTime, f.arrivalTime as arrivalTime
+            from Flight f join f.origin o join f.destination d
+            where f.airline.id = :airlineId
+            order by f.departureTime
+            """)
+    List<AirlineRosterEntry> findRosterByAirlineId(@Param("airlineId") UUID airlineId);
+
+    // Sizes of an airport's or airline's flights without loading the inverse collections.
+    long countByOriginId(UUID originId);
+
+    long countByDestinationId(UUID destinationId);
+
+    long countByAirlineId(UUID airlineId);
+
+    @Query("select f.status from Flight f where f.id = :id")
+    Optional<FlightStatus> findStatusById(@Param("id") UUID id);
+
+    @Query("select new com.bvcott.airlines.event.FlightStatusChange(f.id, f.status, f.statusChangedAt) from Flight f where f.id = :id")
+    Optional<FlightStatusChange> findStatusChangeById(@Param("id") UUID id);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    // One row per status change whatever the number of bookings. The version is bumped by hand because bulk
+    // updates bypass @Version, and a Flight loaded before the change must fail its version check on save.
+    @Query("update Flight f set f.status = :status, f.statusChangedAt = :changedAt, f.version = f.version + 1 where f.id = :id")
+    int updateStatus(@Param("id") UUID id, @Param("status") FlightStatus status, @Param("changedAt") Instant changedAt);
 }
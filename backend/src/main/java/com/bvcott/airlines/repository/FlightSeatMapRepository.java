@@ -0,0 +1,11 @@
+package com.bvcott.airlines.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.bvcott.airlines.model.FlightSeatMap;
+
+public interface FlightSeatMapRepository extends JpaRepository<FlightSeatMap, UUID> {
+
+}
@@ -0,0 +1,14 @@
+package com.bvcott.airlines.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.bvcott.airlines.model.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    List<OutboxEvent> findByNextAttemptAtLessThanEqualOrderByNextAttemptAt(Instant now, Limit limit);
+}
@@ -1,11 +1,59 @@
 package com.bvcott.airlines.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.bvcott.airlines.model.Passenger;
 
 public interface PassengerRepository extends JpaRepository<Passenger, UUID> {
+    // Written out rather than derived: a string query's plan is cached, a derived one is rebuilt on every call.
+    // Oldest first: that is the passenger duplicates are merged into.
+    @Query("select p from Passenger p where p.passportHash = :passportHash order by p.id")
+    List<Passenger> findByPassportHash(@Param("passportHash") long passportHash);
 
+    @Query("select p from Passenger p where p.passportHash in :passportHashes")
+    List<Passenger> findByPassportHashIn(@Param("passportHashes") Collection<Long> passportHashes);
+
+    @Query("""
+            select p.passportHash from Passenger p
+            where p.passportHash > :after
+            group by p.passportHash having count(p) > 1
+            order by p.passportHash
+            """)
+    List<Long> findDuplicatedPassportHashes(@Param("after") long after, Limit limit);
+
+    // Merging duplicates: a booking listing several of them keeps a single link, which then moves to the survivor.
+    @Modifying
+    @Query(value = """
+            delete from booking_passengers b
+            where b.passengers_id in (:duplicates)
+            and exists (select 1 from booking_passengers o where o.bookings_id = b.bookings_id
+                and (o.passengers_id = :survivor or (o.passengers_id in (:duplicates) and o.passengers_id < b.passengers_id)))
+            """, nativeQuery = true)
+    int deleteSharedBookingLinks(@Param("survivor") UUID survivor, @Param("duplicates") Collection<UUID> duplicates);
+
+    @Modifying
+    @Query(value = "update booking_passengers set passengers_id = :survivor where passengers_id in (:duplicates)", nativeQuery = true)
+    int moveBookingLinks(@Param("survivor") UUID survivor, @Param("duplicates") Collection<UUID> duplicates);
+
+    // Same for tickets: a booking holding one for several of them keeps a single ticket for the survivor.
+    @Modifying
+    @Query(value = """
+            delete from ticket t
+            where t.passenger_id in (:duplicates)
+            and exists (select 1 from ticket o where o.booking_id = t.booking_id
+                and (o.passenger_id = :survivor or (o.passenger_id in (:duplicates) and o.passenger_id < t.passenger_id)))
+            """, nativeQuery = true)
+    int deleteSharedTickets(@Param("survivor") UUID survivor, @Param("duplicates") Collection<UUID> duplicates);
+
+    @Modifying
+    @Query(value = "update ticket set passenger_id = :survivor where passenger_id in (:duplicates)", nativeQuery = true)
+    int moveTickets(@Param("survivor") UUID survivor, @Param("duplicates") Collection<UUID> duplicates);
 }
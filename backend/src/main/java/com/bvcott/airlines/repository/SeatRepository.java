@@ -1,11 +1,27 @@
 package com.bvcott.airlines.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.bvcott.airlines.model.Seat;
 
 public interface SeatRepository extends JpaRepository<Seat, UUID> {
+    List<Seat> findByFlightId(UUID flightId);
 
+    long countByFlightId(UUID flightId);
+
+    List<Seat> findByFlightIdAndSeatNumberIn(UUID flightId, Collection<String> seatNumbers);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    // Bulk updates skip Hibernate's version handling, so bump it here to keep entity writers honest.
+    @Query("update Seat s set s.isAvailable = :available, s.version = s.version + 1 where s.id = :id and s.isAvailable = :expected")
+    int compareAndSetAvailability(@Param("id") UUID id, @Param("expected") Boolean expected, @Param("available") Boolean available);
 }
@@ -1,5 +1,6 @@
 package com.bvcott.airlines.repository;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,5 +8,5 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import com.bvcott.airlines.model.Ticket;
 
 public interface TicketRepository extends JpaRepository<Ticket, UUID> {
-
+    List<Ticket> findByBookingId(UUID bookingId);
 }
@@ -3,24 +3,43 @@ package com.bvcott.airlines.service;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.bvcott.airlines.cache.AirlineLookupCache;
 import com.bvcott.airlines.exception.AirlineAlreadyExistsException;
 import com.bvcott.airlines.exception.AirlineNotFoundException;
 import com.bvcott.airlines.model.Airline;
 import com.bvcott.airlines.repository.AirlineRepository;
 
+import jakarta.persistence.EntityManager;
+
 @Service
 public class AirlineService {
 	private static final Logger log = LoggerFactory.getLogger(AirlineService.class);
 	private AirlineRepository airlineRepo;
+	private AirlineLookupCache airlineCache;
+	private BulkCreator<Airline> bulkCreator;
+	private EntityManager entityManager;
+	private AutocompleteService autocomplete;
 	
-	AirlineService(AirlineRepository airlineRepo) {
+	AirlineService(AirlineRepository airlineRepo, AirlineLookupCache airlineCache, EntityManager entityManager,
+			AutocompleteService autocomplete) {
 		this.airlineRepo = airlineRepo;
+		this.airlineCache = airlineCache;
+		this.entityManager = entityManager;
+		this.autocomplete = autocomplete;
+		this.bulkCreator = new BulkCreator<>("Airline",
+				airline -> isEmpty(airline.getName()) || isEmpty(airline.getCode()),
+				List.of(new BulkCreator.UniqueKey<>("name", Airline::getName, airlineRepo::findExistingNames),
+						new BulkCreator.UniqueKey<>("code", Airline::getCode, airlineRepo::findExistingCodes)),
+				airlineRepo::saveAll, airlineRepo::save,
+				airline -> new Airline(airline.getName(), airline.getCode()));
 	}
 	
 	public Airline createAirline(Airline airline) {
@@ -31,8 +50,8 @@ public class AirlineService {
 			throw new DataIntegrityViolationException("Fields cannot be empty.");
 		}
 	
-		Optional<Airline> nameMatcher = airlineRepo.findByName(airline.getName());
-		Optional<Airline> codeMatcher = airlineRepo.findByCode(airline.getCode());
+		Optional<Airline> nameMatcher = airlineCache.findByName(airline.getName());
+		Optional<Airline> codeMatcher = airlineCache.findByCode(airline.getCode());
 
 		if(nameMatcher.isPresent()) {
 			log.warn("Airline already exists by name: " + airline.getName());
@@ -41,16 +60,41 @@ public class AirlineService {
 			log.warn("Airline already exists by code: " + airline.getCode());
 			throw new AirlineAlreadyExistsException("Airline already exists with code: " + airline.getCode());
 		} else {
-			return airlineRepo.save(airline);
+			Airline savedAirline = airlineRepo.save(airline);
+			airlineCache.invalidate(savedAirline);
+			autocomplete.putAirline(savedAirline);
+			return savedAirline;
 		}
 		
 	}
 
+	public BulkCreateResult<Airline> createAirlines(List<Airline> airlines) {
+		log.debug("createAirlines method called, {} objects received", airlines.size());
+
+		BulkCreateResult<Airline> result = bulkCreator.create(airlines);
+		result.created().forEach(airlineCache::invalidate);
+		result.created().forEach(autocomplete::putAirline);
+
+		log.debug("Airlines created: {}, rejected: {}", result.created().size(), result.conflicts().size());
+		return result;
+	}
+
 	public List<Airline> retrieveAll() {
 		log.debug("retrieveAll method called.");
 		return airlineRepo.findAll();
 	}
 
+	public KeysetPage<Airline> retrievePage(String cursor, int size) {
+		log.debug("retrievePage method called, cursor: {}, size: {}", cursor, size);
+		return Keyset.page(cursor, size, airlineRepo::findByOrderByIdAsc, airlineRepo::findByIdGreaterThanOrderByIdAsc, Airline::getId);
+	}
+
+	@Transactional(readOnly = true)
+	public long streamAll(Consumer<? super Airline> action) {
+		log.debug("streamAll method called.");
+		return Keyset.forEach(airlineRepo.streamAll(), entityManager, action);
+	}
+
 	public Airline retrieveById(UUID id) {
 		log.debug("retrieveById method called, ID received: {}", id);
 		return airlineRepo
@@ -64,6 +108,8 @@ public class AirlineService {
 
 		if(airlineFound.isPresent()) {
 			airlineRepo.deleteById(id);
+			airlineCache.invalidate(airlineFound.get());
+			autocomplete.removeAirline(airlineFound.get());
 		} else {
 			log.warn("Airline with ID: {} - NOT FOUND", id);
 			throw new AirlineNotFoundException("Couldn't delete airline with ID: " + id + " - NOT FOUND");
@@ -82,8 +128,8 @@ public class AirlineService {
 
 		Airline existingAirline = existingAirlineOpt.get();
 
-		Optional<Airline> nameMatcher = airlineRepo.findByName(airline.getName());
-		Optional<Airline> codeMatcher = airlineRepo.findByCode(airline.getCode());
+		Optional<Airline> nameMatcher = airlineCache.findByName(airline.getName());
+		Optional<Airline> codeMatcher = airlineCache.findByCode(airline.getCode());
 
 		if(nameMatcher.isPresent()) {
 			log.warn("Airline with name {} already exists.", airline.getName());
@@ -95,14 +141,21 @@ public class AirlineService {
 			throw new AirlineAlreadyExistsException("Airline with code: " + airline.getCode() + "already exsits.");
 		}
 
+		// Drop the old name and code before they change on the managed entity.
+		airlineCache.invalidate(existingAirline);
 		existingAirline.setName(airline.getName());
 		existingAirline.setCode(airline.getCode());
 
 		Airline savedAirline = airlineRepo.save(existingAirline);
+		airlineCache.invalidate(savedAirline);
+		autocomplete.putAirline(savedAirline);
 
 		log.debug("Airline udpated successfully, updated object: {}", savedAirline);
 		return savedAirline;
 		
 	}
 
+	private static boolean isEmpty(String value) {
+		return value == null || value.isEmpty();
+	}
 }
@@ -0,0 +1,316 @@
+package com.bvcott.airlines.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.event.FlightStatusChange;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.projection.AirportBoardEntry;
+import com.bvcott.airlines.projection.FlightSummary;
+import com.bvcott.airlines.repository.FlightRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Departure and arrival boards for every airport over the next
+ * {@code horizon}, kept in memory so a board read never goes to the database.
+ * <p>
+ * Each board is a ring of fixed-width time buckets. A slot holds the bucket
+ * number it was filled for next to an immutable array of entries sorted by
+ * time, so a slot left over from an earlier lap of the ring reads as empty
+ * and the ring slides forward without clearing anything: the slider only
+ * loads the buckets that have come into the horizon, with one query per
+ * direction. Flight changes and status changes patch the affected buckets in
+ * place. Writers take a single lock; readers take none.
+ */
+@Component
+public class AirportBoardIndex {
+    private static final Logger log = LoggerFactory.getLogger(AirportBoardIndex.class);
+
+    private static final AirportBoardEntry[] EMPTY = new AirportBoardEntry[0];
+    private static final Comparator<AirportBoardEntry> BY_TIME = Comparator
+        .comparing(AirportBoardEntry::scheduledTime)
+        .thenComparing(AirportBoardEntry::flightNumber)
+        .thenComparing(AirportBoardEntry::flightId);
+
+    private record Slot(long bucket, AirportBoardEntry[] entries) {}
+
+    /** One airport's departures or arrivals. */
+    private final class Ring {
+        private final AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(ringSize);
+
+        AirportBoardEntry[] entries(long bucket) {
+            Slot slot = slots.get(Math.floorMod(bucket, ringSize));
+            return slot != null && slot.bucket() == bucket ? slot.entries() : EMPTY;
+        }
+
+        void put(long bucket, AirportBoardEntry entry) {
+            AirportBoardEntry[] current = entries(bucket);
+            int insertAt = Arrays.binarySearch(current, entry, BY_TIME);
+            insertAt = insertAt < 0 ? -insertAt - 1 : insertAt;
+
+            AirportBoardEntry[] updated = new AirportBoardEntry[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, insertAt);
+            updated[insertAt] = entry;
+            System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+            slots.set(Math.floorMod(bucket, ringSize), new Slot(bucket, updated));
+        }
+
+        void remove(long bucket, UUID flightId) {
+            AirportBoardEntry[] current = entries(bucket);
+            for(int i = 0; i < current.length; i++) {
+                if(current[i].flightId().equals(flightId)) {
+                    AirportBoardEntry[] updated = new AirportBoardEntry[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    slots.set(Math.floorMod(bucket, ringSize), new Slot(bucket, updated));
+                    return;
+                }
+            }
+        }
+    }
+
+    private final FlightRepository flightRepo;
+    private final FlightStatusStream statusStream;
+    private final Clock clock;
+    private final long bucketSeconds;
+    private final int ringSize;
+    private final Map<String, Ring> departures = new ConcurrentHashMap<>();
+    private final Map<String, Ring> arrivals = new ConcurrentHashMap<>();
+    // What each flight on a board was placed as, so a change can take the old entries off.
+    private final Map<UUID, FlightSummary> placed = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile long firstBucket;
+    private volatile long lastBucket = Long.MIN_VALUE;
+    private FlightStatusStream.Subscription statusSubscription;
+
+    @Autowired
+    AirportBoardIndex(FlightRepository flightRepo, FlightStatusStream statusStream, MeterRegistry meterRegistry,
+            @Value("${airlines.boards.horizon:48h}") Duration horizon,
+            @Value("${airlines.boards.bucket-width:15m}") Duration bucketWidth) {
+        this(flightRepo, statusStream, meterRegistry, horizon, bucketWidth, Clock.systemDefaultZone());
+    }
+
+    AirportBoardIndex(FlightRepository flightRepo, FlightStatusStream statusStream, MeterRegistry meterRegistry,
+            Duration horizon, Duration bucketWidth, Clock clock) {
+        if(bucketWidth.toSeconds() < 1 || horizon.compareTo(bucketWidth) < 0) {
+            throw new IllegalArgumentException("Board horizon must hold at least one bucket of at least a second");
+        }
+        this.flightRepo = flightRepo;
+        this.statusStream = statusStream;
+        this.clock = clock;
+        this.bucketSeconds = bucketWidth.toSeconds();
+        // The bucket holding now plus enough whole buckets to reach the horizon.
+        this.ringSize = (int) ((horizon.toSeconds() + bucketSeconds - 1) / bucketSeconds) + 1;
+        meterRegistry.gaugeMapSize("airport.boards.flights", Tags.empty(), placed);
+    }
+
+    @PostConstruct
+    void listen() {
+        statusSubscription = statusStream.subscribe(null, this::onStatusChanged);
+    }
+
+    @PreDestroy
+    void stopListening() {
+        statusSubscription.cancel();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding airport boards...");
+        synchronized(writeLock) {
+            departures.clear();
+            arrivals.clear();
+            placed.clear();
+            long now = bucketOf(LocalDateTime.now(clock));
+            firstBucket = now;
+            lastBucket = now - 1;
+            load(now, now + ringSize - 1);
+        }
+        log.info("Airport boards rebuilt with {} flights.", placed.size());
+    }
+
+    /**
+     * Moves the boards on to the current time, loading the buckets that came
+     * into the horizon. Flight changes wait for the load, so none is lost
+     * between the query and the buckets it fills.
+     */
+    @Scheduled(fixedDelayString = "${airlines.boards.slide-interval:PT1M}", initialDelayString = "${airlines.boards.slide-interval:PT1M}")
+    public void slide() {
+        long now = bucketOf(LocalDateTime.now(clock));
+        if(now <= firstBucket || lastBucket == Long.MIN_VALUE) {
+            return;
+        }
+
+        synchronized(writeLock) {
+            LocalDateTime boardStart = start(now);
+            firstBucket = now;
+            load(Math.max(lastBucket + 1, now), now + ringSize - 1);
+            placed.values().removeIf(flight -> flight.departureTime().isBefore(boardStart) && flight.arrivalTime().isBefore(boardStart));
+        }
+        log.debug("Airport boards moved on to {}.", start(now));
+    }
+
+    private void load(long fromBucket, long toBucket) {
+        if(fromBucket > toBucket) {
+            return;
+        }
+        LocalDateTime from = start(fromBucket);
+        LocalDateTime to = start(toBucket + 1);
+        List<FlightSummary> departing = flightRepo.findSummariesDepartingBetween(from, to);
+        List<FlightSummary> arriving = flightRepo.findSummariesArrivingBetween(from, to);
+
+        departing.forEach(flight -> placeDeparture(flight, toBucket));
+        arriving.forEach(flight -> placeArrival(flight, toBucket));
+        // Published last, so readers never treat a bucket as covered while it is being filled.
+        lastBucket = toBucket;
+        log.debug("Loaded {} departures and {} arrivals between {} and {}.", departing.size(), arriving.size(), from, to);
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        synchronized(writeLock) {
+            take(event.flightId());
+            if(event.type() != FlightChangedEvent.ChangeType.DELETED) {
+                Flight flight = event.flight();
+                place(new FlightSummary(flight.getId(), flight.getFlightNumber(), flight.getAirline().getCode(),
+                        flight.getOrigin().getCode(), flight.getDestination().getCode(), flight.getDepartureTime(),
+                        flight.getArrivalTime(), flight.getStatus()));
+            }
+        }
+    }
+
+    void onStatusChanged(FlightStatusChange change) {
+        synchronized(writeLock) {
+            FlightSummary flight = placed.get(change.flightId());
+            if(flight != null && flight.status() != change.status()) {
+                take(change.flightId());
+                place(new FlightSummary(flight.id(), flight.flightNumber(), flight.airlineCode(), flight.originCode(),
+                        flight.destinationCode(), flight.departureTime(), flight.arrivalTime(), change.status()));
+            }
+        }
+    }
+
+    /** Whether {@code [from, to)} lies inside the boards, so reading it needs no query. */
+    public boolean covers(LocalDateTime from, LocalDateTime to) {
+        long last = lastBucket;
+        return last != Long.MIN_VALUE && !from.isBefore(start(firstBucket)) && !to.isAfter(start(last + 1));
+    }
+
+    /** Departures from {@code airportCode} scheduled in {@code [from, to)}, clipped to the boards. */
+    public List<AirportBoardEntry> departures(String airportCode, LocalDateTime from, LocalDateTime to) {
+        return read(departures.get(airportCode.toUpperCase()), from, to, Integer.MAX_VALUE);
+    }
+
+    public List<AirportBoardEntry> arrivals(String airportCode, LocalDateTime from, LocalDateTime to) {
+        return read(arrivals.get(airportCode.toUpperCase()), from, to, Integer.MAX_VALUE);
+    }
+
+    /** The next {@code limit} departures from now, as shown on a departures screen. */
+    public List<AirportBoardEntry> nextDepartures(String airportCode, int limit) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return read(departures.get(airportCode.toUpperCase()), now, start(lastBucket + 1), limit);
+    }
+
+    public List<AirportBoardEntry> nextArrivals(String airportCode, int limit) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return read(arrivals.get(airportCode.toUpperCase()), now, start(lastBucket + 1), limit);
+    }
+
+    public int size() {
+        return placed.size();
+    }
+
+    private List<AirportBoardEntry> read(Ring ring, LocalDateTime from, LocalDateTime to, int limit) {
+        List<AirportBoardEntry> board = new ArrayList<>();
+        if(ring == null || !from.isBefore(to)) {
+            return board;
+        }
+
+        long first = Math.max(bucketOf(from), firstBucket);
+        long last = Math.min(bucketOf(to.minusNanos(1)), lastBucket);
+        for(long bucket = first; bucket <= last && board.size() < limit; bucket++) {
+            for(AirportBoardEntry entry : ring.entries(bucket)) {
+                if(entry.scheduledTime().isBefore(from)) {
+                    continue;
+                }
+                if(!entry.scheduledTime().isBefore(to) || board.size() == limit) {
+                    break;
+                }
+                board.add(entry);
+            }
+        }
+        return board;
+    }
+
+    private void place(FlightSummary flight) {
+        placeDeparture(flight, lastBucket);
+        placeArrival(flight, lastBucket);
+    }
+
+    private void placeDeparture(FlightSummary flight, long last) {
+        long bucket = bucketOf(flight.departureTime());
+        if(bucket >= firstBucket && bucket <= last) {
+            departures.computeIfAbsent(flight.originCode().toUpperCase(), code -> new Ring())
+                .put(bucket, new AirportBoardEntry(flight.id(), flight.flightNumber(), flight.airlineCode(),
+                        flight.destinationCode(), flight.departureTime(), flight.status()));
+            placed.put(flight.id(), flight);
+        }
+    }
+
+    private void placeArrival(FlightSummary flight, long last) {
+        long bucket = bucketOf(flight.arrivalTime());
+        if(bucket >= firstBucket && bucket <= last) {
+            arrivals.computeIfAbsent(flight.destinationCode().toUpperCase(), code -> new Ring())
+                .put(bucket, new AirportBoardEntry(flight.id(), flight.flightNumber(), flight.airlineCode(),
+                        flight.originCode(), flight.arrivalTime(), flight.status()));
+            placed.put(flight.id(), flight);
+        }
+    }
+
+    private void take(UUID flightId) {
+        FlightSummary flight = placed.remove(flightId);
+        if(flight == null) {
+            return;
+        }
+        Ring departureRing = departures.get(flight.originCode().toUpperCase());
+        if(departureRing != null) {
+            departureRing.remove(bucketOf(flight.departureTime()), flightId);
+        }
+        Ring arrivalRing = arrivals.get(flight.destinationCode().toUpperCase());
+        if(arrivalRing != null) {
+            arrivalRing.remove(bucketOf(flight.arrivalTime()), flightId);
+        }
+    }
+
+    private long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+
+    private LocalDateTime start(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * bucketSeconds, 0, ZoneOffset.UTC);
+    }
+}
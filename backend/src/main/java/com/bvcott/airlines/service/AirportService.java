@@ -3,22 +3,43 @@ package com.bvcott.airlines.service;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.bvcott.airlines.cache.AirportLookupCache;
 import com.bvcott.airlines.exception.AirportAlreadyExistsException;
 import com.bvcott.airlines.exception.AirportNotFoundException;
 import com.bvcott.airlines.model.Airport;
 import com.bvcott.airlines.repository.AirportRepository;
 
+import jakarta.persistence.EntityManager;
+
+@Service
 public class AirportService {
     private static final Logger log = LoggerFactory.getLogger(AirportService.class);
     private AirportRepository airportRepo;
+    private AirportLookupCache airportCache;
+    private BulkCreator<Airport> bulkCreator;
+    private EntityManager entityManager;
+    private AutocompleteService autocomplete;
 
-    AirportService(AirportRepository airportRepo) {
+    AirportService(AirportRepository airportRepo, AirportLookupCache airportCache, EntityManager entityManager,
+            AutocompleteService autocomplete) {
         this.airportRepo = airportRepo;
+        this.airportCache = airportCache;
+        this.entityManager = entityManager;
+        this.autocomplete = autocomplete;
+        this.bulkCreator = new BulkCreator<>("Airport",
+            airport -> isEmpty(airport.getName()) || isEmpty(airport.getCode()) || isEmpty(airport.getLocation()),
+            List.of(new BulkCreator.UniqueKey<>("name", Airport::getName, airportRepo::findExistingNames),
+                new BulkCreator.UniqueKey<>("code", Airport::getCode, airportRepo::findExistingCodes)),
+            airportRepo::saveAll, airportRepo::save,
+            airport -> new Airport(airport.getCode(), airport.getName(), airport.getLocation()));
     }
     
     public Airport createAirport(Airport airport) {
@@ -29,8 +50,8 @@ public class AirportService {
             throw new DataIntegrityViolationException("Fields cannot be empty");
         }
 
-        Optional<Airport> nameMatcher = airportRepo.findByName(airport.getName());
-        Optional<Airport> codeMatcher = airportRepo.findByCode(airport.getCode());
+        Optional<Airport> nameMatcher = airportCache.findByName(airport.getName());
+        Optional<Airport> codeMatcher = airportCache.findByCode(airport.getCode());
 
         if(nameMatcher.isPresent()) {
             log.warn("Airport already exists with name: " + airport.getName());
@@ -39,15 +60,40 @@ public class AirportService {
             log.warn("Airport already exists with code: " + airport.getCode());
             throw new AirportAlreadyExistsException("Airport already exists with code: " + airport.getCode());
         } else {
-            return airportRepo.save(airport);
+            Airport savedAirport = airportRepo.save(airport);
+            airportCache.invalidate(savedAirport);
+            autocomplete.putAirport(savedAirport);
+            return savedAirport;
         }
     }
 
+    public BulkCreateResult<Airport> createAirports(List<Airport> airports) {
+        log.debug("createAirports method called, {} objects received", airports.size());
+
+        BulkCreateResult<Airport> result = bulkCreator.create(airports);
+        result.created().forEach(airportCache::invalidate);
+        result.created().forEach(autocomplete::putAirport);
+
+        log.debug("Airports created: {}, rejected: {}", result.created().size(), result.conflicts().size());
+        return result;
+    }
+
     public List<Airport> retrieveAll() {
         log.debug("retrieveAll method called.");
         return airportRepo.findAll();
     }
 
+    public KeysetPage<Airport> retrievePage(String cursor, int size) {
+        log.debug("retrievePage method called, cursor: {}, size: {}", cursor, size);
+        return Keyset.page(cursor, size, airportRepo::findByOrderByIdAsc, airportRepo::findByIdGreaterThanOrderByIdAsc, Airport::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public long streamAll(Consumer<? super Airport> action) {
+        log.debug("streamAll method called.");
+        return Keyset.forEach(airportRepo.streamAll(), entityManager, action);
+    }
+
     public Airport retrieveById(UUID id) {
         log.debug("retrieveById method called with ID: " + id);
         return airportRepo
@@ -61,6 +107,8 @@ public class AirportService {
 
         if(airportFound.isPresent()) {
             airportRepo.deleteById(id);
+            airportCache.invalidate(airportFound.get());
+            autocomplete.removeAirport(airportFound.get());
         } else {
             log.warn("Airport with ID: {} - NOT FOUND", id);
             throw new AirportNotFoundException("Can't delete, airport not found with ID: " + id);
@@ -84,8 +132,8 @@ public class AirportService {
 
         Airport existingAirport = airportFound.get();
 
-        Optional<Airport> nameMatcher = airportRepo.findByName(airport.getName());
-        Optional<Airport> codeMatcher = airportRepo.findByCode(airport.getCode());
+        Optional<Airport> nameMatcher = airportCache.findByName(airport.getName());
+        Optional<Airport> codeMatcher = airportCache.findByCode(airport.getCode());
 
         if(nameMatcher.isPresent()) {
             log.warn("Airport with name: {} already exists", airport.getName());
@@ -97,13 +145,21 @@ public class AirportService {
             throw new AirportAlreadyExistsException("Airport already exists with code: " + airport.getCode());
         }
 
+        // Drop the old name and code before they change on the managed entity.
+        airportCache.invalidate(existingAirport);
         existingAirport.setName(airport.getName());
         existingAirport.setCode(airport.getCode());
         existingAirport.setLocation(airport.getLocation());
 
         Airport updatedAirport = airportRepo.save(existingAirport);
+        airportCache.invalidate(updatedAirport);
+        autocomplete.putAirport(updatedAirport);
         
         log.debug("Airport updated successfully, updated object: {}", updatedAirport);
         return updatedAirport;
     }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
 }
@@ -0,0 +1,87 @@
+package com.bvcott.airlines.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.projection.ReferenceSuggestion;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+
+/**
+ * Type-ahead suggestions for airports, by code, name and location, and for
+ * airlines, by code and name. Both live in memory in a {@link TrigramIndex}
+ * loaded once the application is ready; the airport and airline services
+ * keep them current as they write.
+ */
+@Service
+public class AutocompleteService {
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteService.class);
+
+    private final AirportRepository airportRepo;
+    private final AirlineRepository airlineRepo;
+    private final TrigramIndex airports;
+    private final TrigramIndex airlines;
+    private final int maximumResults;
+
+    AutocompleteService(AirportRepository airportRepo, AirlineRepository airlineRepo,
+            @Value("${airlines.autocomplete.minimum-similarity:0.5}") double minimumSimilarity,
+            @Value("${airlines.autocomplete.maximum-results:20}") int maximumResults) {
+        this.airportRepo = airportRepo;
+        this.airlineRepo = airlineRepo;
+        this.airports = new TrigramIndex(minimumSimilarity);
+        this.airlines = new TrigramIndex(minimumSimilarity);
+        this.maximumResults = maximumResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding autocomplete indexes...");
+        airports.clear();
+        airlines.clear();
+        airportRepo.findAll().forEach(this::putAirport);
+        airlineRepo.findAll().forEach(this::putAirline);
+        log.info("Autocomplete indexes rebuilt with {} airports and {} airlines.", airports.size(), airlines.size());
+    }
+
+    public List<ReferenceSuggestion> suggestAirports(String query, int limit) {
+        log.debug("suggestAirports method called with query: {}", query);
+        return airports.search(query, checkLimit(limit));
+    }
+
+    public List<ReferenceSuggestion> suggestAirlines(String query, int limit) {
+        log.debug("suggestAirlines method called with query: {}", query);
+        return airlines.search(query, checkLimit(limit));
+    }
+
+    public void putAirport(Airport airport) {
+        airports.put(airport.getId(), airport.getCode(), airport.getName(), airport.getLocation());
+    }
+
+    public void removeAirport(Airport airport) {
+        airports.remove(airport.getId());
+    }
+
+    public void putAirline(Airline airline) {
+        airlines.put(airline.getId(), airline.getCode(), airline.getName(), null);
+    }
+
+    public void removeAirline(Airline airline) {
+        airlines.remove(airline.getId());
+    }
+
+    private int checkLimit(int limit) {
+        if(limit < 1 || limit > maximumResults) {
+            log.warn("Suggestion limit {} is outside 1 to {}", limit, maximumResults);
+            throw new IllegalArgumentException("Suggestion limit must be between 1 and " + maximumResults + ", was: " + limit);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,442 @@
+package com.bvcott.airlines.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bvcott.airlines.exception.BookingRejectedException;
+import com.bvcott.airlines.exception.SeatNotFoundException;
+import com.bvcott.airlines.exception.SeatUnavailableException;
+import com.bvcott.airlines.model.Booking;
+import com.bvcott.airlines.model.FlightSeatMap;
+import com.bvcott.airlines.model.Passenger;
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.repository.BookingRepository;
+import com.bvcott.airlines.repository.FlightRepository;
+import com.bvcott.airlines.repository.PassengerRepository;
+import com.bvcott.airlines.repository.SeatRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Group commit for bookings. Seats are reserved in memory as soon as a
+ * booking is submitted, so conflicts are rejected straight away; the booking
+ * then waits on a bounded queue. A single writer commits up to
+ * {@code maxBatchSize} bookings per transaction, waiting at most
+ * {@code linger} for a batch to fill, and completes each caller's future once
+ * its batch has committed. A full queue rejects new bookings rather than
+ * blocking the caller.
+ */
+@Service
+public class BookingPipeline {
+    private static final Logger log = LoggerFactory.getLogger(BookingPipeline.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    static final String CONFIRMED = "CONFIRMED";
+
+    private record Pending(BookingRequest request, CompletableFuture<Booking> future) {}
+
+    /** Either the booking written for a request, or why it was refused and which seats to give back. */
+    private record Outcome(Pending pending, Booking booking, RuntimeException failure, List<String> seatsToRelease) {}
+
+    private final SeatInventoryService inventoryService;
+    private final SeatRepository seatRepo;
+    private final SeatMapService seatMaps;
+    private final PassengerRepository passengerRepo;
+    private final BookingRepository bookingRepo;
+    private final FlightRepository flightRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetry retry;
+    private final IdempotencyGuard idempotency;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final Thread writer;
+    // Guards the running flag together with the enqueue, so nothing lands in the queue after stop's final drain.
+    private final Object intakeLock = new Object();
+    private volatile boolean running = true;
+
+    private final Counter committedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+
+    BookingPipeline(SeatInventoryService inventoryService, SeatRepository seatRepo, SeatMapService seatMaps, PassengerRepository passengerRepo,
+            BookingRepository bookingRepo, FlightRepository flightRepo, PlatformTransactionManager transactionManager, OptimisticRetry retry, IdempotencyGuard idempotency,
+            MeterRegistry meterRegistry,
+            @Value("${airlines.booking-pipeline.queue-capacity:1024}") int queueCapacity,
+            @Value("${airlines.booking-pipeline.max-batch-size:64}") int maxBatchSize,
+            @Value("${airlines.booking-pipeline.linger:5ms}") Duration linger) {
+        this.inventoryService = inventoryService;
+        this.seatRepo = seatRepo;
+        this.seatMaps = seatMaps;
+        this.passengerRepo = passengerRepo;
+        this.bookingRepo = bookingRepo;
+        this.flightRepo = flightRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retry = retry;
+        this.idempotency = idempotency;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.writer = new Thread(this::drain, "booking-writer");
+        this.writer.setDaemon(true);
+
+        this.committedCounter = meterRegistry.counter("booking.pipeline.requests", "outcome", "committed");
+        this.rejectedCounter = meterRegistry.counter("booking.pipeline.requests", "outcome", "rejected");
+        this.failedCounter = meterRegistry.counter("booking.pipeline.requests", "outcome", "failed");
+        this.batchSizes = DistributionSummary.builder("booking.pipeline.batch.size").register(meterRegistry);
+        this.commitTimer = meterRegistry.timer("booking.pipeline.commit");
+        meterRegistry.gaugeCollectionSize("booking.pipeline.queue.depth", Tags.empty(), queue);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /** Stops intake and lets the writer commit whatever is already queued. */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        synchronized(intakeLock) {
+            running = false;
+        }
+        writer.join(SHUTDOWN_TIMEOUT.toMillis());
+
+        Pending pending;
+        while((pending = queue.poll()) != null) {
+            fail(pending, pending.request().seatNumbers(), new BookingRejectedException("Booking pipeline shut down before the booking was committed."));
+        }
+    }
+
+    public CompletableFuture<Booking> submit(BookingRequest request) {
+        log.debug("submit method called with request: {}", request);
+
+        if(request.seatNumbers().isEmpty() || request.passengers().isEmpty()) {
+            throw new IllegalArgumentException("A booking needs at least one seat and one passenger");
+        }
+        if(!running) {
+            rejectedCounter.increment();
+            throw new BookingRejectedException("Bookings are not being accepted right now.");
+        }
+
+        reserve(request);
+
+        Pending pending = new Pending(request, new CompletableFuture<>());
+        boolean stopped;
+        boolean queued;
+        synchronized(intakeLock) {
+            stopped = !running;
+            queued = !stopped && queue.offer(pending);
+        }
+        if(stopped) {
+            release(request.flightId(), request.seatNumbers());
+            rejectedCounter.increment();
+            throw new BookingRejectedException("Bookings are not being accepted right now.");
+        }
+        if(!queued) {
+            release(request.flightId(), request.seatNumbers());
+            rejectedCounter.increment();
+            log.warn("Booking queue full with {} bookings, rejecting booking on flight {}.", queue.size(), request.flightId());
+            throw new BookingRejectedException("Too many bookings in progress, try again later.");
+        }
+
+        return pending.future();
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void reserve(BookingRequest request) {
+        List<String> reserved = new ArrayList<>();
+
+        try {
+            for(String seatNumber : request.seatNumbers()) {
+                if(!inventoryService.reserve(request.flightId(), seatNumber)) {
+                    log.warn("Seat {} on flight {} is not available to book.", seatNumber, request.flightId());
+                    throw new SeatUnavailableException("Seat " + seatNumber + " is not available on flight with ID: " + request.flightId());
+                }
+                reserved.add(seatNumber);
+            }
+        } catch(RuntimeException e) {
+            release(request.flightId(), reserved);
+            throw e;
+        }
+    }
+
+    private void release(UUID flightId, List<String> seatNumbers) {
+        seatNumbers.forEach(seatNumber -> inventoryService.unreserve(flightId, seatNumber));
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+
+        while(running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if(first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                commit(batch);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> fail(pending, pending.request().seatNumbers(), new BookingRejectedException("Booking writer was interrupted.")));
+                return;
+            } catch(RuntimeException e) {
+                log.error("Booking writer failed on a batch of {} bookings.", batch.size(), e);
+                batch.stream().filter(pending -> !pending.future().isDone())
+                    .forEach(pending -> fail(pending, pending.request().seatNumbers(), e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** Takes whatever is already queued, then waits out the linger for more. */
+    private void fill(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+
+        while(batch.size() < maxBatchSize) {
+            if(queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if(next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        List<Outcome> outcomes;
+
+        try {
+            // A seat written by someone else since it was read fails the version check; the
+            // retry reloads the seats, so a seat that was actually sold is refused, not overwritten.
+            outcomes = commitTimer.record(() -> retry.run(flightsOf(batch), () -> transactionTemplate.execute(status -> write(batch))));
+        } catch(RuntimeException e) {
+            if(batch.size() == 1) {
+                fail(batch.get(0), batch.get(0).request().seatNumbers(), e);
+                return;
+            }
+            // One bad booking shouldn't sink the rest of the batch.
+            log.warn("Committing a batch of {} bookings failed, committing them one by one.", batch.size());
+            batch.forEach(pending -> commit(List.of(pending)));
+            return;
+        }
+
+        for(Outcome outcome : outcomes) {
+            if(outcome.failure() == null) {
+                BookingRequest request = outcome.pending().request();
+                request.seatNumbers().forEach(seatNumber -> inventoryService.sold(request.flightId(), seatNumber));
+                committedCounter.increment();
+                outcome.pending().future().complete(outcome.booking());
+            } else {
+                fail(outcome.pending(), outcome.seatsToRelease(), outcome.failure());
+            }
+        }
+    }
+
+    private List<Outcome> write(List<Pending> batch) {
+        Map<UUID, FlightSeats> seatsByFlight = loadSeats(batch);
+        Map<String, Passenger> passengersByPassport = loadPassengers(batch);
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+
+        for(Pending pending : batch) {
+            BookingRequest request = pending.request();
+            FlightSeats flightSeats = seatsByFlight.get(request.flightId());
+
+            List<String> free = new ArrayList<>();
+            RuntimeException failure = null;
+            for(String seatNumber : request.seatNumbers()) {
+                RuntimeException unsellable = flightSeats.check(seatNumber);
+                if(unsellable == null) {
+                    free.add(seatNumber);
+                } else {
+                    failure = unsellable;
+                }
+            }
+
+            if(failure != null) {
+                log.warn("Booking on flight {} refused: {}", request.flightId(), failure.getMessage());
+                outcomes.add(new Outcome(pending, null, failure, free));
+                continue;
+            }
+
+            Booking booking = new Booking(flightRepo.getReferenceById(request.flightId()), CONFIRMED);
+            flightSeats.sell(booking, request.seatNumbers());
+            bookingRepo.save(booking);
+            for(Passenger requested : request.passengers()) {
+                passengerFor(requested, passengersByPassport).addBooking(booking);
+            }
+            idempotency.remember(BookingService.IDEMPOTENCY_SCOPE, request.idempotencyKey(), booking.getId());
+
+            outcomes.add(new Outcome(pending, booking, null, List.of()));
+        }
+
+        return outcomes;
+    }
+
+    private static Set<UUID> flightsOf(List<Pending> batch) {
+        return batch.stream().map(pending -> pending.request().flightId()).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * The seats one batch books on a flight, read once per batch. Selling only
+     * changes managed entities; their version checks at commit catch a seat
+     * that was sold elsewhere since it was read.
+     */
+    private interface FlightSeats {
+        /** Why the seat can't be sold, or null if it can. */
+        RuntimeException check(String seatNumber);
+
+        void sell(Booking booking, List<String> seatNumbers);
+    }
+
+    /** A row per seat: the requested rows are loaded and each sold seat is its own update. */
+    private record SeatRows(UUID flightId, Map<String, Seat> seats) implements FlightSeats {
+        @Override
+        public RuntimeException check(String seatNumber) {
+            Seat seat = seats.get(seatNumber);
+            if(seat == null) {
+                return new SeatNotFoundException("Seat " + seatNumber + " not found on flight with ID: " + flightId);
+            }
+            if(!Boolean.TRUE.equals(seat.getIsAvailable())) {
+                // Sold elsewhere: the in-memory reservation now matches the row, so it is kept.
+                return new SeatUnavailableException("Seat " + seatNumber + " is no longer available.");
+            }
+            return null;
+        }
+
+        @Override
+        public void sell(Booking booking, List<String> seatNumbers) {
+            for(String seatNumber : seatNumbers) {
+                Seat seat = seats.get(seatNumber);
+                seat.setIsAvailable(false);
+                booking.getSeat().add(seat);
+            }
+        }
+    }
+
+    /** A seat map: the whole batch's sales on the flight go out as one update of its row. */
+    private record SeatMapRow(UUID flightId, FlightSeatMap seatMap, SeatLayout layout) implements FlightSeats {
+        @Override
+        public RuntimeException check(String seatNumber) {
+            SeatLayout.Position position = layout.position(seatNumber);
+            if(position == null) {
+                return new SeatNotFoundException("Seat " + seatNumber + " not found on flight with ID: " + flightId);
+            }
+            if(seatMap.isSold(position.bit())) {
+                return new SeatUnavailableException("Seat " + seatNumber + " is no longer available.");
+            }
+            return null;
+        }
+
+        @Override
+        public void sell(Booking booking, List<String> seatNumbers) {
+            for(String seatNumber : seatNumbers) {
+                seatMap.setSold(layout.position(seatNumber).bit(), true);
+                booking.getSeatNumbers().add(seatNumber);
+            }
+        }
+    }
+
+    /** One query per flight in the batch; bookings for a popular flight share it. */
+    private Map<UUID, FlightSeats> loadSeats(List<Pending> batch) {
+        Map<UUID, Set<String>> seatNumbersByFlight = new HashMap<>();
+        for(Pending pending : batch) {
+            seatNumbersByFlight.computeIfAbsent(pending.request().flightId(), id -> new HashSet<>())
+                .addAll(pending.request().seatNumbers());
+        }
+
+        Map<UUID, FlightSeats> seatsByFlight = new HashMap<>();
+        seatNumbersByFlight.forEach((flightId, seatNumbers) -> {
+            // The flight's inventory was loaded when its seats were reserved, so this doesn't touch the database.
+            if(inventoryService.usesSeatMap(flightId)) {
+                FlightSeatMap seatMap = seatMaps.find(flightId)
+                    .orElseThrow(() -> new SeatNotFoundException("No seat map for flight with ID: " + flightId));
+                seatsByFlight.put(flightId, new SeatMapRow(flightId, seatMap, seatMaps.layout(seatMap.getAircraftType())));
+                return;
+            }
+
+            Map<String, Seat> seats = new HashMap<>();
+            seatRepo.findByFlightIdAndSeatNumberIn(flightId, seatNumbers).forEach(seat -> seats.put(seat.getSeatNumber(), seat));
+            seatsByFlight.put(flightId, new SeatRows(flightId, seats));
+        });
+        return seatsByFlight;
+    }
+
+    /** The passengers already on file for the batch's passports, oldest first per passport, in one query. */
+    private Map<String, Passenger> loadPassengers(List<Pending> batch) {
+        Set<Long> hashes = new HashSet<>();
+        for(Pending pending : batch) {
+            pending.request().passengers().stream()
+                .map(passenger -> Passenger.passportHash(passenger.getPassportNumber()))
+                .filter(Objects::nonNull)
+                .forEach(hashes::add);
+        }
+
+        Map<String, Passenger> passengersByPassport = new HashMap<>();
+        if(!hashes.isEmpty()) {
+            passengerRepo.findByPassportHashIn(hashes).forEach(passenger -> passengersByPassport.merge(
+                    Passenger.normalizePassport(passenger.getPassportNumber()), passenger,
+                    (current, other) -> current.getId().compareTo(other.getId()) <= 0 ? current : other));
+        }
+        return passengersByPassport;
+    }
+
+    // New passengers are copies, so a batch that rolls back can be retried with fresh entities;
+    // they join the map, so a passport booked twice in one batch is still one passenger.
+    private Passenger passengerFor(Passenger requested, Map<String, Passenger> passengersByPassport) {
+        String passport = Passenger.normalizePassport(requested.getPassportNumber());
+        Passenger known = passport == null ? null : passengersByPassport.get(passport);
+        if(known != null) {
+            return known;
+        }
+
+        Passenger passenger = passengerRepo.save(new Passenger(requested.getName(), requested.getPassportNumber()));
+        if(passport != null) {
+            passengersByPassport.put(passport, passenger);
+        }
+        return passenger;
+    }
+
+    private void fail(Pending pending, List<String> seatsToRelease, RuntimeException failure) {
+        release(pending.request().flightId(), seatsToRelease);
+        failedCounter.increment();
+        pending.future().completeExceptionally(failure);
+    }
+}
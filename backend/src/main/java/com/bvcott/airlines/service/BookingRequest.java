@@ -0,0 +1,18 @@
+package com.bvcott.airlines.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.bvcott.airlines.model.Passenger;
+
+/**
+ * One booking: the given seats on a flight for the given passengers. The
+ * passengers are new and only their details are used. A client that may
+ * resend the request sets {@code idempotencyKey} so a resend returns the
+ * booking already made.
+ */
+public record BookingRequest(UUID flightId, List<String> seatNumbers, List<Passenger> passengers, String idempotencyKey) {
+    public BookingRequest(UUID flightId, List<String> seatNumbers, List<Passenger> passengers) {
+        this(flightId, seatNumbers, passengers, null);
+    }
+}
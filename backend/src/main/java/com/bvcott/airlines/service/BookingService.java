@@ -0,0 +1,87 @@
+package com.bvcott.airlines.service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bvcott.airlines.exception.BookingNotFoundException;
+import com.bvcott.airlines.exception.PassengerNotFoundException;
+import com.bvcott.airlines.model.Booking;
+import com.bvcott.airlines.repository.BookingRepository;
+import com.bvcott.airlines.repository.PassengerRepository;
+
+@Service
+public class BookingService {
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+    static final String IDEMPOTENCY_SCOPE = "booking";
+
+    private final BookingRepository bookingRepo;
+    private final PassengerRepository passengerRepo;
+    private final BookingPipeline pipeline;
+    private final IdempotencyGuard idempotency;
+    private final TransactionTemplate transactionTemplate;
+
+    BookingService(BookingRepository bookingRepo, PassengerRepository passengerRepo, BookingPipeline pipeline, IdempotencyGuard idempotency,
+            PlatformTransactionManager transactionManager) {
+        this.bookingRepo = bookingRepo;
+        this.passengerRepo = passengerRepo;
+        this.pipeline = pipeline;
+        this.idempotency = idempotency;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reserves the seats and queues the booking for the next group commit.
+     * The future completes with the persisted booking once it has committed.
+     * A request repeating an earlier idempotency key gets that booking back.
+     */
+    public CompletableFuture<Booking> createBooking(BookingRequest request) {
+        log.debug("createBooking method called with request: {}", request);
+        return idempotency.submit(IDEMPOTENCY_SCOPE, request.idempotencyKey(), this::retrieveById, Booking::getId,
+                () -> pipeline.submit(request));
+    }
+
+    public Booking retrieveById(UUID id) {
+        log.debug("retrieveById method called with ID: {}", id);
+        return bookingRepo
+            .findById(id)
+            .orElseThrow(() -> {
+                log.warn("Booking with ID: {} - NOT FOUND", id);
+                return new BookingNotFoundException("Booking not found with ID: " + id);
+            });
+    }
+
+    /**
+     * Adds a stored passenger to a stored booking. Only the join row is
+     * written, so the booking's passengers are never loaded; adding one who
+     * is already on the booking changes nothing.
+     */
+    public void addPassenger(UUID bookingId, UUID passengerId) {
+        log.debug("addPassenger method called with booking ID: {} and passenger ID: {}", bookingId, passengerId);
+
+        if(!bookingRepo.existsById(bookingId)) {
+            log.warn("Booking with ID: {} - NOT FOUND", bookingId);
+            throw new BookingNotFoundException("Booking not found with ID: " + bookingId);
+        }
+        if(!passengerRepo.existsById(passengerId)) {
+            log.warn("Passenger with ID: {} - NOT FOUND", passengerId);
+            throw new PassengerNotFoundException("Passenger not found with ID: " + passengerId);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> bookingRepo.addPassenger(bookingId, passengerId));
+        } catch(DataIntegrityViolationException e) {
+            // Only an existing row is a harmless duplicate; anything else, such as a concurrent delete, is not.
+            if(bookingRepo.countPassenger(bookingId, passengerId) == 0) {
+                throw e;
+            }
+            log.info("Passenger {} is already on booking {}.", passengerId, bookingId);
+        }
+    }
+}
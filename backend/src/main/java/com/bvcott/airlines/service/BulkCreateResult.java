@@ -0,0 +1,9 @@
+package com.bvcott.airlines.service;
+
+import java.util.List;
+
+public record BulkCreateResult<T>(List<T> created, List<RowConflict> conflicts) {
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+}
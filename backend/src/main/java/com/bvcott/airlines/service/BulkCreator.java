@@ -0,0 +1,128 @@
+package com.bvcott.airlines.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Set-based create for reference data. Each unique key is checked for the
+ * whole batch with one IN query per chunk of values, accepted rows are inserted a chunk
+ * at a time through {@code saveAll} (which Hibernate turns into JDBC batches),
+ * and the database's unique constraints stay the final guard: a chunk that
+ * still violates one, because of a concurrent insert, is retried row by row
+ * so only the offending rows are reported.
+ */
+final class BulkCreator<T> {
+    private static final Logger log = LoggerFactory.getLogger(BulkCreator.class);
+
+    static final int CHUNK_SIZE = 1000;
+
+    record UniqueKey<T>(String field, Function<T, String> valueOf, Function<List<String>, List<String>> findExisting) {}
+
+    private final String entity;
+    private final Predicate<T> incomplete;
+    private final List<UniqueKey<T>> keys;
+    private final Function<List<T>, List<T>> saveAll;
+    private final UnaryOperator<T> save;
+    private final UnaryOperator<T> copy;
+
+    BulkCreator(String entity, Predicate<T> incomplete, List<UniqueKey<T>> keys,
+            Function<List<T>, List<T>> saveAll, UnaryOperator<T> save, UnaryOperator<T> copy) {
+        this.entity = entity;
+        this.incomplete = incomplete;
+        this.keys = keys;
+        this.saveAll = saveAll;
+        this.save = save;
+        this.copy = copy;
+    }
+
+    BulkCreateResult<T> create(List<T> rows) {
+        List<RowConflict> conflicts = new ArrayList<>();
+        List<Integer> accepted = acceptUniqueWithinBatch(rows, conflicts);
+
+        for(UniqueKey<T> key : keys) {
+            Set<String> taken = existingValues(key, accepted.stream().map(row -> key.valueOf().apply(rows.get(row))).toList());
+            accepted.removeIf(row -> {
+                String value = key.valueOf().apply(rows.get(row));
+                if(!taken.contains(value)) {
+                    return false;
+                }
+                conflicts.add(new RowConflict(row, entity + " already exists with " + key.field() + ": " + value));
+                return true;
+            });
+        }
+
+        List<T> created = new ArrayList<>(accepted.size());
+        for(int from = 0; from < accepted.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + CHUNK_SIZE, accepted.size()));
+            try {
+                created.addAll(saveAll.apply(chunk.stream().map(rows::get).toList()));
+            } catch(DataIntegrityViolationException e) {
+                log.warn("Bulk insert of {} {} rows hit a unique constraint, retrying row by row.", chunk.size(), entity);
+                insertOneByOne(rows, chunk, created, conflicts);
+            }
+        }
+
+        conflicts.sort(Comparator.comparingInt(RowConflict::row));
+        return new BulkCreateResult<>(created, conflicts);
+    }
+
+    private List<Integer> acceptUniqueWithinBatch(List<T> rows, List<RowConflict> conflicts) {
+        List<Map<String, Integer>> firstSeen = new ArrayList<>();
+        keys.forEach(key -> firstSeen.add(new HashMap<>()));
+
+        List<Integer> accepted = new ArrayList<>(rows.size());
+        rows:
+        for(int row = 0; row < rows.size(); row++) {
+            T candidate = rows.get(row);
+            if(candidate == null || incomplete.test(candidate)) {
+                conflicts.add(new RowConflict(row, "Fields cannot be empty."));
+                continue;
+            }
+
+            for(int k = 0; k < keys.size(); k++) {
+                String value = keys.get(k).valueOf().apply(candidate);
+                Integer first = firstSeen.get(k).get(value);
+                if(first != null) {
+                    conflicts.add(new RowConflict(row, "Duplicate " + keys.get(k).field() + " in batch: " + value + " (first seen at row " + first + ")"));
+                    continue rows;
+                }
+            }
+            for(int k = 0; k < keys.size(); k++) {
+                firstSeen.get(k).put(keys.get(k).valueOf().apply(candidate), row);
+            }
+            accepted.add(row);
+        }
+        return accepted;
+    }
+
+    private Set<String> existingValues(UniqueKey<T> key, List<String> values) {
+        Set<String> taken = new HashSet<>();
+        for(int from = 0; from < values.size(); from += CHUNK_SIZE) {
+            taken.addAll(key.findExisting().apply(values.subList(from, Math.min(from + CHUNK_SIZE, values.size()))));
+        }
+        return taken;
+    }
+
+    private void insertOneByOne(List<T> rows, List<Integer> chunk, List<T> created, List<RowConflict> conflicts) {
+        for(int row : chunk) {
+            try {
+                // The failed persist left generated ids on the originals; saving them would merge, not insert.
+                created.add(save.apply(copy.apply(rows.get(row))));
+            } catch(DataIntegrityViolationException e) {
+                conflicts.add(new RowConflict(row, entity + " violates a unique constraint on name or code."));
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.bvcott.airlines.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Itineraries from {@code originCode} to {@code destinationCode} whose first
+ * leg departs inside the given window, with at most {@code maxLegs} flights.
+ */
+public record ConnectionQuery(String originCode, String destinationCode, LocalDateTime earliestDeparture,
+        LocalDateTime latestDeparture, int maxLegs, int limit) {
+}
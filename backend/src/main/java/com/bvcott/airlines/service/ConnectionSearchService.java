@@ -0,0 +1,249 @@
+package com.bvcott.airlines.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.exception.ConnectionSearchRejectedException;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.repository.FlightRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Finds multi-leg itineraries over an immutable {@link ScheduleSnapshot}.
+ * <p>
+ * The search is a depth-first, time-dependent expansion: from each airport it
+ * only follows departures inside the connection window after the inbound
+ * arrival, and the last permitted leg is looked up directly on the route to
+ * the destination. Partial itineraries that already take longer than the
+ * worst of the current best {@code limit} results are pruned.
+ */
+@Service
+public class ConnectionSearchService {
+    private static final Logger log = LoggerFactory.getLogger(ConnectionSearchService.class);
+
+    static final int MAX_RESULTS = 100;
+
+    private static final Comparator<Itinerary> BY_TRAVEL_TIME = Comparator
+        .comparing(Itinerary::totalTravelTime)
+        .thenComparingInt(itinerary -> itinerary.legs().size());
+
+    private final FlightRepository flightRepo;
+    private final long minimumConnectionMinutes;
+    private final long maximumConnectionMinutes;
+    private final int maximumLegs;
+    private final ThreadPoolExecutor searchPool;
+
+    private final Object writeLock = new Object();
+    private final Map<UUID, ScheduledLeg> legsByFlight = new HashMap<>();
+    private volatile ScheduleSnapshot snapshot = ScheduleSnapshot.EMPTY;
+
+    @Autowired
+    ConnectionSearchService(FlightRepository flightRepo,
+            @Value("${airlines.connections.minimum-connection-time:45m}") Duration minimumConnectionTime,
+            @Value("${airlines.connections.maximum-connection-time:12h}") Duration maximumConnectionTime,
+            @Value("${airlines.connections.maximum-legs:4}") int maximumLegs,
+            @Value("${airlines.connections.search-threads:4}") int searchThreads,
+            @Value("${airlines.connections.search-queue-capacity:256}") int searchQueueCapacity) {
+        this.flightRepo = flightRepo;
+        this.minimumConnectionMinutes = minimumConnectionTime.toMinutes();
+        this.maximumConnectionMinutes = maximumConnectionTime.toMinutes();
+        this.maximumLegs = maximumLegs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.searchPool = new ThreadPoolExecutor(searchThreads, searchThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(searchQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "connection-search-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        searchPool.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Building connection search snapshot...");
+        rebuild(flightRepo.findAllWithSchedule());
+        log.info("Connection search snapshot built with {} flights.", legsByFlight.size());
+    }
+
+    public void rebuild(Collection<Flight> flights) {
+        synchronized(writeLock) {
+            legsByFlight.clear();
+            flights.forEach(flight -> legsByFlight.put(flight.getId(), ScheduledLeg.of(flight)));
+            snapshot = ScheduleSnapshot.of(legsByFlight.values());
+        }
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        log.debug("Flight {} {}, updating connection snapshot.", event.flightId(), event.type());
+
+        switch(event.type()) {
+            case CREATED, UPDATED -> put(event.flight());
+            case DELETED -> remove(event.flightId());
+        }
+    }
+
+    public void put(Flight flight) {
+        ScheduledLeg leg = ScheduledLeg.of(flight);
+
+        synchronized(writeLock) {
+            ScheduleSnapshot next = snapshot;
+            ScheduledLeg previous = legsByFlight.put(leg.flightId(), leg);
+            if(previous != null) {
+                next = next.without(previous);
+            }
+            snapshot = next.with(leg);
+        }
+    }
+
+    public void remove(UUID flightId) {
+        synchronized(writeLock) {
+            ScheduledLeg previous = legsByFlight.remove(flightId);
+            if(previous != null) {
+                snapshot = snapshot.without(previous);
+            }
+        }
+    }
+
+    public CompletableFuture<List<Itinerary>> searchAsync(ConnectionQuery query) {
+        try {
+            return CompletableFuture.supplyAsync(() -> search(query), searchPool);
+        } catch(RejectedExecutionException e) {
+            log.warn("Connection search rejected, {} searches already queued.", searchPool.getQueue().size());
+            throw new ConnectionSearchRejectedException("Too many connection searches in progress, try again later.");
+        }
+    }
+
+    public List<Itinerary> search(ConnectionQuery query) {
+        log.debug("search method called with query: {}", query);
+
+        if(query.maxLegs() < 1 || query.maxLegs() > maximumLegs) {
+            throw new IllegalArgumentException("Number of legs must be between 1 and " + maximumLegs);
+        }
+        if(query.limit() < 1 || query.limit() > MAX_RESULTS) {
+            throw new IllegalArgumentException("Number of itineraries must be between 1 and " + MAX_RESULTS + ", was: " + query.limit());
+        }
+
+        Search search = new Search(snapshot, query);
+        ScheduledLeg[] firstLegs = search.snapshot.departures(search.origin);
+        long latest = ScheduledLeg.toMinute(query.latestDeparture());
+
+        for(int i = ScheduleSnapshot.firstDepartingAtOrAfter(firstLegs, ScheduledLeg.toMinute(query.earliestDeparture()));
+                i < firstLegs.length && firstLegs[i].departureMinute() <= latest; i++) {
+            search.path[0] = firstLegs[i];
+            search.extend(1, firstLegs[i].departureMinute());
+        }
+
+        return search.results();
+    }
+
+    private final class Search {
+        private final ScheduleSnapshot snapshot;
+        private final String origin;
+        private final String destination;
+        private final int maxLegs;
+        private final int limit;
+        private final ScheduledLeg[] path;
+        // Max-heap on travel time: the head is the result to drop when a better one arrives.
+        private final PriorityQueue<Itinerary> best;
+
+        private Search(ScheduleSnapshot snapshot, ConnectionQuery query) {
+            this.snapshot = snapshot;
+            this.origin = query.originCode().toUpperCase();
+            this.destination = query.destinationCode().toUpperCase();
+            this.maxLegs = query.maxLegs();
+            this.limit = query.limit();
+            this.path = new ScheduledLeg[maxLegs];
+            this.best = new PriorityQueue<>(BY_TRAVEL_TIME.reversed());
+        }
+
+        private void extend(int depth, long startMinute) {
+            ScheduledLeg last = path[depth - 1];
+
+            if(last.destinationCode().equals(destination)) {
+                offer(depth, last.arrivalMinute() - startMinute);
+                return;
+            }
+            if(depth == maxLegs || visited(last.destinationCode(), depth)) {
+                return;
+            }
+
+            long earliest = last.arrivalMinute() + minimumConnectionMinutes;
+            long latest = last.arrivalMinute() + maximumConnectionMinutes;
+            // On the final permitted leg only flights straight to the destination can help.
+            ScheduledLeg[] next = depth == maxLegs - 1
+                ? snapshot.departures(last.destinationCode(), destination)
+                : snapshot.departures(last.destinationCode());
+
+            for(int i = ScheduleSnapshot.firstDepartingAtOrAfter(next, earliest);
+                    i < next.length && next[i].departureMinute() <= latest; i++) {
+                if(!worthExploring(next[i].arrivalMinute() - startMinute)) {
+                    continue;
+                }
+                path[depth] = next[i];
+                extend(depth + 1, startMinute);
+            }
+        }
+
+        private boolean visited(String airportCode, int depth) {
+            if(airportCode.equals(origin)) {
+                return true;
+            }
+            for(int i = 0; i < depth - 1; i++) {
+                if(path[i].destinationCode().equals(airportCode)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean worthExploring(long elapsedMinutes) {
+            return best.size() < limit || elapsedMinutes < best.peek().totalTravelTime().toMinutes();
+        }
+
+        private void offer(int depth, long travelMinutes) {
+            if(!worthExploring(travelMinutes)) {
+                return;
+            }
+            best.add(new Itinerary(List.of(Arrays.copyOf(path, depth)), Duration.ofMinutes(travelMinutes)));
+            if(best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        private List<Itinerary> results() {
+            List<Itinerary> results = new ArrayList<>(best);
+            results.sort(BY_TRAVEL_TIME);
+            return results;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bvcott.airlines.service;
+
+import java.util.UUID;
+
+/** A duty that stops a crew member from working a flight. */
+public record CrewConflict(UUID crewMemberId, CrewDuty duty, Kind kind) {
+    public enum Kind {
+        /** The duties overlap. */
+        OVERLAP,
+        /** The duties don't overlap, but the gap between them is shorter than the minimum rest. */
+        INSUFFICIENT_REST
+    }
+}
@@ -0,0 +1,10 @@
+package com.bvcott.airlines.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Time a crew member is on duty for one flight: from reporting before
+ * departure until release after arrival.
+ */
+public record CrewDuty(UUID flightId, LocalDateTime start, LocalDateTime end) {}
@@ -3,21 +3,42 @@ package com.bvcott.airlines.service;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.bvcott.airlines.exception.CrewConflictException;
 import com.bvcott.airlines.exception.CrewMemberNotFoundException;
+import com.bvcott.airlines.exception.FlightNotFoundException;
 import com.bvcott.airlines.model.CrewMember;
+import com.bvcott.airlines.model.Flight;
 import com.bvcott.airlines.repository.CrewMemberRepository;
+import com.bvcott.airlines.repository.FlightRepository;
 
+import jakarta.persistence.EntityManager;
+
+@Service
 public class CrewMemberService {
     private static final Logger log = LoggerFactory.getLogger(CrewMemberService.class);
     private CrewMemberRepository crewRepo;
+    private FlightRepository flightRepo;
+    private CrewRosterIndex rosterIndex;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
 
-    CrewMemberService(CrewMemberRepository crewRepo) {
+    CrewMemberService(CrewMemberRepository crewRepo, FlightRepository flightRepo, CrewRosterIndex rosterIndex,
+            EntityManager entityManager, PlatformTransactionManager transactionManager) {
         this.crewRepo = crewRepo;
+        this.flightRepo = flightRepo;
+        this.rosterIndex = rosterIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public CrewMember createCrewMember(CrewMember crew) {
@@ -28,7 +49,9 @@ public class CrewMemberService {
             throw new DataIntegrityViolationException("One or more of the following fields are empty: name, role");
         }
 
-        return crewRepo.save(crew);
+        CrewMember saved = crewRepo.save(crew);
+        rosterIndex.register(saved);
+        return saved;
     }
 
     public List<CrewMember> retrieveAll() {
@@ -36,6 +59,17 @@ public class CrewMemberService {
         return crewRepo.findAll();
     }
 
+    public KeysetPage<CrewMember> retrievePage(String cursor, int size) {
+        log.debug("retrievePage method called, cursor: {}, size: {}", cursor, size);
+        return Keyset.page(cursor, size, crewRepo::findByOrderByIdAsc, crewRepo::findByIdGreaterThanOrderByIdAsc, CrewMember::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public long streamAll(Consumer<? super CrewMember> action) {
+        log.debug("streamAll method called.");
+        return Keyset.forEach(crewRepo.streamAll(), entityManager, action);
+    }
+
     public CrewMember retrieveById(UUID id) {
         log.debug("retrieveById method called");
         return crewRepo
@@ -54,6 +88,7 @@ public class CrewMemberService {
 
         log.info("Crew member found, deleting...");
         crewRepo.deleteById(id);
+        rosterIndex.remove(id);
     }
 
     public CrewMember updateCrewMember(UUID id, CrewMember crew) {
@@ -76,12 +111,73 @@ public class CrewMemberService {
         existingCrew.setRole(crew.getRole());
 
         CrewMember updatedCrew = crewRepo.save(existingCrew);
+        rosterIndex.register(existingCrew);
         log.info("CrewMember updated successfully.");
 
         return updatedCrew;
     }
 
-    
+    /**
+     * Rosters the crew member on the flight, unless the duty overlaps one of
+     * theirs or leaves them less than the minimum rest. The roster index is
+     * claimed first, so concurrent assignments of one crew member can't both
+     * pass the check, and released again if the assignment can't be stored.
+     */
+    public CrewDuty assignToFlight(UUID crewMemberId, UUID flightId) {
+        log.debug("assignToFlight method called with crew member ID: {} and flight ID: {}", crewMemberId, flightId);
+        CrewMember crew = retrieveById(crewMemberId);
+        CrewDuty duty = dutyFor(flightId);
+        if(rosterIndex.duties(crewMemberId).contains(duty)) {
+            log.info("Crew member {} is already assigned to flight {}.", crewMemberId, flightId);
+            return duty;
+        }
 
+        List<CrewConflict> conflicts = rosterIndex.tryAssign(crewMemberId, crew.getRole(), duty);
+        if(!conflicts.isEmpty()) {
+            log.warn("Couldn't assign crew member {} to flight {}, conflicts: {}", crewMemberId, flightId, conflicts);
+            throw new CrewConflictException("Crew member " + crewMemberId + " can't work flight " + flightId + ": "
+                    + conflicts.get(0).kind() + " with flight " + conflicts.get(0).duty().flightId());
+        }
 
+        try {
+            transactionTemplate.executeWithoutResult(status -> crewRepo.addAssignment(crewMemberId, flightId));
+        } catch(DataIntegrityViolationException e) {
+            // Only a concurrent insert of the same row is harmless; a missing flight or crew member is not.
+            if(crewRepo.countAssignment(crewMemberId, flightId) > 0) {
+                log.info("Crew member {} is already assigned to flight {}.", crewMemberId, flightId);
+                return duty;
+            }
+            rosterIndex.unassign(crewMemberId, flightId);
+            throw e;
+        } catch(RuntimeException e) {
+            rosterIndex.unassign(crewMemberId, flightId);
+            throw e;
+        }
+        return duty;
+    }
+
+    public boolean unassignFromFlight(UUID crewMemberId, UUID flightId) {
+        log.debug("unassignFromFlight method called with crew member ID: {} and flight ID: {}", crewMemberId, flightId);
+        int removed = transactionTemplate.execute(status -> crewRepo.removeAssignment(crewMemberId, flightId));
+        rosterIndex.unassign(crewMemberId, flightId);
+        return removed > 0;
+    }
+
+    public List<CrewConflict> findConflicts(UUID crewMemberId, UUID flightId) {
+        log.debug("findConflicts method called with crew member ID: {} and flight ID: {}", crewMemberId, flightId);
+        return rosterIndex.conflicts(crewMemberId, dutyFor(flightId));
+    }
+
+    /** Crew members of {@code role} free to work the flight, looked up in the roster index. */
+    public List<CrewMember> findAvailable(String role, UUID flightId) {
+        log.debug("findAvailable method called with role: {} and flight ID: {}", role, flightId);
+        return crewRepo.findAllById(rosterIndex.available(role, dutyFor(flightId)));
+    }
+
+    private CrewDuty dutyFor(UUID flightId) {
+        Flight flight = flightRepo
+            .findById(flightId)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + flightId));
+        return rosterIndex.duty(flight.getId(), flight.getDepartureTime(), flight.getArrivalTime());
+    }
 }
@@ -0,0 +1,341 @@
+package com.bvcott.airlines.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.model.CrewMember;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.projection.CrewDutyRow;
+import com.bvcott.airlines.repository.CrewMemberRepository;
+
+/**
+ * In-memory roster of every crew member's duties, kept as one interval tree
+ * per crew member. A duty runs from reporting before departure to release
+ * after arrival, and two duties conflict when they overlap or leave less than
+ * the minimum rest between them; checking a flight against a crew member is
+ * one tree search, and finding who is free for a flight is one search per
+ * crew member of the role, without touching the database.
+ * <p>
+ * Trees are immutable and replaced on write, like the flight search index,
+ * so searches never lock. Writes to one crew member's roster are atomic, so
+ * two concurrent assignments can't both pass the conflict check.
+ */
+@Component
+public class CrewRosterIndex {
+    private static final Logger log = LoggerFactory.getLogger(CrewRosterIndex.class);
+
+    /**
+     * Duties sorted by start, laid out as an implicit balanced tree: the root
+     * of {@code [lo, hi)} is its middle element, and {@code maxEnd} holds the
+     * latest end in each subtree so searches skip subtrees that finish before
+     * the window opens.
+     */
+    static final class DutyTree {
+        static final DutyTree EMPTY = new DutyTree(new CrewDuty[0]);
+        private static final Comparator<CrewDuty> BY_START = Comparator.comparing(CrewDuty::start).thenComparing(CrewDuty::flightId);
+
+        private final CrewDuty[] duties;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnd;
+
+        private DutyTree(CrewDuty[] sortedDuties) {
+            this.duties = sortedDuties;
+            this.starts = new long[sortedDuties.length];
+            this.ends = new long[sortedDuties.length];
+            this.maxEnd = new long[sortedDuties.length];
+            for(int i = 0; i < sortedDuties.length; i++) {
+                starts[i] = epochSeconds(sortedDuties[i].start());
+                ends[i] = epochSeconds(sortedDuties[i].end());
+            }
+            computeMaxEnd(0, sortedDuties.length);
+        }
+
+        static DutyTree of(List<CrewDuty> duties) {
+            CrewDuty[] sorted = duties.toArray(CrewDuty[]::new);
+            Arrays.sort(sorted, BY_START);
+            return new DutyTree(sorted);
+        }
+
+        private long computeMaxEnd(int lo, int hi) {
+            if(lo >= hi) {
+                return Long.MIN_VALUE;
+            }
+            int mid = (lo + hi) >>> 1;
+            maxEnd[mid] = Math.max(ends[mid], Math.max(computeMaxEnd(lo, mid), computeMaxEnd(mid + 1, hi)));
+            return maxEnd[mid];
+        }
+
+        int size() {
+            return duties.length;
+        }
+
+        /** Duties that start before {@code to} and end after {@code from}, in start order. */
+        List<CrewDuty> overlapping(long from, long to) {
+            List<CrewDuty> found = new ArrayList<>();
+            collect(0, duties.length, from, to, found);
+            return found;
+        }
+
+        private void collect(int lo, int hi, long from, long to, List<CrewDuty> found) {
+            if(lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if(maxEnd[mid] <= from) {
+                return;
+            }
+            collect(lo, mid, from, to, found);
+            if(starts[mid] < to) {
+                if(ends[mid] > from) {
+                    found.add(duties[mid]);
+                }
+                collect(mid + 1, hi, from, to, found);
+            }
+        }
+
+        boolean anyOverlapping(long from, long to, UUID ignoredFlightId) {
+            return any(0, duties.length, from, to, ignoredFlightId);
+        }
+
+        private boolean any(int lo, int hi, long from, long to, UUID ignoredFlightId) {
+            if(lo >= hi) {
+                return false;
+            }
+            int mid = (lo + hi) >>> 1;
+            if(maxEnd[mid] <= from) {
+                return false;
+            }
+            if(starts[mid] < to && ends[mid] > from && !duties[mid].flightId().equals(ignoredFlightId)) {
+                return true;
+            }
+            return any(lo, mid, from, to, ignoredFlightId) || (starts[mid] < to && any(mid + 1, hi, from, to, ignoredFlightId));
+        }
+
+        DutyTree with(CrewDuty duty) {
+            DutyTree base = without(duty.flightId());
+            int insertAt = Arrays.binarySearch(base.duties, duty, BY_START);
+            insertAt = insertAt < 0 ? -insertAt - 1 : insertAt;
+
+            CrewDuty[] updated = new CrewDuty[base.duties.length + 1];
+            System.arraycopy(base.duties, 0, updated, 0, insertAt);
+            updated[insertAt] = duty;
+            System.arraycopy(base.duties, insertAt, updated, insertAt + 1, base.duties.length - insertAt);
+            return new DutyTree(updated);
+        }
+
+        DutyTree without(UUID flightId) {
+            for(int i = 0; i < duties.length; i++) {
+                if(duties[i].flightId().equals(flightId)) {
+                    CrewDuty[] updated = new CrewDuty[duties.length - 1];
+                    System.arraycopy(duties, 0, updated, 0, i);
+                    System.arraycopy(duties, i + 1, updated, i, duties.length - i - 1);
+                    return new DutyTree(updated);
+                }
+            }
+            return this;
+        }
+    }
+
+    private record Roster(String role, DutyTree duties) {}
+
+    private final CrewMemberRepository crewRepo;
+    private final Duration reportBeforeDeparture;
+    private final Duration releaseAfterArrival;
+    private final long minimumRestSeconds;
+    private final Map<UUID, Roster> rosters = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> crewByRole = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> crewByFlight = new ConcurrentHashMap<>();
+
+    CrewRosterIndex(CrewMemberRepository crewRepo,
+            @Value("${airlines.crew.report-before-departure:1h}") Duration reportBeforeDeparture,
+            @Value("${airlines.crew.release-after-arrival:30m}") Duration releaseAfterArrival,
+            @Value("${airlines.crew.minimum-rest:10h}") Duration minimumRest) {
+        this.crewRepo = crewRepo;
+        this.reportBeforeDeparture = reportBeforeDeparture;
+        this.releaseAfterArrival = releaseAfterArrival;
+        this.minimumRestSeconds = minimumRest.toSeconds();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding crew roster index...");
+        Map<UUID, String> roles = new HashMap<>();
+        Map<UUID, List<CrewDuty>> duties = new HashMap<>();
+        for(CrewDutyRow row : crewRepo.findAllDuties()) {
+            roles.put(row.crewMemberId(), row.role());
+            List<CrewDuty> crewDuties = duties.computeIfAbsent(row.crewMemberId(), id -> new ArrayList<>());
+            if(row.flightId() != null) {
+                crewDuties.add(duty(row.flightId(), row.departureTime(), row.arrivalTime()));
+            }
+        }
+
+        rosters.clear();
+        crewByRole.clear();
+        crewByFlight.clear();
+        roles.forEach((crewMemberId, role) -> {
+            List<CrewDuty> crewDuties = duties.get(crewMemberId);
+            rosters.put(crewMemberId, new Roster(role, DutyTree.of(crewDuties)));
+            crewByRole.computeIfAbsent(role, r -> ConcurrentHashMap.newKeySet()).add(crewMemberId);
+            crewDuties.forEach(duty -> crewByFlight.computeIfAbsent(duty.flightId(), f -> ConcurrentHashMap.newKeySet()).add(crewMemberId));
+        });
+        log.info("Crew roster index rebuilt with {} crew members.", rosters.size());
+    }
+
+    public CrewDuty duty(UUID flightId, LocalDateTime departureTime, LocalDateTime arrivalTime) {
+        return new CrewDuty(flightId, departureTime.minus(reportBeforeDeparture), arrivalTime.plus(releaseAfterArrival));
+    }
+
+    /** Adds a crew member, or moves them to another role, keeping their duties. */
+    public void register(CrewMember crewMember) {
+        String[] previousRole = new String[1];
+        rosters.compute(crewMember.getId(), (id, roster) -> {
+            previousRole[0] = roster == null ? null : roster.role();
+            return new Roster(crewMember.getRole(), roster == null ? DutyTree.EMPTY : roster.duties());
+        });
+        if(previousRole[0] != null && !previousRole[0].equals(crewMember.getRole())) {
+            removeFromRole(previousRole[0], crewMember.getId());
+        }
+        crewByRole.computeIfAbsent(crewMember.getRole(), r -> ConcurrentHashMap.newKeySet()).add(crewMember.getId());
+    }
+
+    public void remove(UUID crewMemberId) {
+        Roster roster = rosters.remove(crewMemberId);
+        if(roster != null) {
+            removeFromRole(roster.role(), crewMemberId);
+            Arrays.stream(roster.duties().duties).forEach(duty -> removeFromFlight(duty.flightId(), crewMemberId));
+        }
+    }
+
+    /** What stops the crew member from working {@code duty}, ignoring a duty they already have on the same flight. */
+    public List<CrewConflict> conflicts(UUID crewMemberId, CrewDuty duty) {
+        Roster roster = rosters.get(crewMemberId);
+        return roster == null ? List.of() : conflicts(crewMemberId, roster.duties(), duty);
+    }
+
+    private List<CrewConflict> conflicts(UUID crewMemberId, DutyTree duties, CrewDuty duty) {
+        long start = epochSeconds(duty.start());
+        long end = epochSeconds(duty.end());
+        List<CrewConflict> conflicts = new ArrayList<>();
+
+        for(CrewDuty other : duties.overlapping(start - minimumRestSeconds, end + minimumRestSeconds)) {
+            if(other.flightId().equals(duty.flightId())) {
+                continue;
+            }
+            boolean overlaps = epochSeconds(other.start()) < end && epochSeconds(other.end()) > start;
+            conflicts.add(new CrewConflict(crewMemberId, other, overlaps ? CrewConflict.Kind.OVERLAP : CrewConflict.Kind.INSUFFICIENT_REST));
+        }
+        return conflicts;
+    }
+
+    /**
+     * Rosters the crew member on {@code duty} unless it conflicts with one of
+     * their duties. Returns the conflicts, empty when the duty was added.
+     */
+    public List<CrewConflict> tryAssign(UUID crewMemberId, String role, CrewDuty duty) {
+        List<List<CrewConflict>> outcome = new ArrayList<>(1);
+        rosters.compute(crewMemberId, (id, roster) -> {
+            DutyTree duties = roster == null ? DutyTree.EMPTY : roster.duties();
+            List<CrewConflict> conflicts = conflicts(id, duties, duty);
+            outcome.add(conflicts);
+            return conflicts.isEmpty() ? new Roster(role, duties.with(duty)) : roster;
+        });
+
+        List<CrewConflict> conflicts = outcome.get(0);
+        if(conflicts.isEmpty()) {
+            crewByRole.computeIfAbsent(role, r -> ConcurrentHashMap.newKeySet()).add(crewMemberId);
+            crewByFlight.computeIfAbsent(duty.flightId(), f -> ConcurrentHashMap.newKeySet()).add(crewMemberId);
+        }
+        return conflicts;
+    }
+
+    public void unassign(UUID crewMemberId, UUID flightId) {
+        rosters.computeIfPresent(crewMemberId, (id, roster) -> new Roster(roster.role(), roster.duties().without(flightId)));
+        removeFromFlight(flightId, crewMemberId);
+    }
+
+    /** Crew members of {@code role} who could work {@code duty}: no overlap and enough rest either side. */
+    public List<UUID> available(String role, CrewDuty duty) {
+        long from = epochSeconds(duty.start()) - minimumRestSeconds;
+        long to = epochSeconds(duty.end()) + minimumRestSeconds;
+        List<UUID> available = new ArrayList<>();
+
+        for(UUID crewMemberId : crewByRole.getOrDefault(role, Set.of())) {
+            Roster roster = rosters.get(crewMemberId);
+            if(roster != null && roster.role().equals(role) && !roster.duties().anyOverlapping(from, to, duty.flightId())) {
+                available.add(crewMemberId);
+            }
+        }
+        return available;
+    }
+
+    public List<CrewDuty> duties(UUID crewMemberId) {
+        Roster roster = rosters.get(crewMemberId);
+        return roster == null ? List.of() : List.of(roster.duties().duties);
+    }
+
+    public int size() {
+        return rosters.size();
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        Set<UUID> crew = crewByFlight.get(event.flightId());
+        if(crew == null || crew.isEmpty()) {
+            return;
+        }
+        log.debug("Flight {} {}, updating the duties of {} crew members.", event.flightId(), event.type(), crew.size());
+
+        switch(event.type()) {
+            case CREATED, UPDATED -> reschedule(event.flight(), crew);
+            case DELETED -> List.copyOf(crew).forEach(crewMemberId -> unassign(crewMemberId, event.flightId()));
+        }
+    }
+
+    // A new schedule is taken as given; crew it now overlaps or under-rests are logged for the roster planners.
+    private void reschedule(Flight flight, Set<UUID> crew) {
+        CrewDuty duty = duty(flight.getId(), flight.getDepartureTime(), flight.getArrivalTime());
+        for(UUID crewMemberId : crew) {
+            Roster updated = rosters.computeIfPresent(crewMemberId, (id, roster) -> new Roster(roster.role(), roster.duties().with(duty)));
+            if(updated != null && !conflicts(crewMemberId, updated.duties(), duty).isEmpty()) {
+                log.warn("Rescheduling flight {} leaves crew member {} with a roster conflict.", flight.getId(), crewMemberId);
+            }
+        }
+    }
+
+    private void removeFromRole(String role, UUID crewMemberId) {
+        crewByRole.computeIfPresent(role, (r, members) -> {
+            members.remove(crewMemberId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private void removeFromFlight(UUID flightId, UUID crewMemberId) {
+        crewByFlight.computeIfPresent(flightId, (f, members) -> {
+            members.remove(crewMemberId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,15 @@
+package com.bvcott.airlines.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.bvcott.airlines.model.Flight;
+
+public record FlightSearchEntry(UUID flightId, String flightNumber, String airlineCode,
+        LocalDateTime departureTime, LocalDateTime arrivalTime) {
+
+    static FlightSearchEntry of(Flight flight) {
+        return new FlightSearchEntry(flight.getId(), flight.getFlightNumber(), flight.getAirline().getCode(),
+                flight.getDepartureTime(), flight.getArrivalTime());
+    }
+}
@@ -0,0 +1,164 @@
+package com.bvcott.airlines.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.repository.FlightRepository;
+
+/**
+ * In-memory index of scheduled flights keyed by origin code, destination code
+ * and departure day. Each key holds an immutable array sorted by departure
+ * time that is replaced as a whole on write, so searches never lock. Writers
+ * take a single lock, so both maps change together for any one flight; a
+ * moved flight is added under its new key before it leaves the old one, so a
+ * search never misses it.
+ */
+@Component
+public class FlightSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(FlightSearchIndex.class);
+
+    private static final FlightSearchEntry[] EMPTY = new FlightSearchEntry[0];
+    private static final Comparator<FlightSearchEntry> BY_DEPARTURE = Comparator
+        .comparing(FlightSearchEntry::departureTime)
+        .thenComparing(FlightSearchEntry::flightNumber)
+        .thenComparing(FlightSearchEntry::flightId);
+
+    record RouteDayKey(String originCode, String destinationCode, LocalDate day) {
+        static RouteDayKey of(String originCode, String destinationCode, LocalDate day) {
+            return new RouteDayKey(originCode.toUpperCase(), destinationCode.toUpperCase(), day);
+        }
+    }
+
+    private final FlightRepository flightRepo;
+    private final Map<RouteDayKey, FlightSearchEntry[]> entries = new ConcurrentHashMap<>();
+    private final Map<UUID, RouteDayKey> keysByFlight = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    FlightSearchIndex(FlightRepository flightRepo) {
+        this.flightRepo = flightRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding flight search index...");
+        synchronized(writeLock) {
+            entries.clear();
+            keysByFlight.clear();
+            flightRepo.findAllWithSchedule().forEach(this::put);
+        }
+        log.info("Flight search index rebuilt with {} flights.", keysByFlight.size());
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        log.debug("Flight {} {}, updating search index.", event.flightId(), event.type());
+
+        switch(event.type()) {
+            case CREATED, UPDATED -> put(event.flight());
+            case DELETED -> remove(event.flightId());
+        }
+    }
+
+    public List<FlightSearchEntry> search(String originCode, String destinationCode, LocalDate day) {
+        return List.of(entries.getOrDefault(RouteDayKey.of(originCode, destinationCode, day), EMPTY));
+    }
+
+    public List<FlightSearchEntry> search(String originCode, String destinationCode, LocalDate day, LocalTime from, LocalTime to) {
+        FlightSearchEntry[] dayEntries = entries.getOrDefault(RouteDayKey.of(originCode, destinationCode, day), EMPTY);
+        int start = lowerBound(dayEntries, day.atTime(from));
+        int end = lowerBound(dayEntries, day.atTime(to).plusNanos(1));
+        return List.of(Arrays.copyOfRange(dayEntries, start, Math.max(start, end)));
+    }
+
+    public int size() {
+        return keysByFlight.size();
+    }
+
+    public void put(Flight flight) {
+        FlightSearchEntry entry = FlightSearchEntry.of(flight);
+        RouteDayKey key = RouteDayKey.of(flight.getOrigin().getCode(), flight.getDestination().getCode(),
+                flight.getDepartureTime().toLocalDate());
+
+        synchronized(writeLock) {
+            RouteDayKey previousKey = keysByFlight.put(entry.flightId(), key);
+            entries.compute(key, (k, current) -> with(current, entry));
+            if(previousKey != null && !previousKey.equals(key)) {
+                entries.computeIfPresent(previousKey, (k, current) -> without(current, entry.flightId()));
+            }
+        }
+    }
+
+    public void remove(UUID flightId) {
+        synchronized(writeLock) {
+            RouteDayKey key = keysByFlight.remove(flightId);
+            if(key != null) {
+                entries.computeIfPresent(key, (k, current) -> without(current, flightId));
+            }
+        }
+    }
+
+    private static FlightSearchEntry[] with(FlightSearchEntry[] current, FlightSearchEntry entry) {
+        if(current == null) {
+            return new FlightSearchEntry[] { entry };
+        }
+
+        FlightSearchEntry[] base = without(current, entry.flightId());
+        if(base == null) {
+            return new FlightSearchEntry[] { entry };
+        }
+
+        int insertAt = Arrays.binarySearch(base, entry, BY_DEPARTURE);
+        insertAt = insertAt < 0 ? -insertAt - 1 : insertAt;
+
+        FlightSearchEntry[] updated = new FlightSearchEntry[base.length + 1];
+        System.arraycopy(base, 0, updated, 0, insertAt);
+        updated[insertAt] = entry;
+        System.arraycopy(base, insertAt, updated, insertAt + 1, base.length - insertAt);
+        return updated;
+    }
+
+    // Returning null from a compute function drops the key, so empty days don't linger.
+    private static FlightSearchEntry[] without(FlightSearchEntry[] current, UUID flightId) {
+        for(int i = 0; i < current.length; i++) {
+            if(current[i].flightId().equals(flightId)) {
+                if(current.length == 1) {
+                    return null;
+                }
+                FlightSearchEntry[] updated = new FlightSearchEntry[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                return updated;
+            }
+        }
+        return current;
+    }
+
+    private static int lowerBound(FlightSearchEntry[] sorted, LocalDateTime departure) {
+        int low = 0;
+        int high = sorted.length;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(sorted[mid].departureTime().isBefore(departure)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,121 @@
+package com.bvcott.airlines.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import com.bvcott.airlines.model.FlightSeatMap;
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.service.SeatLayout.Position;
+
+/**
+ * Seat layout of a single flight plus, per seat class, one {@link SeatBitmap}
+ * of taken seats and one of the taken seats that are only held. Only the
+ * bitmaps change after construction; the layout may be shared with other
+ * flights of the same aircraft type.
+ */
+final class FlightSeatInventory {
+    /** One seat, looked up by number. {@code seatId} is null and {@code bit} set for a seat map flight. */
+    record SeatSlot(UUID seatId, int bit, String seatNumber, String seatClass, SeatBitmap bitmap, SeatBitmap holds, int index) {
+        boolean isAvailable() {
+            return !bitmap.isClaimed(index);
+        }
+
+        boolean isHeld() {
+            return holds.isClaimed(index);
+        }
+    }
+
+    private final UUID flightId;
+    private final SeatLayout layout;
+    private final SeatBitmap[] bitmaps;
+    private final SeatBitmap[] holds;
+
+    private FlightSeatInventory(UUID flightId, SeatLayout layout) {
+        this.flightId = flightId;
+        this.layout = layout;
+        this.bitmaps = new SeatBitmap[layout.classCount()];
+        this.holds = new SeatBitmap[layout.classCount()];
+        for(int c = 0; c < bitmaps.length; c++) {
+            bitmaps[c] = new SeatBitmap(layout.capacity(c));
+            holds[c] = new SeatBitmap(layout.capacity(c));
+        }
+    }
+
+    static FlightSeatInventory of(UUID flightId, List<Seat> seats) {
+        FlightSeatInventory inventory = new FlightSeatInventory(flightId, SeatLayout.of(seats));
+        for(Seat seat : seats) {
+            if(!Boolean.TRUE.equals(seat.getIsAvailable())) {
+                Position position = inventory.layout.position(seat.getSeatNumber());
+                inventory.bitmaps[position.seatClass()].claim(position.index());
+            }
+        }
+        return inventory;
+    }
+
+    static FlightSeatInventory of(UUID flightId, SeatLayout layout, FlightSeatMap seatMap) {
+        FlightSeatInventory inventory = new FlightSeatInventory(flightId, layout);
+        for(int c = 0; c < layout.classCount(); c++) {
+            for(int i = 0; i < layout.capacity(c); i++) {
+                if(seatMap.isSold(layout.position(layout.seatNumber(c, i)).bit())) {
+                    inventory.bitmaps[c].claim(i);
+                }
+            }
+        }
+        return inventory;
+    }
+
+    UUID getFlightId() {
+        return flightId;
+    }
+
+    SeatLayout layout() {
+        return layout;
+    }
+
+    SeatSlot slot(String seatNumber) {
+        Position position = layout.position(seatNumber);
+        if(position == null) {
+            return null;
+        }
+        return new SeatSlot(layout.seatId(position.seatClass(), position.index()), position.bit(), seatNumber,
+                layout.seatClass(position.seatClass()), bitmaps[position.seatClass()], holds[position.seatClass()], position.index());
+    }
+
+    List<String> seatClasses() {
+        List<String> seatClasses = new ArrayList<>(bitmaps.length);
+        for(int c = 0; c < bitmaps.length; c++) {
+            seatClasses.add(layout.seatClass(c));
+        }
+        return List.copyOf(seatClasses);
+    }
+
+    int capacity(String seatClass) {
+        int c = layout.classIndex(seatClass);
+        return c < 0 ? 0 : bitmaps[c].size();
+    }
+
+    int availableCount(String seatClass) {
+        int c = layout.classIndex(seatClass);
+        return c < 0 ? 0 : bitmaps[c].availableCount();
+    }
+
+    int availableCount() {
+        return Arrays.stream(bitmaps).mapToInt(SeatBitmap::availableCount).sum();
+    }
+
+    List<String> availableSeatNumbers(String seatClass) {
+        int c = layout.classIndex(seatClass);
+        if(c < 0) {
+            return List.of();
+        }
+
+        int[] indexes = bitmaps[c].availableIndexes();
+        List<String> seatNumbers = new ArrayList<>(indexes.length);
+        for(int index : indexes) {
+            seatNumbers.add(layout.seatNumber(c, index));
+        }
+        return seatNumbers;
+    }
+}
@@ -1,34 +1,102 @@
 package com.bvcott.airlines.service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.bvcott.airlines.cache.AirlineLookupCache;
+import com.bvcott.airlines.cache.AirportLookupCache;
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.event.FlightChangedEvent.ChangeType;
 import com.bvcott.airlines.exception.AirlineNotFoundException;
 import com.bvcott.airlines.exception.AirportNotFoundException;
+import com.bvcott.airlines.exception.FlightNotFoundException;
 import com.bvcott.airlines.model.Airline;
 import com.bvcott.airlines.model.Airport;
 import com.bvcott.airlines.model.Flight;
-import com.bvcott.airlines.repository.AirlineRepository;
-import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.projection.AirlineRosterEntry;
+import com.bvcott.airlines.projection.AirportBoardEntry;
+import com.bvcott.airlines.projection.FlightSummary;
 import com.bvcott.airlines.repository.FlightRepository;
 
+@Service
 public class FlightService {
     private static final Logger log = LoggerFactory.getLogger(FlightService.class);
 
     private FlightRepository flightRepo;
-    private AirlineRepository airlineRepo;
-    private AirportRepository airportRepo;
+    private AirlineLookupCache airlineCache;
+    private AirportLookupCache airportCache;
+    private ApplicationEventPublisher eventPublisher;
+    private TransactionTemplate transactionTemplate;
+    private OptimisticRetry retry;
+    private AirportBoardIndex boardIndex;
+    private SeatMapService seatMaps;
 
-    FlightService(FlightRepository flightRepo, AirlineRepository airlineRepo, AirportRepository airportRepo) {
+    FlightService(FlightRepository flightRepo, AirlineLookupCache airlineCache, AirportLookupCache airportCache,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager, OptimisticRetry retry,
+            AirportBoardIndex boardIndex, SeatMapService seatMaps) {
         this.flightRepo = flightRepo;
-        this.airlineRepo = airlineRepo;
-        this.airportRepo = airportRepo;
+        this.airlineCache = airlineCache;
+        this.airportCache = airportCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retry = retry;
+        this.boardIndex = boardIndex;
+        this.seatMaps = seatMaps;
     }
 
     public Flight createFlight(Flight flight) {
         log.debug("createFlight method called with object: {}", flight);
-        
+        checkNewFlight(flight);
+        resolveRoute(flight);
+
+        Flight persistedFlight = flight.getAircraftType() == null
+            ? flightRepo.save(flight)
+            : transactionTemplate.execute(status -> {
+                Flight saved = flightRepo.saveAndFlush(flight);
+                seatMaps.materialize(List.of(saved));
+                return saved;
+            });
+
+        log.info("Flight persisted correctly");
+        publishAfterCommit(new FlightChangedEvent(persistedFlight, ChangeType.CREATED));
+
+        return persistedFlight;
+    }
+
+    /**
+     * Creates a batch of flights, typically a week or season of schedule, with
+     * the seats of every flight that has an aircraft type. The flights go in as
+     * Hibernate batches and the seats as JDBC batches, all in one transaction.
+     */
+    public List<Flight> scheduleFlights(List<Flight> flights) {
+        log.debug("scheduleFlights method called with {} flights", flights.size());
+        flights.forEach(this::checkNewFlight);
+        flights.forEach(this::resolveRoute);
+
+        List<Flight> scheduled = transactionTemplate.execute(status -> {
+            List<Flight> saved = flightRepo.saveAll(flights);
+            flightRepo.flush();
+            long seats = seatMaps.materialize(saved.stream().filter(flight -> flight.getAircraftType() != null).toList());
+            log.info("Scheduled {} flights with {} seats.", saved.size(), seats);
+            return saved;
+        });
+
+        scheduled.forEach(flight -> publishAfterCommit(new FlightChangedEvent(flight, ChangeType.CREATED)));
+        return scheduled;
+    }
+
+    private void checkNewFlight(Flight flight) {
         if(flight.getFlightNumber().isEmpty()) {
             log.warn("Can't persist, flight number is empty.");
             throw new DataIntegrityViolationException("Flight number can't be empty");
@@ -49,15 +117,25 @@ public class FlightService {
             throw new DataIntegrityViolationException("Flights can't have an arrival time which is earlier than the departure time.");
         }
 
-        Airport origin = airportRepo
+        if(flight.getAircraftType() != null) {
+            seatMaps.template(flight.getAircraftType());
+            if(!flight.getSeats().isEmpty()) {
+                log.warn("Can't persist, flight has both an aircraft type and seats.");
+                throw new DataIntegrityViolationException("Flights with an aircraft type get their seats from its seat map.");
+            }
+        }
+    }
+
+    private void resolveRoute(Flight flight) {
+        Airport origin = airportCache
             .findById(flight.getOrigin().getId())
             .orElseThrow(() -> new AirportNotFoundException("Origin Airport not found."));
 
-        Airport destination = airportRepo
+        Airport destination = airportCache
             .findById(flight.getDestination().getId())
             .orElseThrow(() -> new AirportNotFoundException("Destination Airport not found."));
 
-        Airline airline = airlineRepo
+        Airline airline = airlineCache
             .findById(flight.getAirline().getId())
             .orElseThrow(() -> new AirlineNotFoundException("Airline not found."));
 
@@ -65,11 +143,157 @@ public class FlightService {
         flight.setOrigin(origin);
         flight.setDestination(destination);
         flight.setAirline(airline);
+    }
 
-        Flight persistedFlight = flightRepo.save(flight);
+    public Flight retrieveById(UUID id) {
+        log.debug("retrieveById method called with ID: {}", id);
+        return flightRepo
+            .findById(id)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + id));
+    }
 
-        log.info("Flight persisted correctly");
+    public Flight retrieveWithSeats(UUID id) {
+        log.debug("retrieveWithSeats method called with ID: {}", id);
+        return flightRepo
+            .findWithSeatsById(id)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + id));
+    }
 
-        return persistedFlight;
+    public Flight retrieveWithCrew(UUID id) {
+        log.debug("retrieveWithCrew method called with ID: {}", id);
+        return flightRepo
+            .findWithCrewById(id)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + id));
+    }
+
+    public FlightSummary retrieveSummary(UUID id) {
+        log.debug("retrieveSummary method called with ID: {}", id);
+        return flightRepo
+            .findSummaryById(id)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + id));
+    }
+
+    public List<AirportBoardEntry> departureBoard(String airportCode, LocalDateTime from, LocalDateTime to) {
+        log.debug("departureBoard method called for airport: {} between {} and {}", airportCode, from, to);
+        // The live boards cover the next day or two; anything else is a schedule lookup.
+        if(boardIndex.covers(from, to)) {
+            return boardIndex.departures(airportCode, from, to);
+        }
+        return flightRepo.findDepartureBoard(airportCode, from, to);
+    }
+
+    public List<AirportBoardEntry> arrivalBoard(String airportCode, LocalDateTime from, LocalDateTime to) {
+        log.debug("arrivalBoard method called for airport: {} between {} and {}", airportCode, from, to);
+        if(boardIndex.covers(from, to)) {
+            return boardIndex.arrivals(airportCode, from, to);
+        }
+        return flightRepo.findArrivalBoard(airportCode, from, to);
+    }
+
+    public List<AirlineRosterEntry> retrieveRoster(UUID airlineId) {
+        log.debug("retrieveRoster method called for airline ID: {}", airlineId);
+        return flightRepo.findRosterByAirlineId(airlineId);
+    }
+
+    public long countDepartures(UUID airportId) {
+        log.debug("countDepartures method called for airport ID: {}", airportId);
+        return flightRepo.countByOriginId(airportId);
+    }
+
+    public long countArrivals(UUID airportId) {
+        log.debug("countArrivals method called for airport ID: {}", airportId);
+        return flightRepo.countByDestinationId(airportId);
+    }
+
+    public long countByAirline(UUID airlineId) {
+        log.debug("countByAirline method called for airline ID: {}", airlineId);
+        return flightRepo.countByAirlineId(airlineId);
+    }
+
+    public Flight updateFlight(UUID id, Flight flight) {
+        log.debug("updateFlight method called with ID: {} and object: {}", id, flight);
+
+        if(flight.getFlightNumber().isEmpty()) {
+            log.warn("Can't update, flight number is empty.");
+            throw new DataIntegrityViolationException("Flight number can't be empty");
+        }
+
+        if(flight.getDepartureTime() == null || flight.getArrivalTime() == null) {
+            log.warn("Can't update, departure or arrival time is null");
+            throw new DataIntegrityViolationException("All flights need a departure and an arrival time.");
+        }
+
+        if(flight.getArrivalTime().isBefore(flight.getDepartureTime())) {
+            log.warn("Can't update, arrival time is before departure time.");
+            throw new DataIntegrityViolationException("Flights can't have an arrival time which is earlier than the departure time.");
+        }
+
+        // A version conflict reruns the whole read-modify-write against the fresh row.
+        Flight updatedFlight = retry.run(id, () -> transactionTemplate.execute(status -> applyUpdate(id, flight)));
+
+        log.info("Flight updated correctly");
+        publishAfterCommit(new FlightChangedEvent(updatedFlight, ChangeType.UPDATED));
+
+        return updatedFlight;
+    }
+
+    // One transaction keeps the loaded flight managed, so the saved and published instance
+    // is the one carrying the resolved route rather than a merged copy of lazy proxies.
+    private Flight applyUpdate(UUID id, Flight flight) {
+        Flight existingFlight = flightRepo
+            .findById(id)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + id));
+
+        Airport origin = airportCache
+            .findById(flight.getOrigin().getId())
+            .orElseThrow(() -> new AirportNotFoundException("Origin Airport not found."));
+
+        Airport destination = airportCache
+            .findById(flight.getDestination().getId())
+            .orElseThrow(() -> new AirportNotFoundException("Destination Airport not found."));
+
+        Airline airline = airlineCache
+            .findById(flight.getAirline().getId())
+            .orElseThrow(() -> new AirlineNotFoundException("Airline not found."));
+
+        existingFlight.setFlightNumber(flight.getFlightNumber());
+        existingFlight.setDepartureTime(flight.getDepartureTime());
+        existingFlight.setArrivalTime(flight.getArrivalTime());
+        existingFlight.setOrigin(origin);
+        existingFlight.setDestination(destination);
+        existingFlight.setAirline(airline);
+
+        return flightRepo.save(existingFlight);
+    }
+
+    public void deleteById(UUID id) {
+        log.debug("deleteById method called with ID: {}", id);
+
+        Flight existingFlight = transactionTemplate.execute(status -> {
+            Flight flight = flightRepo
+                .findById(id)
+                .orElseThrow(() -> new FlightNotFoundException("Can't delete, flight not found with ID: " + id));
+
+            seatMaps.delete(id);
+            flightRepo.deleteById(id);
+            return flight;
+        });
+
+        publishAfterCommit(new FlightChangedEvent(existingFlight, ChangeType.DELETED));
+    }
+
+    // The search, board and roster indexes must only see changes that stick: inside a caller's
+    // transaction the event waits for its commit and is dropped if it rolls back.
+    private void publishAfterCommit(FlightChangedEvent event) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(event);
+            }
+        });
     }
 }
@@ -0,0 +1,65 @@
+package com.bvcott.airlines.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.bvcott.airlines.event.FlightStatusChange;
+import com.bvcott.airlines.exception.FlightNotFoundException;
+import com.bvcott.airlines.model.FlightStatus;
+import com.bvcott.airlines.repository.FlightRepository;
+
+/**
+ * Reads and changes the status of a flight. A change is a single-row update
+ * of the flight, however many bookings it has, and is published on the
+ * {@link FlightStatusStream} once it has been committed.
+ */
+@Service
+public class FlightStatusService {
+    private static final Logger log = LoggerFactory.getLogger(FlightStatusService.class);
+
+    private final FlightRepository flightRepo;
+    private final FlightStatusStream statusStream;
+
+    FlightStatusService(FlightRepository flightRepo, FlightStatusStream statusStream) {
+        this.flightRepo = flightRepo;
+        this.statusStream = statusStream;
+    }
+
+    public FlightStatus currentStatus(UUID flightId) {
+        log.debug("currentStatus method called with flight ID: {}", flightId);
+        return flightRepo.findStatusById(flightId)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + flightId));
+    }
+
+    /** The current status together with when it took effect. */
+    public FlightStatusChange currentStatusChange(UUID flightId) {
+        log.debug("currentStatusChange method called with flight ID: {}", flightId);
+        return flightRepo.findStatusChangeById(flightId)
+            .orElseThrow(() -> new FlightNotFoundException("Flight not found with ID: " + flightId));
+    }
+
+    public FlightStatusChange updateStatus(UUID flightId, FlightStatus status) {
+        log.debug("updateStatus method called with flight ID: {} and status: {}", flightId, status);
+
+        if(status == null) {
+            log.warn("Can't update, status is null.");
+            throw new IllegalArgumentException("Flight status can't be null.");
+        }
+
+        // Stored to the microsecond, so the streamed change and a later snapshot of it compare equal.
+        Instant changedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        if(flightRepo.updateStatus(flightId, status, changedAt) == 0) {
+            log.warn("Flight with ID {} not found.", flightId);
+            throw new FlightNotFoundException("Flight not found with ID: " + flightId);
+        }
+
+        FlightStatusChange change = new FlightStatusChange(flightId, status, changedAt);
+        statusStream.publish(change);
+        return change;
+    }
+}
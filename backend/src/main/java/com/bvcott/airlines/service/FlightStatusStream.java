@@ -0,0 +1,168 @@
+package com.bvcott.airlines.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bvcott.airlines.event.FlightStatusChange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process fan-out of flight status changes. Publishing never waits on a
+ * subscriber: each one has a mailbox holding at most one change per flight,
+ * and a newer change replaces an undelivered older one. A subscriber that
+ * falls behind therefore skips to the latest status of each flight instead
+ * of building a backlog. Mailboxes are drained on a shared pool, one
+ * delivery at a time per subscriber, so each sees its changes in order.
+ * Subscribers whose consumer blocks, such as a write to a remote client,
+ * pass their own executor so they never hold a thread of the shared pool.
+ */
+@Component
+public class FlightStatusStream {
+    private static final Logger log = LoggerFactory.getLogger(FlightStatusStream.class);
+
+    /** A live subscription; cancel it when the consumer goes away. */
+    public interface Subscription {
+        void cancel();
+    }
+
+    private final class Subscriber implements Subscription {
+        private final UUID flightId;
+        private final Consumer<FlightStatusChange> consumer;
+        private final Executor executor;
+        private final Map<UUID, FlightStatusChange> mailbox = new ConcurrentHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean cancelled;
+
+        Subscriber(UUID flightId, Consumer<FlightStatusChange> consumer, Executor executor) {
+            this.flightId = flightId;
+            this.consumer = consumer;
+            this.executor = executor;
+        }
+
+        void offer(FlightStatusChange change) {
+            if(mailbox.put(change.flightId(), change) != null) {
+                coalescedCounter.increment();
+            }
+            if(scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Iterator<FlightStatusChange> pending = mailbox.values().iterator();
+                while(pending.hasNext() && !cancelled) {
+                    FlightStatusChange change = pending.next();
+                    // Only take the entry if no newer change replaced it meanwhile; the newer one is delivered next.
+                    if(!mailbox.remove(change.flightId(), change)) {
+                        continue;
+                    }
+                    try {
+                        consumer.accept(change);
+                        deliveredCounter.increment();
+                    } catch(RuntimeException e) {
+                        log.debug("Flight status subscriber failed, cancelling it: {}", e.getMessage());
+                        cancel();
+                    }
+                }
+                scheduled.set(false);
+            } while(!cancelled && !mailbox.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            mailbox.clear();
+            if(flightId == null) {
+                allFlights.remove(this);
+            } else {
+                byFlight.computeIfPresent(flightId, (id, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+        }
+    }
+
+    private final Set<Subscriber> allFlights = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Set<Subscriber>> byFlight = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryPool;
+
+    private final Counter publishedCounter;
+    private final Counter deliveredCounter;
+    private final Counter coalescedCounter;
+
+    FlightStatusStream(MeterRegistry meterRegistry, @Value("${airlines.flight-status.delivery-threads:4}") int deliveryThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.deliveryPool = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "flight-status-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.publishedCounter = meterRegistry.counter("flight.status.changes", "outcome", "published");
+        this.deliveredCounter = meterRegistry.counter("flight.status.changes", "outcome", "delivered");
+        this.coalescedCounter = meterRegistry.counter("flight.status.changes", "outcome", "coalesced");
+        meterRegistry.gauge("flight.status.subscribers", Tags.empty(), this, FlightStatusStream::subscriberCount);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deliveryPool.shutdownNow();
+    }
+
+    /** Subscribes to changes of one flight, or of every flight when {@code flightId} is null. */
+    public Subscription subscribe(UUID flightId, Consumer<FlightStatusChange> consumer) {
+        return subscribe(flightId, consumer, deliveryPool);
+    }
+
+    /** As {@link #subscribe(UUID, Consumer)}, but the consumer is called on {@code executor} instead of the shared pool. */
+    public Subscription subscribe(UUID flightId, Consumer<FlightStatusChange> consumer, Executor executor) {
+        log.debug("subscribe method called with flight ID: {}", flightId);
+        Subscriber subscriber = new Subscriber(flightId, consumer, executor);
+
+        if(flightId == null) {
+            allFlights.add(subscriber);
+        } else {
+            byFlight.compute(flightId, (id, subscribers) -> {
+                Set<Subscriber> updated = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                updated.add(subscriber);
+                return updated;
+            });
+        }
+        return subscriber;
+    }
+
+    public void publish(FlightStatusChange change) {
+        log.debug("publish method called with change: {}", change);
+        publishedCounter.increment();
+
+        allFlights.forEach(subscriber -> subscriber.offer(change));
+        Set<Subscriber> flightSubscribers = byFlight.get(change.flightId());
+        if(flightSubscribers != null) {
+            flightSubscribers.forEach(subscriber -> subscriber.offer(change));
+        }
+    }
+
+    public int subscriberCount() {
+        return allFlights.size() + byFlight.values().stream().mapToInt(Set::size).sum();
+    }
+}
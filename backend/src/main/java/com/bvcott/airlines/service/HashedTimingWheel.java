@@ -0,0 +1,174 @@
+package com.bvcott.airlines.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel in the style of Varghese &amp; Lauck. Scheduling and
+ * cancelling are O(1) and never block; a single worker thread advances the
+ * wheel one tick at a time and runs the tasks that fall due, so the cost per
+ * tick is proportional to the entries in one bucket rather than to the total
+ * number of live timeouts.
+ */
+final class HashedTimingWheel {
+    private static final Logger log = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Returns {@code true} if the task was cancelled before it ran. Exactly
+         * one of {@code cancel} and expiry can win for a given timeout.
+         */
+        boolean cancel() {
+            if(state.compareAndSet(PENDING, CANCELLED)) {
+                live.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<List<Timeout>> buckets;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger live = new AtomicInteger();
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private long currentTick;
+    private ScheduledExecutorService worker;
+
+    HashedTimingWheel(Duration tick, int wheelSize, LongSupplier nanoClock) {
+        if(Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+
+        this.tickNanos = tick.toNanos();
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for(int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+    }
+
+    Timeout schedule(Runnable task, Duration delay) {
+        Timeout timeout = new Timeout(task, nanoClock.getAsLong() - startNanos + delay.toNanos());
+        live.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    int liveTimeouts() {
+        return live.get();
+    }
+
+    synchronized void start() {
+        if(worker == null) {
+            worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "timing-wheel");
+                thread.setDaemon(true);
+                return thread;
+            });
+            worker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    synchronized void stop() {
+        if(worker != null) {
+            worker.shutdownNow();
+            worker = null;
+        }
+    }
+
+    /**
+     * Processes every tick that has elapsed up to now. Called by the worker
+     * thread, or directly by tests driving a fake clock.
+     */
+    synchronized void advance() {
+        long elapsed = nanoClock.getAsLong() - startNanos;
+
+        while((currentTick + 1) * tickNanos <= elapsed) {
+            transferPending();
+            expireBucket(buckets.get((int) (currentTick & mask)), elapsed);
+            currentTick++;
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while((timeout = pending.poll()) != null) {
+            if(timeout.state.get() != PENDING) {
+                continue;
+            }
+
+            long dueTick = Math.max(timeout.deadline / tickNanos, currentTick);
+            timeout.remainingRounds = (dueTick - currentTick) / buckets.size();
+            buckets.get((int) (dueTick & mask)).add(timeout);
+        }
+    }
+
+    private void expireBucket(List<Timeout> bucket, long elapsed) {
+        int kept = 0;
+
+        for(int i = 0; i < bucket.size(); i++) {
+            Timeout timeout = bucket.get(i);
+
+            if(timeout.state.get() != PENDING) {
+                continue;
+            }
+
+            if(timeout.remainingRounds <= 0 && timeout.deadline <= elapsed) {
+                if(timeout.state.compareAndSet(PENDING, EXPIRED)) {
+                    live.decrementAndGet();
+                    run(timeout);
+                }
+                continue;
+            }
+
+            if(timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            }
+            bucket.set(kept++, timeout);
+        }
+
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    private void run(Timeout timeout) {
+        try {
+            timeout.task.run();
+        } catch(RuntimeException e) {
+            log.warn("Timing wheel task failed.", e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.bvcott.airlines.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bvcott.airlines.model.IdempotencyRecord;
+import com.bvcott.airlines.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Makes client submissions safe to retry. The first request with a given key
+ * runs the write; a repeat gets the original result back instead of writing
+ * again, and a repeat that arrives while the first is still running waits
+ * for it rather than racing it.
+ * <p>
+ * Recent keys are held in a bounded in-memory map of result futures. The
+ * writer also records the key with {@link #remember} in its own transaction,
+ * so a key is only ever stored together with the result it points at; that
+ * table answers for keys evicted from memory and for other instances.
+ */
+@Component
+public class IdempotencyGuard {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyGuard.class);
+    static final int MAX_KEY_LENGTH = 200;
+
+    private final IdempotencyRecordRepository recordRepo;
+    private final EntityManager entityManager;
+    private final Duration retention;
+    private final Clock clock;
+    private final Cache<String, CompletableFuture<UUID>> results;
+    private final ConcurrentMap<String, CompletableFuture<UUID>> resultsByKey;
+
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+
+    @Autowired
+    IdempotencyGuard(IdempotencyRecordRepository recordRepo, EntityManager entityManager, MeterRegistry meterRegistry,
+            @Value("${airlines.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${airlines.idempotency.retention:24h}") Duration retention) {
+        this(recordRepo, entityManager, meterRegistry, maximumSize, retention, Clock.systemUTC());
+    }
+
+    IdempotencyGuard(IdempotencyRecordRepository recordRepo, EntityManager entityManager, MeterRegistry meterRegistry,
+            long maximumSize, Duration retention, Clock clock) {
+        this.recordRepo = recordRepo;
+        this.entityManager = entityManager;
+        this.retention = retention;
+        this.clock = clock;
+        this.results = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(retention)
+            .recordStats()
+            .build();
+        this.resultsByKey = results.asMap();
+
+        this.executedCounter = meterRegistry.counter("idempotency.requests", "outcome", "executed");
+        this.replayedCounter = meterRegistry.counter("idempotency.requests", "outcome", "replayed");
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "idempotency");
+    }
+
+    /**
+     * Runs {@code write} once per {@code scope} and {@code key}. Repeats are
+     * answered with {@code load} applied to the id {@code idOf} took from the
+     * original result. A failed write forgets the key so the client can try
+     * again. Without a key the write simply runs.
+     */
+    public <T> CompletableFuture<T> submit(String scope, String key, Function<UUID, T> load, Function<T, UUID> idOf,
+            Supplier<CompletableFuture<T>> write) {
+        log.debug("submit method called with scope: {} and key: {}", scope, key);
+        if(key == null) {
+            return write.get();
+        }
+
+        String scopedKey = scopedKey(scope, key);
+        CompletableFuture<UUID> claim = new CompletableFuture<>();
+        CompletableFuture<UUID> existing = resultsByKey.putIfAbsent(scopedKey, claim);
+        if(existing != null) {
+            replayedCounter.increment();
+            log.debug("Request with idempotency key {} already seen, replaying its result.", scopedKey);
+            // Async so a repeat never runs its lookup on the original writer's thread.
+            return existing.thenApplyAsync(load);
+        }
+
+        try {
+            Optional<UUID> persisted = persistedResult(scopedKey);
+            if(persisted.isPresent()) {
+                replayedCounter.increment();
+                claim.complete(persisted.get());
+                return CompletableFuture.completedFuture(load.apply(persisted.get()));
+            }
+
+            executedCounter.increment();
+            return write.get()
+                .exceptionallyCompose(failure -> recoverLostRace(scopedKey, failure, load))
+                .whenComplete((result, failure) -> {
+                    if(failure == null) {
+                        claim.complete(idOf.apply(result));
+                    } else {
+                        forget(scopedKey, claim, failure);
+                    }
+                });
+        } catch(RuntimeException e) {
+            forget(scopedKey, claim, e);
+            throw e;
+        }
+    }
+
+    /** Blocking form of {@link #submit} for writes that run on the caller's thread. */
+    public <T> T execute(String scope, String key, Function<UUID, T> load, Function<T, UUID> idOf, Supplier<T> write) {
+        try {
+            return submit(scope, key, load, idOf, () -> {
+                try {
+                    return CompletableFuture.completedFuture(write.get());
+                } catch(RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }).join();
+        } catch(CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Records that {@code key} produced {@code resultId}. Must run inside the
+     * transaction that writes the result, so the two commit or roll back
+     * together; a key that is already recorded fails that transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remember(String scope, String key, UUID resultId) {
+        if(key == null) {
+            return;
+        }
+        entityManager.persist(new IdempotencyRecord(scopedKey(scope, key), resultId, clock.instant()));
+    }
+
+    @Scheduled(fixedDelayString = "${airlines.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = recordRepo.deleteCreatedBefore(clock.instant().minus(retention));
+        log.debug("Purged {} expired idempotency records.", purged);
+    }
+
+    private Optional<UUID> persistedResult(String scopedKey) {
+        return recordRepo.findById(scopedKey)
+            .filter(record -> record.getCreatedAt().isAfter(clock.instant().minus(retention)))
+            .map(IdempotencyRecord::getResultId);
+    }
+
+    /** Another instance committed the same key first; its result is the answer. */
+    private <T> CompletableFuture<T> recoverLostRace(String scopedKey, Throwable failure, Function<UUID, T> load) {
+        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if(cause instanceof DataIntegrityViolationException) {
+            Optional<UUID> winner = persistedResult(scopedKey);
+            if(winner.isPresent()) {
+                log.debug("Idempotency key {} was committed concurrently elsewhere, returning that result.", scopedKey);
+                return CompletableFuture.completedFuture(load.apply(winner.get()));
+            }
+        }
+        return CompletableFuture.failedFuture(cause);
+    }
+
+    private void forget(String scopedKey, CompletableFuture<UUID> claim, Throwable failure) {
+        resultsByKey.remove(scopedKey, claim);
+        claim.completeExceptionally(failure);
+    }
+
+    private static String scopedKey(String scope, String key) {
+        if(key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        return scope + ":" + key;
+    }
+}
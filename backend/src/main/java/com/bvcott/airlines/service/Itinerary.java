@@ -0,0 +1,10 @@
+package com.bvcott.airlines.service;
+
+import java.time.Duration;
+import java.util.List;
+
+public record Itinerary(List<ScheduledLeg> legs, Duration totalTravelTime) {
+    public int connections() {
+        return legs.size() - 1;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bvcott.airlines.service;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+
+import com.bvcott.airlines.exception.InvalidCursorException;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Shared plumbing for the seek-paginated and streaming listings. Pages are
+ * ordered by id and continue strictly after the last id returned, so every
+ * page costs one index range scan no matter how deep it is. Streams are read
+ * from a database cursor and the persistence context is cleared every
+ * {@link #STREAM_FETCH_SIZE} rows, which keeps memory flat for any table size.
+ */
+final class Keyset {
+    static final int MAX_PAGE_SIZE = 500;
+    static final int STREAM_FETCH_SIZE = 500;
+
+    private Keyset() {}
+
+    static <T> KeysetPage<T> page(String cursor, int size, Function<Limit, List<T>> first,
+            BiFunction<UUID, Limit, List<T>> after, Function<T, UUID> idOf) {
+        if(size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ", was: " + size);
+        }
+
+        // One extra row tells us whether there is a next page without a count query.
+        Limit limit = Limit.of(size + 1);
+        List<T> rows = cursor == null ? first.apply(limit) : after.apply(decode(cursor), limit);
+        if(rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(List.copyOf(items), encode(idOf.apply(items.get(size - 1))));
+    }
+
+    static <T> long forEach(Stream<T> rows, EntityManager entityManager, Consumer<? super T> action) {
+        long count = 0;
+        try(rows) {
+            var iterator = rows.iterator();
+            while(iterator.hasNext()) {
+                action.accept(iterator.next());
+                if(++count % STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    static String encode(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    static UUID decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch(IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed page cursor: " + cursor);
+        }
+        if(bytes.length != 16) {
+            throw new InvalidCursorException("Malformed page cursor: " + cursor);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,13 @@
+package com.bvcott.airlines.service;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is opaque and
+ * null on the last page.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
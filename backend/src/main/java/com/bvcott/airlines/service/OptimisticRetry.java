@@ -0,0 +1,134 @@
+package com.bvcott.airlines.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reruns a write that lost an optimistic version check. Backoff grows
+ * exponentially up to a cap and the actual sleep is picked uniformly below
+ * it, so writers that collided once spread out instead of colliding again.
+ * The write must start its own transaction so every attempt reads fresh rows.
+ * <p>
+ * Conflicts are counted per flight (bounded to the most recently contended
+ * flights) to show where buyers pile up; flight ids are kept out of metric
+ * tags to avoid unbounded series.
+ */
+@Component
+public class OptimisticRetry {
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+    private static final int TRACKED_FLIGHTS = 10_000;
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final LongConsumer sleeper;
+    private final Cache<UUID, LongAdder> conflictsByFlight = Caffeine.newBuilder().maximumSize(TRACKED_FLIGHTS).build();
+
+    private final Counter conflictCounter;
+    private final Counter exhaustedCounter;
+
+    @Autowired
+    OptimisticRetry(MeterRegistry meterRegistry,
+            @Value("${airlines.optimistic-retry.max-attempts:5}") int maxAttempts,
+            @Value("${airlines.optimistic-retry.initial-backoff:5ms}") Duration initialBackoff,
+            @Value("${airlines.optimistic-retry.max-backoff:200ms}") Duration maxBackoff) {
+        this(meterRegistry, maxAttempts, initialBackoff, maxBackoff, OptimisticRetry::sleep);
+    }
+
+    OptimisticRetry(MeterRegistry meterRegistry, int maxAttempts, Duration initialBackoff, Duration maxBackoff, LongConsumer sleeper) {
+        if(maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.sleeper = sleeper;
+
+        this.conflictCounter = meterRegistry.counter("optimistic.conflicts", "outcome", "retried");
+        this.exhaustedCounter = meterRegistry.counter("optimistic.conflicts", "outcome", "exhausted");
+    }
+
+    /**
+     * Runs {@code write}, retrying on {@link OptimisticLockingFailureException}
+     * up to the attempt limit; the last conflict is rethrown. {@code flightId}
+     * may be null when the write isn't tied to a flight.
+     */
+    public <T> T run(UUID flightId, Supplier<T> write) {
+        return run(flightId == null ? List.of() : List.of(flightId), write);
+    }
+
+    /** As {@link #run(UUID, Supplier)} for a write spanning several flights; a conflict counts against each of them. */
+    public <T> T run(Collection<UUID> flightIds, Supplier<T> write) {
+        for(int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch(OptimisticLockingFailureException e) {
+                flightIds.forEach(flightId -> conflictsByFlight.get(flightId, id -> new LongAdder()).increment());
+
+                if(attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    log.warn("Write on flights {} still conflicting after {} attempts, giving up.", flightIds, attempt);
+                    throw e;
+                }
+
+                conflictCounter.increment();
+                long backoff = backoff(attempt);
+                log.debug("Write on flights {} conflicted on attempt {}, retrying in {} us.", flightIds, attempt, backoff / 1_000);
+                sleeper.accept(backoff);
+            }
+        }
+    }
+
+    long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos * (1L << Math.min(attempt - 1, 20)));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public long conflicts(UUID flightId) {
+        LongAdder conflicts = conflictsByFlight.getIfPresent(flightId);
+        return conflicts == null ? 0 : conflicts.sum();
+    }
+
+    /** The most contended flights, highest conflict count first. */
+    public Map<UUID, Long> hottestFlights(int limit) {
+        Map<UUID, Long> hottest = new LinkedHashMap<>();
+        conflictsByFlight.asMap().entrySet().stream()
+            .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+            .sorted(Map.Entry.<UUID, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(limit)
+            .forEach(entry -> hottest.put(entry.getKey(), entry.getValue()));
+        return hottest;
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off before a retry", e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.bvcott.airlines.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bvcott.airlines.model.Passenger;
+import com.bvcott.airlines.repository.PassengerRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Merges passengers that hold the same passport into the oldest of them.
+ * <p>
+ * Each run walks the passport keys held by more than one passenger in key
+ * order, {@code batchSize} keys at a time, and splits every batch across a
+ * fixed pool of {@code threads}. A share is merged in its own transaction:
+ * the duplicates' booking links and tickets move to the survivor, a booking
+ * that listed several of them keeps one link, and the duplicates are
+ * deleted. Shares never hold the same passenger, so they don't contend, and
+ * a share that fails is left for the next run.
+ * <p>
+ * Runs on a single instance only: the schedule does nothing unless
+ * {@code airlines.passenger-dedup.enabled} is set on that instance.
+ */
+@Component
+public class PassengerDeduplicator {
+    private static final Logger log = LoggerFactory.getLogger(PassengerDeduplicator.class);
+
+    private final PassengerRepository passengerRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService mergePool;
+    private final int batchSize;
+    private final int threads;
+    private final boolean enabled;
+    private final Counter mergedCounter;
+
+    PassengerDeduplicator(PassengerRepository passengerRepo, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${airlines.passenger-dedup.batch-size:500}") int batchSize,
+            @Value("${airlines.passenger-dedup.threads:4}") int threads,
+            @Value("${airlines.passenger-dedup.enabled:false}") boolean enabled) {
+        this.passengerRepo = passengerRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.enabled = enabled;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.mergePool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "passenger-dedup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mergedCounter = meterRegistry.counter("passenger.dedup.merged");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        mergePool.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${airlines.passenger-dedup.interval:PT1H}",
+            initialDelayString = "${airlines.passenger-dedup.interval:PT1H}")
+    void scheduledDeduplicate() {
+        if(!enabled) {
+            log.debug("Passenger deduplication is disabled on this instance, skipping.");
+            return;
+        }
+        deduplicate();
+    }
+
+    /** Runs one pass over every duplicated passport and returns how many passengers were merged away. */
+    public int deduplicate() {
+        log.debug("deduplicate method called");
+        int merged = 0;
+        long after = Long.MIN_VALUE;
+
+        List<Long> hashes;
+        while(!(hashes = passengerRepo.findDuplicatedPassportHashes(after, Limit.of(batchSize))).isEmpty()) {
+            int shareSize = (hashes.size() + threads - 1) / threads;
+            List<CompletableFuture<Integer>> shares = new ArrayList<>();
+            for(int from = 0; from < hashes.size(); from += shareSize) {
+                List<Long> share = hashes.subList(from, Math.min(hashes.size(), from + shareSize));
+                shares.add(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> merge(share)), mergePool)
+                    .exceptionally(e -> {
+                        log.warn("Merging {} duplicated passports failed, leaving them for the next run.", share.size(), e);
+                        return 0;
+                    }));
+            }
+            merged += shares.stream().mapToInt(CompletableFuture::join).sum();
+            after = hashes.get(hashes.size() - 1);
+        }
+
+        mergedCounter.increment(merged);
+        if(merged > 0) {
+            log.info("Merged {} duplicate passengers.", merged);
+        }
+        return merged;
+    }
+
+    private int merge(List<Long> hashes) {
+        // Grouped by the number itself, so two passports that happen to share a key are never merged.
+        Map<String, List<Passenger>> byPassport = passengerRepo.findByPassportHashIn(hashes).stream()
+            .collect(Collectors.groupingBy(passenger -> Passenger.normalizePassport(passenger.getPassportNumber())));
+
+        int merged = 0;
+        for(List<Passenger> holders : byPassport.values()) {
+            if(holders.size() < 2) {
+                continue;
+            }
+            List<UUID> ids = holders.stream().map(Passenger::getId).sorted(Comparator.naturalOrder()).toList();
+            UUID survivor = ids.get(0);
+            List<UUID> duplicates = ids.subList(1, ids.size());
+
+            passengerRepo.deleteSharedBookingLinks(survivor, duplicates);
+            passengerRepo.moveBookingLinks(survivor, duplicates);
+            passengerRepo.deleteSharedTickets(survivor, duplicates);
+            passengerRepo.moveTickets(survivor, duplicates);
+            passengerRepo.deleteAllByIdInBatch(duplicates);
+            merged += duplicates.size();
+        }
+        return merged;
+    }
+}
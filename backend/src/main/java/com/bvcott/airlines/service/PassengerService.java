@@ -0,0 +1,48 @@
+package com.bvcott.airlines.service;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.bvcott.airlines.exception.PassengerNotFoundException;
+import com.bvcott.airlines.model.Passenger;
+import com.bvcott.airlines.repository.PassengerRepository;
+
+/**
+ * Passenger lookups by passport number. The number is normalized and hashed
+ * to a 64-bit key, so every lookup is one probe of a narrow index however
+ * many passengers there are; the rows found are checked against the
+ * normalized number in case two passports ever share a key.
+ */
+@Service
+public class PassengerService {
+    private static final Logger log = LoggerFactory.getLogger(PassengerService.class);
+
+    private PassengerRepository passengerRepo;
+
+    PassengerService(PassengerRepository passengerRepo) {
+        this.passengerRepo = passengerRepo;
+    }
+
+    /** The oldest passenger holding the passport, which is the one duplicates are merged into. */
+    public Optional<Passenger> findByPassport(String passportNumber) {
+        log.debug("findByPassport method called");
+        String normalized = Passenger.normalizePassport(passportNumber);
+        if(normalized == null) {
+            return Optional.empty();
+        }
+        return passengerRepo.findByPassportHash(Passenger.passportHash(normalized)).stream()
+            .filter(passenger -> Objects.equals(normalized, Passenger.normalizePassport(passenger.getPassportNumber())))
+            .findFirst();
+    }
+
+    public Passenger retrieveByPassport(String passportNumber) {
+        return findByPassport(passportNumber).orElseThrow(() -> {
+            log.warn("No passenger found with the given passport number");
+            return new PassengerNotFoundException("Passenger not found with the given passport number");
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package com.bvcott.airlines.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bvcott.airlines.gateway.GatewayResponse;
+import com.bvcott.airlines.gateway.PaymentGateway;
+import com.bvcott.airlines.model.OutboxEvent;
+import com.bvcott.airlines.model.Payment;
+import com.bvcott.airlines.repository.OutboxEventRepository;
+import com.bvcott.airlines.repository.PaymentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sends payments written to the outbox to the {@link PaymentGateway}. Each
+ * poll takes a batch of due events, charges them on a fixed pool of
+ * {@code concurrency} threads outside any transaction, then writes every
+ * resulting payment status and outbox change in one transaction.
+ * <p>
+ * A charge whose outcome is unknown, including one that has not answered
+ * within {@code callTimeout} of being queued, is tried again later with exponential
+ * backoff, under the same payment id so the gateway never charges twice;
+ * after {@code maxAttempts} the payment is marked failed. Meant to run on a
+ * single instance.
+ */
+@Component
+public class PaymentOutboxDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(PaymentOutboxDispatcher.class);
+
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    private enum Outcome { APPROVED, DECLINED, ALREADY_SETTLED, UNKNOWN }
+
+    private record Attempt(UUID eventId, Outcome outcome) {}
+
+    private final OutboxEventRepository outboxRepo;
+    private final PaymentRepository paymentRepo;
+    private final PaymentGateway gateway;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService gatewayPool;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration callTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Timer gatewayTimer;
+    private final Map<Outcome, Counter> outcomeCounters = new HashMap<>();
+    private final Counter exhaustedCounter;
+
+    PaymentOutboxDispatcher(OutboxEventRepository outboxRepo, PaymentRepository paymentRepo, PaymentGateway gateway,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${airlines.payment-outbox.batch-size:100}") int batchSize,
+            @Value("${airlines.payment-outbox.concurrency:8}") int concurrency,
+            @Value("${airlines.payment-outbox.max-attempts:8}") int maxAttempts,
+            @Value("${airlines.payment-outbox.call-timeout:30s}") Duration callTimeout,
+            @Value("${airlines.payment-outbox.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${airlines.payment-outbox.max-backoff:5m}") Duration maxBackoff) {
+        this.outboxRepo = outboxRepo;
+        this.paymentRepo = paymentRepo;
+        this.gateway = gateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.callTimeout = callTimeout;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.gatewayPool = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "payment-dispatch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.gatewayTimer = meterRegistry.timer("payment.gateway.call");
+        for(Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, meterRegistry.counter("payment.outbox.dispatched", "outcome", outcome.name().toLowerCase()));
+        }
+        this.exhaustedCounter = meterRegistry.counter("payment.outbox.dispatched", "outcome", "exhausted");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        gatewayPool.shutdownNow();
+    }
+
+    /** Dispatches one batch of due events and returns how many were handled. */
+    @Scheduled(fixedDelayString = "${airlines.payment-outbox.poll-interval:PT0.5S}",
+            initialDelayString = "${airlines.payment-outbox.poll-interval:PT0.5S}")
+    public int dispatch() {
+        List<OutboxEvent> due = outboxRepo.findByNextAttemptAtLessThanEqualOrderByNextAttemptAt(Instant.now(), Limit.of(batchSize));
+        if(due.isEmpty()) {
+            return 0;
+        }
+        log.debug("dispatch method picked up {} outbox events", due.size());
+
+        Map<UUID, Payment> payments = paymentRepo.findAllById(due.stream().map(OutboxEvent::getAggregateId).toList()).stream()
+            .collect(Collectors.toMap(Payment::getId, Function.identity()));
+
+        List<CompletableFuture<Attempt>> calls = due.stream()
+            .map(event -> CompletableFuture.supplyAsync(() -> charge(event, payments.get(event.getAggregateId())), gatewayPool)
+                .orTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> timedOut(event)))
+            .toList();
+        List<Attempt> attempts = calls.stream().map(CompletableFuture::join).toList();
+
+        transactionTemplate.executeWithoutResult(status -> record(attempts));
+        return attempts.size();
+    }
+
+    private Attempt charge(OutboxEvent event, Payment payment) {
+        // Settled already, e.g. the status write of an earlier poll committed but the event was retried.
+        if(payment == null || !PaymentService.PENDING.equals(payment.getStatus())) {
+            return new Attempt(event.getId(), Outcome.ALREADY_SETTLED);
+        }
+
+        try {
+            GatewayResponse response = gatewayTimer.record(() -> gateway.charge(payment.getId(), payment.getAmount()));
+            return new Attempt(event.getId(), response.approved() ? Outcome.APPROVED : Outcome.DECLINED);
+        } catch(RuntimeException e) {
+            log.warn("Charging payment {} failed on attempt {}: {}", payment.getId(), event.getAttempts() + 1, e.getMessage());
+            return new Attempt(event.getId(), Outcome.UNKNOWN);
+        }
+    }
+
+    // The call may still land later; the retry goes out under the same payment id and gets that answer.
+    private Attempt timedOut(OutboxEvent event) {
+        log.warn("Charging payment {} got no answer within {} on attempt {}.", event.getAggregateId(), callTimeout, event.getAttempts() + 1);
+        return new Attempt(event.getId(), Outcome.UNKNOWN);
+    }
+
+    /** Writes the whole batch's outcomes together; Hibernate batches the payment updates. */
+    private void record(List<Attempt> attempts) {
+        Map<UUID, Outcome> outcomes = attempts.stream().collect(Collectors.toMap(Attempt::eventId, Attempt::outcome));
+        Instant now = Instant.now();
+
+        List<OutboxEvent> finished = new ArrayList<>();
+        Map<UUID, String> settledPayments = new HashMap<>();
+        for(OutboxEvent event : outboxRepo.findAllById(outcomes.keySet())) {
+            Outcome outcome = outcomes.get(event.getId());
+            outcomeCounters.get(outcome).increment();
+
+            switch(outcome) {
+                case APPROVED -> settledPayments.put(event.getAggregateId(), COMPLETED);
+                case DECLINED -> settledPayments.put(event.getAggregateId(), FAILED);
+                case ALREADY_SETTLED -> { }
+                case UNKNOWN -> {
+                    event.recordFailedAttempt(now.plus(backoff(event.getAttempts() + 1)));
+                    if(event.getAttempts() < maxAttempts) {
+                        continue;
+                    }
+                    exhaustedCounter.increment();
+                    log.warn("Giving up on payment {} after {} attempts.", event.getAggregateId(), event.getAttempts());
+                    settledPayments.put(event.getAggregateId(), FAILED);
+                }
+            }
+            finished.add(event);
+        }
+
+        for(Payment payment : paymentRepo.findAllById(settledPayments.keySet())) {
+            if(PaymentService.PENDING.equals(payment.getStatus())) {
+                payment.setStatus(settledPayments.get(payment.getId()));
+            }
+        }
+        outboxRepo.deleteAllInBatch(finished);
+    }
+
+    Duration backoff(int attempt) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bvcott.airlines.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bvcott.airlines.exception.BookingNotFoundException;
+import com.bvcott.airlines.exception.PaymentNotFoundException;
+import com.bvcott.airlines.model.Booking;
+import com.bvcott.airlines.model.OutboxEvent;
+import com.bvcott.airlines.model.Payment;
+import com.bvcott.airlines.repository.BookingRepository;
+import com.bvcott.airlines.repository.OutboxEventRepository;
+import com.bvcott.airlines.repository.PaymentRepository;
+
+@Service
+public class PaymentService {
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+    static final String IDEMPOTENCY_SCOPE = "payment";
+    static final String PENDING = "PENDING";
+
+    private final PaymentRepository paymentRepo;
+    private final BookingRepository bookingRepo;
+    private final OutboxEventRepository outboxRepo;
+    private final IdempotencyGuard idempotency;
+    private final TransactionTemplate transactionTemplate;
+
+    PaymentService(PaymentRepository paymentRepo, BookingRepository bookingRepo, OutboxEventRepository outboxRepo,
+            IdempotencyGuard idempotency, PlatformTransactionManager transactionManager) {
+        this.paymentRepo = paymentRepo;
+        this.bookingRepo = bookingRepo;
+        this.outboxRepo = outboxRepo;
+        this.idempotency = idempotency;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records a pending payment for a booking. A request repeating an earlier
+     * idempotency key gets that payment back instead of a second charge. The
+     * gateway is not called here: an outbox event committed with the payment
+     * hands it to {@link PaymentOutboxDispatcher}.
+     */
+    public Payment createPayment(String idempotencyKey, UUID bookingId, Double amount) {
+        log.debug("createPayment method called with key: {}, booking ID: {} and amount: {}", idempotencyKey, bookingId, amount);
+
+        if(amount == null || amount <= 0) {
+            log.warn("Can't persist, payment amount is not positive.");
+            throw new DataIntegrityViolationException("Payment amount must be greater than zero.");
+        }
+
+        return idempotency.execute(IDEMPOTENCY_SCOPE, idempotencyKey, this::retrieveById, Payment::getId,
+                () -> transactionTemplate.execute(status -> {
+                    Booking booking = bookingRepo
+                        .findById(bookingId)
+                        .orElseThrow(() -> {
+                            log.warn("Booking with ID: {} - NOT FOUND", bookingId);
+                            return new BookingNotFoundException("Booking not found with ID: " + bookingId);
+                        });
+                    Payment payment = paymentRepo.save(new Payment(booking, amount, PENDING));
+                    outboxRepo.save(new OutboxEvent(OutboxEvent.PAYMENT_REQUESTED, payment.getId(), Instant.now()));
+                    idempotency.remember(IDEMPOTENCY_SCOPE, idempotencyKey, payment.getId());
+                    return payment;
+                }));
+    }
+
+    public Payment retrieveById(UUID id) {
+        log.debug("retrieveById method called with ID: {}", id);
+        return paymentRepo
+            .findById(id)
+            .orElseThrow(() -> {
+                log.warn("Payment with ID: {} - NOT FOUND", id);
+                return new PaymentNotFoundException("Payment not found with ID: " + id);
+            });
+    }
+}
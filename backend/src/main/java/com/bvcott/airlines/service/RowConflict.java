@@ -0,0 +1,6 @@
+package com.bvcott.airlines.service;
+
+/**
+ * A row of a bulk create that was not inserted; {@code row} is its index in the request.
+ */
+public record RowConflict(int row, String reason) {}
@@ -0,0 +1,140 @@
+package com.bvcott.airlines.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the schedule used by connection searches. Departures are
+ * held per airport, both as one array and split by destination, each sorted
+ * by departure time. Applying a change copies only the departing airport's
+ * entry and the top-level map, so every other airport is shared with the
+ * previous snapshot.
+ */
+final class ScheduleSnapshot {
+    static final ScheduleSnapshot EMPTY = new ScheduleSnapshot(Map.of());
+
+    private static final ScheduledLeg[] NONE = new ScheduledLeg[0];
+    private static final AirportDepartures NO_DEPARTURES = new AirportDepartures(NONE, Map.of());
+
+    private record AirportDepartures(ScheduledLeg[] all, Map<String, ScheduledLeg[]> byDestination) {}
+
+    private final Map<String, AirportDepartures> departuresByAirport;
+
+    private ScheduleSnapshot(Map<String, AirportDepartures> departuresByAirport) {
+        this.departuresByAirport = departuresByAirport;
+    }
+
+    static ScheduleSnapshot of(Collection<ScheduledLeg> legs) {
+        Map<String, List<ScheduledLeg>> byAirport = new HashMap<>();
+        for(ScheduledLeg leg : legs) {
+            byAirport.computeIfAbsent(leg.originCode(), k -> new ArrayList<>()).add(leg);
+        }
+
+        Map<String, AirportDepartures> departuresByAirport = new HashMap<>();
+        byAirport.forEach((airport, airportLegs) -> {
+            Map<String, List<ScheduledLeg>> byDestination = new HashMap<>();
+            for(ScheduledLeg leg : airportLegs) {
+                byDestination.computeIfAbsent(leg.destinationCode(), k -> new ArrayList<>()).add(leg);
+            }
+
+            Map<String, ScheduledLeg[]> sortedByDestination = new HashMap<>();
+            byDestination.forEach((destination, routeLegs) -> sortedByDestination.put(destination, sorted(routeLegs)));
+            departuresByAirport.put(airport, new AirportDepartures(sorted(airportLegs), sortedByDestination));
+        });
+
+        return new ScheduleSnapshot(departuresByAirport);
+    }
+
+    ScheduleSnapshot with(ScheduledLeg leg) {
+        AirportDepartures current = departuresByAirport.getOrDefault(leg.originCode(), NO_DEPARTURES);
+
+        Map<String, ScheduledLeg[]> byDestination = new HashMap<>(current.byDestination());
+        byDestination.put(leg.destinationCode(), insert(byDestination.getOrDefault(leg.destinationCode(), NONE), leg));
+
+        Map<String, AirportDepartures> byAirport = new HashMap<>(departuresByAirport);
+        byAirport.put(leg.originCode(), new AirportDepartures(insert(current.all(), leg), byDestination));
+        return new ScheduleSnapshot(byAirport);
+    }
+
+    ScheduleSnapshot without(ScheduledLeg leg) {
+        AirportDepartures current = departuresByAirport.get(leg.originCode());
+        if(current == null) {
+            return this;
+        }
+
+        Map<String, ScheduledLeg[]> byDestination = new HashMap<>(current.byDestination());
+        ScheduledLeg[] route = remove(byDestination.getOrDefault(leg.destinationCode(), NONE), leg);
+        if(route.length == 0) {
+            byDestination.remove(leg.destinationCode());
+        } else {
+            byDestination.put(leg.destinationCode(), route);
+        }
+
+        Map<String, AirportDepartures> byAirport = new HashMap<>(departuresByAirport);
+        ScheduledLeg[] all = remove(current.all(), leg);
+        if(all.length == 0) {
+            byAirport.remove(leg.originCode());
+        } else {
+            byAirport.put(leg.originCode(), new AirportDepartures(all, byDestination));
+        }
+        return new ScheduleSnapshot(byAirport);
+    }
+
+    ScheduledLeg[] departures(String airportCode) {
+        return departuresByAirport.getOrDefault(airportCode, NO_DEPARTURES).all();
+    }
+
+    ScheduledLeg[] departures(String originCode, String destinationCode) {
+        return departuresByAirport.getOrDefault(originCode, NO_DEPARTURES).byDestination().getOrDefault(destinationCode, NONE);
+    }
+
+    /**
+     * Index of the first leg departing at or after {@code minute}.
+     */
+    static int firstDepartingAtOrAfter(ScheduledLeg[] legs, long minute) {
+        int low = 0;
+        int high = legs.length;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(legs[mid].departureMinute() < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static ScheduledLeg[] sorted(List<ScheduledLeg> legs) {
+        ScheduledLeg[] array = legs.toArray(NONE);
+        Arrays.sort(array, ScheduledLeg.BY_DEPARTURE);
+        return array;
+    }
+
+    private static ScheduledLeg[] insert(ScheduledLeg[] legs, ScheduledLeg leg) {
+        int at = Arrays.binarySearch(legs, leg, ScheduledLeg.BY_DEPARTURE);
+        at = at < 0 ? -at - 1 : at;
+
+        ScheduledLeg[] updated = new ScheduledLeg[legs.length + 1];
+        System.arraycopy(legs, 0, updated, 0, at);
+        updated[at] = leg;
+        System.arraycopy(legs, at, updated, at + 1, legs.length - at);
+        return updated;
+    }
+
+    private static ScheduledLeg[] remove(ScheduledLeg[] legs, ScheduledLeg leg) {
+        int at = Arrays.binarySearch(legs, leg, ScheduledLeg.BY_DEPARTURE);
+        if(at < 0) {
+            return legs;
+        }
+
+        ScheduledLeg[] updated = new ScheduledLeg[legs.length - 1];
+        System.arraycopy(legs, 0, updated, 0, at);
+        System.arraycopy(legs, at + 1, updated, at, legs.length - at - 1);
+        return updated;
+    }
+}
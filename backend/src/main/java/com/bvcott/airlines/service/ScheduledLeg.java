@@ -0,0 +1,28 @@
+package com.bvcott.airlines.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.UUID;
+
+import com.bvcott.airlines.model.Flight;
+
+public record ScheduledLeg(UUID flightId, String flightNumber, String airlineCode, String originCode,
+        String destinationCode, LocalDateTime departureTime, LocalDateTime arrivalTime,
+        long departureMinute, long arrivalMinute) {
+
+    static final Comparator<ScheduledLeg> BY_DEPARTURE = Comparator
+        .comparingLong(ScheduledLeg::departureMinute)
+        .thenComparing(ScheduledLeg::flightId);
+
+    static ScheduledLeg of(Flight flight) {
+        return new ScheduledLeg(flight.getId(), flight.getFlightNumber(), flight.getAirline().getCode(),
+                flight.getOrigin().getCode().toUpperCase(), flight.getDestination().getCode().toUpperCase(),
+                flight.getDepartureTime(), flight.getArrivalTime(),
+                toMinute(flight.getDepartureTime()), toMinute(flight.getArrivalTime()));
+    }
+
+    static long toMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
@@ -0,0 +1,15 @@
+package com.bvcott.airlines.service;
+
+import java.util.UUID;
+
+/**
+ * Told by {@link SeatInventoryService} whenever seats change hands, so views
+ * derived from availability can update just the part that moved.
+ */
+public interface SeatAvailabilityListener {
+    /** A seat of {@code seatClass} on the flight was taken or given back. */
+    void seatsChanged(UUID flightId, String seatClass);
+
+    /** The flight's whole inventory was reloaded or dropped. */
+    void flightReset(UUID flightId);
+}
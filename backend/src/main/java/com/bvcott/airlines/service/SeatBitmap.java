@@ -0,0 +1,95 @@
+package com.bvcott.airlines.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size bitmap where a set bit marks a claimed seat. Claims and releases
+ * are single-word CAS operations, so readers never block and two threads can
+ * never both win the same bit.
+ */
+final class SeatBitmap {
+    private final AtomicLongArray words;
+    private final int size;
+    private final AtomicInteger claimed = new AtomicInteger();
+
+    SeatBitmap(int size) {
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    boolean claim(int index) {
+        int word = checkIndex(index) >>> 6;
+        long mask = 1L << index;
+
+        while(true) {
+            long current = words.get(word);
+            if((current & mask) != 0) {
+                return false;
+            }
+            if(words.compareAndSet(word, current, current | mask)) {
+                claimed.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    boolean release(int index) {
+        int word = checkIndex(index) >>> 6;
+        long mask = 1L << index;
+
+        while(true) {
+            long current = words.get(word);
+            if((current & mask) == 0) {
+                return false;
+            }
+            if(words.compareAndSet(word, current, current & ~mask)) {
+                claimed.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    boolean isClaimed(int index) {
+        return (words.get(checkIndex(index) >>> 6) & (1L << index)) != 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int claimedCount() {
+        return claimed.get();
+    }
+
+    int availableCount() {
+        return size - claimed.get();
+    }
+
+    int[] availableIndexes() {
+        int[] result = new int[size];
+        int count = 0;
+
+        for(int word = 0; word < words.length(); word++) {
+            long free = ~words.get(word);
+            while(free != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(free);
+                if(index >= size) {
+                    break;
+                }
+                result[count++] = index;
+                free &= free - 1;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+    private int checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Seat index " + index + " outside bitmap of size " + size);
+        }
+        return index;
+    }
+}
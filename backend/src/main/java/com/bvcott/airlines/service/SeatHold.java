@@ -0,0 +1,7 @@
+package com.bvcott.airlines.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record SeatHold(UUID id, UUID flightId, String seatNumber, Instant expiresAt) {
+}
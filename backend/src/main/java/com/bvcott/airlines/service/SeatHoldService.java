@@ -0,0 +1,139 @@
+package com.bvcott.airlines.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.bvcott.airlines.exception.SeatHoldNotFoundException;
+import com.bvcott.airlines.exception.SeatUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Holds seats in memory for a limited time while a checkout completes. Holds
+ * are never written to the database; only a confirmed hold is committed to
+ * the seat row. Expiry is driven by a {@link HashedTimingWheel}, so there is
+ * no polling and no thread per hold.
+ */
+@Service
+public class SeatHoldService {
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
+    private static final int WHEEL_SIZE = 512;
+
+    private record ActiveHold(SeatHold hold, HashedTimingWheel.Timeout timeout) {}
+
+    private final SeatInventoryService inventoryService;
+    private final Duration ttl;
+    private final HashedTimingWheel wheel;
+    private final Map<UUID, ActiveHold> holds = new ConcurrentHashMap<>();
+
+    private final Counter createdCounter;
+    private final Counter confirmedCounter;
+    private final Counter releasedCounter;
+    private final Counter expiredCounter;
+
+    @Autowired
+    SeatHoldService(SeatInventoryService inventoryService, MeterRegistry meterRegistry,
+            @Value("${airlines.seat-hold.ttl:10m}") Duration ttl,
+            @Value("${airlines.seat-hold.tick:1s}") Duration tick) {
+        this(inventoryService, meterRegistry, ttl, new HashedTimingWheel(tick, WHEEL_SIZE, System::nanoTime));
+    }
+
+    SeatHoldService(SeatInventoryService inventoryService, MeterRegistry meterRegistry, Duration ttl, HashedTimingWheel wheel) {
+        this.inventoryService = inventoryService;
+        this.ttl = ttl;
+        this.wheel = wheel;
+
+        this.createdCounter = meterRegistry.counter("seat.holds", "outcome", "created");
+        this.confirmedCounter = meterRegistry.counter("seat.holds", "outcome", "confirmed");
+        this.releasedCounter = meterRegistry.counter("seat.holds", "outcome", "released");
+        this.expiredCounter = meterRegistry.counter("seat.holds", "outcome", "expired");
+        meterRegistry.gaugeMapSize("seat.holds.active", Tags.empty(), holds);
+    }
+
+    @PostConstruct
+    void start() {
+        wheel.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        wheel.stop();
+    }
+
+    public SeatHold hold(UUID flightId, String seatNumber) {
+        log.debug("hold method called with flight ID: {} and seat: {}", flightId, seatNumber);
+
+        if(!inventoryService.reserve(flightId, seatNumber)) {
+            log.warn("Seat {} on flight {} is not available to hold.", seatNumber, flightId);
+            throw new SeatUnavailableException("Seat " + seatNumber + " is not available on flight with ID: " + flightId);
+        }
+
+        SeatHold hold = new SeatHold(UUID.randomUUID(), flightId, seatNumber, Instant.now().plus(ttl));
+        HashedTimingWheel.Timeout timeout = wheel.schedule(() -> expire(hold), ttl);
+        holds.put(hold.id(), new ActiveHold(hold, timeout));
+        if(timeout.isExpired()) {
+            holds.remove(hold.id());
+        }
+        createdCounter.increment();
+
+        return hold;
+    }
+
+    public SeatHold confirm(UUID holdId) {
+        log.debug("confirm method called with hold ID: {}", holdId);
+        ActiveHold active = take(holdId);
+
+        if(!inventoryService.commit(active.hold().flightId(), active.hold().seatNumber())) {
+            log.warn("Seat {} on flight {} was taken in the database before the hold was confirmed.",
+                    active.hold().seatNumber(), active.hold().flightId());
+            throw new SeatUnavailableException("Seat " + active.hold().seatNumber() + " is no longer available.");
+        }
+
+        confirmedCounter.increment();
+        return active.hold();
+    }
+
+    public void release(UUID holdId) {
+        log.debug("release method called with hold ID: {}", holdId);
+        ActiveHold active = take(holdId);
+
+        inventoryService.unreserve(active.hold().flightId(), active.hold().seatNumber());
+        releasedCounter.increment();
+    }
+
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    private ActiveHold take(UUID holdId) {
+        ActiveHold active = holds.remove(holdId);
+
+        // Losing the cancel race means the wheel is expiring this hold right now.
+        if(active == null || !active.timeout().cancel()) {
+            log.warn("Seat hold with ID: {} - NOT FOUND or expired", holdId);
+            throw new SeatHoldNotFoundException("Seat hold not found or expired with ID: " + holdId);
+        }
+
+        return active;
+    }
+
+    private void expire(SeatHold hold) {
+        log.debug("Seat hold {} expired, releasing seat {} on flight {}", hold.id(), hold.seatNumber(), hold.flightId());
+        holds.remove(hold.id());
+        inventoryService.unreserve(hold.flightId(), hold.seatNumber());
+        expiredCounter.increment();
+    }
+}
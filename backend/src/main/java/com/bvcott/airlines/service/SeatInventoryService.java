@@ -0,0 +1,259 @@
+package com.bvcott.airlines.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.bvcott.airlines.exception.FlightNotFoundException;
+import com.bvcott.airlines.exception.SeatNotFoundException;
+import com.bvcott.airlines.model.FlightSeatMap;
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.repository.SeatRepository;
+import com.bvcott.airlines.service.FlightSeatInventory.SeatSlot;
+
+/**
+ * In-memory seat availability per flight. Each flight is loaded once, from
+ * its seat map row or, for flights without one, from the seat table; after that availability reads are served from the bitmaps only
+ * and claims/releases are written through to the seat row. Registered
+ * {@link SeatAvailabilityListener}s hear about every change.
+ */
+@Service
+public class SeatInventoryService {
+    private static final Logger log = LoggerFactory.getLogger(SeatInventoryService.class);
+
+    private final SeatRepository seatRepo;
+    private final SeatMapService seatMaps;
+    private final Map<UUID, FlightSeatInventory> inventories = new ConcurrentHashMap<>();
+    private final List<SeatAvailabilityListener> listeners = new CopyOnWriteArrayList<>();
+
+    SeatInventoryService(SeatRepository seatRepo, SeatMapService seatMaps) {
+        this.seatRepo = seatRepo;
+        this.seatMaps = seatMaps;
+    }
+
+    public void addListener(SeatAvailabilityListener listener) {
+        listeners.add(listener);
+    }
+
+    public void load(UUID flightId) {
+        log.debug("load method called with flight ID: {}", flightId);
+        FlightSeatInventory inventory = read(flightId);
+        inventories.put(flightId, inventory == null ? FlightSeatInventory.of(flightId, List.of()) : inventory);
+        listeners.forEach(listener -> listener.flightReset(flightId));
+    }
+
+    public void evict(UUID flightId) {
+        log.debug("evict method called with flight ID: {}", flightId);
+        inventories.remove(flightId);
+        listeners.forEach(listener -> listener.flightReset(flightId));
+    }
+
+    /** Whether the flight's seats are kept in a seat map row rather than a row per seat. */
+    public boolean usesSeatMap(UUID flightId) {
+        return inventory(flightId).layout().isSeatMap();
+    }
+
+    public boolean isAvailable(UUID flightId, String seatNumber) {
+        return slot(flightId, seatNumber).isAvailable();
+    }
+
+    public int availableSeats(UUID flightId) {
+        return inventory(flightId).availableCount();
+    }
+
+    public int availableSeats(UUID flightId, String seatClass) {
+        return inventory(flightId).availableCount(seatClass);
+    }
+
+    public List<String> availableSeatNumbers(UUID flightId, String seatClass) {
+        return inventory(flightId).availableSeatNumbers(seatClass);
+    }
+
+    public List<String> seatClasses(UUID flightId) {
+        return inventory(flightId).seatClasses();
+    }
+
+    public int capacity(UUID flightId, String seatClass) {
+        return inventory(flightId).capacity(seatClass);
+    }
+
+    public boolean claim(UUID flightId, String seatNumber) {
+        log.debug("claim method called with flight ID: {} and seat: {}", flightId, seatNumber);
+        SeatSlot slot = slot(flightId, seatNumber);
+
+        if(!slot.bitmap().claim(slot.index())) {
+            log.debug("Seat {} on flight {} already taken.", seatNumber, flightId);
+            return false;
+        }
+        notifyChanged(flightId, slot);
+
+        return writeThrough(flightId, slot, true, false);
+    }
+
+    /**
+     * Claims the seat in memory only and marks it held. The seat stays
+     * unavailable to other callers until it is either committed or
+     * unreserved, and can't be released like a sold one meanwhile.
+     */
+    public boolean reserve(UUID flightId, String seatNumber) {
+        log.debug("reserve method called with flight ID: {} and seat: {}", flightId, seatNumber);
+        SeatSlot slot = slot(flightId, seatNumber);
+
+        // Held first: in between, a sold seat is refused a release rather than a held one allowed it.
+        if(!slot.holds().claim(slot.index())) {
+            return false;
+        }
+        if(!slot.bitmap().claim(slot.index())) {
+            slot.holds().release(slot.index());
+            return false;
+        }
+        notifyChanged(flightId, slot);
+        return true;
+    }
+
+    /** Frees a held seat. A seat that is no longer held, e.g. sold since its hold expired, is left alone. */
+    public boolean unreserve(UUID flightId, String seatNumber) {
+        log.debug("unreserve method called with flight ID: {} and seat: {}", flightId, seatNumber);
+        SeatSlot slot = slot(flightId, seatNumber);
+
+        if(!slot.holds().release(slot.index())) {
+            return false;
+        }
+        return changed(flightId, slot, slot.bitmap().release(slot.index()));
+    }
+
+    /**
+     * Writes a seat previously taken with {@link #reserve} through to the
+     * database.
+     */
+    public boolean commit(UUID flightId, String seatNumber) {
+        log.debug("commit method called with flight ID: {} and seat: {}", flightId, seatNumber);
+        SeatSlot slot = slot(flightId, seatNumber);
+
+        if(!slot.isHeld()) {
+            log.warn("Seat {} on flight {} was not reserved before commit.", seatNumber, flightId);
+            return false;
+        }
+
+        try {
+            return writeThrough(flightId, slot, true, false);
+        } finally {
+            slot.holds().release(slot.index());
+        }
+    }
+
+    /**
+     * Marks a seat taken with {@link #reserve} as sold once the caller has
+     * written it to the database itself, so it can later be released.
+     */
+    public void sold(UUID flightId, String seatNumber) {
+        log.debug("sold method called with flight ID: {} and seat: {}", flightId, seatNumber);
+        SeatSlot slot = slot(flightId, seatNumber);
+        slot.holds().release(slot.index());
+    }
+
+    public boolean release(UUID flightId, String seatNumber) {
+        log.debug("release method called with flight ID: {} and seat: {}", flightId, seatNumber);
+        SeatSlot slot = slot(flightId, seatNumber);
+
+        if(slot.isHeld()) {
+            log.warn("Seat {} on flight {} is held, not sold; only its hold can free it.", seatNumber, flightId);
+            return false;
+        }
+        if(!slot.bitmap().release(slot.index())) {
+            log.debug("Seat {} on flight {} was not taken.", seatNumber, flightId);
+            return false;
+        }
+        notifyChanged(flightId, slot);
+
+        if(!writeThrough(flightId, slot, false, true)) {
+            // The row wasn't sold, so whoever took the seat in memory hasn't written it yet; give it back.
+            slot.bitmap().claim(slot.index());
+            notifyChanged(flightId, slot);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean changed(UUID flightId, SeatSlot slot, boolean changed) {
+        if(changed) {
+            notifyChanged(flightId, slot);
+        }
+        return changed;
+    }
+
+    private void notifyChanged(UUID flightId, SeatSlot slot) {
+        listeners.forEach(listener -> listener.seatsChanged(flightId, slot.seatClass()));
+    }
+
+    private boolean writeThrough(UUID flightId, SeatSlot slot, boolean expected, boolean available) {
+        int updated;
+
+        try {
+            updated = slot.seatId() != null
+                ? seatRepo.compareAndSetAvailability(slot.seatId(), expected, available)
+                : seatMaps.write(flightId, slot.bit(), !available);
+        } catch(RuntimeException e) {
+            log.warn("Couldn't write seat {} through to the database, reverting in-memory state.", slot.seatNumber());
+            revert(slot, available);
+            notifyChanged(flightId, slot);
+            throw e;
+        }
+
+        if(updated == 0) {
+            // The row was already in the target state: another node won a claim, and the
+            // bitmap agrees with the database, or a release found the seat not sold.
+            log.warn("Seat {} changed in the database concurrently.", slot.seatNumber());
+            return false;
+        }
+
+        return true;
+    }
+
+    private void revert(SeatSlot slot, boolean available) {
+        if(available) {
+            slot.bitmap().claim(slot.index());
+        } else {
+            slot.bitmap().release(slot.index());
+        }
+    }
+
+    private SeatSlot slot(UUID flightId, String seatNumber) {
+        SeatSlot slot = inventory(flightId).slot(seatNumber);
+
+        if(slot == null) {
+            log.warn("Seat {} not found on flight {}", seatNumber, flightId);
+            throw new SeatNotFoundException("Seat " + seatNumber + " not found on flight with ID: " + flightId);
+        }
+
+        return slot;
+    }
+
+    private FlightSeatInventory inventory(UUID flightId) {
+        FlightSeatInventory inventory = inventories.computeIfAbsent(flightId, this::read);
+
+        if(inventory == null) {
+            log.warn("No seat inventory for flight with ID: {}", flightId);
+            throw new FlightNotFoundException("No seats found for flight with ID: " + flightId);
+        }
+
+        return inventory;
+    }
+
+    private FlightSeatInventory read(UUID flightId) {
+        Optional<FlightSeatMap> seatMap = seatMaps.find(flightId);
+        if(seatMap.isPresent()) {
+            return FlightSeatInventory.of(flightId, seatMaps.layout(seatMap.get().getAircraftType()), seatMap.get());
+        }
+
+        List<Seat> seats = seatRepo.findByFlightId(flightId);
+        return seats.isEmpty() ? null : FlightSeatInventory.of(flightId, seats);
+    }
+}
@@ -0,0 +1,126 @@
+package com.bvcott.airlines.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.service.SeatMapTemplate.SeatSpec;
+
+/**
+ * Seat numbers of a flight grouped by seat class, each class in the order of
+ * its {@link SeatBitmap}. Flights flown with a seat map share their aircraft
+ * type's layout, so a loaded flight costs only its bitmaps; a flight with a
+ * row per seat gets a layout of its own that also keeps the row ids.
+ */
+final class SeatLayout {
+    /** Where a seat sits: its class, its index in the class and its bit in the packed seat map (-1 for seat rows). */
+    record Position(int seatClass, int index, int bit) {}
+
+    private final String aircraftType;
+    private final String[] seatClasses;
+    private final String[][] seatNumbers;
+    private final UUID[][] seatIds;
+    private final Map<String, Position> positions;
+
+    private SeatLayout(String aircraftType, String[] seatClasses, String[][] seatNumbers, UUID[][] seatIds,
+            Map<String, Position> positions) {
+        this.aircraftType = aircraftType;
+        this.seatClasses = seatClasses;
+        this.seatNumbers = seatNumbers;
+        this.seatIds = seatIds;
+        this.positions = positions;
+    }
+
+    static SeatLayout of(SeatMapTemplate template) {
+        Map<String, List<Integer>> bitsByClass = new LinkedHashMap<>();
+        List<SeatSpec> seats = template.seats();
+        for(int bit = 0; bit < seats.size(); bit++) {
+            bitsByClass.computeIfAbsent(seats.get(bit).seatClass(), k -> new ArrayList<>()).add(bit);
+        }
+
+        String[] seatClasses = bitsByClass.keySet().toArray(String[]::new);
+        String[][] seatNumbers = new String[seatClasses.length][];
+        Map<String, Position> positions = new HashMap<>();
+        for(int c = 0; c < seatClasses.length; c++) {
+            List<Integer> bits = bitsByClass.get(seatClasses[c]);
+            seatNumbers[c] = new String[bits.size()];
+            for(int i = 0; i < bits.size(); i++) {
+                seatNumbers[c][i] = seats.get(bits.get(i)).seatNumber();
+                positions.put(seatNumbers[c][i], new Position(c, i, bits.get(i)));
+            }
+        }
+        return new SeatLayout(template.aircraftType(), seatClasses, seatNumbers, null,
+                Map.copyOf(positions));
+    }
+
+    static SeatLayout of(List<Seat> seats) {
+        Map<String, List<Seat>> grouped = new LinkedHashMap<>();
+        seats
+            .stream()
+            .sorted(Comparator.comparing(Seat::getSeatNumber))
+            .forEach(seat -> grouped.computeIfAbsent(seat.getSeatClass(), k -> new ArrayList<>()).add(seat));
+
+        String[] seatClasses = grouped.keySet().toArray(String[]::new);
+        String[][] seatNumbers = new String[seatClasses.length][];
+        UUID[][] seatIds = new UUID[seatClasses.length][];
+        Map<String, Position> positions = new HashMap<>();
+        for(int c = 0; c < seatClasses.length; c++) {
+            List<Seat> classSeats = grouped.get(seatClasses[c]);
+            seatNumbers[c] = new String[classSeats.size()];
+            seatIds[c] = new UUID[classSeats.size()];
+            for(int i = 0; i < classSeats.size(); i++) {
+                seatNumbers[c][i] = classSeats.get(i).getSeatNumber();
+                seatIds[c][i] = classSeats.get(i).getId();
+                positions.put(seatNumbers[c][i], new Position(c, i, -1));
+            }
+        }
+        return new SeatLayout(null, seatClasses, seatNumbers, seatIds, Map.copyOf(positions));
+    }
+
+    /** The aircraft type for a seat map layout, null for one built from seat rows. */
+    String aircraftType() {
+        return aircraftType;
+    }
+
+    boolean isSeatMap() {
+        return aircraftType != null;
+    }
+
+    int classCount() {
+        return seatClasses.length;
+    }
+
+    String seatClass(int seatClass) {
+        return seatClasses[seatClass];
+    }
+
+    int classIndex(String seatClass) {
+        for(int c = 0; c < seatClasses.length; c++) {
+            if(seatClasses[c].equals(seatClass)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    int capacity(int seatClass) {
+        return seatNumbers[seatClass].length;
+    }
+
+    String seatNumber(int seatClass, int index) {
+        return seatNumbers[seatClass][index];
+    }
+
+    UUID seatId(int seatClass, int index) {
+        return seatIds == null ? null : seatIds[seatClass][index];
+    }
+
+    Position position(String seatNumber) {
+        return positions.get(seatNumber);
+    }
+}
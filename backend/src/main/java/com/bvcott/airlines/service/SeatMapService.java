@@ -0,0 +1,157 @@
+package com.bvcott.airlines.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bvcott.airlines.exception.SeatMapNotFoundException;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.FlightSeatMap;
+import com.bvcott.airlines.repository.FlightSeatMapRepository;
+
+/**
+ * Aircraft seat maps and the seat inventory kept with them. A flight with an
+ * aircraft type stores its seats as one {@link FlightSeatMap} row: the type
+ * names the layout and a packed bitset records which seats are sold, so
+ * loading or saving a flight's seats is a single row and the seat numbers
+ * live once per aircraft type rather than once per flight.
+ */
+@Service
+public class SeatMapService {
+    private static final Logger log = LoggerFactory.getLogger(SeatMapService.class);
+    static final int BATCH_SIZE = 1_000;
+    private static final int WRITE_LOCK_STRIPES = 64;
+    private static final String INSERT_SEAT_MAP = "insert into flight_seat_map (flight_id, aircraft_type, sold, version) values (?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FlightSeatMapRepository seatMapRepo;
+    private final OptimisticRetry retry;
+    private final TransactionTemplate writeTransaction;
+    private final Object[] writeLocks = new Object[WRITE_LOCK_STRIPES];
+    private final Map<String, SeatMapTemplate> templates;
+    private final Map<String, SeatLayout> layouts;
+
+    SeatMapService(JdbcTemplate jdbcTemplate, FlightSeatMapRepository seatMapRepo, OptimisticRetry retry,
+            PlatformTransactionManager transactionManager,
+            @Value("${airlines.seat-maps.templates:E175=Business:1-3:ACD;Economy:4-20:ACDF,A320=Business:1-4:ACDF;Economy:5-30:ABCDEF,B789=Business:1-7:ADGK;Economy:10-38:ABCDEFGHJ}") List<String> definitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seatMapRepo = seatMapRepo;
+        this.retry = retry;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        for(int i = 0; i < writeLocks.length; i++) {
+            writeLocks[i] = new Object();
+        }
+        Map<String, SeatMapTemplate> templates = new LinkedHashMap<>();
+        Map<String, SeatLayout> layouts = new LinkedHashMap<>();
+        for(String definition : definitions) {
+            SeatMapTemplate template = SeatMapTemplate.parse(definition);
+            if(templates.put(template.aircraftType(), template) != null) {
+                throw new IllegalArgumentException("Seat map configured twice for aircraft type: " + template.aircraftType());
+            }
+            if(FlightSeatMap.bytesFor(template.capacity()) > 512) {
+                throw new IllegalArgumentException("Seat map for " + template.aircraftType() + " has more than 4096 seats");
+            }
+            layouts.put(template.aircraftType(), SeatLayout.of(template));
+        }
+        this.templates = Map.copyOf(templates);
+        this.layouts = Map.copyOf(layouts);
+    }
+
+    public SeatMapTemplate template(String aircraftType) {
+        log.debug("template method called with aircraft type: {}", aircraftType);
+        SeatMapTemplate template = aircraftType == null ? null : templates.get(aircraftType);
+
+        if(template == null) {
+            log.warn("No seat map for aircraft type {}", aircraftType);
+            throw new SeatMapNotFoundException("Seat map not found for aircraft type: " + aircraftType);
+        }
+
+        return template;
+    }
+
+    public Collection<SeatMapTemplate> templates() {
+        return templates.values();
+    }
+
+    SeatLayout layout(String aircraftType) {
+        template(aircraftType);
+        return layouts.get(aircraftType);
+    }
+
+    /**
+     * Writes an all-available seat map row for every flight and returns how
+     * many seats they hold. The flights must already be flushed, and the
+     * inserts join the caller's transaction so flights and seats commit
+     * together.
+     */
+    public long materialize(Collection<Flight> flights) {
+        log.debug("materialize method called for {} flights", flights.size());
+        List<Object[]> rows = new ArrayList<>(Math.min(flights.size(), BATCH_SIZE));
+        long seats = 0;
+
+        for(Flight flight : flights) {
+            SeatMapTemplate template = template(flight.getAircraftType());
+            rows.add(new Object[] { flight.getId(), template.aircraftType(), new byte[FlightSeatMap.bytesFor(template.capacity())] });
+            seats += template.capacity();
+            if(rows.size() == BATCH_SIZE) {
+                insert(rows);
+            }
+        }
+        insert(rows);
+
+        log.debug("Materialized {} seats for {} flights.", seats, flights.size());
+        return seats;
+    }
+
+    private void insert(List<Object[]> rows) {
+        if(!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SEAT_MAP, rows);
+            rows.clear();
+        }
+    }
+
+    public Optional<FlightSeatMap> find(UUID flightId) {
+        log.debug("find method called with flight ID: {}", flightId);
+        return seatMapRepo.findById(flightId);
+    }
+
+    /**
+     * Marks one seat sold or available in the flight's seat map row. Returns
+     * 0 if the seat was already in that state, as a row compare-and-set would.
+     * The bit is tested and set on the entity and saved under its version
+     * check. Writers of one flight on this node take turns on a lock striped
+     * by flight, so they don't collide on the version; a write that loses to
+     * another node's is retried against the fresh row, each attempt in its own
+     * transaction unless the caller already has one.
+     */
+    int write(UUID flightId, int bit, boolean sold) {
+        synchronized(writeLocks[Math.floorMod(flightId.hashCode(), writeLocks.length)]) {
+            return retry.run(flightId, () -> writeTransaction.execute(status -> {
+                FlightSeatMap seatMap = seatMapRepo.findById(flightId)
+                    .orElseThrow(() -> new SeatMapNotFoundException("Seat map not found for flight with ID: " + flightId));
+                if(seatMap.isSold(bit) == sold) {
+                    return 0;
+                }
+                seatMap.setSold(bit, sold);
+                return 1;
+            }));
+        }
+    }
+
+    public void delete(UUID flightId) {
+        log.debug("delete method called with flight ID: {}", flightId);
+        seatMapRepo.deleteById(flightId);
+    }
+}
@@ -0,0 +1,78 @@
+package com.bvcott.airlines.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The cabin layout of an aircraft type: which rows and seat letters each
+ * seat class occupies. Seat numbers are the row followed by the letter, as
+ * on a boarding pass ({@code 12C}).
+ */
+public record SeatMapTemplate(String aircraftType, List<Cabin> cabins) {
+    /** Rows {@code firstRow} to {@code lastRow} inclusive, each with a seat per letter. */
+    public record Cabin(String seatClass, int firstRow, int lastRow, String letters) {
+        public Cabin {
+            if(seatClass == null || seatClass.isBlank() || letters == null || letters.isEmpty()) {
+                throw new IllegalArgumentException("A cabin needs a seat class and seat letters");
+            }
+            if(firstRow < 1 || lastRow < firstRow) {
+                throw new IllegalArgumentException("Cabin rows must run upwards from 1, were: " + firstRow + "-" + lastRow);
+            }
+        }
+
+        int seats() {
+            return (lastRow - firstRow + 1) * letters.length();
+        }
+    }
+
+    /** One generated seat. */
+    public record SeatSpec(String seatNumber, String seatClass) {}
+
+    public SeatMapTemplate {
+        cabins = List.copyOf(cabins);
+        for(int i = 1; i < cabins.size(); i++) {
+            if(cabins.get(i).firstRow() <= cabins.get(i - 1).lastRow()) {
+                throw new IllegalArgumentException("Cabins of " + aircraftType + " overlap or are out of row order");
+            }
+        }
+    }
+
+    /**
+     * Parses {@code TYPE=Class:first-last:LETTERS;Class:first-last:LETTERS},
+     * e.g. {@code A320=Business:1-4:ACDF;Economy:5-30:ABCDEF}.
+     */
+    public static SeatMapTemplate parse(String definition) {
+        int separator = definition.indexOf('=');
+        if(separator < 1) {
+            throw new IllegalArgumentException("Seat maps are configured as TYPE=Class:first-last:LETTERS;..., was: " + definition);
+        }
+
+        List<Cabin> cabins = new ArrayList<>();
+        for(String cabin : definition.substring(separator + 1).split(";")) {
+            String[] parts = cabin.trim().split(":");
+            String[] rows = parts.length == 3 ? parts[1].split("-") : new String[0];
+            if(rows.length != 2) {
+                throw new IllegalArgumentException("Cabins are configured as Class:first-last:LETTERS, was: " + cabin);
+            }
+            cabins.add(new Cabin(parts[0].trim(), Integer.parseInt(rows[0].trim()), Integer.parseInt(rows[1].trim()), parts[2].trim()));
+        }
+        return new SeatMapTemplate(definition.substring(0, separator).trim(), cabins);
+    }
+
+    public int capacity() {
+        return cabins.stream().mapToInt(Cabin::seats).sum();
+    }
+
+    /** Every seat of the layout, front to back and left to right. */
+    public List<SeatSpec> seats() {
+        List<SeatSpec> seats = new ArrayList<>(capacity());
+        for(Cabin cabin : cabins) {
+            for(int row = cabin.firstRow(); row <= cabin.lastRow(); row++) {
+                for(int letter = 0; letter < cabin.letters().length(); letter++) {
+                    seats.add(new SeatSpec(row + String.valueOf(cabin.letters().charAt(letter)), cabin.seatClass()));
+                }
+            }
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,127 @@
+package com.bvcott.airlines.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Hands out ticket numbers: a three digit issuer code, a ten digit serial and
+ * a check digit (the serial mod 7, as on airline tickets).
+ * <p>
+ * Serials come in blocks reserved from a database sequence that steps by the
+ * block size, so a block costs one round trip and no two nodes or restarts
+ * ever share one. Within a block numbers are taken with a single atomic add;
+ * only the thread that finds the block used up takes a lock, to fetch the
+ * next. Numbers left in a block when a node stops are skipped, never reused.
+ */
+@Component
+public class TicketNumberAllocator {
+    private static final Logger log = LoggerFactory.getLogger(TicketNumberAllocator.class);
+    static final String SEQUENCE = "ticket_number_seq";
+    static final long MAX_SERIAL = 9_999_999_999L;
+    static final int LENGTH = 14;
+
+    /** Serials {@code next} up to, not including, {@code end}. */
+    private record Block(AtomicLong next, long end) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String issuerCode;
+    private final int configuredBlockSize;
+    private volatile long blockSize;
+    private final Object refillLock = new Object();
+    private volatile Block block = new Block(new AtomicLong(), 0);
+
+    private final Counter blockCounter;
+
+    TicketNumberAllocator(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${airlines.ticketing.issuer-code:999}") String issuerCode,
+            @Value("${airlines.ticketing.block-size:1000}") int blockSize) {
+        if(!issuerCode.matches("\\d{3}")) {
+            throw new IllegalArgumentException("Issuer code must be three digits, was: " + issuerCode);
+        }
+        if(blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.issuerCode = issuerCode;
+        this.configuredBlockSize = blockSize;
+        this.blockCounter = meterRegistry.counter("ticket.number.blocks");
+    }
+
+    /**
+     * Each sequence value is the last serial of the block it reserves. An
+     * existing sequence keeps its step, so blocks are sized by the step it
+     * actually has rather than the configured size; changing the block size
+     * means recreating the sequence to start above the highest serial issued.
+     */
+    @PostConstruct
+    void createSequence() {
+        jdbcTemplate.execute("create sequence if not exists " + SEQUENCE + " start with " + configuredBlockSize
+                + " increment by " + configuredBlockSize);
+        blockSize = jdbcTemplate.queryForObject("select increment from information_schema.sequences where upper(sequence_name) = upper(?)",
+                Long.class, SEQUENCE);
+        if(blockSize != configuredBlockSize) {
+            log.warn("Ticket number sequence steps by {}, not the configured {}; using {}.", blockSize, configuredBlockSize, blockSize);
+        }
+    }
+
+    public String next() {
+        return allocate(1)[0];
+    }
+
+    /** {@code count} distinct numbers, taken together so a booking's tickets need one call. */
+    public String[] allocate(int count) {
+        String[] numbers = new String[count];
+        int filled = 0;
+
+        while(filled < count) {
+            Block current = block;
+            long start = current.next().getAndAdd(count - filled);
+            long stop = Math.min(start + count - filled, current.end());
+            for(long serial = start; serial < stop; serial++) {
+                numbers[filled++] = format(issuerCode, serial);
+            }
+            if(filled < count) {
+                refill(current);
+            }
+        }
+        return numbers;
+    }
+
+    private void refill(Block exhausted) {
+        synchronized(refillLock) {
+            if(block != exhausted) {
+                return;
+            }
+            long last = jdbcTemplate.queryForObject("select next value for " + SEQUENCE, Long.class);
+            if(last > MAX_SERIAL) {
+                log.error("Ticket serials exhausted for issuer {}.", issuerCode);
+                throw new IllegalStateException("No ticket serials left for issuer " + issuerCode);
+            }
+            block = new Block(new AtomicLong(last - blockSize + 1), last + 1);
+            blockCounter.increment();
+            log.debug("Reserved ticket serials {} to {}.", last - blockSize + 1, last);
+        }
+    }
+
+    static String format(String issuerCode, long serial) {
+        return issuerCode + String.format("%010d", serial) + serial % 7;
+    }
+
+    /** Whether {@code ticketNumber} is fourteen digits whose last is the check digit of the serial before it. */
+    public static boolean isValid(String ticketNumber) {
+        if(ticketNumber == null || ticketNumber.length() != LENGTH || !ticketNumber.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        long serial = Long.parseLong(ticketNumber.substring(3, LENGTH - 1));
+        return ticketNumber.charAt(LENGTH - 1) - '0' == serial % 7;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bvcott.airlines.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bvcott.airlines.exception.BookingNotFoundException;
+import com.bvcott.airlines.model.Booking;
+import com.bvcott.airlines.model.Passenger;
+import com.bvcott.airlines.model.Ticket;
+import com.bvcott.airlines.pricing.FareEngine;
+import com.bvcott.airlines.pricing.Money;
+import com.bvcott.airlines.repository.BookingRepository;
+import com.bvcott.airlines.repository.TicketRepository;
+
+@Service
+public class TicketService {
+    private static final Logger log = LoggerFactory.getLogger(TicketService.class);
+
+    private final TicketRepository ticketRepo;
+    private final BookingRepository bookingRepo;
+    private final TicketNumberAllocator numberAllocator;
+    private final FareEngine fareEngine;
+
+    TicketService(TicketRepository ticketRepo, BookingRepository bookingRepo, TicketNumberAllocator numberAllocator, FareEngine fareEngine) {
+        this.ticketRepo = ticketRepo;
+        this.bookingRepo = bookingRepo;
+        this.numberAllocator = numberAllocator;
+        this.fareEngine = fareEngine;
+    }
+
+    /**
+     * Issues one ticket per passenger on the booking, numbered from a single
+     * allocation and inserted as one batch. A booking that already has
+     * tickets gets those back; the booking row is locked first, so concurrent
+     * calls for one booking issue only once. Each ticket is priced at the
+     * {@link FareEngine}'s current fare for {@code seatClass} on the booked flight.
+     */
+    @Transactional
+    public List<Ticket> issueTickets(UUID bookingId, String seatClass) {
+        log.debug("issueTickets method called with booking ID: {} and seat class: {}", bookingId, seatClass);
+
+        Booking booking = bookingRepo
+            .findByIdForUpdate(bookingId)
+            .orElseThrow(() -> {
+                log.warn("Booking with ID: {} - NOT FOUND", bookingId);
+                return new BookingNotFoundException("Booking not found with ID: " + bookingId);
+            });
+
+        List<Ticket> issued = ticketRepo.findByBookingId(bookingId);
+        if(!issued.isEmpty()) {
+            log.debug("Booking {} already has {} tickets.", bookingId, issued.size());
+            return issued;
+        }
+
+        List<Passenger> passengers = List.copyOf(booking.getPassengers());
+        if(passengers.isEmpty()) {
+            log.warn("Can't issue tickets, booking {} has no passengers.", bookingId);
+            throw new DataIntegrityViolationException("Booking has no passengers to issue tickets for.");
+        }
+
+        Money price = fareEngine.quote(booking.getFlight().getId(), seatClass).price();
+        String[] numbers = numberAllocator.allocate(passengers.size());
+        List<Ticket> tickets = new ArrayList<>(passengers.size());
+        for(int i = 0; i < passengers.size(); i++) {
+            tickets.add(new Ticket(numbers[i], booking, passengers.get(i), price));
+        }
+        return ticketRepo.saveAll(tickets);
+    }
+}
@@ -0,0 +1,247 @@
+package com.bvcott.airlines.service;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import com.bvcott.airlines.projection.ReferenceSuggestion;
+
+/**
+ * Trigram index over the code, name and location of reference data, for
+ * autocomplete that tolerates partial words and typos.
+ * <p>
+ * Each word is padded with two leading blanks and one trailing blank before
+ * it is cut into trigrams, so the first grams of a word double as its one-
+ * and two-letter prefixes. The last word of a query is left open at the end
+ * because the user is still typing it. A document matches when it shares at
+ * least {@code minimumSimilarity} of the query's grams. An exact or prefix
+ * code match and every query word being a prefix of a document word rank it
+ * higher.
+ * <p>
+ * Each gram's posting list is an immutable array replaced on write. Writers
+ * take the index's lock; readers take none and skip documents that were
+ * replaced since they read the posting list. A search counts shared grams in
+ * a per-thread array indexed by document slot and keeps only the best
+ * {@code limit} matches, turning most candidates away with one comparison,
+ * so a one-letter query touching much of the index stays cheap.
+ */
+final class TrigramIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Document[] NONE = new Document[0];
+
+    private record Document(int slot, UUID id, String code, String foldedCode, String name, String location, String text, String[] grams) {}
+
+    private record Match(Document document, double score) {}
+
+    // Best first: score, then the shorter and alphabetically earlier name.
+    private static final Comparator<Match> RANKING = Comparator
+        .comparingDouble(Match::score).reversed()
+        .thenComparingInt((Match match) -> match.document().name().length())
+        .thenComparing(match -> match.document().name());
+
+    /** Gram counts of one search, cleared again through the slots it touched. */
+    private static final class Scratch {
+        int[] counts = new int[0];
+        int[] touched = new int[0];
+    }
+
+    private final double minimumSimilarity;
+    private final Map<UUID, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Document[]> postings = new ConcurrentHashMap<>();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    // Slots of removed documents are reused, so the count arrays stay as large as the index.
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private volatile int slotCount;
+
+    TrigramIndex(double minimumSimilarity) {
+        if(minimumSimilarity <= 0 || minimumSimilarity > 1) {
+            throw new IllegalArgumentException("Minimum similarity must be above 0 and at most 1, was: " + minimumSimilarity);
+        }
+        this.minimumSimilarity = minimumSimilarity;
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    synchronized void put(UUID id, String code, String name, String location) {
+        String[] words = words(code + " " + name + (location == null ? "" : " " + location));
+        Document previous = documents.get(id);
+        int slot = previous != null ? previous.slot() : freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        Document document = new Document(slot, id, code, code.toLowerCase(Locale.ROOT), name, location,
+                " " + String.join(" ", words), grams(words, true).toArray(String[]::new));
+
+        documents.put(id, document);
+        if(previous != null) {
+            unlink(previous);
+        }
+        for(String gram : document.grams()) {
+            postings.merge(gram, new Document[] { document }, TrigramIndex::concat);
+        }
+    }
+
+    synchronized void remove(UUID id) {
+        Document previous = documents.remove(id);
+        if(previous != null) {
+            unlink(previous);
+            freeSlots.push(previous.slot());
+        }
+    }
+
+    synchronized void clear() {
+        documents.clear();
+        postings.clear();
+        freeSlots.clear();
+        slotCount = 0;
+    }
+
+    List<ReferenceSuggestion> search(String query, int limit) {
+        String[] queryWords = words(query);
+        if(queryWords.length == 0) {
+            return List.of();
+        }
+        Set<String> queryGrams = grams(queryWords, false);
+        int required = (int) Math.ceil(minimumSimilarity * queryGrams.size());
+
+        Scratch counts = scratch.get();
+        int slots = slotCount;
+        if(counts.counts.length < slots) {
+            counts.counts = new int[slots];
+            counts.touched = new int[slots];
+        }
+
+        int touched = 0;
+        List<Document> candidates = new ArrayList<>();
+        for(String gram : queryGrams) {
+            for(Document document : postings.getOrDefault(gram, NONE)) {
+                int slot = document.slot();
+                if(slot >= slots) {
+                    continue;
+                }
+                int count = ++counts.counts[slot];
+                if(count == 1) {
+                    counts.touched[touched++] = slot;
+                }
+                if(count == required) {
+                    candidates.add(document);
+                }
+            }
+        }
+
+        String compactQuery = String.join("", queryWords);
+        String[] wordStarts = Arrays.stream(queryWords).map(word -> " " + word).toArray(String[]::new);
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for(Document document : candidates) {
+            double similarity = (double) counts.counts[document.slot()] / queryGrams.size();
+            double score = similarity + bonus(document, wordStarts, compactQuery);
+            // Once the top is full most candidates lose to its worst entry; turn them away before anything else.
+            if(best.size() == limit && !outranks(score, document, best.peek())) {
+                continue;
+            }
+            if(documents.get(document.id()) != document) {
+                continue;
+            }
+            best.add(new Match(document, score));
+            if(best.size() > limit) {
+                best.poll();
+            }
+        }
+        for(int i = 0; i < touched; i++) {
+            counts.counts[counts.touched[i]] = 0;
+        }
+
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream()
+            .map(match -> new ReferenceSuggestion(match.document().id(), match.document().code(), match.document().name(),
+                    match.document().location(), match.score()))
+            .toList();
+    }
+
+    private static boolean outranks(double score, Document document, Match worst) {
+        if(score != worst.score()) {
+            return score > worst.score();
+        }
+        String name = document.name();
+        String worstName = worst.document().name();
+        if(name.length() != worstName.length()) {
+            return name.length() < worstName.length();
+        }
+        return name.compareTo(worstName) < 0;
+    }
+
+    // The document's words are kept as one blank-separated string, so a word prefix is a single scan.
+    private static double bonus(Document document, String[] wordStarts, String compactQuery) {
+        String code = document.foldedCode();
+        double bonus = code.equals(compactQuery) ? 1.0 : code.startsWith(compactQuery) ? 0.5 : 0;
+
+        for(String wordStart : wordStarts) {
+            if(!document.text().contains(wordStart)) {
+                return bonus;
+            }
+        }
+        return bonus + 0.5;
+    }
+
+    private void unlink(Document document) {
+        for(String gram : document.grams()) {
+            postings.computeIfPresent(gram, (g, current) -> without(current, document));
+        }
+    }
+
+    // Accents and punctuation are dropped, so "Zürich" and "zurich" meet on the same grams.
+    static String[] words(String text) {
+        if(text == null) {
+            return new String[0];
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        String trimmed = SEPARATORS.matcher(folded).replaceAll(" ").trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split(" ");
+    }
+
+    static Set<String> grams(String[] words, boolean closeLastWord) {
+        Set<String> grams = new LinkedHashSet<>();
+        for(int w = 0; w < words.length; w++) {
+            String padded = "  " + words[w] + (closeLastWord || w < words.length - 1 ? " " : "");
+            for(int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static Document[] concat(Document[] current, Document[] added) {
+        Document[] updated = Arrays.copyOf(current, current.length + added.length);
+        System.arraycopy(added, 0, updated, current.length, added.length);
+        return updated;
+    }
+
+    // Returning null from a compute function drops the gram, so grams of removed entries don't linger.
+    private static Document[] without(Document[] current, Document document) {
+        for(int i = 0; i < current.length; i++) {
+            if(current[i] == document) {
+                if(current.length == 1) {
+                    return null;
+                }
+                Document[] updated = new Document[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                return updated;
+            }
+        }
+        return current;
+    }
+}
@@ -1,13 +1,28 @@
 package com.bvcott.airlines;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// As shipped for a local run: the generator preloads data and payments go to the simulated gateway.
+@SpringBootTest(properties = "airlines.generator.enabled=true")
 class BvcottAirlinesApplicationTests {
 
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void contextFailsToStart_inProdProfile_withoutPaymentGateway() {
+		SpringApplicationBuilder application = new SpringApplicationBuilder(BvcottAirlinesApplication.class)
+			.web(WebApplicationType.NONE)
+			.profiles("prod")
+			.properties("spring.datasource.url=jdbc:h2:mem:no-gateway", "spring.devtools.restart.enabled=false");
+
+		assertThrows(RuntimeException.class, application::run);
+	}
+
 }
@@ -0,0 +1,104 @@
+package com.bvcott.airlines.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.id.UuidV7;
+import com.bvcott.airlines.projection.AirportBoardEntry;
+import com.bvcott.airlines.repository.FlightRepository;
+import com.bvcott.airlines.service.AirportBoardIndex;
+
+/**
+ * The next two hours of departures at a hub with thousands of movements a
+ * day, read from the {@link AirportBoardIndex} and from the schedule query it
+ * replaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AirportBoardBenchmark {
+    private static final int AIRPORTS = 20;
+
+    @Param({ "30000" })
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private AirportBoardIndex boardIndex;
+    private FlightRepository flightRepo;
+    private String hub;
+    private LocalDateTime from;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("airport-board-bench");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        boardIndex = context.getBean(AirportBoardIndex.class);
+        flightRepo = context.getBean(FlightRepository.class);
+        BenchmarkContext.Dataset dataset = BenchmarkContext.seed(jdbcTemplate, AIRPORTS, 0, 42);
+        hub = dataset.airportCodes().get(0);
+
+        // Two days from now, half of it out of the hub.
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        SplittableRandom random = new SplittableRandom(7);
+        List<Object[]> rows = new ArrayList<>();
+        for(int i = 0; i < flights; i++) {
+            int origin = random.nextBoolean() ? 0 : random.nextInt(AIRPORTS);
+            int destination = (origin + 1 + random.nextInt(AIRPORTS - 1)) % AIRPORTS;
+            LocalDateTime departure = now.plusMinutes(random.nextInt(48 * 60));
+            rows.add(new Object[] { UuidV7.next(), "HB" + i, Timestamp.valueOf(departure), Timestamp.valueOf(departure.plusMinutes(60 + random.nextInt(600))),
+                    dataset.airportIds().get(origin), dataset.airportIds().get(destination), dataset.airlineIds().get(0) });
+        }
+        jdbcTemplate.batchUpdate("insert into flight (id, flight_number, departure_time, arrival_time, origin_id, destination_id, airline_id, version) "
+                + "values (?, ?, ?, ?, ?, ?, ?, 0)", rows);
+        jdbcTemplate.execute("analyze");
+        boardIndex.rebuild();
+        from = now.plusHours(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AirportBoardEntry> boardFromIndex() {
+        return boardIndex.departures(hub, from, from.plusHours(2));
+    }
+
+    @Benchmark
+    public List<AirportBoardEntry> boardFromQuery() {
+        return flightRepo.findDepartureBoard(hub, from, from.plusHours(2));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AirportBoardBenchmark.class.getSimpleName()).build()).run();
+    }
+}
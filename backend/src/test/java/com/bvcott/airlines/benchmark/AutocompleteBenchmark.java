@@ -0,0 +1,105 @@
+package com.bvcott.airlines.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.id.UuidV7;
+import com.bvcott.airlines.projection.ReferenceSuggestion;
+import com.bvcott.airlines.service.AutocompleteService;
+
+/**
+ * Keystroke queries against the airport autocomplete: every prefix of a
+ * random airport's name, one to ten letters long, with every fourth query
+ * carrying a dropped letter as a typo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutocompleteBenchmark {
+    private static final String[] SYLLABLES = { "ha", "ber", "lon", "don", "mar", "se", "ille", "ro", "ma", "kin",
+            "sha", "nor", "wich", "ta", "ven", "ga", "tor", "li", "mo", "gen", "ham", "burg", "pa", "ris", "os", "lo" };
+
+    @Param({ "10000" })
+    private int airports;
+
+    private ConfigurableApplicationContext context;
+    private AutocompleteService autocomplete;
+    private List<String> queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("autocomplete-bench");
+        SplittableRandom random = new SplittableRandom(42);
+
+        List<String> names = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for(int i = 0; i < airports; i++) {
+            String name = word(random) + (random.nextInt(3) == 0 ? " " + word(random) : "") + " " + i;
+            names.add(name);
+            rows.add(new Object[] { UuidV7.next(), String.format("Z%04d", i), name, word(random) });
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("insert into airport (id, code, name, location) values (?, ?, ?, ?)", rows);
+
+        autocomplete = context.getBean(AutocompleteService.class);
+        autocomplete.rebuild();
+
+        queries = new ArrayList<>();
+        for(int i = 0; i < 1000; i++) {
+            String name = names.get(random.nextInt(names.size()));
+            for(int length = 1; length <= Math.min(10, name.length()); length++) {
+                String query = name.substring(0, length);
+                if(queries.size() % 4 == 3 && length > 4) {
+                    query = query.substring(0, 2) + query.substring(3);
+                }
+                queries.add(query);
+            }
+        }
+    }
+
+    private static String word(SplittableRandom random) {
+        StringBuilder word = new StringBuilder();
+        for(int i = 0; i < 2 + random.nextInt(2); i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ReferenceSuggestion> suggestAirports() {
+        return autocomplete.suggestAirports(queries.get(next++ % queries.size()), 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AutocompleteBenchmark.class.getSimpleName()).build()).run();
+    }
+}
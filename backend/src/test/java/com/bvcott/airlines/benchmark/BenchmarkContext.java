@@ -0,0 +1,96 @@
+package com.bvcott.airlines.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.BvcottAirlinesApplication;
+import com.bvcott.airlines.model.id.UuidV7;
+
+/**
+ * Shared bootstrap for the benchmarks: a non-web application context on its
+ * own in-memory H2 database, plus a seeded schedule written straight through
+ * JDBC so setup time does not depend on the code being measured.
+ */
+final class BenchmarkContext {
+    static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+    static final int DAYS = 30;
+
+    record Dataset(List<UUID> airlineIds, List<UUID> airportIds, List<String> airportCodes, List<UUID> flightIds) {}
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start(String database) {
+        // Devtools is on the test classpath and would relaunch the application in a restart class loader.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(BvcottAirlinesApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties("spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE", "logging.level.root=WARN")
+            .run();
+    }
+
+    /**
+     * Inserts {@code airports} airports, one airline per ten airports and
+     * {@code flights} flights between random airport pairs over {@link #DAYS}
+     * days. The same seed always produces the same schedule.
+     */
+    static Dataset seed(JdbcTemplate jdbcTemplate, int airports, int flights, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        List<UUID> airlineIds = new ArrayList<>();
+        List<Object[]> airlineRows = new ArrayList<>();
+        for(int i = 0; i < Math.max(1, airports / 10); i++) {
+            UUID id = UuidV7.next();
+            airlineIds.add(id);
+            airlineRows.add(new Object[] { id, "Seed Airline " + i, String.format("S%03d", i) });
+        }
+        jdbcTemplate.batchUpdate("insert into airline (id, name, code) values (?, ?, ?)", airlineRows);
+
+        List<UUID> airportIds = new ArrayList<>();
+        List<String> airportCodes = new ArrayList<>();
+        List<Object[]> airportRows = new ArrayList<>();
+        for(int i = 0; i < airports; i++) {
+            UUID id = UuidV7.next();
+            String code = String.format("Z%04d", i);
+            airportIds.add(id);
+            airportCodes.add(code);
+            airportRows.add(new Object[] { id, code, "Seed Airport " + i, "Benchmark" });
+        }
+        jdbcTemplate.batchUpdate("insert into airport (id, code, name, location) values (?, ?, ?, ?)", airportRows);
+
+        List<UUID> flightIds = new ArrayList<>(flights);
+        List<Object[]> flightRows = new ArrayList<>();
+        for(int i = 0; i < flights; i++) {
+            int origin = random.nextInt(airports);
+            int destination = (origin + 1 + random.nextInt(airports - 1)) % airports;
+            LocalDateTime departure = FIRST_DAY.plusDays(random.nextInt(DAYS)).atStartOfDay().plusMinutes(random.nextInt(24 * 60));
+
+            UUID id = UuidV7.next();
+            flightIds.add(id);
+            flightRows.add(new Object[] { id, "SD" + i, Timestamp.valueOf(departure), Timestamp.valueOf(departure.plusMinutes(60 + random.nextInt(600))),
+                    airportIds.get(origin), airportIds.get(destination), airlineIds.get(random.nextInt(airlineIds.size())) });
+            if(flightRows.size() == 10_000) {
+                insertFlights(jdbcTemplate, flightRows);
+            }
+        }
+        insertFlights(jdbcTemplate, flightRows);
+        jdbcTemplate.execute("analyze");
+
+        return new Dataset(airlineIds, airportIds, airportCodes, flightIds);
+    }
+
+    private static void insertFlights(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into flight (id, flight_number, departure_time, arrival_time, origin_id, destination_id, airline_id, version) "
+                + "values (?, ?, ?, ?, ?, ?, ?, 0)", rows);
+        rows.clear();
+    }
+}
@@ -0,0 +1,118 @@
+package com.bvcott.airlines.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.service.ConnectionQuery;
+import com.bvcott.airlines.service.ConnectionSearchService;
+import com.bvcott.airlines.service.Itinerary;
+
+/**
+ * Two-stop connection searches over a synthetic hub-and-spoke schedule.
+ * Sample-time mode reports the latency percentiles (p99 target: 50 ms).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class ConnectionSearchBenchmark {
+    private static final int AIRPORTS = 500;
+    private static final int HUBS = 20;
+    private static final int DAYS = 7;
+    private static final int QUERIES = 1024;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    @Param({ "100000", "250000" })
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private ConnectionSearchService searchService;
+    private ConnectionQuery[] queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("connection-search-bench");
+        searchService = context.getBean(ConnectionSearchService.class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        Airline airline = new Airline("Benchmark Air", "BM");
+        Airport[] airports = new Airport[AIRPORTS];
+        for(int i = 0; i < AIRPORTS; i++) {
+            airports[i] = new Airport(String.format("C%03d", i), "Airport " + i, "Benchmark");
+        }
+
+        // Roughly three quarters of the flights touch one of the hubs, like a real network.
+        List<Flight> schedule = new ArrayList<>(flights);
+        for(int i = 0; i < flights; i++) {
+            Airport origin = airports[random.nextInt(AIRPORTS)];
+            Airport destination = random.nextInt(4) == 0 ? airports[random.nextInt(AIRPORTS)] : airports[random.nextInt(HUBS)];
+            if(random.nextBoolean()) {
+                Airport swap = origin;
+                origin = destination;
+                destination = swap;
+            }
+            if(origin == destination) {
+                continue;
+            }
+
+            LocalDateTime departure = FIRST_DAY.plusDays(random.nextInt(DAYS)).atStartOfDay().plusMinutes(random.nextInt(24 * 60));
+            Flight flight = new Flight("BM" + i, departure, departure.plusMinutes(45 + random.nextInt(600)), origin, destination, airline);
+            flight.setId(UUID.randomUUID());
+            schedule.add(flight);
+        }
+        searchService.rebuild(schedule);
+
+        queries = new ConnectionQuery[QUERIES];
+        for(int i = 0; i < QUERIES; i++) {
+            LocalDate day = FIRST_DAY.plusDays(random.nextInt(DAYS - 1));
+            String origin = airports[HUBS + random.nextInt(AIRPORTS - HUBS)].getCode();
+            String destination = airports[HUBS + random.nextInt(AIRPORTS - HUBS)].getCode();
+            queries[i] = new ConnectionQuery(origin, destination, day.atStartOfDay(), day.atTime(23, 59), 3, 10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Itinerary> twoStopSearch() {
+        return searchService.search(queries[ThreadLocalRandom.current().nextInt(QUERIES)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConnectionSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.bvcott.airlines.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.generator.GeneratorSpec;
+import com.bvcott.airlines.generator.SyntheticDataGenerator;
+import com.bvcott.airlines.service.CrewConflict;
+import com.bvcott.airlines.service.CrewDuty;
+import com.bvcott.airlines.service.CrewRosterIndex;
+
+/**
+ * Roster lookups against the {@link CrewRosterIndex}: checking one crew
+ * member against a flight, and finding every pilot free for a flight. The
+ * roster is the one {@link SyntheticDataGenerator} builds, where every crew
+ * member flies a string of flights.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrewRosterBenchmark {
+    private static final int QUERIES = 4096;
+
+    @Param({ "20000" })
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private CrewRosterIndex rosterIndex;
+    private List<UUID> pilotIds;
+    private CrewDuty[] duties;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("crew-roster-bench");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        rosterIndex = context.getBean(CrewRosterIndex.class);
+        context.getBean(SyntheticDataGenerator.class)
+            .generate(new GeneratorSpec(8, 40, flights, 10_000, BenchmarkContext.DAYS, BenchmarkContext.FIRST_DAY, 0.8, 42, 4));
+        rosterIndex.rebuild();
+
+        List<CrewDuty> schedule = jdbcTemplate.query("select id, departure_time, arrival_time from flight",
+                (rs, row) -> rosterIndex.duty(rs.getObject(1, UUID.class), rs.getObject(2, LocalDateTime.class), rs.getObject(3, LocalDateTime.class)));
+        pilotIds = jdbcTemplate.queryForList("select id from crew_member where role = 'Pilot' order by id", UUID.class);
+
+        SplittableRandom random = new SplittableRandom(7);
+        duties = new CrewDuty[QUERIES];
+        for(int i = 0; i < QUERIES; i++) {
+            duties[i] = schedule.get(random.nextInt(schedule.size()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CrewConflict> conflicts() {
+        int query = next++;
+        return rosterIndex.conflicts(pilotIds.get(query % pilotIds.size()), duties[query & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public List<UUID> availablePilots() {
+        return rosterIndex.available("Pilot", duties[next++ & (QUERIES - 1)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CrewRosterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
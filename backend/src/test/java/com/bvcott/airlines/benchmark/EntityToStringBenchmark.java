@@ -0,0 +1,91 @@
+package com.bvcott.airlines.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.CrewMember;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.Seat;
+
+/**
+ * Cost of the entity {@code toString} methods that end up in debug logs, on
+ * a flight carrying a full seat map and crew.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityToStringBenchmark {
+    @Param({ "180" })
+    private int seats;
+
+    private Airline airline;
+    private Airport airport;
+    private Flight flight;
+    private Seat seat;
+
+    @Setup
+    public void setUp() {
+        airline = new Airline("Benchmark Air", "BM");
+        airport = new Airport("LHR", "London Heathrow", "United Kingdom");
+        Airport destination = new Airport("MAD", "Madrid Barajas", "Spain");
+        airport.setId(UUID.randomUUID());
+        destination.setId(UUID.randomUUID());
+
+        flight = new Flight("BM100", LocalDateTime.of(2030, 1, 1, 9, 0), LocalDateTime.of(2030, 1, 1, 11, 30), airport, destination, airline);
+        flight.setId(UUID.randomUUID());
+        for(int i = 0; i < seats; i++) {
+            flight.getSeats().add(new Seat((i / 6 + 1) + String.valueOf((char) ('A' + i % 6)), "Economy", flight));
+        }
+        for(int i = 0; i < 6; i++) {
+            flight.addCrewMember(new CrewMember("Crew " + i, "Flight Attendant"));
+        }
+        airline.addFlight(flight);
+        airport.addDeparture(flight);
+        seat = flight.getSeats().iterator().next();
+    }
+
+    @Benchmark
+    public String flight() {
+        return flight.toString();
+    }
+
+    @Benchmark
+    public String airline() {
+        return airline.toString();
+    }
+
+    @Benchmark
+    public String airport() {
+        return airport.toString();
+    }
+
+    @Benchmark
+    public String seat() {
+        return seat.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EntityToStringBenchmark.class.getSimpleName()).build()).run();
+    }
+}
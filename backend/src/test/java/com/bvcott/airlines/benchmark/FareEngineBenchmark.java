@@ -0,0 +1,128 @@
+package com.bvcott.airlines.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.id.UuidV7;
+import com.bvcott.airlines.pricing.FareCalendarDay;
+import com.bvcott.airlines.pricing.FareEngine;
+import com.bvcott.airlines.pricing.FareQuote;
+import com.bvcott.airlines.service.FlightSearchIndex;
+import com.bvcott.airlines.service.SeatInventoryService;
+
+/**
+ * Reads from the {@link FareEngine} price table (single quotes and 30-day
+ * route calendars) and the cost of a sale that reprices a cabin.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FareEngineBenchmark {
+    private static final int AIRPORTS = 20;
+    private static final int SEATS_PER_FLIGHT = 36;
+    private static final int QUERIES = 4096;
+
+    private record Route(String origin, String destination) {}
+
+    @Param({ "20000" })
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private FareEngine fareEngine;
+    private SeatInventoryService inventoryService;
+    private List<UUID> flightIds;
+    private Route[] routes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("fare-engine-bench");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        fareEngine = context.getBean(FareEngine.class);
+        inventoryService = context.getBean(SeatInventoryService.class);
+
+        BenchmarkContext.Dataset dataset = BenchmarkContext.seed(jdbcTemplate, AIRPORTS, flights, 42);
+        flightIds = dataset.flightIds();
+        SplittableRandom random = new SplittableRandom(7);
+        List<Object[]> seatRows = new ArrayList<>();
+        for(UUID flightId : flightIds) {
+            for(int seat = 1; seat <= SEATS_PER_FLIGHT; seat++) {
+                seatRows.add(new Object[] { UuidV7.next(), flightId, seat + "A", seat <= 6 ? "Business" : "Economy", random.nextInt(10) < 6 });
+            }
+            if(seatRows.size() >= 10_000) {
+                insertSeats(jdbcTemplate, seatRows);
+            }
+        }
+        insertSeats(jdbcTemplate, seatRows);
+        context.getBean(FlightSearchIndex.class).rebuild();
+
+        // Fill the price table; the benchmarks measure the warm path.
+        flightIds.forEach(fareEngine::quotes);
+
+        routes = new Route[QUERIES];
+        List<String> codes = dataset.airportCodes();
+        for(int i = 0; i < QUERIES; i++) {
+            int origin = random.nextInt(AIRPORTS);
+            int destination = (origin + 1 + random.nextInt(AIRPORTS - 1)) % AIRPORTS;
+            routes[i] = new Route(codes.get(origin), codes.get(destination));
+        }
+    }
+
+    private static void insertSeats(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into seat (id, flight_id, seat_number, seat_class, is_available, version) values (?, ?, ?, ?, ?, 0)", rows);
+        rows.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FareQuote quote() {
+        return fareEngine.quote(flightIds.get(next++ % flightIds.size()), "Economy");
+    }
+
+    @Benchmark
+    public List<FareCalendarDay> calendar30Days() {
+        Route route = routes[next++ & (QUERIES - 1)];
+        return fareEngine.calendar(route.origin(), route.destination(), BenchmarkContext.FIRST_DAY, 30, "Economy");
+    }
+
+    /** Takes a seat and gives it back in memory: two cabin repricings. */
+    @Benchmark
+    public boolean sellAndRelease() {
+        UUID flightId = flightIds.get(next++ % flightIds.size());
+        String seat = inventoryService.availableSeatNumbers(flightId, "Economy").stream().findFirst().orElse(null);
+        return seat != null && inventoryService.reserve(flightId, seat) && inventoryService.unreserve(flightId, seat);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FareEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,155 @@
+package com.bvcott.airlines.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.service.FlightSearchEntry;
+import com.bvcott.airlines.service.FlightSearchIndex;
+
+/**
+ * Route/day lookups through {@link FlightSearchIndex} against the equivalent
+ * query on the indexed flight table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightSearchBenchmark {
+    private static final int AIRPORTS = 200;
+    private static final int DAYS = 30;
+    private static final int QUERIES = 4096;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    private static final String ROUTE_QUERY = """
+            select f.id, f.flight_number, al.code, f.departure_time, f.arrival_time
+            from flight f
+            join airport o on o.id = f.origin_id
+            join airport d on d.id = f.destination_id
+            join airline al on al.id = f.airline_id
+            where o.code = ? and d.code = ? and f.departure_time >= ? and f.departure_time < ?
+            order by f.departure_time
+            """;
+
+    private record Query(String origin, String destination, LocalDate day) {}
+
+    @Param({ "100000", "1000000" })
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private FlightSearchIndex searchIndex;
+    private Query[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("flight-search-bench");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        searchIndex = context.getBean(FlightSearchIndex.class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        Airline airline = new Airline("Benchmark Air", "BM");
+        UUID airlineId = UUID.randomUUID();
+        jdbcTemplate.update("insert into airline (id, name, code) values (?, ?, ?)", airlineId, airline.getName(), airline.getCode());
+
+        Airport[] airports = new Airport[AIRPORTS];
+        List<Object[]> airportRows = new ArrayList<>();
+        for(int i = 0; i < AIRPORTS; i++) {
+            airports[i] = new Airport(String.format("B%02d", i), "Airport " + i, "Benchmark");
+            airports[i].setId(UUID.randomUUID());
+            airportRows.add(new Object[] { airports[i].getId(), airports[i].getCode(), airports[i].getName(), airports[i].getLocation() });
+        }
+        jdbcTemplate.batchUpdate("insert into airport (id, code, name, location) values (?, ?, ?, ?)", airportRows);
+        // The route query filters on airport code; give it the index a production schema would have.
+        jdbcTemplate.execute("create index if not exists idx_bench_airport_code on airport (code)");
+
+        queries = new Query[QUERIES];
+        List<Object[]> flightRows = new ArrayList<>();
+        for(int i = 0; i < flights; i++) {
+            Airport origin = airports[random.nextInt(AIRPORTS)];
+            Airport destination = airports[random.nextInt(AIRPORTS)];
+            LocalDateTime departure = FIRST_DAY.plusDays(random.nextInt(DAYS)).atStartOfDay().plusMinutes(random.nextInt(24 * 60));
+            LocalDateTime arrival = departure.plusMinutes(60 + random.nextInt(600));
+
+            Flight flight = new Flight("BM" + i, departure, arrival, origin, destination, airline);
+            flight.setId(UUID.randomUUID());
+            searchIndex.put(flight);
+
+            flightRows.add(new Object[] { flight.getId(), flight.getFlightNumber(), Timestamp.valueOf(departure),
+                    Timestamp.valueOf(arrival), origin.getId(), destination.getId(), airlineId });
+            if(flightRows.size() == 10_000) {
+                insertFlights(flightRows);
+            }
+            if(i < QUERIES) {
+                queries[i] = new Query(origin.getCode(), destination.getCode(), departure.toLocalDate());
+            }
+        }
+        insertFlights(flightRows);
+        jdbcTemplate.execute("analyze");
+    }
+
+    private void insertFlights(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into flight (id, flight_number, departure_time, arrival_time, origin_id, destination_id, airline_id, version) "
+                + "values (?, ?, ?, ?, ?, ?, ?, 0)", rows);
+        rows.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Query nextQuery() {
+        return queries[next++ & (QUERIES - 1)];
+    }
+
+    @Benchmark
+    public List<FlightSearchEntry> searchIndex() {
+        Query query = nextQuery();
+        return searchIndex.search(query.origin(), query.destination(), query.day());
+    }
+
+    @Benchmark
+    public List<FlightSearchEntry> indexedSqlQuery() {
+        Query query = nextQuery();
+        return jdbcTemplate.query(ROUTE_QUERY,
+                (rs, row) -> new FlightSearchEntry(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+                        rs.getTimestamp(4).toLocalDateTime(), rs.getTimestamp(5).toLocalDateTime()),
+                query.origin(), query.destination(), Timestamp.valueOf(query.day().atStartOfDay()),
+                Timestamp.valueOf(query.day().plusDays(1).atStartOfDay()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FlightSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.bvcott.airlines.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.projection.AirportBoardEntry;
+import com.bvcott.airlines.projection.FlightSummary;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.service.FlightService;
+
+/**
+ * {@link FlightService} write and read paths against a seeded schedule,
+ * including the search index and connection snapshot updates a create fans out to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightServiceBenchmark {
+    @Param({ "200" })
+    private int airports;
+
+    @Param({ "10000" })
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private FlightService flightService;
+    private BenchmarkContext.Dataset dataset;
+    private Airport[] seededAirports;
+    private Airline airline;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("flight-service-bench");
+        dataset = BenchmarkContext.seed(context.getBean(JdbcTemplate.class), airports, flights, 42);
+        flightService = context.getBean(FlightService.class);
+
+        AirportRepository airportRepo = context.getBean(AirportRepository.class);
+        seededAirports = dataset.airportIds().stream().map(id -> airportRepo.findById(id).orElseThrow()).toArray(Airport[]::new);
+        airline = context.getBean(AirlineRepository.class).findById(dataset.airlineIds().get(0)).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private UUID randomFlightId() {
+        return dataset.flightIds().get(ThreadLocalRandom.current().nextInt(flights));
+    }
+
+    @Benchmark
+    public Flight createFlight() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int origin = random.nextInt(airports);
+        int destination = (origin + 1) % airports;
+        LocalDateTime departure = BenchmarkContext.FIRST_DAY.atStartOfDay().plusMinutes(random.nextInt(BenchmarkContext.DAYS * 24 * 60));
+        return flightService.createFlight(new Flight("BN" + random.nextInt(10_000), departure, departure.plusHours(2),
+                seededAirports[origin], seededAirports[destination], airline));
+    }
+
+    @Benchmark
+    public Flight retrieveById() {
+        return flightService.retrieveById(randomFlightId());
+    }
+
+    @Benchmark
+    public FlightSummary retrieveSummary() {
+        return flightService.retrieveSummary(randomFlightId());
+    }
+
+    @Benchmark
+    public List<AirportBoardEntry> departureBoard() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime from = BenchmarkContext.FIRST_DAY.plusDays(random.nextInt(BenchmarkContext.DAYS)).atStartOfDay();
+        return flightService.departureBoard(dataset.airportCodes().get(random.nextInt(airports)), from, from.plusDays(1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FlightServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.bvcott.airlines.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bvcott.airlines.model.id.UuidV7;
+
+/**
+ * Bulk-loads the seat table with random (v4) against time-ordered (v7)
+ * primary keys on a file-backed H2 database, then reports insert throughput
+ * and the space taken by the table and its indexes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(1)
+public class IdStrategyBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(IdStrategyBenchmark.class);
+    private static final int BATCH_SIZE = 10_000;
+    private static final int SEATS_PER_FLIGHT = 180;
+
+    public enum Strategy {
+        RANDOM_V4(UUID::randomUUID),
+        TIME_ORDERED_V7(UuidV7::next);
+
+        private final Supplier<UUID> ids;
+
+        Strategy(Supplier<UUID> ids) {
+            this.ids = ids;
+        }
+    }
+
+    @Param({ "RANDOM_V4", "TIME_ORDERED_V7" })
+    private Strategy strategy;
+
+    @Param({ "10000000" })
+    private int rows;
+
+    private Path directory;
+    private Connection connection;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("id-strategy-bench");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("seats") + ";DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+        connection.setAutoCommit(false);
+        try(Statement statement = connection.createStatement()) {
+            statement.execute("create table seat (id uuid not null primary key, flight_id uuid, seat_number varchar(255), "
+                    + "seat_class varchar(255), is_available boolean)");
+            statement.execute("create index idx_seat_flight on seat (flight_id)");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException, SQLException {
+        long used;
+        try(Statement statement = connection.createStatement();
+                ResultSet size = statement.executeQuery("select disk_space_used('SEAT')")) {
+            size.next();
+            used = size.getLong(1);
+        }
+        connection.close();
+
+        // H2 writes copy-on-write pages, so the closed file also shows how much churn random keys caused.
+        log.info("{}: {} rows, table and indexes use {} KiB, database file {} KiB", strategy, rows,
+                used / 1024, Files.size(directory.resolve("seats.mv.db")) / 1024);
+
+        try(Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int insertSeats() throws SQLException {
+        try(PreparedStatement insert = connection.prepareStatement(
+                "insert into seat (id, flight_id, seat_number, seat_class, is_available) values (?, ?, ?, ?, true)")) {
+            UUID flightId = null;
+            for(int i = 0; i < rows; i++) {
+                int seat = i % SEATS_PER_FLIGHT;
+                if(seat == 0) {
+                    flightId = strategy.ids.get();
+                }
+                insert.setObject(1, strategy.ids.get());
+                insert.setObject(2, flightId);
+                insert.setString(3, (seat / 6 + 1) + String.valueOf((char) ('A' + seat % 6)));
+                insert.setString(4, seat < 12 ? "Business" : "Economy");
+                insert.addBatch();
+
+                if((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        return rows;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IdStrategyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.bvcott.airlines.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.Passenger;
+import com.bvcott.airlines.model.id.UuidV7;
+import com.bvcott.airlines.service.PassengerService;
+
+/**
+ * Looking a passenger up by passport number through the hashed passport
+ * index, at two table sizes to show the lookup doesn't grow with the table.
+ * Queries are typed the way a passenger would, in lower case with a blank.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PassengerLookupBenchmark {
+    @Param({ "100000", "2000000" })
+    private int passengers;
+
+    private ConfigurableApplicationContext context;
+    private PassengerService passengerService;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("passenger-lookup-bench");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        passengerService = context.getBean(PassengerService.class);
+        random = new SplittableRandom(42);
+
+        List<Object[]> rows = new ArrayList<>();
+        for(int i = 0; i < passengers; i++) {
+            String passport = passport(i);
+            rows.add(new Object[] { UuidV7.next(), "Passenger " + i, passport, Passenger.passportHash(passport) });
+            if(rows.size() == 10_000) {
+                jdbcTemplate.batchUpdate("insert into passenger (id, name, passport_number, passport_hash) values (?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into passenger (id, name, passport_number, passport_hash) values (?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("analyze");
+    }
+
+    private static String passport(int i) {
+        return String.format("PL%08d", i);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Passenger> findByPassport() {
+        return passengerService.findByPassport("pl " + passport(random.nextInt(passengers)).substring(2));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PassengerLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
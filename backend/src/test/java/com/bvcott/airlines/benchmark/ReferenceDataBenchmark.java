@@ -0,0 +1,99 @@
+package com.bvcott.airlines.benchmark;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.service.AirlineService;
+import com.bvcott.airlines.service.AirportService;
+
+/**
+ * Create and update paths of {@link AirlineService} and {@link AirportService},
+ * uniqueness checks included. Every call uses fresh names and codes so none of
+ * them is rejected as a duplicate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReferenceDataBenchmark {
+    @Param({ "1000" })
+    private int airports;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private AirlineService airlineService;
+    private AirportService airportService;
+    private BenchmarkContext.Dataset dataset;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("reference-data-bench");
+        dataset = BenchmarkContext.seed(context.getBean(JdbcTemplate.class), airports, 0, 42);
+        airlineService = context.getBean(AirlineService.class);
+        airportService = context.getBean(AirportService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String unique(String prefix) {
+        return prefix + Long.toString(sequence.incrementAndGet(), 36);
+    }
+
+    private UUID random(List<UUID> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public Airline createAirline() {
+        return airlineService.createAirline(new Airline(unique("Bench Airline "), unique("A")));
+    }
+
+    @Benchmark
+    public Airline updateAirline() {
+        return airlineService.updateAirline(random(dataset.airlineIds()), new Airline(unique("Renamed Airline "), unique("R")));
+    }
+
+    @Benchmark
+    public Airport createAirport() {
+        return airportService.createAirport(new Airport(unique("P"), unique("Bench Airport "), "Benchmark"));
+    }
+
+    @Benchmark
+    public Airport updateAirport() {
+        return airportService.updateAirport(random(dataset.airportIds()), new Airport(unique("Q"), unique("Renamed Airport "), "Benchmark"));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReferenceDataBenchmark.class.getSimpleName()).build()).run();
+    }
+}
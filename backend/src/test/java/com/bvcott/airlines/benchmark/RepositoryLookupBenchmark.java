@@ -0,0 +1,91 @@
+package com.bvcott.airlines.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.repository.FlightRepository;
+
+/**
+ * Repository lookups on a populated embedded H2: point reads by id and code,
+ * and a keyset page read from a random position.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryLookupBenchmark {
+    @Param({ "1000" })
+    private int airports;
+
+    @Param({ "100000" })
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private AirportRepository airportRepo;
+    private FlightRepository flightRepo;
+    private BenchmarkContext.Dataset dataset;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("repository-lookup-bench");
+        dataset = BenchmarkContext.seed(context.getBean(JdbcTemplate.class), airports, flights, 42);
+        airportRepo = context.getBean(AirportRepository.class);
+        flightRepo = context.getBean(FlightRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private UUID randomFlightId() {
+        return dataset.flightIds().get(ThreadLocalRandom.current().nextInt(flights));
+    }
+
+    @Benchmark
+    public Optional<Airport> airportByCode() {
+        return airportRepo.findByCode(dataset.airportCodes().get(ThreadLocalRandom.current().nextInt(airports)));
+    }
+
+    @Benchmark
+    public Optional<Flight> flightById() {
+        return flightRepo.findById(randomFlightId());
+    }
+
+    @Benchmark
+    public List<Airport> airportPage() {
+        return airportRepo.findByIdGreaterThanOrderByIdAsc(dataset.airportIds().get(ThreadLocalRandom.current().nextInt(airports)), Limit.of(50));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RepositoryLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
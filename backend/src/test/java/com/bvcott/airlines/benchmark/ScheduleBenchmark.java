@@ -0,0 +1,118 @@
+package com.bvcott.airlines.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.service.FlightService;
+import com.bvcott.airlines.service.SeatMapService;
+import com.bvcott.airlines.service.SeatMapTemplate.SeatSpec;
+
+/**
+ * Scheduling a week of flights with their seats: in one call with a seat map
+ * row per flight, against creating each flight with its seats as entities. Every iteration starts from an empty schedule.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ScheduleBenchmark {
+    private static final int AIRPORTS = 20;
+    private static final String AIRCRAFT_TYPE = "A320";
+
+    @Param({ "2000" })
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private FlightService flightService;
+    private List<SeatSpec> seatMap;
+    private List<Airport> airports;
+    private List<Airline> airlines;
+    private List<Flight> week;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("schedule-bench");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        flightService = context.getBean(FlightService.class);
+        seatMap = context.getBean(SeatMapService.class).template(AIRCRAFT_TYPE).seats();
+
+        BenchmarkContext.seed(jdbcTemplate, AIRPORTS, 0, 42);
+        airports = context.getBean(AirportRepository.class).findAll();
+        airlines = context.getBean(AirlineRepository.class).findAll();
+    }
+
+    @Setup(Level.Iteration)
+    public void newWeek() {
+        // Only the benchmark's own flights; the sample data loaded at startup has bookings on its flights.
+        jdbcTemplate.update("delete from seat where flight_id in (select id from flight where flight_number like 'WK%')");
+        jdbcTemplate.update("delete from flight_seat_map where flight_id in (select id from flight where flight_number like 'WK%')");
+        jdbcTemplate.update("delete from flight where flight_number like 'WK%'");
+
+        SplittableRandom random = new SplittableRandom(7);
+        week = new ArrayList<>(flights);
+        for(int i = 0; i < flights; i++) {
+            int origin = random.nextInt(AIRPORTS);
+            int destination = (origin + 1 + random.nextInt(AIRPORTS - 1)) % AIRPORTS;
+            LocalDateTime departure = BenchmarkContext.FIRST_DAY.plusDays(i % 7).atStartOfDay().plusMinutes(random.nextInt(24 * 60));
+            week.add(new Flight("WK" + i, departure, departure.plusMinutes(60 + random.nextInt(600)), airports.get(origin),
+                    airports.get(destination), airlines.get(i % airlines.size())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Flight> scheduleWithSeatMap() {
+        week.forEach(flight -> flight.setAircraftType(AIRCRAFT_TYPE));
+        return flightService.scheduleFlights(week);
+    }
+
+    @Benchmark
+    public int createWithSeatEntities() {
+        for(Flight flight : week) {
+            for(SeatSpec seat : seatMap) {
+                flight.addSeat(new Seat(seat.seatNumber(), seat.seatClass(), flight));
+            }
+            flightService.createFlight(flight);
+        }
+        return week.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ScheduleBenchmark.class.getSimpleName()).build()).run();
+    }
+}
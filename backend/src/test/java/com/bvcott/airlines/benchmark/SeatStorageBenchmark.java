@@ -0,0 +1,109 @@
+package com.bvcott.airlines.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bvcott.airlines.model.FlightSeatMap;
+import com.bvcott.airlines.model.id.UuidV7;
+import com.bvcott.airlines.service.SeatInventoryService;
+import com.bvcott.airlines.service.SeatMapService;
+import com.bvcott.airlines.service.SeatMapTemplate;
+import com.bvcott.airlines.service.SeatMapTemplate.SeatSpec;
+
+/**
+ * Loading a flight's seat inventory from a row per seat against from its seat
+ * map row, for the same A320 cabin. Run with {@code -prof gc} to compare the
+ * allocation per load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatStorageBenchmark {
+    private static final String AIRCRAFT_TYPE = "A320";
+
+    @Param({ "2000" })
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private SeatInventoryService inventoryService;
+    private List<UUID> seatRowFlights;
+    private List<UUID> seatMapFlights;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("seat-storage-bench");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        inventoryService = context.getBean(SeatInventoryService.class);
+        SeatMapTemplate template = context.getBean(SeatMapService.class).template(AIRCRAFT_TYPE);
+
+        List<UUID> flightIds = BenchmarkContext.seed(jdbcTemplate, 20, flights * 2, 42).flightIds();
+        seatRowFlights = flightIds.subList(0, flights);
+        seatMapFlights = flightIds.subList(flights, flights * 2);
+
+        List<Object[]> seatRows = new ArrayList<>();
+        for(UUID flightId : seatRowFlights) {
+            for(SeatSpec seat : template.seats()) {
+                seatRows.add(new Object[] { UuidV7.next(), flightId, seat.seatNumber(), seat.seatClass() });
+            }
+            if(seatRows.size() >= 10_000) {
+                jdbcTemplate.batchUpdate("insert into seat (id, flight_id, seat_number, seat_class, is_available, version) values (?, ?, ?, ?, true, 0)", seatRows);
+                seatRows.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into seat (id, flight_id, seat_number, seat_class, is_available, version) values (?, ?, ?, ?, true, 0)", seatRows);
+
+        List<Object[]> seatMapRows = new ArrayList<>();
+        for(UUID flightId : seatMapFlights) {
+            seatMapRows.add(new Object[] { flightId, AIRCRAFT_TYPE, new byte[FlightSeatMap.bytesFor(template.capacity())] });
+        }
+        jdbcTemplate.batchUpdate("insert into flight_seat_map (flight_id, aircraft_type, sold, version) values (?, ?, ?, 0)", seatMapRows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int loadSeatRows() {
+        UUID flightId = seatRowFlights.get(next++ % flights);
+        inventoryService.load(flightId);
+        return inventoryService.availableSeats(flightId);
+    }
+
+    @Benchmark
+    public int loadSeatMap() {
+        UUID flightId = seatMapFlights.get(next++ % flights);
+        inventoryService.load(flightId);
+        return inventoryService.availableSeats(flightId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SeatStorageBenchmark.class.getSimpleName()).build()).run();
+    }
+}
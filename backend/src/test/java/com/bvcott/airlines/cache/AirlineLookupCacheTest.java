@@ -0,0 +1,95 @@
+package com.bvcott.airlines.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.repository.AirlineRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AirlineLookupCacheTest {
+    @Mock private AirlineRepository airlineRepo;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AirlineLookupCache airlineCache;
+    private Airline airline;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        airlineCache = new AirlineLookupCache(airlineRepo, 100, Duration.ofMinutes(10), meterRegistry);
+
+        airline = new Airline("Test-airline", "TA");
+        ReflectionTestUtils.setField(airline, "id", UUID.randomUUID());
+    }
+
+    @Test
+    void test_findByCode_hitsRepositoryOnce_forRepeatedLookups() {
+        when(airlineRepo.findByCode("TA")).thenReturn(Optional.of(airline));
+
+        for(int i = 0; i < 5; i++) {
+            assertEquals(airline, airlineCache.findByCode("TA").get());
+        }
+
+        verify(airlineRepo, times(1)).findByCode("TA");
+        assertEquals(4, airlineCache.stats().get("code").hitCount());
+    }
+
+    @Test
+    void test_findByName_cachesMisses() {
+        assertTrue(airlineCache.findByName("Unknown").isEmpty());
+        assertTrue(airlineCache.findByName("Unknown").isEmpty());
+
+        verify(airlineRepo, times(1)).findByName("Unknown");
+    }
+
+    @Test
+    void test_findById_hitsRepositoryOnce_forRepeatedLookups() {
+        when(airlineRepo.findById(airline.getId())).thenReturn(Optional.of(airline));
+
+        airlineCache.findById(airline.getId());
+        airlineCache.findById(airline.getId());
+
+        verify(airlineRepo, times(1)).findById(airline.getId());
+    }
+
+    @Test
+    void test_invalidate_dropsIdCodeAndNameEntries() {
+        airlineCache.findByCode("TA");
+        airlineCache.findByName("Test-airline");
+        airlineCache.findById(airline.getId());
+
+        airlineCache.invalidate(airline);
+        when(airlineRepo.findByCode("TA")).thenReturn(Optional.of(airline));
+
+        assertEquals(airline, airlineCache.findByCode("TA").get());
+        airlineCache.findByName("Test-airline");
+        airlineCache.findById(airline.getId());
+        verify(airlineRepo, times(2)).findByCode("TA");
+        verify(airlineRepo, times(2)).findByName("Test-airline");
+        verify(airlineRepo, times(2)).findById(airline.getId());
+    }
+
+    @Test
+    void test_constructor_registersCacheMetrics() {
+        airlineCache.findByCode("TA");
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "reference.airline.code").tag("result", "miss").functionCounter());
+    }
+}
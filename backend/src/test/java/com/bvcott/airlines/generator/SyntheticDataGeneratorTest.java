@@ -0,0 +1,110 @@
+package com.bvcott.airlines.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = "airlines.fares.currency=GBP")
+public class SyntheticDataGeneratorTest {
+    private static final List<String> TABLES_CHILD_FIRST = List.of("payment", "ticket", "seat", "booking_passengers", "booking",
+            "crew_assignment", "crew_member", "flight", "passenger", "airline", "airport");
+
+    @Autowired private SyntheticDataGenerator generator;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        TABLES_CHILD_FIRST.forEach(table -> jdbcTemplate.execute("delete from " + table));
+    }
+
+    private GeneratorSpec spec(int threads) {
+        return new GeneratorSpec(3, 10, 450, 300, 7, LocalDate.of(2030, 1, 1), 0.8, 7, threads);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    @Test
+    void test_generate_reportsRowsWrittenPerTable() {
+        GenerationReport report = generator.generate(spec(4));
+
+        for(Map.Entry<String, Long> table : report.rows().entrySet()) {
+            assertEquals(count("select count(*) from " + table.getKey()), table.getValue(), table.getKey());
+        }
+        assertEquals(3, report.rows().get("airline"));
+        assertEquals(10, report.rows().get("airport"));
+        assertEquals(300, report.rows().get("passenger"));
+        assertEquals(450, report.rows().get("flight"));
+        assertTrue(report.rows().get("seat") >= 450 * 76);
+        assertTrue(report.rowsPerSecond() > 0);
+    }
+
+    @Test
+    void test_generate_keepsBookingsConsistent() {
+        generator.generate(spec(4));
+
+        assertEquals(0, count("select count(*) from flight where origin_id = destination_id"));
+        assertEquals(0, count("select count(*) from seat where is_available <> (seat_id is null)"));
+        assertEquals(0, count("select count(*) from seat s join booking b on b.id = s.seat_id where b.status = 'CANCELLED'"));
+        assertEquals(count("select count(*) from booking_passengers"), count("select count(*) from ticket"));
+        assertEquals(0, count("select count(*) from ticket t where not exists (select 1 from booking_passengers bp "
+                + "where bp.bookings_id = t.booking_id and bp.passengers_id = t.passenger_id)"));
+        assertEquals(count("select count(*) from ticket"), count("select count(distinct ticket_number) from ticket"));
+        assertEquals(0, count("select count(*) from ticket where price_currency <> 'GBP'"));
+        assertEquals(count("select count(*) from booking"), count("select count(*) from payment"));
+        assertEquals(0, count("select count(*) from booking b where not exists (select 1 from booking_passengers bp where bp.bookings_id = b.id)"));
+        assertEquals(count("select count(*) from passenger"), count("select count(distinct passport_number) from passenger"));
+    }
+
+    @Test
+    void test_generate_rostersCrewOnSeveralFlightsWithoutConflicts() {
+        generator.generate(spec(4));
+
+        assertTrue(count("select count(*) from crew_assignment") >= 3 * count("select count(*) from crew_member"));
+        assertEquals(0, count("select count(*) from crew_member c where not exists (select 1 from crew_assignment a where a.crew_member_id = c.id)"));
+        // Duties run from an hour before departure to half an hour after arrival, with ten hours of rest in between.
+        assertEquals(0, count("select count(*) from crew_assignment a join crew_assignment b on b.crew_member_id = a.crew_member_id "
+                + "and b.flight_id <> a.flight_id join flight fa on fa.id = a.flight_id join flight fb on fb.id = b.flight_id "
+                + "where fa.departure_time <= fb.departure_time and fb.departure_time < dateadd(MINUTE, 690, fa.arrival_time)"));
+    }
+
+    @Test
+    void test_generate_sameSeedProducesSameDataWhateverTheThreadCount() {
+        String fingerprint = "select count(*) || ':' || sum(cast(s.is_available as int)) || ':' || "
+                + "(select sum(price_minor_units) from ticket) || ':' || (select max(departure_time) from flight) from seat s";
+
+        GenerationReport first = generator.generate(spec(1));
+        String firstFingerprint = jdbcTemplate.queryForObject(fingerprint, String.class);
+
+        setUp();
+        GenerationReport second = generator.generate(spec(4));
+
+        assertEquals(first.rows(), second.rows());
+        assertEquals(firstFingerprint, jdbcTemplate.queryForObject(fingerprint, String.class));
+    }
+
+    @Test
+    void test_code_isUniqueAcrossWidths() {
+        assertEquals("AA", SyntheticDataGenerator.code(0, 2));
+        assertEquals("ZZ", SyntheticDataGenerator.code(675, 2));
+        assertEquals("AAA", SyntheticDataGenerator.code(676, 2));
+        assertEquals("AAB", SyntheticDataGenerator.code(1, 3));
+    }
+
+    @Test
+    void test_spec_rejectsLoadFactorAboveOne() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new GeneratorSpec(1, 2, 1, 1, 1, LocalDate.of(2030, 1, 1), 1.5, 1, 1));
+    }
+}
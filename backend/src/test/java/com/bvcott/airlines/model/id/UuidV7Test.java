@@ -0,0 +1,93 @@
+package com.bvcott.airlines.model.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class UuidV7Test {
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final UuidV7 generator = new UuidV7(now::get);
+
+    @Test
+    void test_generate_setsVersionVariantAndTimestamp() {
+        UUID uuid = generator.generate();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(now.get(), UuidV7.timestamp(uuid));
+    }
+
+    @Test
+    void test_generate_isStrictlyIncreasing_withinTheSameMillisecond() {
+        UUID previous = generator.generate();
+        for(int i = 0; i < 1000; i++) {
+            UUID next = generator.generate();
+            assertTrue(next.compareTo(previous) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void test_generate_borrowsNextMillisecond_whenCounterOverflows() {
+        for(int i = 0; i < 4096; i++) {
+            generator.generate();
+        }
+
+        assertEquals(now.get() + 1, UuidV7.timestamp(generator.generate()));
+    }
+
+    @Test
+    void test_generate_staysMonotonic_whenClockStepsBackwards() {
+        UUID before = generator.generate();
+        now.addAndGet(-5_000);
+
+        UUID after = generator.generate();
+
+        assertTrue(after.compareTo(before) > 0);
+    }
+
+    @Test
+    void test_generate_isUniqueAndOrderedPerThread_underConcurrency() throws Exception {
+        UuidV7 shared = new UuidV7(System::currentTimeMillis);
+        Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for(int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                UUID previous = shared.generate();
+                seen.add(previous);
+                for(int i = 0; i < 50_000; i++) {
+                    UUID next = shared.generate();
+                    if(next.compareTo(previous) <= 0 || !seen.add(next)) {
+                        return false;
+                    }
+                    previous = next;
+                }
+                return true;
+            }));
+        }
+        start.countDown();
+
+        for(Future<Boolean> result : results) {
+            assertTrue(result.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(8 * 50_001, seen.size());
+    }
+}
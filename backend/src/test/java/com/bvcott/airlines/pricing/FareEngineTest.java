@@ -0,0 +1,135 @@
+package com.bvcott.airlines.pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.repository.FlightRepository;
+import com.bvcott.airlines.service.FlightSearchIndex;
+import com.bvcott.airlines.service.SeatInventoryService;
+
+@SpringBootTest
+public class FareEngineTest {
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final LocalDate DAY = LocalDate.of(2030, 8, 1);
+
+    @Autowired private AirlineRepository airlineRepo;
+    @Autowired private AirportRepository airportRepo;
+    @Autowired private FlightRepository flightRepo;
+    @Autowired private FlightSearchIndex searchIndex;
+    @Autowired private SeatInventoryService inventoryService;
+    @Autowired private FareEngine fareEngine;
+
+    private Airline airline;
+    private Airport origin;
+    private Airport destination;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 6);
+        airline = airlineRepo.save(new Airline("Fare Air " + suffix, "F" + suffix));
+        origin = airportRepo.save(new Airport("O" + suffix, "Origin " + suffix, "Test"));
+        destination = airportRepo.save(new Airport("D" + suffix, "Destination " + suffix, "Test"));
+    }
+
+    private Flight flight(LocalDateTime departure) {
+        Flight flight = new Flight("FA1", departure, departure.plusHours(2), origin, destination, airline);
+        for(int i = 1; i <= 10; i++) {
+            flight.getSeats().add(new Seat(i + "E", "Economy", flight));
+        }
+        for(int i = 1; i <= 4; i++) {
+            flight.getSeats().add(new Seat(i + "B", "Business", flight));
+        }
+        Flight saved = flightRepo.save(flight);
+        searchIndex.put(saved);
+        return saved;
+    }
+
+    private void sell(Flight flight, int economySeats) {
+        for(int i = 1; i <= economySeats; i++) {
+            inventoryService.reserve(flight.getId(), i + "E");
+        }
+    }
+
+    @Test
+    void test_quote_emptyFlight_isBaseFare() {
+        Flight flight = flight(DAY.atTime(8, 0));
+
+        FareQuote economy = fareEngine.quote(flight.getId(), "Economy");
+
+        assertEquals("Y1", economy.bucket());
+        assertEquals(Money.of("120.00", EUR), economy.price());
+        assertEquals(10, economy.seatsLeft());
+        assertEquals(Money.of("480.00", EUR), fareEngine.quote(flight.getId(), "Business").price());
+    }
+
+    @Test
+    void test_quote_followsSalesAndReleases() {
+        Flight flight = flight(DAY.atTime(8, 0));
+        FareQuote before = fareEngine.quote(flight.getId(), "Economy");
+
+        sell(flight, 3);
+        assertEquals("Y2", fareEngine.quote(flight.getId(), "Economy").bucket());
+        assertEquals(Money.of("150.00", EUR), fareEngine.quote(flight.getId(), "Economy").price());
+
+        sell(flight, 10);
+        assertEquals(Money.of("360.00", EUR), fareEngine.quote(flight.getId(), "Economy").price());
+        assertEquals(0, fareEngine.quote(flight.getId(), "Economy").seatsLeft());
+
+        for(int i = 1; i <= 10; i++) {
+            inventoryService.unreserve(flight.getId(), i + "E");
+        }
+        assertEquals(before, fareEngine.quote(flight.getId(), "Economy"));
+        // Economy sales don't reprice Business.
+        assertEquals("Y1", fareEngine.quote(flight.getId(), "Business").bucket());
+    }
+
+    @Test
+    void test_quote_isServedFromTheTable() {
+        Flight flight = flight(DAY.atTime(8, 0));
+
+        assertSame(fareEngine.quote(flight.getId(), "Economy"), fareEngine.quote(flight.getId(), "Economy"));
+    }
+
+    @Test
+    void test_calendar_picksCheapestFlightWithSeatsPerDay() {
+        Flight busy = flight(DAY.atTime(7, 0));
+        Flight quiet = flight(DAY.atTime(19, 0));
+        Flight full = flight(DAY.plusDays(2).atTime(9, 0));
+        sell(busy, 7);
+        sell(full, 10);
+
+        List<FareCalendarDay> calendar = fareEngine.calendar(origin.getCode(), destination.getCode(), DAY, 30, "Economy");
+
+        assertEquals(30, calendar.size());
+        assertEquals(quiet.getId(), calendar.get(0).lowest().flightId());
+        assertEquals(Money.of("120.00", EUR), calendar.get(0).lowest().price());
+        assertNull(calendar.get(1).lowest());
+        assertNull(calendar.get(2).lowest(), "A sold out flight has no fare to offer");
+    }
+
+    @Test
+    void test_bucketFor_coversEveryLoadFactor() {
+        assertEquals("Y1", FareEngine.bucketFor(0, 100).code());
+        assertEquals("Y2", FareEngine.bucketFor(30, 100).code());
+        assertEquals("Y4", FareEngine.bucketFor(94, 100).code());
+        assertEquals("Y5", FareEngine.bucketFor(100, 100).code());
+    }
+}
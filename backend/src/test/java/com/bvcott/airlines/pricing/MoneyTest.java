@@ -0,0 +1,47 @@
+package com.bvcott.airlines.pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Currency;
+
+import org.junit.jupiter.api.Test;
+
+public class MoneyTest {
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    @Test
+    void test_of_storesMinorUnits() {
+        assertEquals(12050, Money.of("120.50", EUR).minorUnits());
+        assertEquals(120, Money.of("120", JPY).minorUnits());
+        assertEquals("EUR 0.10", Money.of("0.1", EUR).toString());
+    }
+
+    @Test
+    void test_of_rejectsSubMinorPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of("1.005", EUR));
+    }
+
+    @Test
+    void test_sum_isExact() {
+        Money total = Money.of("0.00", EUR);
+        for(int i = 0; i < 10; i++) {
+            total = total.plus(Money.of("0.10", EUR));
+        }
+
+        assertEquals(Money.of("1.00", EUR), total);
+    }
+
+    @Test
+    void test_timesBasisPoints_roundsHalfUpToAMinorUnit() {
+        assertEquals(Money.of("150.00", EUR), Money.of("120.00", EUR).timesBasisPoints(12_500));
+        assertEquals(Money.of("0.02", EUR), Money.of("0.01", EUR).timesBasisPoints(15_000));
+        assertEquals(Money.of("0.01", EUR), Money.of("0.01", EUR).timesBasisPoints(14_999));
+    }
+
+    @Test
+    void test_plus_rejectsMixedCurrencies() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of("1.00", EUR).plus(Money.of("1", JPY)));
+    }
+}
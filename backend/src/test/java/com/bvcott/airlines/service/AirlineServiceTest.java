@@ -3,32 +3,45 @@ package com.bvcott.airlines.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import com.bvcott.airlines.cache.AirlineLookupCache;
 import com.bvcott.airlines.exception.AirlineAlreadyExistsException;
 import com.bvcott.airlines.exception.AirlineNotFoundException;
 import com.bvcott.airlines.model.Airline;
 import com.bvcott.airlines.repository.AirlineRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
 
 class AirlineServiceTest {
 	@Mock private AirlineRepository airlineRepo;
-	@InjectMocks private AirlineService airlineService;
+	@Mock private EntityManager entityManager;
+	@Mock private AutocompleteService autocomplete;
+	private AirlineService airlineService;
 
 	@BeforeEach
 	void setUp() throws Exception {
 		MockitoAnnotations.openMocks(this);
+		airlineService = new AirlineService(airlineRepo,
+				new AirlineLookupCache(airlineRepo, 100, Duration.ofMinutes(10), new SimpleMeterRegistry()), entityManager, autocomplete);
 	}
 
 	@Test
@@ -230,4 +243,50 @@ class AirlineServiceTest {
 		verify(airlineRepo).save(existingAirline);
 	}
 
+	@Test
+	void test_createAirlines_checksUniquenessWithOneQueryPerKey_andSavesAcceptedRowsTogether() {
+		List<Airline> airlines = List.of(new Airline("Iberia", "IB"), new Airline("British Airways", "BA"), new Airline("Vueling", "VY"));
+
+		when(airlineRepo.findExistingCodes(anyList())).thenReturn(List.of("VY"));
+		when(airlineRepo.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		BulkCreateResult<Airline> result = airlineService.createAirlines(airlines);
+
+		verify(airlineRepo, times(1)).findExistingNames(List.of("Iberia", "British Airways", "Vueling"));
+		verify(airlineRepo, times(1)).findExistingCodes(List.of("IB", "BA", "VY"));
+		verify(airlineRepo, times(1)).saveAll(List.of(airlines.get(0), airlines.get(1)));
+		verify(airlineRepo, never()).findByCode(any());
+		assertEquals(2, result.created().size());
+		assertEquals(List.of(new RowConflict(2, "Airline already exists with code: VY")), result.conflicts());
+	}
+
+	@Test
+	void test_createAirlines_reportsDuplicatesWithinBatch_andEmptyFields() {
+		List<Airline> airlines = List.of(new Airline("Iberia", "IB"), new Airline("", "XX"), new Airline("Iberia Express", "IB"));
+
+		when(airlineRepo.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		BulkCreateResult<Airline> result = airlineService.createAirlines(airlines);
+
+		assertEquals(List.of(airlines.get(0)), result.created());
+		assertEquals(2, result.conflicts().size());
+		assertEquals(1, result.conflicts().get(0).row());
+		assertEquals("Duplicate code in batch: IB (first seen at row 0)", result.conflicts().get(1).reason());
+	}
+
+	@Test
+	void test_createAirlines_retriesRowByRow_whenBatchViolatesUniqueConstraint() {
+		List<Airline> airlines = List.of(new Airline("Iberia", "IB"), new Airline("British Airways", "BA"));
+
+		when(airlineRepo.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("uk_airline_code"));
+		when(airlineRepo.save(new Airline("Iberia", "IB"))).thenThrow(new DataIntegrityViolationException("uk_airline_code"));
+		when(airlineRepo.save(new Airline("British Airways", "BA"))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		BulkCreateResult<Airline> result = airlineService.createAirlines(airlines);
+
+		assertEquals(List.of(airlines.get(1)), result.created());
+		assertEquals(1, result.conflicts().size());
+		assertEquals(0, result.conflicts().get(0).row());
+		assertTrue(result.hasConflicts());
+	}
 }
@@ -0,0 +1,177 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.event.FlightChangedEvent.ChangeType;
+import com.bvcott.airlines.event.FlightStatusChange;
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.FlightStatus;
+import com.bvcott.airlines.projection.AirportBoardEntry;
+import com.bvcott.airlines.projection.FlightSummary;
+import com.bvcott.airlines.repository.FlightRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AirportBoardIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 10, 7);
+
+    /** A clock the test can move forward. */
+    private static final class MovingClock extends Clock {
+        private Instant instant = NOW.toInstant(ZoneOffset.UTC);
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @Mock private FlightRepository flightRepo;
+    @Mock private FlightStatusStream statusStream;
+    private final List<FlightSummary> schedule = new ArrayList<>();
+    private MovingClock clock;
+    private AirportBoardIndex boards;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        clock = new MovingClock();
+        when(flightRepo.findSummariesDepartingBetween(any(), any())).thenAnswer(invocation -> schedule.stream()
+            .filter(flight -> within(flight.departureTime(), invocation.getArgument(0), invocation.getArgument(1))).toList());
+        when(flightRepo.findSummariesArrivingBetween(any(), any())).thenAnswer(invocation -> schedule.stream()
+            .filter(flight -> within(flight.arrivalTime(), invocation.getArgument(0), invocation.getArgument(1))).toList());
+        boards = new AirportBoardIndex(flightRepo, statusStream, new SimpleMeterRegistry(), Duration.ofHours(48), Duration.ofMinutes(15), clock);
+    }
+
+    private static boolean within(LocalDateTime time, LocalDateTime from, LocalDateTime to) {
+        return !time.isBefore(from) && time.isBefore(to);
+    }
+
+    private FlightSummary scheduled(String flightNumber, String origin, String destination, LocalDateTime departure) {
+        FlightSummary flight = new FlightSummary(UUID.randomUUID(), flightNumber, "BA", origin, destination, departure,
+                departure.plusHours(2), FlightStatus.SCHEDULED);
+        schedule.add(flight);
+        return flight;
+    }
+
+    private static List<String> flightNumbers(List<AirportBoardEntry> board) {
+        return board.stream().map(AirportBoardEntry::flightNumber).toList();
+    }
+
+    @Test
+    void test_rebuild_loadsTheHorizon_inTimeOrder() {
+        scheduled("BA3", "LHR", "MAD", NOW.plusHours(5));
+        scheduled("BA1", "LHR", "CDG", NOW.plusMinutes(20));
+        scheduled("BA2", "LHR", "JFK", NOW.plusMinutes(21));
+        scheduled("BA9", "LHR", "MAD", NOW.plusDays(3));
+        scheduled("BA5", "MAD", "LHR", NOW.plusHours(1));
+
+        boards.rebuild();
+
+        assertEquals(List.of("BA1", "BA2", "BA3"), flightNumbers(boards.departures("LHR", NOW, NOW.plusHours(48))));
+        assertEquals(List.of("BA5"), flightNumbers(boards.arrivals("lhr", NOW, NOW.plusHours(48))));
+        assertEquals(List.of("BA2"), flightNumbers(boards.departures("LHR", NOW.plusMinutes(21), NOW.plusHours(5))));
+        assertEquals(List.of("BA1", "BA2"), flightNumbers(boards.nextDepartures("LHR", 2)));
+    }
+
+    @Test
+    void test_covers_onlyTheWindowInMemory() {
+        boards.rebuild();
+
+        assertTrue(boards.covers(NOW, NOW.plusHours(24)));
+        assertFalse(boards.covers(NOW.minusHours(1), NOW.plusHours(1)));
+        assertFalse(boards.covers(NOW, NOW.plusHours(49)));
+    }
+
+    @Test
+    void test_onFlightChanged_movesUpdatedFlights_andDropsDeletedOnes() {
+        Airline airline = new Airline("British Airways", "BA");
+        Airport heathrow = new Airport("LHR", "Heathrow", "London");
+        Airport barajas = new Airport("MAD", "Barajas", "Madrid");
+        Flight flight = new Flight("BA7", NOW.plusHours(1), NOW.plusHours(3), heathrow, barajas, airline);
+        flight.setId(UUID.randomUUID());
+        boards.rebuild();
+
+        boards.onFlightChanged(new FlightChangedEvent(flight, ChangeType.CREATED));
+        flight.setDepartureTime(NOW.plusHours(6));
+        flight.setArrivalTime(NOW.plusHours(8));
+        boards.onFlightChanged(new FlightChangedEvent(flight, ChangeType.UPDATED));
+
+        List<AirportBoardEntry> board = boards.departures("LHR", NOW, NOW.plusHours(48));
+        assertEquals(1, board.size());
+        assertEquals(NOW.plusHours(6), board.get(0).scheduledTime());
+        assertEquals(NOW.plusHours(8), boards.arrivals("MAD", NOW, NOW.plusHours(48)).get(0).scheduledTime());
+
+        boards.onFlightChanged(new FlightChangedEvent(flight, ChangeType.DELETED));
+
+        assertTrue(boards.departures("LHR", NOW, NOW.plusHours(48)).isEmpty());
+        assertEquals(0, boards.size());
+    }
+
+    @Test
+    void test_onStatusChanged_updatesBothBoards() {
+        FlightSummary flight = scheduled("BA4", "LHR", "MAD", NOW.plusHours(2));
+        boards.rebuild();
+
+        boards.onStatusChanged(new FlightStatusChange(flight.id(), FlightStatus.DELAYED, Instant.now()));
+
+        assertEquals(FlightStatus.DELAYED, boards.departures("LHR", NOW, NOW.plusHours(48)).get(0).status());
+        assertEquals(FlightStatus.DELAYED, boards.arrivals("MAD", NOW, NOW.plusHours(48)).get(0).status());
+    }
+
+    @Test
+    void test_slide_dropsThePast_andLoadsOnlyTheNewBuckets() {
+        scheduled("BA1", "LHR", "MAD", NOW.plusMinutes(30));
+        scheduled("BA2", "LHR", "MAD", NOW.plusHours(49));
+        boards.rebuild();
+        LocalDateTime loadedUpTo = LocalDateTime.of(2030, 6, 3, 10, 15);
+        assertEquals(List.of("BA1"), flightNumbers(boards.nextDepartures("LHR", 10)));
+
+        clock.advance(Duration.ofHours(3));
+        boards.slide();
+
+        LocalDateTime now = NOW.plusHours(3);
+        assertEquals(List.of("BA2"), flightNumbers(boards.nextDepartures("LHR", 10)));
+        assertFalse(boards.covers(NOW, now));
+        assertTrue(boards.covers(now, now.plusHours(47)));
+        verify(flightRepo).findSummariesDepartingBetween(loadedUpTo, loadedUpTo.plusHours(3));
+        // BA1 has landed too, so nothing is kept for it.
+        assertEquals(1, boards.size());
+    }
+}
@@ -2,31 +2,43 @@ package com.bvcott.airlines.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import com.bvcott.airlines.cache.AirportLookupCache;
 import com.bvcott.airlines.exception.AirportAlreadyExistsException;
 import com.bvcott.airlines.exception.AirportNotFoundException;
 import com.bvcott.airlines.model.Airport;
 import com.bvcott.airlines.repository.AirportRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
 public class AirportServiceTest {
     @Mock private AirportRepository airportRepo;
-    @InjectMocks private AirportService airportService;
+    @Mock private EntityManager entityManager;
+    @Mock private AutocompleteService autocomplete;
+    private AirportService airportService;
 
     @BeforeEach
     void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
+        airportService = new AirportService(airportRepo,
+            new AirportLookupCache(airportRepo, 100, Duration.ofMinutes(10), new SimpleMeterRegistry()), entityManager, autocomplete);
     }
 
     @Test
@@ -266,4 +278,46 @@ public class AirportServiceTest {
         verify(airportRepo).save(existingAirport);
     }
 
+    @Test
+    void test_createAirports_reportsExistingNamesAndDuplicateCodes() {
+        List<Airport> airports = List.of(new Airport("LUT", "Luton", "UK"), new Airport("LGW", "Gatwick", "UK"), new Airport("LUT", "Luton 2", "UK"));
+
+        when(airportRepo.findExistingNames(anyList())).thenReturn(List.of("Gatwick"));
+        when(airportRepo.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BulkCreateResult<Airport> result = airportService.createAirports(airports);
+
+        assertEquals(List.of(airports.get(0)), result.created());
+        assertEquals(List.of(1, 2), result.conflicts().stream().map(RowConflict::row).toList());
+        assertEquals("Airport already exists with name: Gatwick", result.conflicts().get(0).reason());
+    }
+
+    @Test
+    void test_createAndDeleteAirport_keepAutocompleteInStep() {
+        Airport airport = new Airport("LUT", "Luton", "UK");
+        airport.setId(UUID.randomUUID());
+        when(airportRepo.save(airport)).thenReturn(airport);
+        when(airportRepo.findById(airport.getId())).thenReturn(Optional.of(airport));
+
+        airportService.createAirport(airport);
+        airportService.deleteById(airport.getId());
+
+        verify(autocomplete).putAirport(airport);
+        verify(autocomplete).removeAirport(airport);
+    }
+
+    @Test
+    void test_createAirports_insertsInChunks() {
+        List<Airport> airports = new ArrayList<>();
+        for(int i = 0; i < 2500; i++) {
+            airports.add(new Airport("A" + i, "Airport " + i, "UK"));
+        }
+        when(airportRepo.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BulkCreateResult<Airport> result = airportService.createAirports(airports);
+
+        assertEquals(2500, result.created().size());
+        verify(airportRepo, times(3)).findExistingCodes(anyList());
+        verify(airportRepo, times(3)).saveAll(anyList());
+    }
 }
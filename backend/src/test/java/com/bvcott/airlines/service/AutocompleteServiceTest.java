@@ -0,0 +1,114 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.projection.ReferenceSuggestion;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+
+public class AutocompleteServiceTest {
+    @Mock private AirportRepository airportRepo;
+    @Mock private AirlineRepository airlineRepo;
+    private AutocompleteService autocomplete;
+
+    private Airport heathrow;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        autocomplete = new AutocompleteService(airportRepo, airlineRepo, 0.5, 20);
+
+        heathrow = airport("LHR", "Heathrow", "London");
+        when(airportRepo.findAll()).thenReturn(List.of(heathrow, airport("LGW", "Gatwick", "London"),
+            airport("LON", "London City", "London"), airport("LUT", "Luton", "Luton"),
+            airport("ZRH", "Zürich", "Zurich"), airport("HEL", "Helsinki-Vantaa", "Helsinki")));
+        when(airlineRepo.findAll()).thenReturn(List.of(airline("Lufthansa", "LH"), airline("British Airways", "BA"),
+            airline("Iberia", "IB")));
+        autocomplete.rebuild();
+    }
+
+    private static Airport airport(String code, String name, String location) {
+        Airport airport = new Airport(code, name, location);
+        airport.setId(UUID.randomUUID());
+        return airport;
+    }
+
+    private static Airline airline(String name, String code) {
+        Airline airline = new Airline(name, code);
+        ReflectionTestUtils.setField(airline, "id", UUID.randomUUID());
+        return airline;
+    }
+
+    private static List<String> codes(List<ReferenceSuggestion> suggestions) {
+        return suggestions.stream().map(ReferenceSuggestion::code).toList();
+    }
+
+    @Test
+    void test_suggestAirports_matchesPartialName() {
+        assertEquals(List.of("LHR"), codes(autocomplete.suggestAirports("heath", 5)));
+    }
+
+    @Test
+    void test_suggestAirports_ranksExactCodeFirst_thenPrefixMatches() {
+        List<String> codes = codes(autocomplete.suggestAirports("LON", 10));
+
+        assertEquals("LON", codes.get(0));
+        assertTrue(codes.containsAll(List.of("LHR", "LGW")), "Airports located in London match too: " + codes);
+    }
+
+    @Test
+    void test_suggestAirports_toleratesTyposAndAccents() {
+        assertEquals("LHR", codes(autocomplete.suggestAirports("heatrow", 5)).get(0));
+        assertEquals(List.of("ZRH"), codes(autocomplete.suggestAirports("zur", 5)));
+        assertEquals(List.of("ZRH"), codes(autocomplete.suggestAirports("Zürich", 5)));
+    }
+
+    @Test
+    void test_suggestAirports_matchesEveryWordOfTheQuery() {
+        assertEquals(List.of("HEL"), codes(autocomplete.suggestAirports("helsinki van", 5)));
+    }
+
+    @Test
+    void test_suggestAirports_followsUpdatesAndDeletes() {
+        autocomplete.putAirport(airport("LCY", "London City", "London"));
+        heathrow.setName("London Heathrow");
+        autocomplete.putAirport(heathrow);
+        autocomplete.removeAirport(heathrow);
+
+        assertEquals(List.of(), autocomplete.suggestAirports("heath", 5));
+        assertEquals("LCY", codes(autocomplete.suggestAirports("LCY", 5)).get(0));
+    }
+
+    @Test
+    void test_suggestAirlines_matchesCodeAndName() {
+        assertEquals("LH", codes(autocomplete.suggestAirlines("lh", 5)).get(0));
+        assertEquals(List.of("BA"), codes(autocomplete.suggestAirlines("british air", 5)));
+    }
+
+    @Test
+    void test_suggest_returnsNothingForBlankQuery_andRejectsBadLimits() {
+        assertEquals(List.of(), autocomplete.suggestAirports("  ", 5));
+        assertEquals(List.of(), autocomplete.suggestAirlines(null, 5));
+        assertThrows(IllegalArgumentException.class, () -> autocomplete.suggestAirports("lon", 0));
+        assertThrows(IllegalArgumentException.class, () -> autocomplete.suggestAirports("lon", 21));
+    }
+
+    @Test
+    void test_suggestAirports_respectsLimit() {
+        assertEquals(2, autocomplete.suggestAirports("l", 2).size());
+    }
+}
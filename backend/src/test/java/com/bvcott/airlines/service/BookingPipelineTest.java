@@ -0,0 +1,335 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bvcott.airlines.exception.BookingRejectedException;
+import com.bvcott.airlines.exception.PassengerNotFoundException;
+import com.bvcott.airlines.exception.SeatUnavailableException;
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Booking;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.FlightSeatMap;
+import com.bvcott.airlines.model.Passenger;
+import com.bvcott.airlines.model.Payment;
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.repository.BookingRepository;
+import com.bvcott.airlines.repository.FlightRepository;
+import com.bvcott.airlines.repository.PassengerRepository;
+import com.bvcott.airlines.repository.SeatRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = { "airlines.payment-outbox.poll-interval=PT1H", "airlines.booking-pipeline.linger=50ms",
+        "airlines.booking-pipeline.max-batch-size=16" })
+public class BookingPipelineTest {
+    private static final int SEATS = 60;
+
+    @Autowired private AirlineRepository airlineRepo;
+    @Autowired private AirportRepository airportRepo;
+    @Autowired private FlightRepository flightRepo;
+    @Autowired private SeatRepository seatRepo;
+    @Autowired private SeatInventoryService inventoryService;
+    @Autowired private SeatMapService seatMapService;
+    @Autowired private FlightService flightService;
+    @Autowired private BookingService bookingService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private PaymentOutboxDispatcher outboxDispatcher;
+    @Autowired private PassengerService passengerService;
+    @Autowired private FlightSearchIndex searchIndex;
+    @Autowired private PassengerRepository passengerRepo;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Flight flight;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 6);
+        Airline airline = airlineRepo.save(new Airline("Pipeline Air " + suffix, "P" + suffix));
+        Airport origin = airportRepo.save(new Airport("O" + suffix, "Origin " + suffix, "Test"));
+        Airport destination = airportRepo.save(new Airport("D" + suffix, "Destination " + suffix, "Test"));
+
+        Flight newFlight = new Flight("PL1", LocalDateTime.of(2030, 5, 1, 9, 0), LocalDateTime.of(2030, 5, 1, 11, 0), origin, destination, airline);
+        for(int i = 1; i <= SEATS; i++) {
+            newFlight.getSeats().add(new Seat(seatNumber(i), "Economy", newFlight));
+        }
+        flight = flightRepo.save(newFlight);
+    }
+
+    private Flight seatMapFlight() {
+        Flight seatMapped = new Flight("PL2", flight.getDepartureTime().plusHours(3), flight.getArrivalTime().plusHours(3),
+                flight.getOrigin(), flight.getDestination(), flight.getAirline());
+        seatMapped.setAircraftType("E175");
+        return flightService.createFlight(seatMapped);
+    }
+
+    private static String seatNumber(int index) {
+        return index + "A";
+    }
+
+    private BookingRequest request(String... seatNumbers) {
+        return new BookingRequest(flight.getId(), List.of(seatNumbers), List.of(new Passenger("Pipeline Passenger", "PP" + seatNumbers[0])));
+    }
+
+    @Test
+    void test_createBooking_commitsConcurrentBookingsInBatches() throws Exception {
+        DistributionSummary batchSizes = meterRegistry.get("booking.pipeline.batch.size").summary();
+        long batchesBefore = batchSizes.count();
+
+        List<CompletableFuture<Booking>> futures = new ArrayList<>();
+        for(int i = 1; i <= 40; i++) {
+            futures.add(bookingService.createBooking(request(seatNumber(i))));
+        }
+        for(CompletableFuture<Booking> future : futures) {
+            Booking booking = future.get(10, TimeUnit.SECONDS);
+            assertEquals(BookingPipeline.CONFIRMED, bookingService.retrieveById(booking.getId()).getStatus());
+        }
+
+        assertEquals(40, seatRepo.findByFlightId(flight.getId()).stream().filter(seat -> !seat.getIsAvailable()).count());
+        assertTrue(batchSizes.count() - batchesBefore < 40, "Bookings should share commits");
+        assertTrue(batchSizes.max() > 1);
+    }
+
+    @Test
+    void test_createBooking_reusesThePassengerOnFile_forTheSamePassport() throws Exception {
+        String passport = "RP" + flight.getId().toString().substring(0, 6).toUpperCase();
+        bookingService.createBooking(new BookingRequest(flight.getId(), List.of("8A"),
+                List.of(new Passenger("Returning Passenger", passport)))).get(10, TimeUnit.SECONDS);
+        bookingService.createBooking(new BookingRequest(flight.getId(), List.of("9A"),
+                List.of(new Passenger("Returning Passenger", passport.substring(0, 2).toLowerCase() + " " + passport.substring(2))))).get(10, TimeUnit.SECONDS);
+
+        Passenger passenger = passengerService.retrieveByPassport(passport);
+        assertEquals(1, passengerRepo.findByPassportHash(passenger.getPassportHash()).size());
+        int bookings = new TransactionTemplate(transactionManager).execute(status ->
+                passengerRepo.findById(passenger.getId()).orElseThrow().getBookings().size());
+        assertEquals(2, bookings);
+    }
+
+    @Test
+    void test_deleteFlight_insideRolledBackTransaction_leavesItSearchable() {
+        Flight seatMapped = seatMapFlight();
+        String origin = seatMapped.getOrigin().getCode();
+        String destination = seatMapped.getDestination().getCode();
+        LocalDate day = seatMapped.getDepartureTime().toLocalDate();
+        assertTrue(searchIndex.search(origin, destination, day).stream().anyMatch(entry -> entry.flightId().equals(seatMapped.getId())));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            flightService.deleteById(seatMapped.getId());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(flightRepo.existsById(seatMapped.getId()));
+        assertTrue(searchIndex.search(origin, destination, day).stream().anyMatch(entry -> entry.flightId().equals(seatMapped.getId())));
+    }
+
+    @Test
+    void test_createBooking_onSeatMapFlight_marksSeatsSoldInTheSeatMapRow() throws Exception {
+        UUID flightId = seatMapFlight().getId();
+        List<String> seatNumbers = List.of("4A", "4C", "4D", "4F", "5A", "5C");
+
+        List<CompletableFuture<Booking>> futures = new ArrayList<>();
+        for(String seatNumber : seatNumbers) {
+            futures.add(bookingService.createBooking(new BookingRequest(flightId, List.of(seatNumber),
+                    List.of(new Passenger("Seat Map Passenger", "SM" + seatNumber + flightId.toString().substring(0, 6))))));
+        }
+        for(CompletableFuture<Booking> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        FlightSeatMap seatMap = seatMapService.find(flightId).orElseThrow();
+        SeatLayout layout = seatMapService.layout("E175");
+        for(String seatNumber : seatNumbers) {
+            assertTrue(seatMap.isSold(layout.position(seatNumber).bit()), seatNumber + " should be sold");
+        }
+        assertFalse(seatMap.isSold(layout.position("6A").bit()));
+        assertEquals(0, seatRepo.countByFlightId(flightId));
+    }
+
+    @Test
+    void test_createBooking_onSeatMapFlight_failsFuture_whenSeatWasSoldInDatabase() throws Exception {
+        UUID flightId = seatMapFlight().getId();
+        inventoryService.availableSeats(flightId);
+        SeatLayout layout = seatMapService.layout("E175");
+        seatMapService.write(flightId, layout.position("7D").bit(), true);
+
+        CompletableFuture<Booking> future = bookingService.createBooking(new BookingRequest(flightId, List.of("7C", "7D"),
+                List.of(new Passenger("Late Passenger", "LP" + flightId.toString().substring(0, 6)))));
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(SeatUnavailableException.class, thrown.getCause());
+        assertTrue(inventoryService.isAvailable(flightId, "7C"));
+        assertFalse(seatMapService.find(flightId).orElseThrow().isSold(layout.position("7C").bit()));
+    }
+
+    @Test
+    void test_createBooking_sameIdempotencyKey_returnsTheFirstBooking() throws Exception {
+        String key = UUID.randomUUID().toString();
+        List<Passenger> passengers = List.of(new Passenger("Retrying Passenger", "RP1"));
+
+        CompletableFuture<Booking> first = bookingService.createBooking(new BookingRequest(flight.getId(), List.of("7A"), passengers, key));
+        CompletableFuture<Booking> concurrentRepeat = bookingService.createBooking(new BookingRequest(flight.getId(), List.of("7A"), passengers, key));
+        UUID bookingId = first.get(10, TimeUnit.SECONDS).getId();
+        Booking laterRepeat = bookingService.createBooking(new BookingRequest(flight.getId(), List.of("7A"), passengers, key)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(bookingId, concurrentRepeat.get(10, TimeUnit.SECONDS).getId());
+        assertEquals(bookingId, laterRepeat.getId());
+        assertFalse(inventoryService.isAvailable(flight.getId(), "7A"));
+    }
+
+    @Test
+    void test_createPayment_sameIdempotencyKey_chargesOnce() throws Exception {
+        Booking booking = bookingService.createBooking(request("8A")).get(10, TimeUnit.SECONDS);
+        String key = UUID.randomUUID().toString();
+
+        Payment first = paymentService.createPayment(key, booking.getId(), 120.0);
+        Payment repeat = paymentService.createPayment(key, booking.getId(), 120.0);
+
+        assertEquals(first.getId(), repeat.getId());
+        assertEquals(PaymentService.PENDING, paymentService.retrieveById(first.getId()).getStatus());
+    }
+
+    @Test
+    void test_createPayment_isCompletedByTheOutboxDispatcher() throws Exception {
+        Booking booking = bookingService.createBooking(request("9A")).get(10, TimeUnit.SECONDS);
+        Payment payment = paymentService.createPayment(UUID.randomUUID().toString(), booking.getId(), 120.0);
+        assertEquals(PaymentService.PENDING, paymentService.retrieveById(payment.getId()).getStatus());
+
+        while(outboxDispatcher.dispatch() > 0) {
+        }
+
+        assertEquals(PaymentOutboxDispatcher.COMPLETED, paymentService.retrieveById(payment.getId()).getStatus());
+    }
+
+    @Test
+    void test_addPassenger_writesTheLinkOnce() throws Exception {
+        Booking booking = bookingService.createBooking(request("10A")).get(10, TimeUnit.SECONDS);
+        Passenger traveller = passengerRepo.save(new Passenger("Late Traveller", "LT" + UUID.randomUUID().toString().substring(0, 6)));
+
+        bookingService.addPassenger(booking.getId(), traveller.getId());
+        bookingService.addPassenger(booking.getId(), traveller.getId());
+
+        Set<UUID> passengerIds = new TransactionTemplate(transactionManager).execute(status ->
+                bookingService.retrieveById(booking.getId()).getPassengers().stream().map(Passenger::getId).collect(Collectors.toSet()));
+        assertTrue(passengerIds.contains(traveller.getId()));
+        assertEquals(2, passengerIds.size());
+        assertThrows(PassengerNotFoundException.class, () -> bookingService.addPassenger(booking.getId(), UUID.randomUUID()));
+    }
+
+    @Test
+    void test_createBooking_rejectsSeatAlreadyQueued() throws Exception {
+        CompletableFuture<Booking> first = bookingService.createBooking(request("1A", "2A"));
+
+        assertThrows(SeatUnavailableException.class, () -> bookingService.createBooking(request("3A", "2A")));
+        first.get(10, TimeUnit.SECONDS);
+        // The partial reservation of 3A was given back.
+        assertTrue(inventoryService.isAvailable(flight.getId(), "3A"));
+    }
+
+    @Test
+    void test_createBooking_failsFuture_whenSeatWasSoldInDatabase() throws Exception {
+        inventoryService.availableSeats(flight.getId());
+        Seat sold = seatRepo.findByFlightIdAndSeatNumberIn(flight.getId(), List.of("5A")).get(0);
+        seatRepo.compareAndSetAvailability(sold.getId(), true, false);
+
+        CompletableFuture<Booking> future = bookingService.createBooking(request("4A", "5A"));
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(SeatUnavailableException.class, thrown.getCause());
+        assertTrue(inventoryService.isAvailable(flight.getId(), "4A"));
+        assertFalse(inventoryService.isAvailable(flight.getId(), "5A"));
+    }
+
+    @Test
+    void test_staleSeatWrite_failsVersionCheck_insteadOfOverwriting() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        UUID seatId = seatRepo.findByFlightIdAndSeatNumberIn(flight.getId(), List.of("6A")).get(0).getId();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            Seat stale = seatRepo.findById(seatId).get();
+            // Another buyer takes the seat after this transaction read it.
+            new TransactionTemplate(transactionManager, new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW))
+                .executeWithoutResult(inner -> seatRepo.compareAndSetAvailability(seatId, true, false));
+            stale.setIsAvailable(false);
+        }));
+    }
+
+    @Test
+    void test_submit_rejectsWhenQueueIsFull() {
+        SeatInventoryService inventory = mock(SeatInventoryService.class);
+        when(inventory.reserve(any(), anyString())).thenReturn(true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Never started, so nothing drains the queue.
+        BookingPipeline pipeline = new BookingPipeline(inventory, mock(SeatRepository.class), mock(SeatMapService.class), mock(PassengerRepository.class),
+                mock(BookingRepository.class), mock(FlightRepository.class), mock(PlatformTransactionManager.class), mock(OptimisticRetry.class), mock(IdempotencyGuard.class),
+                registry, 1, 16,
+                Duration.ofMillis(5));
+        UUID flightId = UUID.randomUUID();
+        List<Passenger> passengers = List.of(new Passenger("Queued Passenger", "QP1"));
+
+        pipeline.submit(new BookingRequest(flightId, List.of("1A"), passengers));
+
+        assertThrows(BookingRejectedException.class, () -> pipeline.submit(new BookingRequest(flightId, List.of("2A"), passengers)));
+        verify(inventory).unreserve(flightId, "2A");
+        assertEquals(1, pipeline.queueDepth());
+        assertEquals(1, registry.get("booking.pipeline.queue.depth").gauge().value());
+        assertEquals(1, registry.counter("booking.pipeline.requests", "outcome", "rejected").count());
+    }
+
+    @Test
+    void test_stop_failsQueuedBookings_andRejectsLaterOnes() throws Exception {
+        SeatInventoryService inventory = mock(SeatInventoryService.class);
+        when(inventory.reserve(any(), anyString())).thenReturn(true);
+        // Never started: stop's join returns at once and the final drain is all that's left.
+        BookingPipeline pipeline = new BookingPipeline(inventory, mock(SeatRepository.class), mock(SeatMapService.class), mock(PassengerRepository.class),
+                mock(BookingRepository.class), mock(FlightRepository.class), mock(PlatformTransactionManager.class), mock(OptimisticRetry.class), mock(IdempotencyGuard.class),
+                new SimpleMeterRegistry(), 16, 16,
+                Duration.ofMillis(5));
+        UUID flightId = UUID.randomUUID();
+        List<Passenger> passengers = List.of(new Passenger("Stopped Passenger", "SP1"));
+
+        CompletableFuture<Booking> queued = pipeline.submit(new BookingRequest(flightId, List.of("1A"), passengers));
+        pipeline.stop();
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(BookingRejectedException.class, thrown.getCause());
+        verify(inventory).unreserve(flightId, "1A");
+        assertThrows(BookingRejectedException.class, () -> pipeline.submit(new BookingRequest(flightId, List.of("2A"), passengers)));
+        assertEquals(0, pipeline.queueDepth());
+    }
+}
@@ -0,0 +1,173 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.event.FlightChangedEvent.ChangeType;
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.repository.FlightRepository;
+
+public class ConnectionSearchServiceTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 10, 10);
+
+    @Mock private FlightRepository flightRepo;
+
+    private ConnectionSearchService searchService;
+    private Airline airline;
+    private Airport lhr;
+    private Airport mad;
+    private Airport jfk;
+    private Airport bos;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        searchService = new ConnectionSearchService(flightRepo, Duration.ofMinutes(45), Duration.ofHours(12), 4, 2, 16);
+
+        airline = new Airline("Test-airline", "TA");
+        lhr = new Airport("LHR", "Heathrow", "UK");
+        mad = new Airport("MAD", "Barajas", "Spain");
+        jfk = new Airport("JFK", "Kennedy", "USA");
+        bos = new Airport("BOS", "Logan", "USA");
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.shutdown();
+    }
+
+    private Flight flight(String number, Airport origin, Airport destination, LocalDateTime departure, Duration duration) {
+        Flight flight = new Flight(number, departure, departure.plus(duration), origin, destination, airline);
+        flight.setId(UUID.randomUUID());
+        return flight;
+    }
+
+    private ConnectionQuery query(Airport origin, Airport destination, int maxLegs) {
+        return new ConnectionQuery(origin.getCode(), destination.getCode(), DAY.atStartOfDay(), DAY.atTime(23, 59), maxLegs, 10);
+    }
+
+    private List<String> flightNumbers(Itinerary itinerary) {
+        return itinerary.legs().stream().map(ScheduledLeg::flightNumber).toList();
+    }
+
+    @Test
+    void test_search_findsDirectAndConnectingItineraries_rankedByTravelTime() {
+        searchService.rebuild(List.of(
+                flight("TA1", lhr, jfk, DAY.atTime(9, 0), Duration.ofHours(8)),
+                flight("TA2", lhr, mad, DAY.atTime(7, 0), Duration.ofHours(2)),
+                flight("TA3", mad, jfk, DAY.atTime(10, 0), Duration.ofHours(8))));
+
+        List<Itinerary> itineraries = searchService.search(query(lhr, jfk, 2));
+
+        assertEquals(2, itineraries.size());
+        assertEquals(List.of("TA1"), flightNumbers(itineraries.get(0)));
+        assertEquals(Duration.ofHours(8), itineraries.get(0).totalTravelTime());
+        assertEquals(List.of("TA2", "TA3"), flightNumbers(itineraries.get(1)));
+        assertEquals(Duration.ofHours(11), itineraries.get(1).totalTravelTime());
+        assertEquals(1, itineraries.get(1).connections());
+    }
+
+    @Test
+    void test_search_enforcesMinimumConnectionTime() {
+        searchService.rebuild(List.of(
+                flight("TA2", lhr, mad, DAY.atTime(7, 0), Duration.ofHours(2)),
+                flight("TA3", mad, jfk, DAY.atTime(9, 30), Duration.ofHours(8)),
+                flight("TA4", mad, jfk, DAY.atTime(9, 45), Duration.ofHours(8))));
+
+        List<Itinerary> itineraries = searchService.search(query(lhr, jfk, 2));
+
+        assertEquals(1, itineraries.size());
+        assertEquals(List.of("TA2", "TA4"), flightNumbers(itineraries.get(0)));
+    }
+
+    @Test
+    void test_search_respectsMaximumNumberOfLegs() {
+        searchService.rebuild(List.of(
+                flight("TA1", lhr, mad, DAY.atTime(7, 0), Duration.ofHours(2)),
+                flight("TA2", mad, jfk, DAY.atTime(10, 0), Duration.ofHours(8)),
+                flight("TA3", jfk, bos, DAY.atTime(19, 0), Duration.ofHours(1))));
+
+        assertTrue(searchService.search(query(lhr, bos, 2)).isEmpty());
+        assertEquals(List.of("TA1", "TA2", "TA3"), flightNumbers(searchService.search(query(lhr, bos, 3)).get(0)));
+    }
+
+    @Test
+    void test_search_doesNotRevisitAirports() {
+        searchService.rebuild(List.of(
+                flight("TA1", lhr, mad, DAY.atTime(6, 0), Duration.ofHours(2)),
+                flight("TA2", mad, lhr, DAY.atTime(9, 0), Duration.ofHours(2)),
+                flight("TA3", lhr, jfk, DAY.atTime(12, 0), Duration.ofHours(8))));
+
+        List<Itinerary> itineraries = searchService.search(query(lhr, jfk, 3));
+
+        assertEquals(1, itineraries.size());
+        assertEquals(List.of("TA3"), flightNumbers(itineraries.get(0)));
+    }
+
+    @Test
+    void test_search_returnsAtMostLimitResults() {
+        for(int hour = 0; hour < 20; hour++) {
+            searchService.put(flight("TA" + hour, lhr, jfk, DAY.atTime(hour, 0), Duration.ofMinutes(400 + hour)));
+        }
+
+        List<Itinerary> itineraries = searchService.search(new ConnectionQuery("LHR", "JFK", DAY.atStartOfDay(), DAY.atTime(23, 0), 1, 3));
+
+        assertEquals(3, itineraries.size());
+        assertEquals(List.of("TA0"), flightNumbers(itineraries.get(0)));
+        assertEquals(List.of("TA2"), flightNumbers(itineraries.get(2)));
+    }
+
+    @Test
+    void test_onFlightChanged_updatesSnapshotIncrementally() {
+        Flight direct = flight("TA1", lhr, jfk, DAY.atTime(9, 0), Duration.ofHours(8));
+        searchService.onFlightChanged(new FlightChangedEvent(direct, ChangeType.CREATED));
+        assertEquals(1, searchService.search(query(lhr, jfk, 1)).size());
+
+        direct.setDestination(bos);
+        searchService.onFlightChanged(new FlightChangedEvent(direct, ChangeType.UPDATED));
+        assertTrue(searchService.search(query(lhr, jfk, 1)).isEmpty());
+        assertEquals(1, searchService.search(query(lhr, bos, 1)).size());
+
+        searchService.onFlightChanged(new FlightChangedEvent(direct, ChangeType.DELETED));
+        assertTrue(searchService.search(query(lhr, bos, 1)).isEmpty());
+    }
+
+    @Test
+    void test_search_throwsIllegalArgumentException_whenTooManyLegsRequested() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(query(lhr, jfk, 5)));
+    }
+
+    @Test
+    void test_search_throwsIllegalArgumentException_whenLimitIsOutOfRange() {
+        for(int limit : new int[] { 0, -1, ConnectionSearchService.MAX_RESULTS + 1 }) {
+            ConnectionQuery query = new ConnectionQuery("LHR", "JFK", DAY.atStartOfDay(), DAY.atTime(23, 59), 2, limit);
+            assertThrows(IllegalArgumentException.class, () -> searchService.search(query));
+        }
+    }
+
+    @Test
+    void test_searchAsync_runsOnSearchPool() throws Exception {
+        searchService.put(flight("TA1", lhr, jfk, DAY.atTime(9, 0), Duration.ofHours(8)));
+
+        List<Itinerary> itineraries = searchService.searchAsync(query(lhr, jfk, 2)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, itineraries.size());
+    }
+}
@@ -1,12 +1,24 @@
 package com.bvcott.airlines.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,13 +26,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.bvcott.airlines.exception.CrewConflictException;
 import com.bvcott.airlines.exception.CrewMemberNotFoundException;
+import com.bvcott.airlines.exception.FlightNotFoundException;
+import com.bvcott.airlines.exception.InvalidCursorException;
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
 import com.bvcott.airlines.model.CrewMember;
+import com.bvcott.airlines.model.Flight;
 import com.bvcott.airlines.repository.CrewMemberRepository;
+import com.bvcott.airlines.repository.FlightRepository;
+
+import jakarta.persistence.EntityManager;
 
 public class CrewMemberServiceTest {
     @Mock private CrewMemberRepository crewRepo;
+    @Mock private FlightRepository flightRepo;
+    @Mock private CrewRosterIndex rosterIndex;
+    @Mock private EntityManager entityManager;
+    @Mock private PlatformTransactionManager transactionManager;
     @InjectMocks private CrewMemberService crewService;
 
     @BeforeEach
@@ -169,4 +196,158 @@ public class CrewMemberServiceTest {
         verify(crewRepo).save(existingCrew);
     }
 
+    private List<CrewMember> crew(int count) {
+        List<CrewMember> crew = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            CrewMember member = new CrewMember("Crew " + i, "Flight Attendant");
+            member.setId(UUID.randomUUID());
+            crew.add(member);
+        }
+        return crew;
+    }
+
+    @Test
+    void test_retrievePage_returnsCursorToLastItem_whenMoreRowsExist() {
+        List<CrewMember> rows = crew(3);
+        when(crewRepo.findByOrderByIdAsc(Limit.of(3))).thenReturn(rows);
+
+        KeysetPage<CrewMember> page = crewService.retrievePage(null, 2);
+
+        assertEquals(rows.subList(0, 2), page.items());
+        assertTrue(page.hasNext());
+
+        crewService.retrievePage(page.nextCursor(), 2);
+        verify(crewRepo).findByIdGreaterThanOrderByIdAsc(rows.get(1).getId(), Limit.of(3));
+    }
+
+    @Test
+    void test_retrievePage_returnsNoCursor_onLastPage() {
+        List<CrewMember> rows = crew(2);
+        UUID after = UUID.randomUUID();
+        when(crewRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(3))).thenReturn(rows);
+
+        KeysetPage<CrewMember> page = crewService.retrievePage(Keyset.encode(after), 2);
+
+        assertEquals(rows, page.items());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void test_retrievePage_throwsInvalidCursorException_forMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> crewService.retrievePage("not-a-cursor!", 10));
+        assertThrows(InvalidCursorException.class, () -> crewService.retrievePage("AAAA", 10));
+        verify(crewRepo, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void test_retrievePage_throwsIllegalArgumentException_forPageSizeOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> crewService.retrievePage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> crewService.retrievePage(null, Keyset.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void test_streamAll_visitsEveryRow_andClearsPersistenceContextPerFetch() {
+        when(crewRepo.streamAll()).thenReturn(IntStream.range(0, 1200).mapToObj(i -> new CrewMember("Crew " + i, "Pilot")));
+        AtomicInteger visited = new AtomicInteger();
+
+        long count = crewService.streamAll(member -> visited.incrementAndGet());
+
+        assertEquals(1200, count);
+        assertEquals(1200, visited.get());
+        verify(entityManager, times(2)).clear();
+    }
+
+    private Flight flight(UUID id) {
+        Flight flight = new Flight("BA1", LocalDateTime.of(2030, 5, 1, 9, 0), LocalDateTime.of(2030, 5, 1, 11, 0),
+                new Airport("LHR", "Heathrow", "London"), new Airport("MAD", "Barajas", "Madrid"), new Airline("British Airways", "BA"));
+        flight.setId(id);
+        when(flightRepo.findById(id)).thenReturn(Optional.of(flight));
+        return flight;
+    }
+
+    @Test
+    void test_assignToFlight_storesTheAssignment_whenRosterHasNoConflict() {
+        UUID crewId = UUID.randomUUID();
+        UUID flightId = UUID.randomUUID();
+        Flight flight = flight(flightId);
+        CrewDuty duty = new CrewDuty(flightId, flight.getDepartureTime(), flight.getArrivalTime());
+        when(crewRepo.findById(crewId)).thenReturn(Optional.of(new CrewMember("John Doe", "Pilot")));
+        when(rosterIndex.duty(flightId, flight.getDepartureTime(), flight.getArrivalTime())).thenReturn(duty);
+        when(rosterIndex.tryAssign(crewId, "Pilot", duty)).thenReturn(List.of());
+
+        assertEquals(duty, crewService.assignToFlight(crewId, flightId));
+        verify(crewRepo).addAssignment(crewId, flightId);
+    }
+
+    @Test
+    void test_assignToFlight_throwsCrewConflictException_andStoresNothing_whenRosterConflicts() {
+        UUID crewId = UUID.randomUUID();
+        UUID flightId = UUID.randomUUID();
+        Flight flight = flight(flightId);
+        CrewDuty duty = new CrewDuty(flightId, flight.getDepartureTime(), flight.getArrivalTime());
+        CrewDuty other = new CrewDuty(UUID.randomUUID(), flight.getDepartureTime(), flight.getArrivalTime());
+        when(crewRepo.findById(crewId)).thenReturn(Optional.of(new CrewMember("John Doe", "Pilot")));
+        when(rosterIndex.duty(flightId, flight.getDepartureTime(), flight.getArrivalTime())).thenReturn(duty);
+        when(rosterIndex.tryAssign(crewId, "Pilot", duty)).thenReturn(List.of(new CrewConflict(crewId, other, CrewConflict.Kind.OVERLAP)));
+
+        assertThrows(CrewConflictException.class, () -> crewService.assignToFlight(crewId, flightId));
+        verify(crewRepo, never()).addAssignment(any(), any());
+    }
+
+    @Test
+    void test_assignToFlight_releasesTheRoster_whenStoringFails() {
+        UUID crewId = UUID.randomUUID();
+        UUID flightId = UUID.randomUUID();
+        Flight flight = flight(flightId);
+        CrewDuty duty = new CrewDuty(flightId, flight.getDepartureTime(), flight.getArrivalTime());
+        when(crewRepo.findById(crewId)).thenReturn(Optional.of(new CrewMember("John Doe", "Pilot")));
+        when(rosterIndex.duty(flightId, flight.getDepartureTime(), flight.getArrivalTime())).thenReturn(duty);
+        when(rosterIndex.tryAssign(crewId, "Pilot", duty)).thenReturn(List.of());
+        when(crewRepo.addAssignment(crewId, flightId)).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> crewService.assignToFlight(crewId, flightId));
+        verify(rosterIndex).unassign(crewId, flightId);
+    }
+
+    @Test
+    void test_assignToFlight_keepsTheRoster_whenTheRowWasInsertedConcurrently() {
+        UUID crewId = UUID.randomUUID();
+        UUID flightId = UUID.randomUUID();
+        Flight flight = flight(flightId);
+        CrewDuty duty = new CrewDuty(flightId, flight.getDepartureTime(), flight.getArrivalTime());
+        when(crewRepo.findById(crewId)).thenReturn(Optional.of(new CrewMember("John Doe", "Pilot")));
+        when(rosterIndex.duty(flightId, flight.getDepartureTime(), flight.getArrivalTime())).thenReturn(duty);
+        when(rosterIndex.tryAssign(crewId, "Pilot", duty)).thenReturn(List.of());
+        when(crewRepo.addAssignment(crewId, flightId)).thenThrow(new DataIntegrityViolationException("primary key violation"));
+        when(crewRepo.countAssignment(crewId, flightId)).thenReturn(1L);
+
+        assertEquals(duty, crewService.assignToFlight(crewId, flightId));
+        verify(rosterIndex, never()).unassign(crewId, flightId);
+    }
+
+    @Test
+    void test_assignToFlight_releasesTheRoster_onOtherIntegrityViolations() {
+        UUID crewId = UUID.randomUUID();
+        UUID flightId = UUID.randomUUID();
+        Flight flight = flight(flightId);
+        CrewDuty duty = new CrewDuty(flightId, flight.getDepartureTime(), flight.getArrivalTime());
+        when(crewRepo.findById(crewId)).thenReturn(Optional.of(new CrewMember("John Doe", "Pilot")));
+        when(rosterIndex.duty(flightId, flight.getDepartureTime(), flight.getArrivalTime())).thenReturn(duty);
+        when(rosterIndex.tryAssign(crewId, "Pilot", duty)).thenReturn(List.of());
+        when(crewRepo.addAssignment(crewId, flightId)).thenThrow(new DataIntegrityViolationException("foreign key violation"));
+        when(crewRepo.countAssignment(crewId, flightId)).thenReturn(0L);
+
+        assertThrows(DataIntegrityViolationException.class, () -> crewService.assignToFlight(crewId, flightId));
+        verify(rosterIndex).unassign(crewId, flightId);
+    }
+
+    @Test
+    void test_findAvailable_throwsFlightNotFoundException_whenFlightNotFound() {
+        UUID flightId = UUID.randomUUID();
+        when(flightRepo.findById(flightId)).thenReturn(Optional.empty());
+
+        assertThrows(FlightNotFoundException.class, () -> crewService.findAvailable("Pilot", flightId));
+        verify(rosterIndex, never()).available(eq("Pilot"), any());
+    }
 }
@@ -0,0 +1,143 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.bvcott.airlines.projection.CrewDutyRow;
+import com.bvcott.airlines.repository.CrewMemberRepository;
+
+public class CrewRosterIndexTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 3, 1, 0, 0);
+
+    @Mock private CrewMemberRepository crewRepo;
+    private CrewRosterIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        index = new CrewRosterIndex(crewRepo, Duration.ofHours(1), Duration.ofMinutes(30), Duration.ofHours(10));
+    }
+
+    private CrewDuty duty(int startHour, int endHour) {
+        return index.duty(UUID.randomUUID(), DAY.plusHours(startHour), DAY.plusHours(endHour));
+    }
+
+    @Test
+    void test_tryAssign_overlappingDuty_isRejected() {
+        UUID pilot = UUID.randomUUID();
+        CrewDuty morning = duty(8, 11);
+        assertTrue(index.tryAssign(pilot, "Pilot", morning).isEmpty());
+
+        List<CrewConflict> conflicts = index.tryAssign(pilot, "Pilot", duty(10, 13));
+
+        assertEquals(1, conflicts.size());
+        assertEquals(CrewConflict.Kind.OVERLAP, conflicts.get(0).kind());
+        assertEquals(morning, conflicts.get(0).duty());
+        assertEquals(List.of(morning), index.duties(pilot));
+    }
+
+    @Test
+    void test_tryAssign_tooLittleRest_isRejected() {
+        UUID pilot = UUID.randomUUID();
+        index.tryAssign(pilot, "Pilot", duty(8, 11));
+
+        // Released 11:30, reports 17:00: five and a half hours of rest.
+        List<CrewConflict> conflicts = index.tryAssign(pilot, "Pilot", duty(18, 20));
+
+        assertEquals(List.of(CrewConflict.Kind.INSUFFICIENT_REST), conflicts.stream().map(CrewConflict::kind).toList());
+    }
+
+    @Test
+    void test_tryAssign_enoughRest_isAccepted() {
+        UUID pilot = UUID.randomUUID();
+        index.tryAssign(pilot, "Pilot", duty(8, 11));
+
+        assertTrue(index.tryAssign(pilot, "Pilot", duty(23, 26)).isEmpty());
+        assertEquals(2, index.duties(pilot).size());
+    }
+
+    @Test
+    void test_available_onlyReturnsFreeCrewOfTheRole() {
+        UUID busy = UUID.randomUUID();
+        UUID rested = UUID.randomUUID();
+        UUID attendant = UUID.randomUUID();
+        index.tryAssign(busy, "Pilot", duty(9, 12));
+        index.tryAssign(rested, "Pilot", duty(-20, -17));
+        index.tryAssign(attendant, "Flight Attendant", duty(-48, -46));
+
+        assertEquals(List.of(rested), index.available("Pilot", duty(10, 14)));
+    }
+
+    @Test
+    void test_unassign_freesTheCrewMember() {
+        UUID pilot = UUID.randomUUID();
+        CrewDuty duty = duty(8, 11);
+        index.tryAssign(pilot, "Pilot", duty);
+
+        index.unassign(pilot, duty.flightId());
+
+        assertEquals(List.of(pilot), index.available("Pilot", duty(9, 10)));
+    }
+
+    @Test
+    void test_rebuild_loadsDutiesAndCrewWithoutFlights() {
+        UUID pilot = UUID.randomUUID();
+        UUID idle = UUID.randomUUID();
+        UUID flightId = UUID.randomUUID();
+        when(crewRepo.findAllDuties()).thenReturn(List.of(
+                new CrewDutyRow(pilot, "Pilot", flightId, DAY.plusHours(8), DAY.plusHours(11)),
+                new CrewDutyRow(idle, "Pilot", null, null, null)));
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(idle), index.available("Pilot", duty(9, 10)));
+        assertEquals(DAY.plusHours(7), index.duties(pilot).get(0).start());
+    }
+
+    @Test
+    void test_dutyTree_matchesALinearScan() {
+        SplittableRandom random = new SplittableRandom(11);
+        List<CrewDuty> duties = new ArrayList<>();
+        for(int i = 0; i < 500; i++) {
+            int start = random.nextInt(10_000);
+            duties.add(new CrewDuty(UUID.randomUUID(), DAY.plusMinutes(start), DAY.plusMinutes(start + 1 + random.nextInt(600))));
+        }
+        CrewRosterIndex.DutyTree tree = CrewRosterIndex.DutyTree.of(duties);
+
+        for(int query = 0; query < 200; query++) {
+            int from = random.nextInt(10_000);
+            int to = from + 1 + random.nextInt(900);
+            Set<CrewDuty> expected = new HashSet<>();
+            for(CrewDuty duty : duties) {
+                if(duty.start().isBefore(DAY.plusMinutes(to)) && duty.end().isAfter(DAY.plusMinutes(from))) {
+                    expected.add(duty);
+                }
+            }
+
+            List<CrewDuty> found = tree.overlapping(seconds(from), seconds(to));
+            assertEquals(expected, Set.copyOf(found));
+            assertEquals(!expected.isEmpty(), tree.anyOverlapping(seconds(from), seconds(to), null));
+        }
+    }
+
+    private static long seconds(int minutes) {
+        return DAY.plusMinutes(minutes).toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,153 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.event.FlightChangedEvent.ChangeType;
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.repository.FlightRepository;
+
+public class FlightSearchIndexTest {
+    @Mock private FlightRepository flightRepo;
+    @InjectMocks private FlightSearchIndex searchIndex;
+
+    private Airport luton;
+    private Airport gatwick;
+    private Airline airline;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        luton = new Airport("LUT", "Luton", "UK");
+        gatwick = new Airport("LGW", "Gatwick", "UK");
+        airline = new Airline("Test-airline", "TA");
+    }
+
+    private Flight flight(String number, LocalDateTime departure, Airport origin, Airport destination) {
+        Flight flight = new Flight(number, departure, departure.plusHours(2), origin, destination, airline);
+        flight.setId(UUID.randomUUID());
+        return flight;
+    }
+
+    private List<String> flightNumbers(List<FlightSearchEntry> entries) {
+        return entries.stream().map(FlightSearchEntry::flightNumber).toList();
+    }
+
+    @Test
+    void test_search_returnsFlightsForRouteAndDay_sortedByDeparture() {
+        LocalDate day = LocalDate.of(2024, 10, 10);
+        searchIndex.put(flight("TA3", day.atTime(18, 0), luton, gatwick));
+        searchIndex.put(flight("TA1", day.atTime(6, 0), luton, gatwick));
+        searchIndex.put(flight("TA2", day.atTime(12, 0), luton, gatwick));
+        searchIndex.put(flight("TA4", day.atTime(9, 0), gatwick, luton));
+        searchIndex.put(flight("TA5", day.plusDays(1).atTime(9, 0), luton, gatwick));
+
+        assertEquals(List.of("TA1", "TA2", "TA3"), flightNumbers(searchIndex.search("LUT", "LGW", day)));
+        assertEquals(List.of("TA4"), flightNumbers(searchIndex.search("LGW", "LUT", day)));
+        assertEquals(List.of("TA5"), flightNumbers(searchIndex.search("lut", "lgw", day.plusDays(1))));
+    }
+
+    @Test
+    void test_search_withTimeWindow_returnsOnlyDeparturesInsideWindow() {
+        LocalDate day = LocalDate.of(2024, 10, 10);
+        for(int hour = 0; hour < 24; hour++) {
+            searchIndex.put(flight("TA" + hour, day.atTime(hour, 0), luton, gatwick));
+        }
+
+        List<FlightSearchEntry> entries = searchIndex.search("LUT", "LGW", day, LocalTime.of(8, 0), LocalTime.of(11, 0));
+
+        assertEquals(List.of("TA8", "TA9", "TA10", "TA11"), flightNumbers(entries));
+    }
+
+    @Test
+    void test_search_returnsEmptyList_forUnknownRoute() {
+        assertTrue(searchIndex.search("LUT", "JFK", LocalDate.of(2024, 10, 10)).isEmpty());
+    }
+
+    @Test
+    void test_onFlightChanged_movesUpdatedFlightToNewKey() {
+        LocalDate day = LocalDate.of(2024, 10, 10);
+        Flight flight = flight("TA1", day.atTime(6, 0), luton, gatwick);
+        searchIndex.onFlightChanged(new FlightChangedEvent(flight, ChangeType.CREATED));
+
+        flight.setDepartureTime(day.plusDays(2).atTime(7, 0));
+        searchIndex.onFlightChanged(new FlightChangedEvent(flight, ChangeType.UPDATED));
+
+        assertTrue(searchIndex.search("LUT", "LGW", day).isEmpty());
+        assertEquals(List.of("TA1"), flightNumbers(searchIndex.search("LUT", "LGW", day.plusDays(2))));
+        assertEquals(1, searchIndex.size());
+    }
+
+    @Test
+    void test_onFlightChanged_removesDeletedFlight() {
+        LocalDate day = LocalDate.of(2024, 10, 10);
+        Flight flight = flight("TA1", day.atTime(6, 0), luton, gatwick);
+        searchIndex.put(flight);
+        searchIndex.put(flight("TA2", day.atTime(7, 0), luton, gatwick));
+
+        searchIndex.onFlightChanged(new FlightChangedEvent(flight, ChangeType.DELETED));
+
+        assertEquals(List.of("TA2"), flightNumbers(searchIndex.search("LUT", "LGW", day)));
+    }
+
+    @Test
+    void test_rebuild_loadsFlightsFromRepository() {
+        LocalDate day = LocalDate.of(2024, 10, 10);
+        when(flightRepo.findAllWithSchedule()).thenReturn(List.of(
+                flight("TA1", day.atTime(6, 0), luton, gatwick),
+                flight("TA2", day.atTime(7, 0), gatwick, luton)));
+
+        searchIndex.rebuild();
+
+        assertEquals(2, searchIndex.size());
+        assertEquals(List.of("TA2"), flightNumbers(searchIndex.search("LGW", "LUT", day)));
+    }
+
+    @Test
+    void test_put_concurrentMovesOfOneFlight_leaveItUnderExactlyOneDay() throws Exception {
+        LocalDate day = LocalDate.of(2024, 10, 10);
+        UUID flightId = UUID.randomUUID();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> puts = new ArrayList<>();
+            for(int i = 0; i < 400; i++) {
+                Flight moved = flight("TA1", day.plusDays(i % 4).atTime(6, 0), luton, gatwick);
+                moved.setId(flightId);
+                puts.add(pool.submit(() -> searchIndex.put(moved)));
+            }
+            for(Future<?> put : puts) {
+                put.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int listed = 0;
+        for(int i = 0; i < 4; i++) {
+            listed += searchIndex.search("LUT", "LGW", day.plusDays(i)).size();
+        }
+        assertEquals(1, listed);
+        assertEquals(1, searchIndex.size());
+    }
+}
@@ -2,38 +2,67 @@ package com.bvcott.airlines.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.bvcott.airlines.cache.AirlineLookupCache;
+import com.bvcott.airlines.cache.AirportLookupCache;
+import com.bvcott.airlines.event.FlightChangedEvent;
+import com.bvcott.airlines.event.FlightChangedEvent.ChangeType;
 import com.bvcott.airlines.exception.AirlineNotFoundException;
 import com.bvcott.airlines.exception.AirportNotFoundException;
+import com.bvcott.airlines.exception.FlightNotFoundException;
+import com.bvcott.airlines.exception.SeatMapNotFoundException;
 import com.bvcott.airlines.model.Airline;
 import com.bvcott.airlines.model.Airport;
 import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.FlightStatus;
+import com.bvcott.airlines.projection.AirportBoardEntry;
 import com.bvcott.airlines.repository.AirlineRepository;
 import com.bvcott.airlines.repository.AirportRepository;
 import com.bvcott.airlines.repository.FlightRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 public class FlightServiceTest {
     @Mock private FlightRepository flightRepo;
     @Mock private AirlineRepository airlineRepo;
     @Mock private AirportRepository airportRepo;
-    @InjectMocks private FlightService flightService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private AirportBoardIndex boardIndex;
+    @Mock private SeatMapService seatMaps;
+    private FlightService flightService;
 
     @BeforeEach
     void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        flightService = new FlightService(flightRepo,
+            new AirlineLookupCache(airlineRepo, 100, Duration.ofMinutes(10), meterRegistry),
+            new AirportLookupCache(airportRepo, 100, Duration.ofMinutes(10), meterRegistry),
+            eventPublisher, transactionManager,
+            new OptimisticRetry(meterRegistry, 3, Duration.ofMillis(5), Duration.ofMillis(50), nanos -> {}),
+            boardIndex, seatMaps);
     }
 
     @Test
@@ -247,6 +276,220 @@ public class FlightServiceTest {
         verify(flightRepo).save(flight);
     }
 
-    
+    @Test
+    void test_createFlight_publishesCreatedEvent() {
+        LocalDateTime departure = LocalDateTime.of(2024, 10, 10, 6, 30);
+        LocalDateTime arrival = LocalDateTime.of(2024, 10, 10, 9, 45);
+        Airport origin = new Airport("LUT", "Luton", "UK");
+        origin.setId(UUID.randomUUID());
+        Airport destination = new Airport("LGW", "Gatwick", "UK");
+        destination.setId(UUID.randomUUID());
+        Airline airline = new Airline("Test-airline", "TA");
+        Flight flight = new Flight("MH370", departure, arrival, origin, destination, airline);
+
+        when(airportRepo.findById(origin.getId())).thenReturn(Optional.of(origin));
+        when(airportRepo.findById(destination.getId())).thenReturn(Optional.of(destination));
+        when(airlineRepo.findById(airline.getId())).thenReturn(Optional.of(airline));
+        when(flightRepo.save(flight)).thenReturn(flight);
+
+        flightService.createFlight(flight);
+
+        verify(eventPublisher).publishEvent(new FlightChangedEvent(flight, ChangeType.CREATED));
+    }
+
+    @Test
+    void test_createFlight_doesNotPublishEvent_whenValidationFails() {
+        LocalDateTime departure = LocalDateTime.of(2024, 10, 10, 6, 30);
+        Flight flight = new Flight("MH370", departure, null, new Airport("LUT", "Luton", "UK"),
+                new Airport("LGW", "Gatwick", "UK"), new Airline("Test-airline", "TA"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> flightService.createFlight(flight));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private Flight routedFlight(String flightNumber, String aircraftType) {
+        Airport origin = new Airport("LUT", "Luton", "UK");
+        origin.setId(UUID.randomUUID());
+        Airport destination = new Airport("LGW", "Gatwick", "UK");
+        destination.setId(UUID.randomUUID());
+        Airline airline = new Airline("Test-airline", "TA");
+        Flight flight = new Flight(flightNumber, LocalDateTime.of(2024, 10, 10, 6, 30), LocalDateTime.of(2024, 10, 10, 9, 45),
+                origin, destination, airline);
+        flight.setAircraftType(aircraftType);
+
+        when(airportRepo.findById(origin.getId())).thenReturn(Optional.of(origin));
+        when(airportRepo.findById(destination.getId())).thenReturn(Optional.of(destination));
+        when(airlineRepo.findById(airline.getId())).thenReturn(Optional.of(airline));
+        return flight;
+    }
+
+    @Test
+    void test_createFlight_materializesSeats_whenAircraftTypeIsSet() {
+        Flight flight = routedFlight("MH370", "A320");
+        when(flightRepo.saveAndFlush(flight)).thenReturn(flight);
+
+        flightService.createFlight(flight);
+
+        verify(seatMaps).materialize(List.of(flight));
+        verify(eventPublisher).publishEvent(new FlightChangedEvent(flight, ChangeType.CREATED));
+    }
+
+    @Test
+    void test_createFlight_throwsSeatMapNotFoundException_forUnknownAircraftType() {
+        Flight flight = routedFlight("MH370", "X999");
+        when(seatMaps.template("X999")).thenThrow(new SeatMapNotFoundException("Seat map not found for aircraft type: X999"));
+
+        assertThrows(SeatMapNotFoundException.class, () -> flightService.createFlight(flight));
+        verify(flightRepo, never()).saveAndFlush(any());
+        verify(seatMaps, never()).materialize(any());
+    }
+
+    @Test
+    void test_scheduleFlights_materializesSeatsOfTypedFlights_andPublishesEachFlight() {
+        Flight typed = routedFlight("TA100", "A320");
+        Flight untyped = routedFlight("TA200", null);
+        when(flightRepo.saveAll(List.of(typed, untyped))).thenReturn(List.of(typed, untyped));
+
+        assertEquals(2, flightService.scheduleFlights(List.of(typed, untyped)).size());
 
+        verify(flightRepo).flush();
+        verify(seatMaps).materialize(List.of(typed));
+        verify(eventPublisher).publishEvent(new FlightChangedEvent(typed, ChangeType.CREATED));
+        verify(eventPublisher).publishEvent(new FlightChangedEvent(untyped, ChangeType.CREATED));
+    }
+
+    @Test
+    void test_retrieveById_throwsFlightNotFoundException_whenFlightNotFound() {
+        UUID id = UUID.randomUUID();
+        when(flightRepo.findById(id)).thenReturn(Optional.empty());
+
+        assertThrows(FlightNotFoundException.class, () -> flightService.retrieveById(id));
+    }
+
+    @Test
+    void test_updateFlight_throwsFlightNotFoundException_whenFlightNotFound() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime departure = LocalDateTime.of(2024, 10, 10, 6, 30);
+        LocalDateTime arrival = LocalDateTime.of(2024, 10, 10, 9, 45);
+        Flight flight = new Flight("MH370", departure, arrival, new Airport("LUT", "Luton", "UK"),
+                new Airport("LGW", "Gatwick", "UK"), new Airline("Test-airline", "TA"));
+
+        when(flightRepo.findById(id)).thenReturn(Optional.empty());
+
+        assertThrows(FlightNotFoundException.class, () -> flightService.updateFlight(id, flight));
+    }
+
+    @Test
+    void test_updateFlight_throwsDataIntegrityViolationException_ifArrivalIsBeforeDeparture() {
+        LocalDateTime departure = LocalDateTime.of(2024, 10, 10, 9, 30);
+        LocalDateTime arrival = LocalDateTime.of(2024, 10, 10, 4, 45);
+        Flight flight = new Flight("MH370", departure, arrival, new Airport("LUT", "Luton", "UK"),
+                new Airport("LGW", "Gatwick", "UK"), new Airline("Test-airline", "TA"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> flightService.updateFlight(UUID.randomUUID(), flight));
+    }
+
+    @Test
+    void test_updateFlight_copiesScheduleAndPublishesUpdatedEvent() {
+        UUID id = UUID.randomUUID();
+        Airport origin = new Airport("LUT", "Luton", "UK");
+        origin.setId(UUID.randomUUID());
+        Airport destination = new Airport("LGW", "Gatwick", "UK");
+        destination.setId(UUID.randomUUID());
+        Airline airline = new Airline("Test-airline", "TA");
+
+        Flight existing = new Flight("MH370", LocalDateTime.of(2024, 10, 10, 6, 30),
+                LocalDateTime.of(2024, 10, 10, 9, 45), origin, destination, airline);
+        Flight changes = new Flight("MH371", LocalDateTime.of(2024, 10, 11, 7, 0),
+                LocalDateTime.of(2024, 10, 11, 10, 0), destination, origin, airline);
+
+        when(flightRepo.findById(id)).thenReturn(Optional.of(existing));
+        when(airportRepo.findById(origin.getId())).thenReturn(Optional.of(origin));
+        when(airportRepo.findById(destination.getId())).thenReturn(Optional.of(destination));
+        when(airlineRepo.findById(airline.getId())).thenReturn(Optional.of(airline));
+        when(flightRepo.save(existing)).thenReturn(existing);
+
+        Flight updated = flightService.updateFlight(id, changes);
+
+        assertEquals("MH371", updated.getFlightNumber());
+        assertEquals(changes.getDepartureTime(), updated.getDepartureTime());
+        assertEquals(destination, updated.getOrigin());
+        assertEquals(origin, updated.getDestination());
+        verify(eventPublisher).publishEvent(argThat((FlightChangedEvent event) ->
+                event.flight() == existing && event.type() == ChangeType.UPDATED));
+    }
+
+    @Test
+    void test_updateFlight_retriesAfterVersionConflict_andPublishesOnce() {
+        UUID id = UUID.randomUUID();
+        Airport origin = new Airport("LUT", "Luton", "UK");
+        origin.setId(UUID.randomUUID());
+        Airport destination = new Airport("LGW", "Gatwick", "UK");
+        destination.setId(UUID.randomUUID());
+        Airline airline = new Airline("Test-airline", "TA");
+
+        Flight existing = new Flight("MH370", LocalDateTime.of(2024, 10, 10, 6, 30),
+                LocalDateTime.of(2024, 10, 10, 9, 45), origin, destination, airline);
+        Flight changes = new Flight("MH371", LocalDateTime.of(2024, 10, 11, 7, 0),
+                LocalDateTime.of(2024, 10, 11, 10, 0), origin, destination, airline);
+
+        when(flightRepo.findById(id)).thenReturn(Optional.of(existing));
+        when(airportRepo.findById(origin.getId())).thenReturn(Optional.of(origin));
+        when(airportRepo.findById(destination.getId())).thenReturn(Optional.of(destination));
+        when(airlineRepo.findById(airline.getId())).thenReturn(Optional.of(airline));
+        when(flightRepo.save(existing))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Flight.class, id))
+            .thenReturn(existing);
+
+        flightService.updateFlight(id, changes);
+
+        verify(flightRepo, times(2)).findById(id);
+        verify(eventPublisher, times(1)).publishEvent(any(FlightChangedEvent.class));
+    }
+
+    @Test
+    void test_deleteById_deletesAndPublishesDeletedEvent() {
+        UUID id = UUID.randomUUID();
+        Flight existing = new Flight("MH370", LocalDateTime.of(2024, 10, 10, 6, 30),
+                LocalDateTime.of(2024, 10, 10, 9, 45), new Airport("LUT", "Luton", "UK"),
+                new Airport("LGW", "Gatwick", "UK"), new Airline("Test-airline", "TA"));
+
+        when(flightRepo.findById(id)).thenReturn(Optional.of(existing));
+
+        flightService.deleteById(id);
+
+        verify(flightRepo).deleteById(id);
+        verify(eventPublisher).publishEvent(new FlightChangedEvent(existing, ChangeType.DELETED));
+    }
+
+    @Test
+    void test_deleteById_throwsFlightNotFoundException_whenFlightNotFound() {
+        UUID id = UUID.randomUUID();
+        when(flightRepo.findById(id)).thenReturn(Optional.empty());
+
+        assertThrows(FlightNotFoundException.class, () -> flightService.deleteById(id));
+        verify(flightRepo, never()).deleteById(id);
+    }
+
+    @Test
+    void test_departureBoard_readsTheLiveBoard_whenItCoversTheWindow() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        List<AirportBoardEntry> board = List.of(new AirportBoardEntry(UUID.randomUUID(), "BA1", "BA", "MAD", from.plusHours(1), FlightStatus.SCHEDULED));
+        when(boardIndex.covers(from, from.plusHours(4))).thenReturn(true);
+        when(boardIndex.departures("LHR", from, from.plusHours(4))).thenReturn(board);
+
+        assertEquals(board, flightService.departureBoard("LHR", from, from.plusHours(4)));
+        verify(flightRepo, never()).findDepartureBoard(any(), any(), any());
+    }
+
+    @Test
+    void test_arrivalBoard_queriesTheSchedule_whenOutsideTheLiveBoard() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(boardIndex.covers(from, from.plusDays(7))).thenReturn(false);
+
+        flightService.arrivalBoard("LHR", from, from.plusDays(7));
+
+        verify(flightRepo).findArrivalBoard("LHR", from, from.plusDays(7));
+        verify(boardIndex, never()).arrivals(any(), any(), any());
+    }
 }
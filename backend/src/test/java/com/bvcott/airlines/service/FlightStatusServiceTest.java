@@ -0,0 +1,106 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bvcott.airlines.event.FlightStatusChange;
+import com.bvcott.airlines.exception.FlightNotFoundException;
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Booking;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.FlightStatus;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.repository.BookingRepository;
+import com.bvcott.airlines.repository.FlightRepository;
+
+@SpringBootTest
+@Transactional
+public class FlightStatusServiceTest {
+    @Autowired private AirlineRepository airlineRepo;
+    @Autowired private AirportRepository airportRepo;
+    @Autowired private FlightRepository flightRepo;
+    @Autowired private BookingRepository bookingRepo;
+    @Autowired private FlightStatusService statusService;
+    @Autowired private FlightStatusStream statusStream;
+
+    private Flight flight() {
+        String suffix = UUID.randomUUID().toString().substring(0, 6);
+        Airline airline = airlineRepo.save(new Airline("Status Air " + suffix, "S" + suffix));
+        Airport origin = airportRepo.save(new Airport("O" + suffix, "Origin " + suffix, "Test"));
+        Airport destination = airportRepo.save(new Airport("D" + suffix, "Destination " + suffix, "Test"));
+        return flightRepo.save(new Flight("ST1", LocalDateTime.of(2030, 8, 1, 9, 0), LocalDateTime.of(2030, 8, 1, 11, 0), origin, destination, airline));
+    }
+
+    @Test
+    void test_createFlight_startsScheduled() {
+        Flight flight = flight();
+
+        assertEquals(FlightStatus.SCHEDULED, statusService.currentStatus(flight.getId()));
+    }
+
+    @Test
+    void test_updateStatus_changesTheFlightAndLeavesBookingsAlone() {
+        Flight flight = flight();
+        List<Booking> bookings = bookingRepo.saveAll(List.of(
+                new Booking(flight, BookingPipeline.CONFIRMED), new Booking(flight, BookingPipeline.CONFIRMED)));
+        bookingRepo.flush();
+        List<Long> versions = bookings.stream().map(Booking::getVersion).toList();
+
+        statusService.updateStatus(flight.getId(), FlightStatus.DELAYED);
+
+        assertEquals(FlightStatus.DELAYED, flightRepo.findById(flight.getId()).orElseThrow().getStatus());
+        assertEquals(versions, bookingRepo.findAllById(bookings.stream().map(Booking::getId).toList()).stream()
+                .map(Booking::getVersion).toList());
+    }
+
+    @Test
+    void test_updateStatus_publishesTheChange() throws InterruptedException {
+        Flight flight = flight();
+        List<FlightStatusChange> received = new CopyOnWriteArrayList<>();
+        FlightStatusStream.Subscription subscription = statusStream.subscribe(flight.getId(), received::add);
+
+        try {
+            statusService.updateStatus(flight.getId(), FlightStatus.BOARDING);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while(received.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, received.size());
+            assertEquals(FlightStatus.BOARDING, received.get(0).status());
+        } finally {
+            subscription.cancel();
+        }
+    }
+
+    @Test
+    void test_currentStatusChange_carriesWhenTheStatusTookEffect() {
+        Flight flight = flight();
+        flightRepo.flush();
+        assertEquals(FlightStatus.SCHEDULED, statusService.currentStatusChange(flight.getId()).status());
+        assertNotNull(statusService.currentStatusChange(flight.getId()).changedAt());
+
+        FlightStatusChange change = statusService.updateStatus(flight.getId(), FlightStatus.DELAYED);
+
+        assertEquals(change, statusService.currentStatusChange(flight.getId()));
+    }
+
+    @Test
+    void test_updateStatus_unknownFlight_throws() {
+        assertThrows(FlightNotFoundException.class, () -> statusService.updateStatus(UUID.randomUUID(), FlightStatus.DELAYED));
+    }
+}
@@ -0,0 +1,160 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bvcott.airlines.event.FlightStatusChange;
+import com.bvcott.airlines.model.FlightStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class FlightStatusStreamTest {
+    private SimpleMeterRegistry meterRegistry;
+    private FlightStatusStream stream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stream = new FlightStatusStream(meterRegistry, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    private static FlightStatusChange change(UUID flightId, FlightStatus status) {
+        return new FlightStatusChange(flightId, status, Instant.now());
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(size, list.size());
+    }
+
+    @Test
+    void test_publish_reachesEverySubscriberOfTheFlight() throws InterruptedException {
+        UUID flightId = UUID.randomUUID();
+        List<FlightStatusChange> first = new CopyOnWriteArrayList<>();
+        List<FlightStatusChange> second = new CopyOnWriteArrayList<>();
+        List<FlightStatusChange> everything = new CopyOnWriteArrayList<>();
+        stream.subscribe(flightId, first::add);
+        stream.subscribe(flightId, second::add);
+        stream.subscribe(null, everything::add);
+
+        stream.publish(change(flightId, FlightStatus.DELAYED));
+        stream.publish(change(UUID.randomUUID(), FlightStatus.BOARDING));
+
+        awaitSize(first, 1);
+        awaitSize(second, 1);
+        awaitSize(everything, 2);
+        assertEquals(FlightStatus.DELAYED, first.get(0).status());
+    }
+
+    @Test
+    void test_publish_slowSubscriber_onlyGetsTheLatestStatus() throws InterruptedException {
+        UUID flightId = UUID.randomUUID();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<FlightStatusChange> received = new CopyOnWriteArrayList<>();
+        stream.subscribe(flightId, change -> {
+            received.add(change);
+            blocked.countDown();
+            try {
+                release.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        stream.publish(change(flightId, FlightStatus.ON_TIME));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        stream.publish(change(flightId, FlightStatus.DELAYED));
+        stream.publish(change(flightId, FlightStatus.BOARDING));
+        stream.publish(change(flightId, FlightStatus.DEPARTED));
+        release.countDown();
+
+        awaitSize(received, 2);
+        assertEquals(List.of(FlightStatus.ON_TIME, FlightStatus.DEPARTED), received.stream().map(FlightStatusChange::status).toList());
+        assertEquals(2.0, meterRegistry.counter("flight.status.changes", "outcome", "coalesced").count());
+    }
+
+    @Test
+    void test_publish_failingSubscriber_isCancelled() throws InterruptedException {
+        UUID flightId = UUID.randomUUID();
+        List<FlightStatusChange> healthy = new CopyOnWriteArrayList<>();
+        stream.subscribe(flightId, change -> { throw new IllegalStateException("client went away"); });
+        stream.subscribe(flightId, healthy::add);
+
+        stream.publish(change(flightId, FlightStatus.CANCELLED));
+
+        awaitSize(healthy, 1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(stream.subscriberCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, stream.subscriberCount());
+    }
+
+    @Test
+    void test_subscribe_onOwnExecutor_blockingConsumerDoesNotHoldTheSharedPool() throws InterruptedException {
+        UUID flightId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService ownExecutor = Executors.newSingleThreadExecutor();
+        List<FlightStatusChange> blocked = new CopyOnWriteArrayList<>();
+        List<FlightStatusChange> others = new CopyOnWriteArrayList<>();
+        try {
+            // More blocking subscribers than the shared pool has threads.
+            for(int i = 0; i < 3; i++) {
+                stream.subscribe(flightId, change -> {
+                    blocked.add(change);
+                    try {
+                        release.await();
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, ownExecutor);
+            }
+            stream.subscribe(flightId, others::add);
+
+            stream.publish(change(flightId, FlightStatus.BOARDING));
+
+            awaitSize(others, 1);
+            awaitSize(blocked, 1);
+        } finally {
+            release.countDown();
+            ownExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void test_cancel_stopsDelivery() throws InterruptedException {
+        UUID flightId = UUID.randomUUID();
+        List<FlightStatusChange> cancelled = new CopyOnWriteArrayList<>();
+        List<FlightStatusChange> active = new CopyOnWriteArrayList<>();
+        stream.subscribe(flightId, cancelled::add).cancel();
+        stream.subscribe(flightId, active::add);
+
+        stream.publish(change(flightId, FlightStatus.ARRIVED));
+
+        awaitSize(active, 1);
+        assertTrue(cancelled.isEmpty());
+        assertEquals(1, stream.subscriberCount());
+    }
+}
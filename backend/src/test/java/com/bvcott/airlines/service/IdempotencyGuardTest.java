@@ -0,0 +1,159 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.bvcott.airlines.model.IdempotencyRecord;
+import com.bvcott.airlines.repository.IdempotencyRecordRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+public class IdempotencyGuardTest {
+    private static final Instant NOW = Instant.parse("2030-01-01T12:00:00Z");
+
+    @Mock private IdempotencyRecordRepository recordRepo;
+    @Mock private EntityManager entityManager;
+
+    private SimpleMeterRegistry registry;
+    private IdempotencyGuard guard;
+    private AtomicInteger writes;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        guard = new IdempotencyGuard(recordRepo, entityManager, registry, 100, Duration.ofHours(24), Clock.fixed(NOW, ZoneOffset.UTC));
+        writes = new AtomicInteger();
+        when(recordRepo.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    private UUID write(UUID result) {
+        writes.incrementAndGet();
+        return result;
+    }
+
+    private UUID execute(String key, UUID result) {
+        return guard.execute("test", key, id -> id, id -> id, () -> write(result));
+    }
+
+    @Test
+    void test_execute_repeatedKey_returnsOriginalResultWithoutWritingAgain() {
+        UUID original = UUID.randomUUID();
+
+        assertEquals(original, execute("key-1", original));
+        assertEquals(original, execute("key-1", UUID.randomUUID()));
+
+        assertEquals(1, writes.get());
+        assertEquals(1, registry.counter("idempotency.requests", "outcome", "replayed").count());
+    }
+
+    @Test
+    void test_execute_differentKeys_writeEachTime() {
+        execute("key-1", UUID.randomUUID());
+        execute("key-2", UUID.randomUUID());
+        execute(null, UUID.randomUUID());
+
+        assertEquals(3, writes.get());
+    }
+
+    @Test
+    void test_submit_concurrentRepeat_waitsForTheFirstWrite() throws Exception {
+        UUID original = UUID.randomUUID();
+        CompletableFuture<UUID> inFlight = new CompletableFuture<>();
+
+        CompletableFuture<UUID> first = guard.submit("test", "key-1", id -> id, id -> id, () -> {
+            writes.incrementAndGet();
+            return inFlight;
+        });
+        CompletableFuture<UUID> repeat = guard.submit("test", "key-1", id -> id, id -> id, () -> {
+            writes.incrementAndGet();
+            return CompletableFuture.completedFuture(UUID.randomUUID());
+        });
+
+        assertFalse(repeat.isDone());
+        inFlight.complete(original);
+
+        assertEquals(original, first.get(5, TimeUnit.SECONDS));
+        assertEquals(original, repeat.get(5, TimeUnit.SECONDS));
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void test_execute_failedWrite_letsTheKeyBeRetried() {
+        assertThrows(IllegalStateException.class, () -> guard.execute("test", "key-1", id -> id, id -> id, () -> {
+            writes.incrementAndGet();
+            throw new IllegalStateException("gateway down");
+        }));
+
+        UUID retried = UUID.randomUUID();
+        assertEquals(retried, execute("key-1", retried));
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    void test_execute_keyEvictedFromMemory_isAnsweredFromTheRecord() {
+        UUID original = UUID.randomUUID();
+        when(recordRepo.findById("test:key-1")).thenReturn(Optional.of(new IdempotencyRecord("test:key-1", original, NOW.minusSeconds(60))));
+
+        assertEquals(original, execute("key-1", UUID.randomUUID()));
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void test_execute_recordOlderThanRetention_isIgnored() {
+        when(recordRepo.findById("test:key-1"))
+            .thenReturn(Optional.of(new IdempotencyRecord("test:key-1", UUID.randomUUID(), NOW.minus(Duration.ofHours(25)))));
+        UUID fresh = UUID.randomUUID();
+
+        assertEquals(fresh, execute("key-1", fresh));
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void test_execute_keyCommittedElsewhereFirst_returnsThatResult() {
+        UUID winner = UUID.randomUUID();
+        when(recordRepo.findById("test:key-1"))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(new IdempotencyRecord("test:key-1", winner, NOW)));
+
+        UUID result = guard.execute("test", "key-1", id -> id, id -> id, () -> {
+            throw new DataIntegrityViolationException("duplicate idempotency key");
+        });
+
+        assertEquals(winner, result);
+    }
+
+    @Test
+    void test_execute_rejectsOverlongKey() {
+        assertThrows(IllegalArgumentException.class, () -> execute("k".repeat(IdempotencyGuard.MAX_KEY_LENGTH + 1), UUID.randomUUID()));
+        assertThrows(IllegalArgumentException.class, () -> execute(" ", UUID.randomUUID()));
+    }
+
+    @Test
+    void test_purgeExpired_deletesRecordsOlderThanRetention() {
+        guard.purgeExpired();
+
+        verify(recordRepo).deleteCreatedBefore(NOW.minus(Duration.ofHours(24)));
+    }
+}
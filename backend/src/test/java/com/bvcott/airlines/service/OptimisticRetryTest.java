@@ -0,0 +1,128 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.bvcott.airlines.model.Seat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class OptimisticRetryTest {
+    private static final Duration INITIAL_BACKOFF = Duration.ofMillis(5);
+    private static final Duration MAX_BACKOFF = Duration.ofMillis(40);
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Long> sleeps;
+    private OptimisticRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sleeps = new ArrayList<>();
+        retry = new OptimisticRetry(meterRegistry, 4, INITIAL_BACKOFF, MAX_BACKOFF, sleeps::add);
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Seat.class, UUID.randomUUID());
+    }
+
+    @Test
+    void test_run_retriesConflicts_untilWriteSucceeds() {
+        UUID flightId = UUID.randomUUID();
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.run(flightId, () -> {
+            if(attempts.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "written";
+        });
+
+        assertEquals("written", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, sleeps.size());
+        assertEquals(2, retry.conflicts(flightId));
+        assertEquals(2, meterRegistry.counter("optimistic.conflicts", "outcome", "retried").count());
+    }
+
+    @Test
+    void test_run_countsConflictsAgainstEveryFlightOfTheWrite() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        AtomicInteger attempts = new AtomicInteger();
+
+        retry.run(List.of(first, second), () -> {
+            if(attempts.incrementAndGet() < 2) {
+                throw conflict();
+            }
+            return "written";
+        });
+
+        assertEquals(1, retry.conflicts(first));
+        assertEquals(1, retry.conflicts(second));
+        assertEquals(1, meterRegistry.counter("optimistic.conflicts", "outcome", "retried").count());
+    }
+
+    @Test
+    void test_run_rethrowsLastConflict_afterMaxAttempts() {
+        UUID flightId = UUID.randomUUID();
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.run(flightId, () -> {
+            attempts.incrementAndGet();
+            throw conflict();
+        }));
+
+        assertEquals(4, attempts.get());
+        assertEquals(3, sleeps.size());
+        assertEquals(1, meterRegistry.counter("optimistic.conflicts", "outcome", "exhausted").count());
+    }
+
+    @Test
+    void test_run_doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.run(UUID.randomUUID(), () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("not a conflict");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    void test_backoff_staysBelowExponentialCeiling() {
+        for(int i = 0; i < 100; i++) {
+            assertTrue(retry.backoff(1) <= INITIAL_BACKOFF.toNanos());
+            assertTrue(retry.backoff(2) <= 2 * INITIAL_BACKOFF.toNanos());
+            assertTrue(retry.backoff(10) <= MAX_BACKOFF.toNanos());
+        }
+    }
+
+    @Test
+    void test_hottestFlights_ordersByConflictCount() {
+        UUID hot = UUID.randomUUID();
+        UUID warm = UUID.randomUUID();
+        retry = new OptimisticRetry(meterRegistry, 1, INITIAL_BACKOFF, MAX_BACKOFF, sleeps::add);
+
+        for(int i = 0; i < 3; i++) {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.run(hot, () -> { throw conflict(); }));
+        }
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.run(warm, () -> { throw conflict(); }));
+
+        assertEquals(List.of(hot, warm), new ArrayList<>(retry.hottestFlights(5).keySet()));
+        assertEquals(3, retry.hottestFlights(1).get(hot));
+    }
+}
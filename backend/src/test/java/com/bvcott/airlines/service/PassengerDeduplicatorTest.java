@@ -0,0 +1,98 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.Currency;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bvcott.airlines.model.Booking;
+import com.bvcott.airlines.model.Passenger;
+import com.bvcott.airlines.model.Ticket;
+import com.bvcott.airlines.pricing.Money;
+import com.bvcott.airlines.repository.BookingRepository;
+import com.bvcott.airlines.repository.PassengerRepository;
+import com.bvcott.airlines.repository.TicketRepository;
+
+// Not transactional: the merge runs on its own threads, which only see committed rows.
+@SpringBootTest(properties = { "airlines.passenger-dedup.batch-size=2", "airlines.passenger-dedup.threads=2" })
+public class PassengerDeduplicatorTest {
+    @Autowired private PassengerDeduplicator deduplicator;
+    @Autowired private PassengerService passengerService;
+    @Autowired private PassengerRepository passengerRepo;
+    @Autowired private BookingRepository bookingRepo;
+    @Autowired private TicketRepository ticketRepo;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Passenger passenger(String passport) {
+        return passengerRepo.save(new Passenger("Duplicated Passenger", passport));
+    }
+
+    private Booking booking(Passenger... passengers) {
+        Booking booking = new Booking(null, "CONFIRMED");
+        for(Passenger passenger : passengers) {
+            booking.addPassenger(passenger);
+        }
+        return bookingRepo.save(booking);
+    }
+
+    private Set<UUID> passengersOf(Booking booking) {
+        return new TransactionTemplate(transactionManager).execute(status -> Set.copyOf(
+                bookingRepo.findById(booking.getId()).orElseThrow().getPassengers().stream().map(Passenger::getId).toList()));
+    }
+
+    private Set<UUID> ticketsOf(Booking booking) {
+        return Set.copyOf(ticketRepo.findByBookingId(booking.getId()).stream().map(Ticket::getId).toList());
+    }
+
+    private static Money fare() {
+        return Money.of("100.00", Currency.getInstance("EUR"));
+    }
+
+    @Test
+    void test_deduplicate_mergesPassengersIntoTheOldest_andRepointsBookingsAndTickets() {
+        String suffix = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        Passenger survivor = passenger("DP" + suffix);
+        Passenger duplicate = passenger("dp-" + suffix);
+        Passenger another = passenger("DP " + suffix);
+        Passenger stranger = passenger("XX" + suffix);
+        Booking first = booking(survivor, stranger);
+        Booking second = booking(duplicate);
+        Booking shared = booking(survivor, duplicate, another);
+        Ticket ticket = ticketRepo.save(new Ticket("DP" + suffix, second, duplicate, fare()));
+        // Issued for every listed traveller, so the shared booking holds a ticket for each copy.
+        Ticket sharedTicket = ticketRepo.save(new Ticket("DS" + suffix, shared, survivor, fare()));
+        ticketRepo.save(new Ticket("DD" + suffix, shared, duplicate, fare()));
+        ticketRepo.save(new Ticket("DA" + suffix, shared, another, fare()));
+        // More duplicated passports than one batch, so the run has to page through them.
+        for(int i = 0; i < 5; i++) {
+            passenger("PG" + i + suffix);
+            passenger("pg" + i + suffix);
+        }
+
+        assertTrue(deduplicator.deduplicate() >= 7);
+
+        assertEquals(survivor.getId(), passengerService.retrieveByPassport("DP" + suffix).getId());
+        assertFalse(passengerRepo.existsById(duplicate.getId()));
+        assertFalse(passengerRepo.existsById(another.getId()));
+        assertEquals(Set.of(survivor.getId(), stranger.getId()), passengersOf(first));
+        assertEquals(Set.of(survivor.getId()), passengersOf(second));
+        assertEquals(Set.of(survivor.getId()), passengersOf(shared));
+        assertEquals(survivor.getId(), new TransactionTemplate(transactionManager).execute(status ->
+                ticketRepo.findById(ticket.getId()).orElseThrow().getPassenger().getId()));
+        assertEquals(Set.of(sharedTicket.getId()), ticketsOf(shared));
+        for(int i = 0; i < 5; i++) {
+            Passenger kept = passengerService.retrieveByPassport("PG" + i + suffix);
+            assertEquals(1, passengerRepo.findByPassportHash(kept.getPassportHash()).size());
+        }
+        assertEquals(0, deduplicator.deduplicate());
+    }
+}
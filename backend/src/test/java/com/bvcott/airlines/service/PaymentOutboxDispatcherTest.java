@@ -0,0 +1,170 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bvcott.airlines.gateway.GatewayResponse;
+import com.bvcott.airlines.gateway.PaymentGateway;
+import com.bvcott.airlines.gateway.SimulatedPaymentGateway;
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Booking;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.Payment;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.repository.BookingRepository;
+import com.bvcott.airlines.repository.FlightRepository;
+import com.bvcott.airlines.repository.OutboxEventRepository;
+import com.bvcott.airlines.repository.PaymentRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The scheduled dispatcher is parked so each test drives its own.
+@SpringBootTest(properties = { "airlines.payment-outbox.poll-interval=PT1H" })
+public class PaymentOutboxDispatcherTest {
+    @Autowired private AirlineRepository airlineRepo;
+    @Autowired private AirportRepository airportRepo;
+    @Autowired private FlightRepository flightRepo;
+    @Autowired private BookingRepository bookingRepo;
+    @Autowired private PaymentRepository paymentRepo;
+    @Autowired private OutboxEventRepository outboxRepo;
+    @Autowired private PaymentService paymentService;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Flight flight;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepo.deleteAll();
+        String suffix = UUID.randomUUID().toString().substring(0, 6);
+        Airline airline = airlineRepo.save(new Airline("Outbox Air " + suffix, "X" + suffix));
+        Airport origin = airportRepo.save(new Airport("O" + suffix, "Origin " + suffix, "Test"));
+        Airport destination = airportRepo.save(new Airport("D" + suffix, "Destination " + suffix, "Test"));
+        flight = flightRepo.save(new Flight("OB1", LocalDateTime.of(2030, 6, 1, 9, 0), LocalDateTime.of(2030, 6, 1, 11, 0), origin, destination, airline));
+        registry = new SimpleMeterRegistry();
+    }
+
+    private List<UUID> createPayments(int count) {
+        List<UUID> paymentIds = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            Booking booking = bookingRepo.save(new Booking(flight, BookingPipeline.CONFIRMED));
+            paymentIds.add(paymentService.createPayment(null, booking.getId(), 100.0 + i).getId());
+        }
+        return paymentIds;
+    }
+
+    private PaymentOutboxDispatcher dispatcher(PaymentGateway gateway, int concurrency, int maxAttempts) {
+        return new PaymentOutboxDispatcher(outboxRepo, paymentRepo, gateway, transactionManager, registry, 100, concurrency, maxAttempts,
+                Duration.ofSeconds(10), Duration.ZERO, Duration.ZERO);
+    }
+
+    private String status(UUID paymentId) {
+        return paymentRepo.findById(paymentId).map(Payment::getStatus).orElseThrow();
+    }
+
+    @Test
+    void test_createPayment_leavesChargingToTheOutbox() {
+        UUID paymentId = createPayments(1).get(0);
+
+        assertEquals(PaymentService.PENDING, status(paymentId));
+        assertEquals(1, outboxRepo.count());
+    }
+
+    @Test
+    void test_dispatch_chargesPendingPaymentsWithBoundedConcurrency() {
+        List<UUID> paymentIds = createPayments(24);
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(Duration.ofMillis(20), 0.0, 0.0);
+        PaymentOutboxDispatcher dispatcher = dispatcher(gateway, 4, 3);
+
+        assertEquals(24, dispatcher.dispatch());
+
+        paymentIds.forEach(id -> assertEquals(PaymentOutboxDispatcher.COMPLETED, status(id)));
+        assertEquals(0, outboxRepo.count());
+        assertTrue(gateway.maxConcurrentCalls() <= 4);
+        assertTrue(gateway.maxConcurrentCalls() > 1);
+        assertEquals(0, dispatcher.dispatch());
+    }
+
+    @Test
+    void test_dispatch_retriesLostResponses_withoutChargingTwice() {
+        List<UUID> paymentIds = createPayments(10);
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(Duration.ZERO, 0.5, 0.0);
+        PaymentOutboxDispatcher dispatcher = dispatcher(gateway, 4, 50);
+
+        while(outboxRepo.count() > 0) {
+            dispatcher.dispatch();
+        }
+
+        paymentIds.forEach(id -> assertEquals(PaymentOutboxDispatcher.COMPLETED, status(id)));
+        assertEquals(10, gateway.chargeCount());
+        assertTrue(gateway.callCount() >= 10);
+    }
+
+    @Test
+    void test_dispatch_marksPaymentFailed_whenDeclinedOrOutOfAttempts() {
+        UUID declined = createPayments(1).get(0);
+        dispatcher(new SimulatedPaymentGateway(Duration.ZERO, 0.0, 1.0), 2, 3).dispatch();
+        assertEquals(PaymentOutboxDispatcher.FAILED, status(declined));
+
+        UUID unreachable = createPayments(1).get(0);
+        PaymentOutboxDispatcher dispatcher = dispatcher(new SimulatedPaymentGateway(Duration.ZERO, 1.0, 0.0), 2, 3);
+        for(int attempt = 1; attempt <= 3; attempt++) {
+            assertEquals(PaymentService.PENDING, status(unreachable));
+            dispatcher.dispatch();
+        }
+
+        assertEquals(PaymentOutboxDispatcher.FAILED, status(unreachable));
+        assertEquals(0, outboxRepo.count());
+        assertEquals(1, registry.counter("payment.outbox.dispatched", "outcome", "exhausted").count());
+    }
+
+    @Test
+    void test_dispatch_retriesLater_whenGatewayDoesNotAnswerInTime() {
+        UUID paymentId = createPayments(1).get(0);
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentGateway hanging = (id, amount) -> {
+            try {
+                release.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new GatewayResponse(true, "LATE-" + id);
+        };
+        PaymentOutboxDispatcher dispatcher = new PaymentOutboxDispatcher(outboxRepo, paymentRepo, hanging, transactionManager, registry,
+                100, 1, 3, Duration.ofMillis(200), Duration.ZERO, Duration.ZERO);
+
+        assertEquals(1, dispatcher.dispatch());
+
+        assertEquals(PaymentService.PENDING, status(paymentId));
+        assertEquals(1, outboxRepo.findAll().get(0).getAttempts());
+        assertEquals(1, registry.counter("payment.outbox.dispatched", "outcome", "unknown").count());
+        release.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void test_backoff_doublesUpToTheCap() {
+        PaymentOutboxDispatcher dispatcher = new PaymentOutboxDispatcher(outboxRepo, paymentRepo, new SimulatedPaymentGateway(Duration.ZERO, 0.0, 0.0),
+                transactionManager, registry, 100, 1, 3, Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+        assertEquals(Duration.ofSeconds(1), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(4), dispatcher.backoff(3));
+        assertEquals(Duration.ofSeconds(5), dispatcher.backoff(10));
+        dispatcher.shutdown();
+    }
+}
@@ -0,0 +1,161 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.CrewMember;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.repository.FlightRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Statement budgets for the read paths. Each service call runs outside a
+ * transaction, the way callers use it, and fails if lazy loading or a
+ * collection walk sneaks extra statements in. Background pollers are parked
+ * so their statements don't land in the counts.
+ */
+@SpringBootTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true", "airlines.payment-outbox.poll-interval=PT1H" })
+public class QueryCountTest {
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2030, 3, 1, 6, 0);
+    private static final int FLIGHTS = 10;
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private AirlineRepository airlineRepo;
+    @Autowired private AirportRepository airportRepo;
+    @Autowired private FlightRepository flightRepo;
+    @Autowired private FlightService flightService;
+    @Autowired private AirlineService airlineService;
+    @Autowired private CrewMemberService crewService;
+    @Autowired private FlightSearchIndex searchIndex;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Airline airline;
+    private Airport origin;
+    private Airport destination;
+    private List<Flight> flights;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 6);
+        airline = airlineRepo.save(new Airline("Count Air " + suffix, "C" + suffix));
+        origin = airportRepo.save(new Airport("O" + suffix, "Origin " + suffix, "Test"));
+        destination = airportRepo.save(new Airport("D" + suffix, "Destination " + suffix, "Test"));
+
+        flights = new ArrayList<>();
+        for(int i = 0; i < FLIGHTS; i++) {
+            Flight flight = new Flight("CA" + i, DEPARTURE.plusHours(i), DEPARTURE.plusHours(i + 2), origin, destination, airline);
+            for(int seat = 1; seat <= 3; seat++) {
+                flight.getSeats().add(new Seat(seat + "A", "Economy", flight));
+            }
+            flight.addCrewMember(new CrewMember("Pilot " + i, "Pilot"));
+            flight.addCrewMember(new CrewMember("Attendant " + i, "Flight Attendant"));
+            flights.add(flightRepo.save(flight));
+        }
+    }
+
+    private long statements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertMaxStatements(int max, Runnable action) {
+        long count = statements(action);
+        assertTrue(count <= max, "Expected at most " + max + " statements but " + count + " were issued.");
+    }
+
+    @Test
+    void test_retrieveById_loadsRouteAndAirlineInOneStatement() {
+        UUID id = flights.get(0).getId();
+
+        assertMaxStatements(1, () -> {
+            Flight flight = flightService.retrieveById(id);
+            flight.getOrigin().getCode();
+            flight.getDestination().getCode();
+            flight.getAirline().getCode();
+            flight.toString();
+        });
+    }
+
+    @Test
+    void test_retrieveWithSeats_andWithCrew_useOneStatementEach() {
+        UUID id = flights.get(0).getId();
+
+        assertMaxStatements(1, () -> assertEquals(3, flightService.retrieveWithSeats(id).getSeats().size()));
+        assertMaxStatements(1, () -> assertEquals(2, flightService.retrieveWithCrew(id).getCrew().size()));
+    }
+
+    @Test
+    void test_projections_useOneStatementEach() {
+        assertMaxStatements(1, () -> assertEquals(origin.getCode(), flightService.retrieveSummary(flights.get(0).getId()).originCode()));
+        assertMaxStatements(1, () -> assertEquals(FLIGHTS,
+                flightService.departureBoard(origin.getCode(), DEPARTURE, DEPARTURE.plusDays(1)).size()));
+        assertMaxStatements(1, () -> assertEquals(FLIGHTS,
+                flightService.arrivalBoard(destination.getCode(), DEPARTURE, DEPARTURE.plusDays(1)).size()));
+        assertMaxStatements(1, () -> assertEquals(FLIGHTS, flightService.retrieveRoster(airline.getId()).size()));
+    }
+
+    @Test
+    void test_referenceListings_doNotLoadAssociations() {
+        assertMaxStatements(1, () -> airlineService.retrieveAll().forEach(Airline::toString));
+        assertMaxStatements(1, () -> crewService.retrievePage(null, 50).items().forEach(CrewMember::toString));
+    }
+
+    @Test
+    void test_addingFlightToAirportAndAirline_doesNotLoadTheirFlights() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Airport hub = airportRepo.findById(origin.getId()).orElseThrow();
+            Airline carrier = airlineRepo.findById(airline.getId()).orElseThrow();
+            Flight flight = new Flight("CA-NEW", DEPARTURE.plusDays(3), DEPARTURE.plusDays(3).plusHours(2), null, destination, null);
+
+            hub.addDeparture(flight);
+            carrier.addFlight(flight);
+            flightRepo.save(flight);
+
+            assertFalse(Hibernate.isInitialized(hub.getDepartures()));
+            assertFalse(Hibernate.isInitialized(carrier.getFlights()));
+        });
+
+        assertMaxStatements(1, () -> assertEquals(FLIGHTS + 1, flightService.countDepartures(origin.getId())));
+        assertMaxStatements(1, () -> assertEquals(FLIGHTS + 1, flightService.countArrivals(destination.getId())));
+        assertMaxStatements(1, () -> assertEquals(FLIGHTS + 1, flightService.countByAirline(airline.getId())));
+    }
+
+    @Test
+    void test_searchIndexRebuild_loadsScheduleInOneStatement() {
+        assertMaxStatements(1, searchIndex::rebuild);
+    }
+
+    @Test
+    void test_updateFlight_publishesInitializedRoute() {
+        Flight flight = flights.get(0);
+        Flight changed = new Flight("CA-UPDATED", DEPARTURE.plusDays(2), DEPARTURE.plusDays(2).plusHours(2), destination, origin, airline);
+
+        flightService.updateFlight(flight.getId(), changed);
+
+        assertEquals(1, searchIndex.search(destination.getCode(), origin.getCode(), DEPARTURE.plusDays(2).toLocalDate()).size());
+    }
+}
@@ -0,0 +1,152 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.bvcott.airlines.exception.SeatHoldNotFoundException;
+import com.bvcott.airlines.exception.SeatUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SeatHoldServiceTest {
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Mock private SeatInventoryService inventoryService;
+
+    private AtomicLong clock;
+    private HashedTimingWheel wheel;
+    private MeterRegistry meterRegistry;
+    private SeatHoldService holdService;
+    private UUID flightId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        clock = new AtomicLong();
+        // 64 slots of 1s: a 10 minute hold needs several rotations of the wheel.
+        wheel = new HashedTimingWheel(TICK, 64, clock::get);
+        meterRegistry = new SimpleMeterRegistry();
+        holdService = new SeatHoldService(inventoryService, meterRegistry, TTL, wheel);
+        flightId = UUID.randomUUID();
+
+        when(inventoryService.reserve(any(), anyString())).thenReturn(true);
+        when(inventoryService.commit(any(), anyString())).thenReturn(true);
+    }
+
+    private void elapse(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+        wheel.advance();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("seat.holds", "outcome", outcome).count();
+    }
+
+    @Test
+    void test_hold_reservesSeatInInventory() {
+        SeatHold hold = holdService.hold(flightId, "12A");
+
+        verify(inventoryService).reserve(flightId, "12A");
+        assertEquals(flightId, hold.flightId());
+        assertEquals(1, holdService.activeHolds());
+        assertEquals(1, count("created"));
+    }
+
+    @Test
+    void test_hold_throwsSeatUnavailableException_whenSeatTaken() {
+        when(inventoryService.reserve(flightId, "12A")).thenReturn(false);
+
+        assertThrows(SeatUnavailableException.class, () -> holdService.hold(flightId, "12A"));
+        assertEquals(0, holdService.activeHolds());
+    }
+
+    @Test
+    void test_hold_expiresAfterTtl_andReleasesSeat() {
+        holdService.hold(flightId, "12A");
+
+        elapse(TTL.minusSeconds(5));
+        verify(inventoryService, never()).unreserve(flightId, "12A");
+
+        elapse(Duration.ofSeconds(6));
+        verify(inventoryService).unreserve(flightId, "12A");
+        assertEquals(0, holdService.activeHolds());
+        assertEquals(1, count("expired"));
+    }
+
+    @Test
+    void test_confirm_commitsSeat_andCancelsExpiry() {
+        SeatHold hold = holdService.hold(flightId, "12A");
+
+        holdService.confirm(hold.id());
+        elapse(TTL.plusMinutes(1));
+
+        verify(inventoryService).commit(flightId, "12A");
+        verify(inventoryService, never()).unreserve(flightId, "12A");
+        assertEquals(1, count("confirmed"));
+        assertEquals(0, count("expired"));
+    }
+
+    @Test
+    void test_confirm_throwsSeatHoldNotFoundException_afterExpiry() {
+        SeatHold hold = holdService.hold(flightId, "12A");
+        elapse(TTL.plusSeconds(2));
+
+        assertThrows(SeatHoldNotFoundException.class, () -> holdService.confirm(hold.id()));
+        verify(inventoryService, never()).commit(flightId, "12A");
+    }
+
+    @Test
+    void test_confirm_throwsSeatUnavailableException_whenCommitLoses() {
+        SeatHold hold = holdService.hold(flightId, "12A");
+        when(inventoryService.commit(flightId, "12A")).thenReturn(false);
+
+        assertThrows(SeatUnavailableException.class, () -> holdService.confirm(hold.id()));
+    }
+
+    @Test
+    void test_release_unreservesSeat() {
+        SeatHold hold = holdService.hold(flightId, "12A");
+
+        holdService.release(hold.id());
+        elapse(TTL.plusMinutes(1));
+
+        verify(inventoryService).unreserve(flightId, "12A");
+        assertEquals(1, count("released"));
+        assertEquals(0, count("expired"));
+        assertThrows(SeatHoldNotFoundException.class, () -> holdService.release(hold.id()));
+    }
+
+    @Test
+    void test_holds_expireInDeadlineOrder() {
+        for(int i = 0; i < 1_000; i++) {
+            holdService.hold(flightId, "S" + i);
+            elapse(Duration.ofMillis(300));
+        }
+
+        // The holds placed in the first second are now one tick past their TTL.
+        elapse(Duration.ofMinutes(5).plusSeconds(1));
+        assertEquals(4, (int) count("expired"));
+
+        elapse(Duration.ofMinutes(6));
+        assertEquals(1_000, (int) count("expired"));
+        assertEquals(0, holdService.activeHolds());
+        assertEquals(0, wheel.liveTimeouts());
+    }
+}
@@ -0,0 +1,237 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.bvcott.airlines.exception.FlightNotFoundException;
+import com.bvcott.airlines.exception.SeatNotFoundException;
+import com.bvcott.airlines.model.FlightSeatMap;
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.repository.SeatRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SeatInventoryServiceTest {
+    @Mock private SeatRepository seatRepo;
+    @Mock private SeatMapService seatMaps;
+    @InjectMocks private SeatInventoryService inventoryService;
+
+    private UUID flightId;
+    private List<Seat> seats;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        flightId = UUID.randomUUID();
+        seats = new ArrayList<>();
+        for(int row = 1; row <= 30; row++) {
+            for(char letter = 'A'; letter <= 'F'; letter++) {
+                Seat seat = new Seat(row + "" + letter, row <= 5 ? "BUSINESS" : "ECONOMY", null);
+                seat.setId(UUID.randomUUID());
+                seats.add(seat);
+            }
+        }
+
+        when(seatRepo.findByFlightId(flightId)).thenReturn(seats);
+        when(seatRepo.compareAndSetAvailability(any(), anyBoolean(), anyBoolean())).thenReturn(1);
+    }
+
+    @Test
+    void test_seatMapFlight_loadsFromItsRow_andWritesSingleSeats() {
+        UUID seatMapFlightId = UUID.randomUUID();
+        SeatLayout layout = SeatLayout.of(SeatMapTemplate.parse("A320=Business:1-4:ACDF;Economy:5-30:ABCDEF"));
+        FlightSeatMap seatMap = new FlightSeatMap(null, "A320", 172);
+        seatMap.setSold(layout.position("1C").bit(), true);
+        when(seatMaps.find(seatMapFlightId)).thenReturn(Optional.of(seatMap));
+        when(seatMaps.layout("A320")).thenReturn(layout);
+        when(seatMaps.write(eq(seatMapFlightId), anyInt(), anyBoolean())).thenReturn(1);
+
+        assertTrue(inventoryService.usesSeatMap(seatMapFlightId));
+        assertFalse(inventoryService.isAvailable(seatMapFlightId, "1C"));
+        assertEquals(15, inventoryService.availableSeats(seatMapFlightId, "Business"));
+        assertEquals(156, inventoryService.availableSeats(seatMapFlightId, "Economy"));
+
+        assertTrue(inventoryService.claim(seatMapFlightId, "5B"));
+        assertTrue(inventoryService.release(seatMapFlightId, "5B"));
+
+        verify(seatMaps).write(seatMapFlightId, 17, true);
+        verify(seatMaps).write(seatMapFlightId, 17, false);
+        verify(seatRepo, never()).findByFlightId(seatMapFlightId);
+    }
+
+    @Test
+    void test_availableSeats_countsPerSeatClass() {
+        assertEquals(180, inventoryService.availableSeats(flightId));
+        assertEquals(30, inventoryService.availableSeats(flightId, "BUSINESS"));
+        assertEquals(150, inventoryService.availableSeats(flightId, "ECONOMY"));
+    }
+
+    @Test
+    void test_load_marksUnavailableSeatsAsTaken() {
+        seats.get(0).setIsAvailable(false);
+        inventoryService.load(flightId);
+
+        assertFalse(inventoryService.isAvailable(flightId, seats.get(0).getSeatNumber()));
+        assertEquals(29, inventoryService.availableSeats(flightId, "BUSINESS"));
+    }
+
+    @Test
+    void test_reads_onlyLoadSeatsFromRepositoryOnce() {
+        inventoryService.isAvailable(flightId, "1A");
+        inventoryService.availableSeats(flightId, "ECONOMY");
+        inventoryService.availableSeatNumbers(flightId, "BUSINESS");
+
+        verify(seatRepo, times(1)).findByFlightId(flightId);
+    }
+
+    @Test
+    void test_claim_writesThroughAndMarksSeatUnavailable() {
+        Seat seat = seats.get(7);
+
+        assertTrue(inventoryService.claim(flightId, seat.getSeatNumber()));
+        assertFalse(inventoryService.isAvailable(flightId, seat.getSeatNumber()));
+        assertFalse(inventoryService.availableSeatNumbers(flightId, seat.getSeatClass()).contains(seat.getSeatNumber()));
+
+        verify(seatRepo).compareAndSetAvailability(seat.getId(), true, false);
+    }
+
+    @Test
+    void test_claim_returnsFalse_whenSeatAlreadyTaken() {
+        assertTrue(inventoryService.claim(flightId, "12C"));
+        assertFalse(inventoryService.claim(flightId, "12C"));
+
+        verify(seatRepo, times(1)).compareAndSetAvailability(any(), eq(true), eq(false));
+    }
+
+    @Test
+    void test_claim_returnsFalse_whenDatabaseRowAlreadyTaken() {
+        Seat seat = seats.get(3);
+        when(seatRepo.compareAndSetAvailability(seat.getId(), true, false)).thenReturn(0);
+
+        assertFalse(inventoryService.claim(flightId, seat.getSeatNumber()));
+        assertFalse(inventoryService.isAvailable(flightId, seat.getSeatNumber()));
+    }
+
+    @Test
+    void test_claim_revertsBitmap_whenWriteThroughFails() {
+        Seat seat = seats.get(3);
+        when(seatRepo.compareAndSetAvailability(seat.getId(), true, false)).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> inventoryService.claim(flightId, seat.getSeatNumber()));
+        assertTrue(inventoryService.isAvailable(flightId, seat.getSeatNumber()));
+    }
+
+    @Test
+    void test_release_makesSeatAvailableAgain() {
+        inventoryService.claim(flightId, "20F");
+
+        assertTrue(inventoryService.release(flightId, "20F"));
+        assertTrue(inventoryService.isAvailable(flightId, "20F"));
+        assertFalse(inventoryService.release(flightId, "20F"));
+    }
+
+    @Test
+    void test_release_refusesHeldSeat_andExpiredHoldLeavesTheNextBuyerAlone() {
+        Seat seat = seats.stream().filter(s -> s.getSeatNumber().equals("20F")).findFirst().orElseThrow();
+        AtomicLong clock = new AtomicLong();
+        HashedTimingWheel wheel = new HashedTimingWheel(Duration.ofSeconds(1), 64, clock::get);
+        SeatHoldService holdService = new SeatHoldService(inventoryService, new SimpleMeterRegistry(), Duration.ofMinutes(10), wheel);
+
+        holdService.hold(flightId, "20F");
+        assertFalse(inventoryService.release(flightId, "20F"));
+        assertFalse(inventoryService.isAvailable(flightId, "20F"));
+        assertFalse(inventoryService.claim(flightId, "20F"));
+
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+        wheel.advance();
+        assertTrue(inventoryService.isAvailable(flightId, "20F"));
+
+        assertTrue(inventoryService.claim(flightId, "20F"));
+        // A late unreserve from the expired hold must not free the seat just sold.
+        assertFalse(inventoryService.unreserve(flightId, "20F"));
+        assertFalse(inventoryService.commit(flightId, "20F"));
+        assertFalse(inventoryService.isAvailable(flightId, "20F"));
+        verify(seatRepo, never()).compareAndSetAvailability(seat.getId(), false, true);
+        verify(seatRepo, times(1)).compareAndSetAvailability(seat.getId(), true, false);
+    }
+
+    @Test
+    void test_release_restoresSeat_whenRowWasNotSold() {
+        Seat seat = seats.get(9);
+        inventoryService.claim(flightId, seat.getSeatNumber());
+        when(seatRepo.compareAndSetAvailability(seat.getId(), false, true)).thenReturn(0);
+
+        assertFalse(inventoryService.release(flightId, seat.getSeatNumber()));
+        assertFalse(inventoryService.isAvailable(flightId, seat.getSeatNumber()));
+    }
+
+    @Test
+    void test_claim_throwsSeatNotFoundException_forUnknownSeat() {
+        assertThrows(SeatNotFoundException.class, () -> inventoryService.claim(flightId, "99Z"));
+    }
+
+    @Test
+    void test_isAvailable_throwsFlightNotFoundException_forFlightWithoutSeats() {
+        UUID unknownFlight = UUID.randomUUID();
+        when(seatRepo.findByFlightId(unknownFlight)).thenReturn(List.of());
+
+        assertThrows(FlightNotFoundException.class, () -> inventoryService.isAvailable(unknownFlight, "1A"));
+    }
+
+    @Test
+    void test_claim_onlyOneThreadWins_whenRacingForSameSeat() throws Exception {
+        int threads = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for(int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return inventoryService.claim(flightId, "15B");
+            }));
+        }
+        start.countDown();
+
+        int winners = 0;
+        for(Future<Boolean> result : results) {
+            if(result.get()) {
+                winners++;
+            }
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertEquals(1, winners);
+        assertEquals(149, inventoryService.availableSeats(flightId, "ECONOMY"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bvcott.airlines.exception.SeatMapNotFoundException;
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.FlightSeatMap;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.repository.SeatRepository;
+import com.bvcott.airlines.service.SeatMapTemplate.SeatSpec;
+
+@SpringBootTest
+@Transactional
+public class SeatMapServiceTest {
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2030, 5, 4, 7, 0);
+
+    @Autowired private AirlineRepository airlineRepo;
+    @Autowired private AirportRepository airportRepo;
+    @Autowired private SeatRepository seatRepo;
+    @Autowired private FlightService flightService;
+    @Autowired private SeatMapService seatMapService;
+    @Autowired private SeatInventoryService inventoryService;
+
+    @Test
+    void test_template_laysOutConfiguredCabins() {
+        SeatMapTemplate a320 = seatMapService.template("A320");
+        List<SeatSpec> seats = a320.seats();
+
+        assertEquals(4 * 4 + 26 * 6, a320.capacity());
+        assertEquals(a320.capacity(), seats.size());
+        assertEquals(new SeatSpec("1A", "Business"), seats.get(0));
+        assertEquals(new SeatSpec("5A", "Economy"), seats.get(16));
+        assertEquals(new SeatSpec("30F", "Economy"), seats.get(seats.size() - 1));
+    }
+
+    @Test
+    void test_template_throwsSeatMapNotFoundException_forUnknownAircraftType() {
+        assertThrows(SeatMapNotFoundException.class, () -> seatMapService.template("X999"));
+    }
+
+    @Test
+    void test_parse_rejectsOverlappingCabins() {
+        assertThrows(IllegalArgumentException.class, () -> SeatMapTemplate.parse("X999=Business:1-5:AC;Economy:5-20:ABC"));
+        assertThrows(IllegalArgumentException.class, () -> SeatMapTemplate.parse("X999=Economy:1-20"));
+    }
+
+    private Flight scheduled(String aircraftType) {
+        String suffix = UUID.randomUUID().toString().substring(0, 6);
+        Airline airline = airlineRepo.save(new Airline("Seat Map Air " + suffix, "S" + suffix));
+        Airport origin = airportRepo.save(new Airport("O" + suffix, "Origin " + suffix, "Test"));
+        Airport destination = airportRepo.save(new Airport("D" + suffix, "Destination " + suffix, "Test"));
+
+        Flight flight = new Flight("SM1", DEPARTURE, DEPARTURE.plusHours(2), origin, destination, airline);
+        flight.setAircraftType(aircraftType);
+        return flightService.scheduleFlights(List.of(flight)).get(0);
+    }
+
+    @Test
+    void test_scheduleFlights_storesSeatsAsOneSeatMapRow() {
+        Flight flight = scheduled("A320");
+
+        assertEquals(0, seatRepo.countByFlightId(flight.getId()));
+        FlightSeatMap seatMap = seatMapService.find(flight.getId()).orElseThrow();
+        assertEquals("A320", seatMap.getAircraftType());
+        assertTrue(inventoryService.usesSeatMap(flight.getId()));
+        assertEquals(16, inventoryService.availableSeats(flight.getId(), "Business"));
+        assertEquals(156, inventoryService.availableSeats(flight.getId(), "Economy"));
+    }
+
+    @Test
+    void test_claimAndRelease_flipOnlyTheSeatsBit() {
+        Flight flight = scheduled("E175");
+        int bit = seatMapService.layout("E175").position("4D").bit();
+
+        assertTrue(inventoryService.claim(flight.getId(), "4D"));
+        FlightSeatMap seatMap = seatMapService.find(flight.getId()).orElseThrow();
+        assertTrue(seatMap.isSold(bit));
+        assertFalse(seatMap.isSold(bit - 1));
+        assertFalse(seatMap.isSold(bit + 1));
+
+        // A second writer of the same seat finds it already sold in the row.
+        assertEquals(0, seatMapService.write(flight.getId(), bit, true));
+
+        assertTrue(inventoryService.release(flight.getId(), "4D"));
+        assertFalse(seatMapService.find(flight.getId()).orElseThrow().isSold(bit));
+        assertEquals(0, seatMapService.write(flight.getId(), bit, false));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void test_claim_concurrentSeatsOnOneFlight_allReachTheRow() throws Exception {
+        Flight flight = scheduled("E175");
+        List<String> seatNumbers = seatMapService.template("E175").seats().stream().map(SeatSpec::seatNumber).limit(24).toList();
+        ExecutorService buyers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> claims = new ArrayList<>();
+            for(String seatNumber : seatNumbers) {
+                claims.add(buyers.submit(() -> inventoryService.claim(flight.getId(), seatNumber)));
+            }
+            for(Future<Boolean> claim : claims) {
+                assertTrue(claim.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            buyers.shutdownNow();
+        }
+
+        FlightSeatMap seatMap = seatMapService.find(flight.getId()).orElseThrow();
+        SeatLayout layout = seatMapService.layout("E175");
+        seatNumbers.forEach(seatNumber -> assertTrue(seatMap.isSold(layout.position(seatNumber).bit())));
+    }
+
+    @Test
+    void test_load_readsSoldSeatsBackFromTheRow() {
+        Flight flight = scheduled("A320");
+        inventoryService.claim(flight.getId(), "2C");
+        inventoryService.claim(flight.getId(), "30F");
+
+        inventoryService.load(flight.getId());
+
+        assertFalse(inventoryService.isAvailable(flight.getId(), "2C"));
+        assertFalse(inventoryService.isAvailable(flight.getId(), "30F"));
+        assertEquals(15, inventoryService.availableSeats(flight.getId(), "Business"));
+        assertEquals(155, inventoryService.availableSeats(flight.getId(), "Economy"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = { "airlines.ticketing.block-size=100" })
+public class TicketNumberAllocatorTest {
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private TicketNumberAllocator allocator(SimpleMeterRegistry registry) {
+        // A second allocator on the same database stands in for another node or a restart.
+        TicketNumberAllocator allocator = new TicketNumberAllocator(jdbcTemplate, registry, "123", 100);
+        allocator.createSequence();
+        return allocator;
+    }
+
+    @Test
+    void test_format_appendsSerialMod7CheckDigit() {
+        assertEquals("12300000000151", TicketNumberAllocator.format("123", 15));
+        assertTrue(TicketNumberAllocator.isValid("12300000000151"));
+        assertFalse(TicketNumberAllocator.isValid("12300000000154"));
+        assertFalse(TicketNumberAllocator.isValid("1230000000015"));
+        assertFalse(TicketNumberAllocator.isValid("12300000A00151"));
+    }
+
+    @Test
+    void test_allocate_concurrentCallersNeverShareANumber() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TicketNumberAllocator allocator = allocator(registry);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        List<Future<List<String>>> results = new ArrayList<>();
+        for(int thread = 0; thread < 8; thread++) {
+            results.add(pool.submit(() -> {
+                List<String> numbers = new ArrayList<>();
+                for(int i = 0; i < 500; i++) {
+                    numbers.addAll(Arrays.asList(allocator.allocate(1 + i % 4)));
+                }
+                return numbers;
+            }));
+        }
+        Set<String> unique = new HashSet<>();
+        int total = 0;
+        for(Future<List<String>> result : results) {
+            for(String number : result.get()) {
+                total++;
+                unique.add(number);
+                assertTrue(TicketNumberAllocator.isValid(number), number);
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(8 * (125 * (1 + 2 + 3 + 4)), total);
+        assertEquals(total, unique.size());
+        // One round trip per block, not per number.
+        assertTrue(registry.counter("ticket.number.blocks").count() <= total / 100 + 8);
+    }
+
+    @Test
+    void test_allocate_separateAllocatorsGetDisjointBlocks() {
+        TicketNumberAllocator first = allocator(new SimpleMeterRegistry());
+        TicketNumberAllocator second = allocator(new SimpleMeterRegistry());
+
+        Set<String> numbers = new HashSet<>();
+        for(int i = 0; i < 5; i++) {
+            numbers.addAll(Arrays.asList(first.allocate(70)));
+            numbers.addAll(Arrays.asList(second.allocate(70)));
+        }
+
+        assertEquals(700, numbers.size());
+    }
+}
@@ -0,0 +1,116 @@
+package com.bvcott.airlines.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bvcott.airlines.exception.BookingNotFoundException;
+import com.bvcott.airlines.model.Airline;
+import com.bvcott.airlines.model.Airport;
+import com.bvcott.airlines.model.Booking;
+import com.bvcott.airlines.model.Flight;
+import com.bvcott.airlines.model.Passenger;
+import com.bvcott.airlines.model.Seat;
+import com.bvcott.airlines.model.Ticket;
+import com.bvcott.airlines.pricing.Money;
+import com.bvcott.airlines.repository.AirlineRepository;
+import com.bvcott.airlines.repository.AirportRepository;
+import com.bvcott.airlines.repository.BookingRepository;
+import com.bvcott.airlines.repository.FlightRepository;
+import com.bvcott.airlines.repository.PassengerRepository;
+import com.bvcott.airlines.repository.TicketRepository;
+
+@SpringBootTest
+@Transactional
+public class TicketServiceTest {
+    @Autowired private AirlineRepository airlineRepo;
+    @Autowired private AirportRepository airportRepo;
+    @Autowired private FlightRepository flightRepo;
+    @Autowired private BookingRepository bookingRepo;
+    @Autowired private PassengerRepository passengerRepo;
+    @Autowired private TicketRepository ticketRepo;
+    @Autowired private TicketService ticketService;
+
+    private Booking bookingWithPassengers(int count) {
+        String suffix = UUID.randomUUID().toString().substring(0, 6);
+        Airline airline = airlineRepo.save(new Airline("Ticket Air " + suffix, "T" + suffix));
+        Airport origin = airportRepo.save(new Airport("O" + suffix, "Origin " + suffix, "Test"));
+        Airport destination = airportRepo.save(new Airport("D" + suffix, "Destination " + suffix, "Test"));
+        Flight flight = new Flight("TK1", LocalDateTime.of(2030, 7, 1, 9, 0), LocalDateTime.of(2030, 7, 1, 11, 0), origin, destination, airline);
+        for(int i = 1; i <= 10; i++) {
+            flight.getSeats().add(new Seat(i + "A", "Economy", flight));
+        }
+        flight = flightRepo.save(flight);
+
+        Booking booking = new Booking(flight, BookingPipeline.CONFIRMED);
+        for(int i = 0; i < count; i++) {
+            booking.addPassenger(passengerRepo.save(new Passenger("Ticket Passenger " + i, "TP" + suffix + i)));
+        }
+        return bookingRepo.save(booking);
+    }
+
+    @Test
+    void test_issueTickets_numbersEveryPassengerOnTheBooking() {
+        Booking booking = bookingWithPassengers(3);
+
+        List<Ticket> tickets = ticketService.issueTickets(booking.getId(), "Economy");
+
+        assertEquals(3, tickets.size());
+        tickets.forEach(ticket -> assertEquals(Money.of("120.00", Currency.getInstance("EUR")), ticket.getPrice()));
+        assertEquals(3, tickets.stream().map(Ticket::getTicketNumber).distinct().count());
+        assertEquals(3, tickets.stream().map(Ticket::getPassenger).distinct().count());
+        tickets.forEach(ticket -> assertTrue(TicketNumberAllocator.isValid(ticket.getTicketNumber())));
+    }
+
+    @Test
+    void test_issueTickets_secondCall_returnsTheIssuedTickets() {
+        Booking booking = bookingWithPassengers(2);
+
+        List<Ticket> first = ticketService.issueTickets(booking.getId(), "Economy");
+        List<Ticket> second = ticketService.issueTickets(booking.getId(), "Economy");
+
+        assertEquals(first.stream().map(Ticket::getTicketNumber).sorted().toList(),
+                second.stream().map(Ticket::getTicketNumber).sorted().toList());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void test_issueTickets_concurrentCalls_issueOnce() throws Exception {
+        Booking booking = bookingWithPassengers(2);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Ticket>>> calls = new ArrayList<>();
+            for(int i = 0; i < 4; i++) {
+                calls.add(callers.submit(() -> ticketService.issueTickets(booking.getId(), "Economy")));
+            }
+            for(Future<List<Ticket>> call : calls) {
+                assertEquals(2, call.get(10, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(2, ticketRepo.findByBookingId(booking.getId()).size());
+    }
+
+    @Test
+    void test_issueTickets_unknownBooking_throws() {
+        assertThrows(BookingNotFoundException.class, () -> ticketService.issueTickets(UUID.randomUUID(), "Economy"));
+    }
+}